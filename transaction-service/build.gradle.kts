@@ -3,6 +3,7 @@ plugins {
     id("org.springframework.boot") version "3.5.0"
     id("io.spring.dependency-management") version "1.1.6"
     id("org.openapi.generator")
+    id("me.champeau.jmh") version "0.7.2"
     jacoco
 }
 
@@ -91,6 +92,22 @@ tasks.withType<Test> {
     useJUnitPlatform()
 }
 
+// JMH Benchmarks (src/jmh/java), run with ./gradlew :transaction-service:jmh
+jmh {
+    warmupIterations.set(2)
+    iterations.set(5)
+    fork.set(1)
+    zip64.set(true)
+    includes.set(listOfNotNull(project.findProperty("jmhInclude")?.toString()))
+    // e.g. -PjmhProfilers=gc for allocation rate per operation (gc.alloc.rate.norm)
+    profilers.set(listOfNotNull(project.findProperty("jmhProfilers")?.toString()))
+}
+
+dependencies {
+    jmh("org.testcontainers:postgresql:1.20.2")
+    jmh("org.postgresql:postgresql")
+}
+
 // Integration Test Source Set
 val integrationTestSourceSet = sourceSets.create("integrationTest") {
     compileClasspath += sourceSets.main.get().output + configurations.testRuntimeClasspath.get()
@@ -138,6 +155,12 @@ openApiGenerate {
         "additionalModelTypeAnnotations" to "@lombok.Builder @lombok.AllArgsConstructor"
     ))
 
+    // Binary responses (exports) are written straight to the servlet output stream
+    typeMappings.set(mapOf("file" to "StreamingResponseBody"))
+    importMappings.set(mapOf(
+        "StreamingResponseBody" to "org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody"
+    ))
+
     generateApiTests.set(false)
     generateModelTests.set(false)
 }
@@ -126,7 +126,7 @@ public abstract class AbstractShardingIntegrationTest {
                     databaseStrategy:
                       standard:
                         shardingColumn: user_uid
-                        shardingAlgorithmName: user_uid_hash
+                        shardingAlgorithmName: user_uid_bucket
                     keyGenerateStrategy:
                       column: uid
                       keyGeneratorName: uuid
@@ -135,16 +135,63 @@ public abstract class AbstractShardingIntegrationTest {
                     databaseStrategy:
                       standard:
                         shardingColumn: user_uid
-                        shardingAlgorithmName: user_uid_hash
+                        shardingAlgorithmName: user_uid_bucket
                     keyGenerateStrategy:
                       column: uid
                       keyGeneratorName: uuid
+                  wallet_balance_slots:
+                    actualDataNodes: ds_${0..1}.wallet_balance_slots
+                    databaseStrategy:
+                      standard:
+                        shardingColumn: user_uid
+                        shardingAlgorithmName: user_uid_bucket
+                    keyGenerateStrategy:
+                      column: uid
+                      keyGeneratorName: uuid
+                  ledger_entries:
+                    actualDataNodes: ds_${0..1}.ledger_entries
+                    databaseStrategy:
+                      standard:
+                        shardingColumn: user_uid
+                        shardingAlgorithmName: user_uid_bucket
+                    keyGenerateStrategy:
+                      column: uid
+                      keyGeneratorName: uuid
+                  ledger_checkpoints:
+                    actualDataNodes: ds_${0..1}.ledger_checkpoints
+                    databaseStrategy:
+                      standard:
+                        shardingColumn: user_uid
+                        shardingAlgorithmName: user_uid_bucket
+                    keyGenerateStrategy:
+                      column: uid
+                      keyGeneratorName: uuid
+                  wallet_daily_stats:
+                    actualDataNodes: ds_${0..1}.wallet_daily_stats
+                    databaseStrategy:
+                      standard:
+                        shardingColumn: user_uid
+                        shardingAlgorithmName: user_uid_bucket
+                  transaction_outbox:
+                    actualDataNodes: ds_${0..1}.transaction_outbox
+                    databaseStrategy:
+                      standard:
+                        shardingColumn: user_uid
+                        shardingAlgorithmName: user_uid_bucket
+                  processed_events:
+                    actualDataNodes: ds_${0..1}.processed_events
+                    databaseStrategy:
+                      standard:
+                        shardingColumn: user_uid
+                        shardingAlgorithmName: user_uid_bucket
 
                 shardingAlgorithms:
-                  user_uid_hash:
-                    type: INLINE
+                  user_uid_bucket:
+                    type: USER_BUCKET
                     props:
-                      algorithm-expression: "ds_${Math.abs(user_uid.hashCode()) %% 2}"
+                      bucket-count: 1024
+                      data-source-count: 2
+                      data-source-prefix: ds_
 
                 keyGenerators:
                   uuid:
@@ -154,6 +201,11 @@ public abstract class AbstractShardingIntegrationTest {
                 tables:
                   - wallet_types
 
+              - !SINGLE
+                tables:
+                  - ds_0.shard_buckets
+                  - ds_0.scheduler_locks
+
             props:
               sql-show: true
             """).formatted(url0, user0, pass0, url1, user1, pass1);
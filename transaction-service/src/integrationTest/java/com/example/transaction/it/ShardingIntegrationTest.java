@@ -1,29 +1,40 @@
 package com.example.transaction.it;
 
+import com.example.transaction.config.AppProperties;
 import com.example.transaction.dto.CreateWalletRequest;
 import com.example.transaction.dto.TransactionConfirmRequest;
 import com.example.transaction.dto.TransactionConfirmResponse;
 import com.example.transaction.dto.TransactionInitRequest;
 import com.example.transaction.dto.TransactionInitResponse;
 import com.example.transaction.dto.WalletResponse;
-import com.example.transaction.kafka.TransactionEventProducer;
+import com.example.transaction.entity.enums.ShardBucketState;
+import com.example.transaction.kafka.event.DepositCompletedEvent;
 import com.example.transaction.repository.WalletRepository;
+import com.example.transaction.service.JdbcInitRequestStore;
+import com.example.transaction.service.ProcessedEventLedger;
 import com.example.transaction.service.TransactionService;
 import com.example.transaction.service.WalletService;
+import com.example.transaction.sharding.ShardBucketMove;
+import com.example.transaction.sharding.ShardBucketTable;
+import com.example.transaction.sharding.UserBucketRouting;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
 import java.sql.Connection;
 import java.sql.ResultSet;
 import java.sql.Statement;
+import java.util.Map;
 import java.util.UUID;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 @DisplayName("Sharding Integration Tests")
 class ShardingIntegrationTest extends AbstractShardingIntegrationTest {
@@ -37,8 +48,20 @@ class ShardingIntegrationTest extends AbstractShardingIntegrationTest {
     @Autowired
     private WalletRepository walletRepository;
 
-    @MockitoBean
-    private TransactionEventProducer eventProducer;
+    @Autowired
+    private ProcessedEventLedger processedEventLedger;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private AppProperties appProperties;
+
+    @Autowired
+    private ShardBucketTable shardBucketTable;
 
     private static final UUID WALLET_TYPE_UID =
             UUID.fromString("a0eebc99-9c0b-4ef8-bb6d-6bb9bd380a11");
@@ -52,10 +75,17 @@ class ShardingIntegrationTest extends AbstractShardingIntegrationTest {
                  Statement stmt = conn.createStatement()) {
                 stmt.execute("DELETE FROM transactions");
                 stmt.execute("DELETE FROM wallets");
+                stmt.execute("DELETE FROM transaction_outbox");
+                stmt.execute("DELETE FROM processed_events");
             }
         }
     }
 
+    @AfterEach
+    void clearMoves() {
+        shardBucketTable.replace(Map.of());
+    }
+
     // 1. Routing: разные пользователи попадают на разные шарды
 
     @Nested
@@ -177,9 +207,67 @@ class ShardingIntegrationTest extends AbstractShardingIntegrationTest {
             assertThat(countRows(primary, "transactions")).isEqualTo(2);
             assertThat(countRows(other, "transactions")).isEqualTo(0);
         }
+
+        @Test
+        @DisplayName("Событие confirm пишется в transaction_outbox на шард пользователя, вместе с транзакцией")
+        void confirm_outboxRowOnUserShard() throws Exception {
+            UUID userUid = findUserForShard(1);
+            WalletResponse wallet = createWallet(userUid, "OutboxWallet");
+
+            TransactionInitResponse init = transactionService.initDeposit(
+                    TransactionInitRequest.builder()
+                            .walletUid(wallet.getUid())
+                            .amount(new BigDecimal("10.00"))
+                            .build()
+            );
+            transactionService.confirmDeposit(
+                    TransactionConfirmRequest.builder()
+                            .requestUid(init.getRequestUid())
+                            .walletUid(wallet.getUid())
+                            .amount(new BigDecimal("10.00"))
+                            .build()
+            );
+
+            assertThat(countRows(SHARD_1, "transaction_outbox")).isEqualTo(1);
+            assertThat(countRows(SHARD_0, "transaction_outbox")).isEqualTo(0);
+            assertThat(countRows(SHARD_1, "transactions")).isEqualTo(1);
+        }
+
+        @Test
+        @DisplayName("Повторный claim того же eventId отклоняется, метка лежит на шарде пользователя")
+        void claim_processedEventOnUserShard() throws Exception {
+            UUID userUid = findUserForShard(1);
+            DepositCompletedEvent event = DepositCompletedEvent.builder()
+                    .eventId(UUID.randomUUID())
+                    .userUid(userUid)
+                    .build();
+
+            Boolean first = transactionTemplate.execute(status -> processedEventLedger.claim(event, userUid));
+            Boolean second = transactionTemplate.execute(status -> processedEventLedger.claim(event, userUid));
+
+            assertThat(first).isTrue();
+            assertThat(second).isFalse();
+            assertThat(countRows(SHARD_1, "processed_events")).isEqualTo(1);
+            assertThat(countRows(SHARD_0, "processed_events")).isEqualTo(0);
+        }
     }
 
-    // 3. Broadcast-таблица wallet_types
+    // 3. Single-таблицы без user_uid живут только на ds_0
+
+    @Nested
+    @DisplayName("Single-таблицы на ds_0")
+    class SingleTableTests {
+
+        @Test
+        @DisplayName("JDBC-хранилище init-запросов не запускается при шардировании")
+        void initRequests_jdbcStoreRefusedUnderSharding() {
+            assertThatThrownBy(() -> new JdbcInitRequestStore(jdbcTemplate, appProperties))
+                    .isInstanceOf(IllegalStateException.class)
+                    .hasMessageContaining("sharding");
+        }
+    }
+
+    // 4. Broadcast-таблица wallet_types
 
     @Nested
     @DisplayName("Broadcast-таблица wallet_types")
@@ -197,7 +285,7 @@ class ShardingIntegrationTest extends AbstractShardingIntegrationTest {
         }
     }
 
-    // 4. Cross-shard агрегация через ShardingSphere
+    // 5. Cross-shard агрегация через ShardingSphere
 
     @Nested
     @DisplayName("Cross-shard запросы")
@@ -231,6 +319,73 @@ class ShardingIntegrationTest extends AbstractShardingIntegrationTest {
         }
     }
 
+    // 6. Перенос бакета: записи остаются рядом с кошельком, пока пользователь не перенесён
+
+    @Nested
+    @DisplayName("Перенос бакета")
+    class BucketMoveTests {
+
+        @Test
+        @DisplayName("Deposit во время переноса пишется на источник, где ещё лежит кошелёк")
+        void confirmDeposit_duringMove_staysWithWallet() throws Exception {
+            UUID userUid = findUserForShard(0);
+            WalletResponse wallet = createWallet(userUid, "MovingWallet");
+            startMove(userUid, "ds_0", "ds_1");
+
+            TransactionInitResponse init = transactionService.initDeposit(
+                    TransactionInitRequest.builder()
+                            .walletUid(wallet.getUid())
+                            .amount(new BigDecimal("10.00"))
+                            .build()
+            );
+            TransactionConfirmResponse response = transactionService.confirmDeposit(
+                    TransactionConfirmRequest.builder()
+                            .requestUid(init.getRequestUid())
+                            .walletUid(wallet.getUid())
+                            .amount(new BigDecimal("10.00"))
+                            .build()
+            );
+
+            assertThat(response.getStatus()).isEqualTo(TransactionConfirmResponse.StatusEnum.PENDING);
+            assertThat(countRows(SHARD_0, "transactions")).isEqualTo(1);
+            assertThat(countRows(SHARD_0, "transaction_outbox")).isEqualTo(1);
+            assertThat(countRows(SHARD_1, "transactions")).isEqualTo(0);
+            assertThat(countRows(SHARD_1, "transaction_outbox")).isEqualTo(0);
+        }
+
+        @Test
+        @DisplayName("Новый кошелёк во время переноса создаётся на цели, deposit идёт туда же")
+        void confirmDeposit_newWalletDuringMove_goesToTarget() throws Exception {
+            UUID userUid = findUserForShard(0);
+            startMove(userUid, "ds_0", "ds_1");
+            WalletResponse wallet = createWallet(userUid, "NewWallet");
+
+            TransactionInitResponse init = transactionService.initDeposit(
+                    TransactionInitRequest.builder()
+                            .walletUid(wallet.getUid())
+                            .amount(new BigDecimal("10.00"))
+                            .build()
+            );
+            transactionService.confirmDeposit(
+                    TransactionConfirmRequest.builder()
+                            .requestUid(init.getRequestUid())
+                            .walletUid(wallet.getUid())
+                            .amount(new BigDecimal("10.00"))
+                            .build()
+            );
+
+            assertThat(countRows(SHARD_1, "wallets")).isEqualTo(1);
+            assertThat(countRows(SHARD_1, "transactions")).isEqualTo(1);
+            assertThat(countRows(SHARD_0, "transactions")).isEqualTo(0);
+        }
+
+        private void startMove(UUID userUid, String source, String target) {
+            int bucket = UserBucketRouting.bucketOf(userUid, shardBucketTable.bucketCount());
+            shardBucketTable.replace(Map.of(bucket,
+                    new ShardBucketMove(bucket, source, target, ShardBucketState.MOVING)));
+        }
+    }
+
     // ── Helpers ─────────
 
     private WalletResponse createWallet(UUID userUid, String name) {
@@ -24,9 +24,23 @@ CREATE TABLE IF NOT EXISTS wallets (
     status VARCHAR(30) NOT NULL DEFAULT 'ACTIVE',
     balance DECIMAL(19, 4) NOT NULL DEFAULT 0.0,
     archived_at TIMESTAMP,
+    balance_slots INTEGER NOT NULL DEFAULT 0,
     CONSTRAINT chk_wallets_balance_non_negative CHECK (balance >= 0)
     );
 
+CREATE TABLE IF NOT EXISTS wallet_balance_slots (
+    uid UUID PRIMARY KEY DEFAULT uuid_generate_v4(),
+    created_at TIMESTAMP NOT NULL DEFAULT now(),
+    modified_at TIMESTAMP,
+    wallet_uid UUID NOT NULL,
+    user_uid UUID NOT NULL,
+    slot INTEGER NOT NULL,
+    balance DECIMAL(19, 4) NOT NULL DEFAULT 0.0,
+    CONSTRAINT fk_wallet_balance_slots_wallet FOREIGN KEY (wallet_uid) REFERENCES wallets(uid),
+    CONSTRAINT uk_wallet_balance_slots_wallet_slot UNIQUE (wallet_uid, slot),
+    CONSTRAINT chk_wallet_balance_slots_balance_non_negative CHECK (balance >= 0)
+    );
+
 CREATE TABLE IF NOT EXISTS transactions (
     uid UUID PRIMARY KEY DEFAULT uuid_generate_v4(),
     created_at TIMESTAMP NOT NULL DEFAULT now(),
@@ -41,11 +55,78 @@ CREATE TABLE IF NOT EXISTS transactions (
     target_wallet_uid UUID,
     payment_method_id BIGINT,
     failure_reason VARCHAR(256),
+    CONSTRAINT fk_transactions_wallet FOREIGN KEY (wallet_uid) REFERENCES wallets(uid),
     CONSTRAINT chk_transactions_amount_positive CHECK (amount > 0),
     CONSTRAINT chk_transactions_fee_non_negative CHECK (fee >= 0)
     );
 
+CREATE TABLE IF NOT EXISTS ledger_entries (
+    uid UUID PRIMARY KEY DEFAULT uuid_generate_v4(),
+    created_at TIMESTAMP NOT NULL DEFAULT now(),
+    transaction_uid UUID,
+    account VARCHAR(16) NOT NULL,
+    wallet_uid UUID,
+    user_uid UUID NOT NULL,
+    amount DECIMAL(19, 4) NOT NULL,
+    checkpoint_at TIMESTAMP
+    );
+
+CREATE TABLE IF NOT EXISTS ledger_checkpoints (
+    uid UUID PRIMARY KEY DEFAULT uuid_generate_v4(),
+    wallet_uid UUID NOT NULL,
+    user_uid UUID NOT NULL,
+    checkpoint_at TIMESTAMP NOT NULL,
+    balance DECIMAL(19, 4) NOT NULL
+    );
+
+CREATE TABLE IF NOT EXISTS wallet_daily_stats (
+    wallet_uid UUID NOT NULL,
+    stat_date DATE NOT NULL,
+    type VARCHAR(20) NOT NULL,
+    status VARCHAR(32) NOT NULL,
+    slot INTEGER NOT NULL DEFAULT 0,
+    user_uid UUID NOT NULL,
+    tx_count BIGINT NOT NULL,
+    amount_sum DECIMAL(19, 4) NOT NULL,
+    fee_sum DECIMAL(19, 4) NOT NULL,
+    PRIMARY KEY (wallet_uid, stat_date, type, status, slot)
+    );
+
 INSERT INTO wallet_types (uid, name, currency_code, status, user_type, creator) VALUES
      ('a0eebc99-9c0b-4ef8-bb6d-6bb9bd380a11', 'USD Wallet', 'USD', 'ACTIVE', 'INDIVIDUAL', 'system'),
      ('b1ffcd00-ad1c-5f09-cc7e-7cc0ce491b22', 'EUR Wallet', 'EUR', 'ACTIVE', 'INDIVIDUAL', 'system')
-    ON CONFLICT (name) DO NOTHING;
\ No newline at end of file
+    ON CONFLICT (name) DO NOTHING;
+CREATE TABLE IF NOT EXISTS shard_buckets (
+    bucket INTEGER PRIMARY KEY,
+    source_data_source VARCHAR(32) NOT NULL,
+    target_data_source VARCHAR(32) NOT NULL,
+    state VARCHAR(16) NOT NULL,
+    created_at TIMESTAMP NOT NULL DEFAULT now(),
+    moved_at TIMESTAMP
+    );
+
+CREATE TABLE IF NOT EXISTS transaction_outbox (
+    id UUID PRIMARY KEY,
+    user_uid UUID,
+    topic VARCHAR(128) NOT NULL,
+    message_key VARCHAR(64) NOT NULL,
+    event_type VARCHAR(64) NOT NULL,
+    payload TEXT,
+    payload_binary BYTEA,
+    status VARCHAR(16) NOT NULL DEFAULT 'PENDING',
+    attempts INTEGER NOT NULL DEFAULT 0,
+    last_error VARCHAR(512),
+    created_at TIMESTAMP NOT NULL DEFAULT now(),
+    sent_at TIMESTAMP
+    );
+
+CREATE TABLE IF NOT EXISTS processed_events (
+    event_id UUID PRIMARY KEY,
+    user_uid UUID NOT NULL,
+    event_type VARCHAR(64) NOT NULL,
+    processed_at TIMESTAMP NOT NULL DEFAULT now()
+    );
+
+CREATE TABLE IF NOT EXISTS scheduler_locks (
+    name VARCHAR(64) PRIMARY KEY
+    );
@@ -0,0 +1,147 @@
+package com.example.transaction.benchmark;
+
+import com.example.transaction.dto.BatchConfirmResponse;
+import com.example.transaction.dto.CreateWalletRequest;
+import com.example.transaction.dto.TransactionConfirmRequest;
+import com.example.transaction.dto.TransactionInitRequest;
+import com.example.transaction.dto.TransactionInitResponse;
+import com.example.transaction.repository.WalletTypeRepository;
+import com.example.transaction.service.TransactionService;
+import com.example.transaction.service.WalletService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.SpringBootConfiguration;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.autoconfigure.kafka.KafkaAutoConfiguration;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.FilterType;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Deposit confirms per second through the real {@link TransactionService}: one
+ * {@code confirmDeposit} per item (the single confirm endpoint) vs one {@code confirmBatch}
+ * for a payroll-style batch of {@value #ITEMS} items over as many wallets (the batch
+ * endpoint). Both run in a Spring context without web, Kafka listeners or schedulers, on
+ * the production Hibernate settings, so the batch path is measured with JDBC batching
+ * exactly as deployed. Requires Docker.
+ * <p>
+ * {@code ./gradlew :transaction-service:jmh -PjmhInclude=BatchConfirmBenchmark}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class BatchConfirmBenchmark {
+
+    private static final int ITEMS = 500;
+    private static final BigDecimal AMOUNT = new BigDecimal("10.00");
+
+    private PostgreSQLContainer<?> postgres;
+    private ConfigurableApplicationContext context;
+    private TransactionService transactionService;
+    private UUID[] walletUids;
+    private List<TransactionConfirmRequest> pending;
+
+    @Setup(Level.Trial)
+    public void setUpContext() {
+        postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+        postgres.start();
+
+        context = new SpringApplicationBuilder(ServiceLayer.class)
+                .web(WebApplicationType.NONE)
+                .properties(
+                        "spring.datasource.url=" + postgres.getJdbcUrl(),
+                        "spring.datasource.username=" + postgres.getUsername(),
+                        "spring.datasource.password=" + postgres.getPassword(),
+                        "app.outbox.relay-enabled=false",
+                        // The relay is off, so outbox rows pile up; do not turn confirms away
+                        "app.outbox.max-pending=0",
+                        "app.transaction.wallet-cache-broadcast-enabled=false",
+                        "logging.level.com.example.transaction=WARN")
+                .run();
+        transactionService = context.getBean(TransactionService.class);
+
+        UUID walletTypeUid = context.getBean(WalletTypeRepository.class).findAll().get(0).getUid();
+        WalletService walletService = context.getBean(WalletService.class);
+        walletUids = new UUID[ITEMS];
+        for (int i = 0; i < ITEMS; i++) {
+            walletUids[i] = walletService.createWallet(CreateWalletRequest.builder()
+                    .userUid(UUID.randomUUID())
+                    .walletTypeUid(walletTypeUid)
+                    .name("Benchmark")
+                    .build()).getUid();
+        }
+    }
+
+    // An invocation confirms ITEMS requests (tens of milliseconds), so the fixture cost is noise
+    @Setup(Level.Invocation)
+    public void initDeposits() {
+        pending = new ArrayList<>(ITEMS);
+        for (UUID walletUid : walletUids) {
+            TransactionInitResponse init = transactionService.initDeposit(TransactionInitRequest.builder()
+                    .walletUid(walletUid)
+                    .amount(AMOUNT)
+                    .build());
+            pending.add(TransactionConfirmRequest.builder()
+                    .requestUid(init.getRequestUid())
+                    .walletUid(walletUid)
+                    .amount(AMOUNT)
+                    .build());
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ITEMS)
+    public void singleConfirms() {
+        for (TransactionConfirmRequest item : pending) {
+            transactionService.confirmDeposit(item);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ITEMS)
+    public BatchConfirmResponse batchConfirm() {
+        return transactionService.confirmBatch(pending);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        if (context != null) {
+            context.close();
+        }
+        if (postgres != null) {
+            postgres.stop();
+        }
+    }
+
+    /**
+     * Services, repositories and the outbox producer; controllers, security and Kafka
+     * wiring are left out.
+     */
+    @SpringBootConfiguration
+    @EnableAutoConfiguration(exclude = KafkaAutoConfiguration.class)
+    @ComponentScan(basePackages = "com.example.transaction", excludeFilters = @ComponentScan.Filter(
+            type = FilterType.REGEX, pattern = {
+                    "com\\.example\\.transaction\\.controller\\..*",
+                    "com\\.example\\.transaction\\.config\\..*(Security|Kafka|Consumer)Config",
+                    "com\\.example\\.transaction\\.kafka\\.TransactionEventConsumer",
+                    "com\\.example\\.transaction\\.TransactionServiceApplication"}))
+    static class ServiceLayer {
+    }
+}
@@ -0,0 +1,109 @@
+package com.example.transaction.benchmark;
+
+import com.example.transaction.kafka.codec.BinaryEventCodec;
+import com.example.transaction.kafka.event.BaseEvent;
+import com.example.transaction.kafka.event.DepositRequestedEvent;
+import com.example.transaction.kafka.event.WithdrawalFailedEvent;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.kafka.support.serializer.JsonDeserializer;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Encode and decode cost of one event: Spring Kafka's {@code JsonSerializer}/{@code JsonDeserializer}
+ * (the default for every topic) against {@link BinaryEventCodec}. JMH only reports time; the
+ * payload sizes of both formats for these events are asserted in {@code BinaryEventCodecTest}.
+ * <p>
+ * {@code ./gradlew :transaction-service:jmh -PjmhInclude=EventCodecBenchmark}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class EventCodecBenchmark {
+
+    private static final String TOPIC = "benchmark";
+
+    @Param({"DepositRequestedEvent", "WithdrawalFailedEvent"})
+    public String eventType;
+
+    private BaseEvent event;
+    private JsonSerializer<BaseEvent> jsonSerializer;
+    private JsonDeserializer<? extends BaseEvent> jsonDeserializer;
+    private byte[] json;
+    private byte[] binary;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        if ("DepositRequestedEvent".equals(eventType)) {
+            event = DepositRequestedEvent.builder()
+                    .eventId(UUID.randomUUID())
+                    .timestamp(LocalDateTime.now())
+                    .transactionUid(UUID.randomUUID())
+                    .userUid(UUID.randomUUID())
+                    .walletUid(UUID.randomUUID())
+                    .amount(new BigDecimal("1250.0000"))
+                    .fee(new BigDecimal("12.5000"))
+                    .currencyCode("USD")
+                    .paymentMethodId(17L)
+                    .build();
+        } else {
+            event = WithdrawalFailedEvent.builder()
+                    .eventId(UUID.randomUUID())
+                    .timestamp(LocalDateTime.now())
+                    .transactionUid(UUID.randomUUID())
+                    .userUid(UUID.randomUUID())
+                    .walletUid(UUID.randomUUID())
+                    .refundAmount(new BigDecimal("1262.5000"))
+                    .reason("Insufficient funds at provider")
+                    .errorCode("PROVIDER_DECLINED")
+                    .build();
+        }
+
+        // Same settings as the application: no type headers, target type fixed per topic
+        jsonSerializer = new JsonSerializer<BaseEvent>().noTypeInfo();
+        jsonDeserializer = new JsonDeserializer<>(event.getClass());
+        jsonDeserializer.addTrustedPackages("com.example.transaction.kafka.event");
+
+        json = jsonSerializer.serialize(TOPIC, event);
+        binary = BinaryEventCodec.encode(event);
+    }
+
+    @Benchmark
+    public byte[] jsonEncode() {
+        return jsonSerializer.serialize(TOPIC, event);
+    }
+
+    @Benchmark
+    public BaseEvent jsonDecode() {
+        return jsonDeserializer.deserialize(TOPIC, json);
+    }
+
+    @Benchmark
+    public byte[] binaryEncode() {
+        return BinaryEventCodec.encode(event);
+    }
+
+    @Benchmark
+    public BaseEvent binaryDecode() {
+        return BinaryEventCodec.decode(binary);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        jsonSerializer.close();
+        jsonDeserializer.close();
+    }
+}
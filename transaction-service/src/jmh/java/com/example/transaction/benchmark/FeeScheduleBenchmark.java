@@ -0,0 +1,104 @@
+package com.example.transaction.benchmark;
+
+import com.example.transaction.entity.Money;
+import com.example.transaction.entity.enums.PaymentType;
+import com.example.transaction.service.FeeSchedule;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of one fee evaluation at init time: the flat percent {@code FeeCalculator} used before
+ * against a lookup in a compiled {@link FeeSchedule} of {@code rules} rows (currencies x payment
+ * methods x amount tiers, plus wildcard fallbacks). Requests cycle through a pre-generated mix
+ * of currencies, methods and amounts, a quarter of which only match a wildcard rule.
+ * <p>
+ * {@code ./gradlew :transaction-service:jmh -PjmhInclude=FeeScheduleBenchmark}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class FeeScheduleBenchmark {
+
+    private static final String[] CURRENCIES = {"USD", "EUR", "RUB", "GBP", "KZT", "TRY", "AED", "CNY"};
+    private static final int TIERS = 5;
+    private static final int REQUESTS = 1024;
+
+    @Param({"40", "1000", "10000"})
+    public int rules;
+
+    private FeeSchedule schedule;
+    private BigDecimal flatPercent;
+    private String[] currencies;
+    private Long[] methods;
+    private BigDecimal[] amounts;
+    private Money[] moneyAmounts;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        int methodCount = Math.max(1, rules / (CURRENCIES.length * TIERS));
+        List<FeeSchedule.Rule> ruleList = new ArrayList<>();
+        for (String currency : CURRENCIES) {
+            for (long method = 1; method <= methodCount; method++) {
+                for (int tier = 0; tier < TIERS; tier++) {
+                    ruleList.add(new FeeSchedule.Rule(PaymentType.WITHDRAWAL, currency, method,
+                            Money.of(BigDecimal.TEN.pow(tier * 2)), tier(new BigDecimal("0.0" + (TIERS - tier)))));
+                }
+            }
+        }
+        ruleList.add(new FeeSchedule.Rule(PaymentType.WITHDRAWAL, null, null, Money.ZERO,
+                tier(new BigDecimal("0.01"))));
+        schedule = FeeSchedule.compile(ruleList);
+        flatPercent = new BigDecimal("0.01");
+
+        SplittableRandom random = new SplittableRandom(42);
+        currencies = new String[REQUESTS];
+        methods = new Long[REQUESTS];
+        amounts = new BigDecimal[REQUESTS];
+        moneyAmounts = new Money[REQUESTS];
+        for (int i = 0; i < REQUESTS; i++) {
+            boolean wildcardOnly = random.nextInt(4) == 0;
+            currencies[i] = wildcardOnly ? "XXX" : CURRENCIES[random.nextInt(CURRENCIES.length)];
+            methods[i] = (long) random.nextInt(1, methodCount + 1);
+            amounts[i] = BigDecimal.valueOf(random.nextLong(1, 100_000_000_000L), 4);
+            moneyAmounts[i] = Money.of(amounts[i]);
+        }
+    }
+
+    private static FeeSchedule.Tier tier(BigDecimal percent) {
+        return FeeSchedule.Tier.of(percent, new BigDecimal("0.30"), new BigDecimal("0.50"), new BigDecimal("500"));
+    }
+
+    @Benchmark
+    public BigDecimal flatPercent() {
+        int i = next++ & (REQUESTS - 1);
+        return amounts[i].multiply(flatPercent).setScale(4, RoundingMode.HALF_UP);
+    }
+
+    @Benchmark
+    public FeeSchedule.Tier scheduleLookup() {
+        int i = next++ & (REQUESTS - 1);
+        return schedule.find(PaymentType.WITHDRAWAL, currencies[i], methods[i], moneyAmounts[i]);
+    }
+
+    @Benchmark
+    public Money scheduleFee() {
+        int i = next++ & (REQUESTS - 1);
+        return schedule.find(PaymentType.WITHDRAWAL, currencies[i], methods[i], moneyAmounts[i])
+                .feeFor(moneyAmounts[i]);
+    }
+}
@@ -0,0 +1,119 @@
+package com.example.transaction.benchmark;
+
+import com.example.transaction.config.AppProperties;
+import com.example.transaction.entity.Money;
+import com.example.transaction.entity.enums.PaymentType;
+import com.example.transaction.service.InitRequest;
+import com.example.transaction.service.InitRequestCache;
+import com.example.transaction.service.InitRequestStore;
+import com.example.transaction.service.JdbcInitRequestStore;
+import com.zaxxer.hikari.HikariDataSource;
+import org.flywaydb.core.Flyway;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Confirm-path latency of the init request stores: {@code put} at init time followed by the
+ * atomic {@code getAndRemove} at confirm time. The {@code jdbc} variant runs against a
+ * throwaway Postgres container (requires Docker).
+ * <p>
+ * Each iteration claims a batch of {@value #BATCH} requests stored by the iteration setup, so no
+ * per-invocation fixture overhead lands in the sub-microsecond memory case. The score is the
+ * time of one batch; divide by {@value #BATCH} for a single confirm.
+ * <p>
+ * {@code ./gradlew :transaction-service:jmh -PjmhInclude=InitRequestStoreBenchmark}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, batchSize = InitRequestStoreBenchmark.BATCH)
+@Measurement(iterations = 10, batchSize = InitRequestStoreBenchmark.BATCH)
+public class InitRequestStoreBenchmark {
+
+    static final int BATCH = 10_000;
+
+    @Param({"memory", "jdbc"})
+    public String store;
+
+    private PostgreSQLContainer<?> postgres;
+    private HikariDataSource dataSource;
+    private InitRequestStore initRequestStore;
+    private final UUID[] pending = new UUID[BATCH];
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUpStore() {
+        AppProperties appProperties = new AppProperties();
+
+        if ("jdbc".equals(store)) {
+            postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+            postgres.start();
+
+            dataSource = new HikariDataSource();
+            dataSource.setJdbcUrl(postgres.getJdbcUrl());
+            dataSource.setUsername(postgres.getUsername());
+            dataSource.setPassword(postgres.getPassword());
+
+            Flyway.configure()
+                    .dataSource(dataSource)
+                    .locations("classpath:db/migration")
+                    .load()
+                    .migrate();
+
+            initRequestStore = new JdbcInitRequestStore(new JdbcTemplate(dataSource), appProperties);
+        } else {
+            initRequestStore = new InitRequestCache(appProperties);
+        }
+    }
+
+    @Setup(Level.Iteration)
+    public void initRequests() {
+        for (int i = 0; i < BATCH; i++) {
+            InitRequest request = InitRequest.builder()
+                    .requestUid(UUID.randomUUID())
+                    .userUid(UUID.randomUUID())
+                    .walletUid(UUID.randomUUID())
+                    .type(PaymentType.WITHDRAWAL)
+                    .amount(Money.of("100.00"))
+                    .fee(Money.of("1.0000"))
+                    .totalAmount(Money.of("101.0000"))
+                    .createdAt(LocalDateTime.now())
+                    .expiresAt(LocalDateTime.now().plusMinutes(15))
+                    .build();
+            initRequestStore.put(request);
+            pending[i] = request.getRequestUid();
+        }
+        next = 0;
+    }
+
+    @Benchmark
+    public InitRequest confirm() {
+        return initRequestStore.getAndRemove(pending[next++]);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        if (dataSource != null) {
+            dataSource.close();
+        }
+        if (postgres != null) {
+            postgres.stop();
+        }
+    }
+}
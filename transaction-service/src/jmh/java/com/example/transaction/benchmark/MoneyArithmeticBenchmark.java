@@ -0,0 +1,94 @@
+package com.example.transaction.benchmark;
+
+import com.example.transaction.entity.Money;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Balance and fee arithmetic of one withdrawal: init (fee, total, sufficiency check), confirm
+ * (check and debit) and the refund credit of a failed withdrawal, which brings the balance
+ * back so every invocation sees the same state. {@code bigDecimal} is the code
+ * {@code FeeCalculator} and {@code Wallet} ran before {@link Money}; {@code money} is the
+ * current path, including the {@code BigDecimal -> Money} conversion of the request amount.
+ * <p>
+ * Time alone hides most of the difference; run with the GC profiler and compare
+ * {@code gc.alloc.rate.norm} (bytes allocated per operation):
+ * {@code ./gradlew :transaction-service:jmh -PjmhInclude=MoneyArithmeticBenchmark -PjmhProfilers=gc}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class MoneyArithmeticBenchmark {
+
+    private static final int REQUESTS = 1024;
+    private static final BigDecimal FEE_PERCENT = new BigDecimal("0.01");
+    private static final Money.Rate FEE_RATE = Money.Rate.of(FEE_PERCENT);
+
+    // Request amounts as clients send them: two decimals
+    private BigDecimal[] amounts;
+    private BigDecimal decimalBalance;
+    private Money moneyBalance;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        SplittableRandom random = new SplittableRandom(42);
+        amounts = new BigDecimal[REQUESTS];
+        for (int i = 0; i < REQUESTS; i++) {
+            amounts[i] = BigDecimal.valueOf(random.nextLong(1, 10_000_000), 2);
+        }
+        decimalBalance = new BigDecimal("1000000.0000");
+        moneyBalance = Money.of(decimalBalance);
+    }
+
+    @Benchmark
+    public BigDecimal bigDecimal() {
+        BigDecimal amount = amounts[next++ & (REQUESTS - 1)];
+
+        // init
+        BigDecimal fee = amount.multiply(FEE_PERCENT).setScale(4, RoundingMode.HALF_UP);
+        BigDecimal total = amount.add(fee);
+        if (decimalBalance.compareTo(total) < 0) {
+            throw new IllegalStateException("Insufficient balance");
+        }
+        // confirm
+        if (decimalBalance.compareTo(total) < 0) {
+            throw new IllegalStateException("Insufficient balance");
+        }
+        decimalBalance = decimalBalance.subtract(total);
+        // refund
+        decimalBalance = decimalBalance.add(total);
+        return fee;
+    }
+
+    @Benchmark
+    public Money money() {
+        Money amount = Money.of(amounts[next++ & (REQUESTS - 1)]);
+
+        // init
+        Money fee = amount.times(FEE_RATE);
+        Money total = amount.plus(fee);
+        if (moneyBalance.isLessThan(total)) {
+            throw new IllegalStateException("Insufficient balance");
+        }
+        // confirm
+        if (moneyBalance.isLessThan(total)) {
+            throw new IllegalStateException("Insufficient balance");
+        }
+        moneyBalance = moneyBalance.minus(total);
+        // refund
+        moneyBalance = moneyBalance.plus(total);
+        return fee;
+    }
+}
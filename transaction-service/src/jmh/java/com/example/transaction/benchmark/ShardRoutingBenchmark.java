@@ -0,0 +1,99 @@
+package com.example.transaction.benchmark;
+
+import com.example.transaction.entity.enums.ShardBucketState;
+import com.example.transaction.sharding.ShardBucketMove;
+import com.example.transaction.sharding.ShardBucketTable;
+import com.example.transaction.sharding.UserBucketShardingAlgorithm;
+import org.apache.shardingsphere.infra.expr.groovy.GroovyInlineExpressionParser;
+import org.apache.shardingsphere.sharding.api.sharding.standard.PreciseShardingValue;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Database routing cost of one statement filtered by {@code user_uid}: ShardingSphere calls
+ * the sharding algorithm once per statement and sharded table, so this is the per-statement
+ * difference between the old INLINE Groovy expression and {@code USER_BUCKET}, with and
+ * without moved buckets in the table. Parsing and execution are identical for both and left out.
+ * <p>
+ * {@code inlineExpression} repeats what {@code InlineShardingAlgorithm} does per statement
+ * (new Groovy expression parser, evaluate with the column value) minus its SPI lookup: the
+ * JMH fat jar keeps only one {@code META-INF/services} file per SPI, so the algorithm itself
+ * cannot find the Groovy parser there.
+ * <p>
+ * {@code ./gradlew :transaction-service:jmh -PjmhInclude=ShardRoutingBenchmark}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ShardRoutingBenchmark {
+
+    private static final int USERS = 4096;
+    private static final List<String> DATA_SOURCES = List.of("ds_0", "ds_1", "ds_2", "ds_3");
+
+    @Param({"0", "256"})
+    public int movedBuckets;
+
+    private Properties inlineProps;
+    private UserBucketShardingAlgorithm bucket;
+    private PreciseShardingValue<Comparable<?>>[] values;
+    private int next;
+
+    @Setup(Level.Trial)
+    @SuppressWarnings("unchecked")
+    public void setUp() {
+        inlineProps = new Properties();
+        inlineProps.setProperty("inlineExpression", "ds_${Math.abs(user_uid.hashCode()) % 2}");
+
+        Properties bucketProps = new Properties();
+        bucketProps.setProperty("bucket-count", "1024");
+        bucketProps.setProperty("data-source-count", "2");
+        bucket = new UserBucketShardingAlgorithm();
+        bucket.init(bucketProps);
+        ShardBucketTable table = new ShardBucketTable(1024, 2, "ds_");
+        bucket.bind(table);
+
+        // Growing 2 -> 4 databases moves every fourth bucket to each new one
+        Map<Integer, ShardBucketMove> moves = new HashMap<>();
+        for (int i = 0; i < movedBuckets; i++) {
+            int moved = i * 4;
+            moves.put(moved, new ShardBucketMove(moved, table.defaultDataSourceOf(moved),
+                    i % 2 == 0 ? "ds_2" : "ds_3", ShardBucketState.MOVED));
+        }
+        table.replace(moves);
+
+        values = new PreciseShardingValue[USERS];
+        for (int i = 0; i < USERS; i++) {
+            values[i] = new PreciseShardingValue<>("transactions", "user_uid", null, UUID.randomUUID());
+        }
+    }
+
+    @Benchmark
+    public String inlineExpression() {
+        GroovyInlineExpressionParser parser = new GroovyInlineExpressionParser();
+        parser.init(inlineProps);
+        return parser.evaluateWithArgs(Map.of("user_uid", nextValue().getValue()));
+    }
+
+    @Benchmark
+    public String userBucket() {
+        return bucket.doSharding(DATA_SOURCES, nextValue());
+    }
+
+    private PreciseShardingValue<Comparable<?>> nextValue() {
+        return values[next++ & (USERS - 1)];
+    }
+}
@@ -0,0 +1,132 @@
+package com.example.transaction.benchmark;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.flywaydb.core.Flyway;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ResultSetExtractor;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+import java.sql.Timestamp;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Offset vs keyset paging of one user's history in a 3M-row {@code transactions} table
+ * (200k rows belong to the benchmarked user). The offset variant also runs the COUNT that
+ * {@code Page.getTotalElements()} triggers; the keyset variant fetches {@code size + 1} rows.
+ * Queries mirror the SQL Hibernate generates for both search endpoints. Requires Docker.
+ * <p>
+ * {@code ./gradlew :transaction-service:jmh -PjmhInclude=TransactionSearchBenchmark}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class TransactionSearchBenchmark {
+
+    private static final int ROWS = 3_000_000;
+    private static final int HOT_USER_EVERY = 15;
+    private static final int PAGE_SIZE = 20;
+
+    private static final String OFFSET_QUERY = "SELECT * FROM transactions WHERE user_uid = ? " +
+            "ORDER BY created_at DESC OFFSET ? ROWS FETCH FIRST ? ROWS ONLY";
+    private static final String COUNT_QUERY = "SELECT count(*) FROM transactions WHERE user_uid = ?";
+    private static final String FIRST_PAGE_QUERY = "SELECT * FROM transactions WHERE user_uid = ? " +
+            "ORDER BY created_at DESC, uid FETCH FIRST ? ROWS ONLY";
+    private static final String SEEK_QUERY = "SELECT * FROM transactions WHERE user_uid = ? " +
+            "AND (created_at < ? OR (created_at = ? AND uid > ?)) " +
+            "ORDER BY created_at DESC, uid FETCH FIRST ? ROWS ONLY";
+
+    private static final ResultSetExtractor<Integer> ROW_COUNTER = rs -> {
+        int rows = 0;
+        while (rs.next()) {
+            rows++;
+        }
+        return rows;
+    };
+
+    @Param({"1", "5000"})
+    public int page;
+
+    private PostgreSQLContainer<?> postgres;
+    private HikariDataSource dataSource;
+    private JdbcTemplate jdbcTemplate;
+    private UUID userUid;
+    private Timestamp cursorCreatedAt;
+    private UUID cursorUid;
+
+    @Setup(Level.Trial)
+    public void setUpTable() {
+        postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+        postgres.start();
+
+        dataSource = new HikariDataSource();
+        dataSource.setJdbcUrl(postgres.getJdbcUrl());
+        dataSource.setUsername(postgres.getUsername());
+        dataSource.setPassword(postgres.getPassword());
+
+        Flyway.configure()
+                .dataSource(dataSource)
+                .locations("classpath:db/migration")
+                .load()
+                .migrate();
+
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        userUid = UUID.randomUUID();
+        UUID walletUid = UUID.randomUUID();
+
+        jdbcTemplate.update("INSERT INTO wallets (uid, name, wallet_type_uid, user_uid) " +
+                "VALUES (?, 'Benchmark', (SELECT uid FROM wallet_types LIMIT 1), ?)", walletUid, userUid);
+        jdbcTemplate.update("INSERT INTO transactions (user_uid, wallet_uid, amount, type, status, created_at) " +
+                "SELECT CASE WHEN g % " + HOT_USER_EVERY + " = 0 THEN ? ELSE md5((g % 10000)::text)::uuid END, " +
+                "?, 10, 'DEPOSIT', 'COMPLETED', now() - g * interval '1 second' " +
+                "FROM generate_series(1, " + ROWS + ") g", userUid, walletUid);
+        jdbcTemplate.execute("ANALYZE transactions");
+
+        if (page > 1) {
+            // Last row of the previous page, as the client would get it in nextCursor
+            Map<String, Object> last = jdbcTemplate.queryForMap(
+                    "SELECT created_at, uid FROM transactions WHERE user_uid = ? " +
+                            "ORDER BY created_at DESC, uid OFFSET ? ROWS FETCH FIRST 1 ROWS ONLY",
+                    userUid, (page - 1) * PAGE_SIZE - 1);
+            cursorCreatedAt = (Timestamp) last.get("created_at");
+            cursorUid = (UUID) last.get("uid");
+        }
+    }
+
+    @Benchmark
+    public long offsetPage() {
+        Integer rows = jdbcTemplate.query(OFFSET_QUERY, ROW_COUNTER, userUid, (page - 1) * PAGE_SIZE, PAGE_SIZE);
+        Long total = jdbcTemplate.queryForObject(COUNT_QUERY, Long.class, userUid);
+        return rows + total;
+    }
+
+    @Benchmark
+    public int keysetPage() {
+        if (cursorCreatedAt == null) {
+            return jdbcTemplate.query(FIRST_PAGE_QUERY, ROW_COUNTER, userUid, PAGE_SIZE + 1);
+        }
+        return jdbcTemplate.query(SEEK_QUERY, ROW_COUNTER,
+                userUid, cursorCreatedAt, cursorCreatedAt, cursorUid, PAGE_SIZE + 1);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        if (dataSource != null) {
+            dataSource.close();
+        }
+        if (postgres != null) {
+            postgres.stop();
+        }
+    }
+}
@@ -29,4 +29,56 @@ public class AppProperties {
      // Init request TTL in minutes
 
     private int initRequestTtlMinutes = 15;
-}
\ No newline at end of file
+
+    // Hard cap on pending (initialized but not yet confirmed) requests
+
+    private int initRequestMaxSize = 100_000;
+
+    // Number of in-process wallet lock stripes (rounded up to a power of two)
+
+    private int walletLockStripes = 256;
+
+    // Max time a request waits for an in-process wallet lock before giving up
+
+    private long walletLockTimeoutMs = 5000;
+
+    // Recently processed event ids kept in memory to drop redeliveries without a DB round trip
+
+    private int processedEventCacheSize = 100_000;
+
+    // How long processed event ids are kept in the processed_events table
+
+    private int processedEventRetentionDays = 7;
+
+    // Ledger checkpoints trail the clock by this much so in-flight transactions have committed
+
+    private long ledgerCheckpointLagMs = 60_000;
+
+    // Wallet read cache: entries served without a DB round trip for at most this long
+
+    private long walletCacheTtlMs = 2000;
+
+    // Max wallets (and, separately, per-user wallet lists) held in the read cache
+
+    private int walletCacheSize = 10_000;
+
+    // Monthly transactions partitions created ahead of the current month
+
+    private int partitionMonthsAhead = 3;
+
+    // Months of transactions kept attached; older partitions are detached (0 = keep all)
+
+    private int partitionRetentionMonths = 0;
+
+    // Drop partitions right after detaching them instead of leaving them for archival
+
+    private boolean partitionDropDetached = false;
+
+    // Statement exports running at once for one user; more are rejected with 429
+
+    private int exportMaxConcurrentPerUser = 2;
+
+    // Statement exports running at once across all users (each holds a DB connection)
+
+    private int exportMaxConcurrent = 8;
+}
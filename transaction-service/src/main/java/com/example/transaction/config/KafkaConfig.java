@@ -1,10 +1,23 @@
 package com.example.transaction.config;
 
 import org.apache.kafka.clients.admin.NewTopic;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
+import org.apache.kafka.common.serialization.Serializer;
+import org.apache.kafka.common.serialization.StringSerializer;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.kafka.KafkaProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.kafka.config.TopicBuilder;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.core.ProducerFactory;
+import org.springframework.kafka.support.serializer.DelegatingByTypeSerializer;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
 
 @Configuration
 public class KafkaConfig {
@@ -24,6 +37,76 @@ public class KafkaConfig {
     @Value("${app.kafka.topics.withdrawal-failed}")
     private String withdrawalFailedTopic;
 
+    @Value("${app.kafka.topics.deposit-completed-dlt}")
+    private String depositCompletedDltTopic;
+
+    @Value("${app.kafka.topics.wallet-cache-invalidation}")
+    private String walletCacheInvalidationTopic;
+
+    @Value("${app.outbox.producer.linger-ms:20}")
+    private int outboxLingerMs;
+
+    @Value("${app.outbox.producer.batch-size:65536}")
+    private int outboxBatchSize;
+
+    @Value("${app.outbox.producer.compression-type:lz4}")
+    private String outboxCompressionType;
+
+    @Value("${app.outbox.producer.max-block-ms:5000}")
+    private long outboxMaxBlockMs;
+
+    /**
+     * Producer for the outbox relay. Payloads are already encoded in the outbox table (JSON
+     * or binary, per {@code app.kafka.formats}), so values are sent as raw bytes; batching and compression are tuned for
+     * the relay's bulk sends, idempotence keeps retries from duplicating records.
+     * A short max.block.ms bounds how long stale metadata or a full buffer can hold the
+     * relay in {@code send} (default 60 s); such records are retried on the next round.
+     */
+    @Bean
+    public ProducerFactory<String, byte[]> outboxProducerFactory(KafkaProperties kafkaProperties) {
+        Map<String, Object> props = kafkaProperties.buildProducerProperties(null);
+        props.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
+        props.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, ByteArraySerializer.class);
+        props.put(ProducerConfig.LINGER_MS_CONFIG, outboxLingerMs);
+        props.put(ProducerConfig.BATCH_SIZE_CONFIG, outboxBatchSize);
+        props.put(ProducerConfig.COMPRESSION_TYPE_CONFIG, outboxCompressionType);
+        props.put(ProducerConfig.MAX_BLOCK_MS_CONFIG, outboxMaxBlockMs);
+        props.put(ProducerConfig.ACKS_CONFIG, "all");
+        props.put(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, true);
+        return new DefaultKafkaProducerFactory<>(props);
+    }
+
+    @Bean
+    public KafkaTemplate<String, byte[]> outboxKafkaTemplate(ProducerFactory<String, byte[]> outboxProducerFactory) {
+        return new KafkaTemplate<>(outboxProducerFactory);
+    }
+
+    /**
+     * Producer for wallet cache evictions: tiny best-effort messages, sent without batching
+     * delay and with leader-only acks; a short max.block.ms keeps a Kafka outage from
+     * stalling the request thread that committed the change.
+     */
+    @Bean
+    public KafkaTemplate<String, String> walletCacheKafkaTemplate(KafkaProperties kafkaProperties) {
+        Map<String, Object> props = kafkaProperties.buildProducerProperties(null);
+        props.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
+        props.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
+        props.put(ProducerConfig.LINGER_MS_CONFIG, 0);
+        props.put(ProducerConfig.ACKS_CONFIG, "1");
+        props.put(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, false);
+        props.put(ProducerConfig.MAX_BLOCK_MS_CONFIG, 1000);
+        return new KafkaTemplate<>(new DefaultKafkaProducerFactory<>(props));
+    }
+
+    // One partition is plenty for evictions and keeps them in commit order
+    @Bean
+    public NewTopic walletCacheInvalidationTopic() {
+        return TopicBuilder.name(walletCacheInvalidationTopic)
+                .partitions(1)
+                .replicas(1)
+                .build();
+    }
+
     @Bean
     public NewTopic depositRequestedTopic() {
         return TopicBuilder.name(depositRequestedTopic)
@@ -40,6 +123,15 @@ public class KafkaConfig {
                 .build();
     }
 
+    // Same partition count as deposit-completed: dead letters keep their source partition
+    @Bean
+    public NewTopic depositCompletedDltTopic() {
+        return TopicBuilder.name(depositCompletedDltTopic)
+                .partitions(3)
+                .replicas(1)
+                .build();
+    }
+
     @Bean
     public NewTopic withdrawalRequestedTopic() {
         return TopicBuilder.name(withdrawalRequestedTopic)
@@ -63,4 +155,20 @@ public class KafkaConfig {
                 .replicas(1)
                 .build();
     }
-}
\ No newline at end of file
+
+    /**
+     * Producer for dead-letter records: consumed events are re-serialized as JSON,
+     * records that failed deserialization are forwarded as their original bytes.
+     */
+    @Bean
+    public KafkaTemplate<String, Object> deadLetterKafkaTemplate(KafkaProperties kafkaProperties) {
+        Map<Class<?>, Serializer<?>> valueSerializers = new LinkedHashMap<>();
+        valueSerializers.put(byte[].class, new ByteArraySerializer());
+        valueSerializers.put(Object.class, new JsonSerializer<>().noTypeInfo());
+
+        Map<String, Object> props = kafkaProperties.buildProducerProperties(null);
+        props.put(ProducerConfig.ACKS_CONFIG, "all");
+        return new KafkaTemplate<>(new DefaultKafkaProducerFactory<>(props,
+                new StringSerializer(), new DelegatingByTypeSerializer(valueSerializers, true)));
+    }
+}
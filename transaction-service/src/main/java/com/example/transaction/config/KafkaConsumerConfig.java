@@ -1,9 +1,15 @@
 package com.example.transaction.config;
 
+import com.example.transaction.kafka.codec.BinaryEventCodec;
+import com.example.transaction.kafka.codec.EventDeserializer;
+import com.example.transaction.kafka.codec.EventFormat;
+import com.example.transaction.kafka.event.BaseEvent;
 import com.example.transaction.kafka.event.DepositCompletedEvent;
 import com.example.transaction.kafka.event.WithdrawalCompletedEvent;
 import com.example.transaction.kafka.event.WithdrawalFailedEvent;
 import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.serialization.Deserializer;
 import org.apache.kafka.common.serialization.StringDeserializer;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
@@ -11,7 +17,13 @@ import org.springframework.context.annotation.Configuration;
 import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
 import org.springframework.kafka.core.ConsumerFactory;
 import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.listener.ContainerProperties;
+import org.springframework.kafka.listener.DeadLetterPublishingRecoverer;
+import org.springframework.kafka.listener.DefaultErrorHandler;
+import org.springframework.kafka.support.serializer.ErrorHandlingDeserializer;
 import org.springframework.kafka.support.serializer.JsonDeserializer;
+import org.springframework.util.backoff.FixedBackOff;
 
 import java.util.HashMap;
 import java.util.Map;
@@ -25,6 +37,36 @@ public class KafkaConsumerConfig {
     @Value("${spring.kafka.consumer.group-id}")
     private String groupId;
 
+    @Value("${app.kafka.topics.deposit-completed}")
+    private String depositCompletedTopic;
+
+    @Value("${app.kafka.topics.withdrawal-completed}")
+    private String withdrawalCompletedTopic;
+
+    @Value("${app.kafka.topics.withdrawal-failed}")
+    private String withdrawalFailedTopic;
+
+    @Value("${app.kafka.topics.deposit-completed-dlt}")
+    private String depositCompletedDltTopic;
+
+    @Value("${app.kafka.consumer.deposit-completed-max-poll-records:500}")
+    private int depositCompletedMaxPollRecords;
+
+    @Value("${app.kafka.consumer.concurrency:3}")
+    private int concurrency;
+
+    @Value("${app.kafka.consumer.retry-interval-ms:1000}")
+    private long retryIntervalMs;
+
+    @Value("${app.kafka.consumer.max-retries:2}")
+    private long maxRetries;
+
+    private final KafkaFormatProperties kafkaFormats;
+
+    public KafkaConsumerConfig(KafkaFormatProperties kafkaFormats) {
+        this.kafkaFormats = kafkaFormats;
+    }
+
     private Map<String, Object> baseConsumerConfigs() {
         Map<String, Object> props = new HashMap<>();
         props.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
@@ -34,20 +76,51 @@ public class KafkaConsumerConfig {
         return props;
     }
 
-    private <T> ConsumerFactory<String, T> createConsumerFactory(Class<T> targetType) {
-        Map<String, Object> props = baseConsumerConfigs();
+    /**
+     * JSON deserializer for the topic, wrapped in one that also reads {@link BinaryEventCodec}
+     * payloads when the topic is configured as binary.
+     */
+    private <T extends BaseEvent> Deserializer<T> valueDeserializer(String topic, Class<T> targetType) {
         JsonDeserializer<T> deserializer = new JsonDeserializer<>(targetType);
         deserializer.setRemoveTypeHeaders(false);
         deserializer.addTrustedPackages("com.example.transaction.kafka.event");
         deserializer.setUseTypeMapperForKey(false);
-        return new DefaultKafkaConsumerFactory<>(props, new StringDeserializer(), deserializer);
+        return kafkaFormats.formatOf(topic) == EventFormat.BINARY
+                ? new EventDeserializer<>(targetType, deserializer)
+                : deserializer;
+    }
+
+    private <T extends BaseEvent> ConsumerFactory<String, T> createConsumerFactory(String topic, Class<T> targetType) {
+        Map<String, Object> props = baseConsumerConfigs();
+        return new DefaultKafkaConsumerFactory<>(props, new StringDeserializer(), valueDeserializer(topic, targetType));
+    }
+
+    /**
+     * Batch consumer factory: bad payloads surface as null values instead of failing the poll,
+     * so the listener can point the error handler at the exact poisoned record.
+     */
+    private <T extends BaseEvent> ConsumerFactory<String, T> createBatchConsumerFactory(
+            String topic, Class<T> targetType, int maxPollRecords) {
+        Map<String, Object> props = baseConsumerConfigs();
+        props.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, maxPollRecords);
+        return new DefaultKafkaConsumerFactory<>(props, new StringDeserializer(),
+                new ErrorHandlingDeserializer<>(valueDeserializer(topic, targetType)));
     }
 
     @Bean
-    public ConcurrentKafkaListenerContainerFactory<String, DepositCompletedEvent> depositCompletedListenerFactory() {
+    public ConcurrentKafkaListenerContainerFactory<String, DepositCompletedEvent> depositCompletedListenerFactory(
+            KafkaTemplate<String, Object> deadLetterKafkaTemplate) {
         ConcurrentKafkaListenerContainerFactory<String, DepositCompletedEvent> factory =
                 new ConcurrentKafkaListenerContainerFactory<>();
-        factory.setConsumerFactory(createConsumerFactory(DepositCompletedEvent.class));
+        factory.setConsumerFactory(createBatchConsumerFactory(
+                depositCompletedTopic, DepositCompletedEvent.class, depositCompletedMaxPollRecords));
+        factory.setBatchListener(true);
+        factory.setConcurrency(concurrency);
+
+        // Records before the failed index are committed, the failed one is retried and then dead-lettered
+        DeadLetterPublishingRecoverer recoverer = new DeadLetterPublishingRecoverer(deadLetterKafkaTemplate,
+                (record, ex) -> new TopicPartition(depositCompletedDltTopic, record.partition()));
+        factory.setCommonErrorHandler(new DefaultErrorHandler(recoverer, new FixedBackOff(retryIntervalMs, maxRetries)));
         return factory;
     }
 
@@ -55,7 +128,8 @@ public class KafkaConsumerConfig {
     public ConcurrentKafkaListenerContainerFactory<String, WithdrawalCompletedEvent> withdrawalCompletedListenerFactory() {
         ConcurrentKafkaListenerContainerFactory<String, WithdrawalCompletedEvent> factory =
                 new ConcurrentKafkaListenerContainerFactory<>();
-        factory.setConsumerFactory(createConsumerFactory(WithdrawalCompletedEvent.class));
+        factory.setConsumerFactory(createConsumerFactory(withdrawalCompletedTopic, WithdrawalCompletedEvent.class));
+        factory.setConcurrency(concurrency);
         return factory;
     }
 
@@ -63,7 +137,30 @@ public class KafkaConsumerConfig {
     public ConcurrentKafkaListenerContainerFactory<String, WithdrawalFailedEvent> withdrawalFailedListenerFactory() {
         ConcurrentKafkaListenerContainerFactory<String, WithdrawalFailedEvent> factory =
                 new ConcurrentKafkaListenerContainerFactory<>();
-        factory.setConsumerFactory(createConsumerFactory(WithdrawalFailedEvent.class));
+        factory.setConsumerFactory(createConsumerFactory(withdrawalFailedTopic, WithdrawalFailedEvent.class));
+        factory.setConcurrency(concurrency);
+        return factory;
+    }
+
+    /**
+     * Wallet cache evictions must reach every node, so each node reads the topic on its own:
+     * the listener assigns the partition itself and the consumer has no group, so nodes
+     * leave no consumer groups behind. Offsets are never committed; every assignment starts
+     * from the latest offset, the cache is empty at startup anyway.
+     */
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, String> walletCacheInvalidationListenerFactory() {
+        Map<String, Object> props = baseConsumerConfigs();
+        props.remove(ConsumerConfig.GROUP_ID_CONFIG);
+        props.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false);
+        props.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "latest");
+
+        ConcurrentKafkaListenerContainerFactory<String, String> factory =
+                new ConcurrentKafkaListenerContainerFactory<>();
+        factory.setConsumerFactory(new DefaultKafkaConsumerFactory<>(props,
+                new StringDeserializer(), new StringDeserializer()));
+        // Nothing to commit to without a group; the listener never acknowledges
+        factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.MANUAL);
         return factory;
     }
 }
@@ -0,0 +1,25 @@
+package com.example.transaction.config;
+
+import com.example.transaction.kafka.codec.EventFormat;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.HashMap;
+import java.util.Map;
+
+@Getter
+@Setter
+@Configuration
+@ConfigurationProperties(prefix = "app.kafka")
+public class KafkaFormatProperties {
+
+    // Value format per topic name; topics not listed are JSON
+
+    private Map<String, EventFormat> formats = new HashMap<>();
+
+    public EventFormat formatOf(String topic) {
+        return formats.getOrDefault(topic, EventFormat.JSON);
+    }
+}
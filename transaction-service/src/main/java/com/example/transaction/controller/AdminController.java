@@ -0,0 +1,91 @@
+package com.example.transaction.controller;
+
+import com.example.transaction.api.AdminApi;
+import com.example.transaction.dto.BalanceSlotsRequest;
+import com.example.transaction.dto.ShardBucketMoveRequest;
+import com.example.transaction.dto.ShardBucketResponse;
+import com.example.transaction.dto.TransactionCursorPageResponse;
+import com.example.transaction.dto.WalletResponse;
+import com.example.transaction.entity.ShardBucket;
+import com.example.transaction.exception.ShardBucketMoveException;
+import com.example.transaction.service.TransactionService;
+import com.example.transaction.service.WalletLockManager;
+import com.example.transaction.service.WalletService;
+import com.example.transaction.sharding.ShardBucketRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.UUID;
+
+@Slf4j
+@RestController
+@RequestMapping("/api/v1")
+@RequiredArgsConstructor
+public class AdminController implements AdminApi {
+
+    private final TransactionService transactionService;
+    private final WalletService walletService;
+    private final WalletLockManager walletLockManager;
+    // Only present in the sharding profile
+    private final ObjectProvider<ShardBucketRegistry> shardBucketRegistry;
+
+    @Override
+    public ResponseEntity<TransactionCursorPageResponse> adminSearchTransactions(
+            UUID walletUid,
+            String type,
+            String status,
+            OffsetDateTime dateFrom,
+            OffsetDateTime dateTo,
+            String cursor,
+            Integer size) {
+
+        log.info("GET /admin/transactions - walletUid: {}, type: {}, status: {}, dateFrom: {}, dateTo: {}",
+                walletUid, type, status, dateFrom, dateTo);
+
+        LocalDateTime localDateFrom = dateFrom != null ? dateFrom.toLocalDateTime() : null;
+        LocalDateTime localDateTo = dateTo != null ? dateTo.toLocalDateTime() : null;
+
+        TransactionCursorPageResponse response = transactionService.searchAllTransactionsByCursor(
+                walletUid, type, status, localDateFrom, localDateTo, cursor, size);
+
+        return ResponseEntity.ok(response);
+    }
+
+    @Override
+    public ResponseEntity<WalletResponse> configureBalanceSlots(UUID walletUid, BalanceSlotsRequest request) {
+        log.info("PUT /admin/wallets/{}/balance-slots - slots: {}", walletUid, request.getSlots());
+
+        // Under the wallet lock, so no debit on this instance races the slot sweep
+        WalletResponse response = walletLockManager.executeWithLock(walletUid,
+                () -> walletService.configureBalanceSlots(walletUid, request.getSlots()));
+
+        return ResponseEntity.ok(response);
+    }
+
+    @Override
+    public ResponseEntity<ShardBucketResponse> startShardBucketMove(Integer bucket, ShardBucketMoveRequest request) {
+        log.info("POST /admin/shard-buckets/{}/move - targetDataSource: {}", bucket, request.getTargetDataSource());
+
+        ShardBucketRegistry registry = shardBucketRegistry.getIfAvailable();
+        if (registry == null) {
+            throw new ShardBucketMoveException("Sharding is not enabled");
+        }
+        ShardBucket move = registry.startMove(bucket, request.getTargetDataSource());
+
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(ShardBucketResponse.builder()
+                .bucket(move.getBucket())
+                .sourceDataSource(move.getSourceDataSource())
+                .targetDataSource(move.getTargetDataSource())
+                .state(ShardBucketResponse.StateEnum.fromValue(move.getState().name()))
+                .createdAt(move.getCreatedAt().atOffset(ZoneOffset.UTC))
+                .build());
+    }
+}
@@ -1,20 +1,28 @@
 package com.example.transaction.controller;
 
 import com.example.transaction.api.TransactionsApi;
+import com.example.transaction.dto.BatchConfirmRequest;
+import com.example.transaction.dto.BatchConfirmResponse;
 import com.example.transaction.dto.TransactionConfirmRequest;
 import com.example.transaction.dto.TransactionConfirmResponse;
+import com.example.transaction.dto.TransactionCursorPageResponse;
 import com.example.transaction.dto.TransactionInitRequest;
 import com.example.transaction.dto.TransactionInitResponse;
 import com.example.transaction.dto.TransactionPageResponse;
 import com.example.transaction.dto.TransactionStatusResponse;
 import com.example.transaction.exception.InvalidTransactionException;
+import com.example.transaction.service.TransactionExportService;
 import com.example.transaction.service.TransactionService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.time.LocalDateTime;
 import java.time.OffsetDateTime;
@@ -27,7 +35,11 @@ import java.util.UUID;
 @RequiredArgsConstructor
 public class TransactionController implements TransactionsApi {
 
+    private static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+    private static final MediaType CSV = MediaType.parseMediaType("text/csv");
+
     private final TransactionService transactionService;
+    private final TransactionExportService transactionExportService;
 
     @Override
     public ResponseEntity<TransactionInitResponse> initTransaction(
@@ -64,6 +76,15 @@ public class TransactionController implements TransactionsApi {
         return ResponseEntity.status(HttpStatus.CREATED).body(response);
     }
 
+    @Override
+    public ResponseEntity<BatchConfirmResponse> confirmTransactionsBatch(BatchConfirmRequest batchConfirmRequest) {
+        log.info("POST /transactions/confirm/batch - items: {}", batchConfirmRequest.getItems().size());
+
+        BatchConfirmResponse response = transactionService.confirmBatch(batchConfirmRequest.getItems());
+
+        return ResponseEntity.ok(response);
+    }
+
     @Override
     public ResponseEntity<TransactionStatusResponse> getTransactionStatus(UUID transactionUid) {
         log.info("GET /transactions/{}/status", transactionUid);
@@ -122,4 +143,64 @@ public class TransactionController implements TransactionsApi {
 
         return ResponseEntity.ok(response);
     }
-}
\ No newline at end of file
+
+    @Override
+    public ResponseEntity<TransactionCursorPageResponse> searchTransactionsByCursor(
+            UUID userUid,
+            UUID walletUid,
+            String type,
+            String status,
+            OffsetDateTime dateFrom,
+            OffsetDateTime dateTo,
+            String cursor,
+            Integer size,
+            Boolean includeTotal) {
+
+        log.info("GET /transactions/cursor - userUid: {}, walletUid: {}, type: {}, status: {}",
+                userUid, walletUid, type, status);
+
+        LocalDateTime localDateFrom = dateFrom != null ? dateFrom.toLocalDateTime() : null;
+        LocalDateTime localDateTo = dateTo != null ? dateTo.toLocalDateTime() : null;
+
+        TransactionCursorPageResponse response = transactionService.searchTransactionsByCursor(
+                userUid, walletUid, type, status, localDateFrom, localDateTo,
+                cursor, size, Boolean.TRUE.equals(includeTotal));
+
+        return ResponseEntity.ok(response);
+    }
+
+    @Override
+    public ResponseEntity<StreamingResponseBody> exportTransactions(
+            UUID userUid,
+            UUID walletUid,
+            OffsetDateTime dateFrom,
+            OffsetDateTime dateTo,
+            String format) {
+
+        log.info("GET /transactions/export - userUid: {}, walletUid: {}, format: {}", userUid, walletUid, format);
+
+        LocalDateTime localDateFrom = dateFrom != null ? dateFrom.toLocalDateTime() : null;
+        LocalDateTime localDateTo = dateTo != null ? dateTo.toLocalDateTime() : null;
+        TransactionExportService.Format exportFormat = TransactionExportService.Format.of(format);
+
+        // The slot is taken here so an over-limit request still gets a plain 429
+        transactionExportService.acquire(userUid);
+        StreamingResponseBody body = out -> {
+            try {
+                transactionExportService.export(
+                        userUid, walletUid, localDateFrom, localDateTo, exportFormat, out);
+            } finally {
+                transactionExportService.release(userUid);
+            }
+        };
+
+        String extension = exportFormat == TransactionExportService.Format.CSV ? "csv" : "ndjson";
+        return ResponseEntity.ok()
+                .contentType(exportFormat == TransactionExportService.Format.CSV ? CSV : NDJSON)
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename("transactions-" + userUid + "." + extension)
+                        .build()
+                        .toString())
+                .body(body);
+    }
+}
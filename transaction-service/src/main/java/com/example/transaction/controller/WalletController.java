@@ -2,7 +2,11 @@ package com.example.transaction.controller;
 
 import com.example.transaction.api.WalletsApi;
 import com.example.transaction.dto.CreateWalletRequest;
+import com.example.transaction.dto.WalletBalanceAtResponse;
+import com.example.transaction.dto.WalletDailyStatsResponse;
 import com.example.transaction.dto.WalletResponse;
+import com.example.transaction.service.WalletCache;
+import com.example.transaction.service.WalletDailyStatsService;
 import com.example.transaction.service.WalletService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -11,6 +15,8 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
 import java.util.List;
 import java.util.UUID;
 
@@ -22,6 +28,8 @@ import java.util.UUID;
 public class WalletController implements WalletsApi {
 
     private final WalletService walletService;
+    private final WalletCache walletCache;
+    private final WalletDailyStatsService walletDailyStatsService;
 
     @Override
     public ResponseEntity<WalletResponse> createWallet(CreateWalletRequest createWalletRequest) {
@@ -36,7 +44,7 @@ public class WalletController implements WalletsApi {
     public ResponseEntity<WalletResponse> getWallet(UUID walletUid) {
         log.info("GET /wallets/{} - Getting wallet", walletUid);
 
-        WalletResponse response = walletService.getWallet(walletUid);
+        WalletResponse response = walletCache.getWallet(walletUid, () -> walletService.getWallet(walletUid));
 
         return ResponseEntity.ok(response);
     }
@@ -45,8 +53,28 @@ public class WalletController implements WalletsApi {
     public ResponseEntity<List<WalletResponse>> getWalletsByUser(UUID userUid) {
         log.info("GET /wallets/user/{} - Getting wallets for user", userUid);
 
-        List<WalletResponse> response = walletService.getWalletsByUser(userUid);
+        List<WalletResponse> response = walletCache.getWalletsByUser(userUid,
+                () -> walletService.getWalletsByUser(userUid));
 
         return ResponseEntity.ok(response);
     }
-}
\ No newline at end of file
+
+    @Override
+    public ResponseEntity<WalletBalanceAtResponse> getWalletBalanceAt(UUID walletUid, OffsetDateTime at) {
+        log.info("GET /wallets/{}/balance-at - at: {}", walletUid, at);
+
+        WalletBalanceAtResponse response = walletService.getBalanceAt(walletUid, at);
+
+        return ResponseEntity.ok(response);
+    }
+
+    @Override
+    public ResponseEntity<WalletDailyStatsResponse> getWalletDailyStats(
+            UUID walletUid, LocalDate dateFrom, LocalDate dateTo) {
+        log.info("GET /wallets/{}/daily-stats - from: {}, to: {}", walletUid, dateFrom, dateTo);
+
+        WalletDailyStatsResponse response = walletDailyStatsService.getDailyStats(walletUid, dateFrom, dateTo);
+
+        return ResponseEntity.ok(response);
+    }
+}
@@ -0,0 +1,85 @@
+package com.example.transaction.entity;
+
+import com.example.transaction.entity.enums.PaymentType;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * One amount tier of a fee: applies to amounts from {@code minAmount} up to the next tier of
+ * the same type, currency and payment method. A null currency or method matches any.
+ * Fee = {@code amount * feePercent + fixedFee}, clamped to {@code [minFee, maxFee]}.
+ */
+@Entity
+@Table(name = "fee_rules")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class FeeRule {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "id", updatable = false, nullable = false)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "type", nullable = false, length = 20)
+    private PaymentType type;
+
+    @Column(name = "currency_code", length = 3)
+    private String currencyCode;
+
+    @Column(name = "payment_method_id")
+    private Long paymentMethodId;
+
+    @Column(name = "min_amount", nullable = false, precision = 19, scale = 4)
+    @Builder.Default
+    private BigDecimal minAmount = BigDecimal.ZERO;
+
+    // 0.01 = 1%
+    @Column(name = "fee_percent", nullable = false, precision = 9, scale = 6)
+    @Builder.Default
+    private BigDecimal feePercent = BigDecimal.ZERO;
+
+    @Column(name = "fixed_fee", nullable = false, precision = 19, scale = 4)
+    @Builder.Default
+    private BigDecimal fixedFee = BigDecimal.ZERO;
+
+    @Column(name = "min_fee", nullable = false, precision = 19, scale = 4)
+    @Builder.Default
+    private BigDecimal minFee = BigDecimal.ZERO;
+
+    // Null = no cap
+    @Column(name = "max_fee", precision = 19, scale = 4)
+    private BigDecimal maxFee;
+
+    @Column(name = "active", nullable = false)
+    @Builder.Default
+    private boolean active = true;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    @PrePersist
+    @PreUpdate
+    protected void onUpdate() {
+        updatedAt = LocalDateTime.now();
+    }
+}
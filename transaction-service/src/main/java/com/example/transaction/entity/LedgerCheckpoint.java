@@ -0,0 +1,47 @@
+package com.example.transaction.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Immutable;
+import org.hibernate.annotations.UuidGenerator;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Materialized wallet balance: the sum of all of the wallet's ledger entries with
+ * {@code created_at <= checkpoint_at}.
+ */
+@Entity
+@Immutable
+@Table(name = "ledger_checkpoints")
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class LedgerCheckpoint {
+
+    @Id
+    @UuidGenerator(algorithm = UuidV7Generator.class)
+    @Column(name = "uid", updatable = false, nullable = false)
+    private UUID uid;
+
+    @Column(name = "wallet_uid", nullable = false, updatable = false)
+    private UUID walletUid;
+
+    @Column(name = "user_uid", nullable = false, updatable = false)
+    private UUID userUid;
+
+    @Column(name = "checkpoint_at", nullable = false, updatable = false)
+    private LocalDateTime checkpointAt;
+
+    @Column(name = "balance", nullable = false, updatable = false, precision = 19, scale = 4)
+    private BigDecimal balance;
+}
@@ -0,0 +1,67 @@
+package com.example.transaction.entity;
+
+import com.example.transaction.entity.enums.LedgerAccount;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Immutable;
+import org.hibernate.annotations.UuidGenerator;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * One leg of a double-entry posting. Entries are only ever inserted; the legs written for a
+ * transaction always sum to zero. {@code amount} is signed from the account's point of view:
+ * positive credits a wallet, negative debits it.
+ * <p>
+ * {@code checkpoint_at} is the one column written after the insert, by the checkpoint job.
+ */
+@Entity
+@Immutable
+@Table(name = "ledger_entries")
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class LedgerEntry {
+
+    @Id
+    @UuidGenerator(algorithm = UuidV7Generator.class)
+    @Column(name = "uid", updatable = false, nullable = false)
+    private UUID uid;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    // Null for opening balances
+    @Column(name = "transaction_uid", updatable = false)
+    private UUID transactionUid;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "account", nullable = false, updatable = false, length = 16)
+    private LedgerAccount account;
+
+    // Set for WALLET entries only
+    @Column(name = "wallet_uid", updatable = false)
+    private UUID walletUid;
+
+    // Sharding key: the wallet owner for WALLET entries, the transaction owner otherwise
+    @Column(name = "user_uid", nullable = false, updatable = false)
+    private UUID userUid;
+
+    @Column(name = "amount", nullable = false, updatable = false, precision = 19, scale = 4)
+    private BigDecimal amount;
+
+    // Stamped by the first checkpoint run that sees the entry committed, null until then
+    @Column(name = "checkpoint_at", insertable = false, updatable = false)
+    private LocalDateTime checkpointAt;
+}
@@ -0,0 +1,143 @@
+package com.example.transaction.entity;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Amount of money with the schema's fixed scale of 4 ({@code DECIMAL(19,4)}), held as a
+ * count of ten-thousandths in a {@code long}.
+ * <p>
+ * Arithmetic is plain {@code long} arithmetic: one small object per result instead of the
+ * {@code BigDecimal} (and often {@code BigInteger}) chain of every add, compare and
+ * {@code setScale}. Every operation is overflow-checked and throws {@link ArithmeticException}
+ * instead of wrapping, so amounts beyond +/-922,337,203,685,477.5807 are rejected rather than
+ * corrupted. {@code BigDecimal} remains the type of DTOs, events and the JPA columns;
+ * {@link #of(BigDecimal)} and {@link #toBigDecimal()} convert at those boundaries.
+ */
+public record Money(long units) implements Comparable<Money> {
+
+    public static final int SCALE = 4;
+    public static final Money ZERO = new Money(0);
+
+    private static final long[] POWERS_OF_TEN = {
+            1L, 10L, 100L, 1_000L, 10_000L, 100_000L, 1_000_000L, 10_000_000L, 100_000_000L,
+            1_000_000_000L, 10_000_000_000L, 100_000_000_000L, 1_000_000_000_000L,
+            10_000_000_000_000L, 100_000_000_000_000L, 1_000_000_000_000_000L,
+            10_000_000_000_000_000L, 100_000_000_000_000_000L, 1_000_000_000_000_000_000L};
+
+    /**
+     * Rounds to 4 decimals HALF_UP, as a {@code DECIMAL(19,4)} column would on insert.
+     * @throws ArithmeticException if the amount does not fit
+     */
+    public static Money of(BigDecimal amount) {
+        long units = amount.setScale(SCALE, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+        return units == 0 ? ZERO : new Money(units);
+    }
+
+    public static Money of(String amount) {
+        return of(new BigDecimal(amount));
+    }
+
+    public BigDecimal toBigDecimal() {
+        return BigDecimal.valueOf(units, SCALE);
+    }
+
+    public Money plus(Money other) {
+        return new Money(Math.addExact(units, other.units));
+    }
+
+    public Money minus(Money other) {
+        return new Money(Math.subtractExact(units, other.units));
+    }
+
+    /**
+     * This amount times {@code rate}, rounded HALF_UP to 4 decimals. Falls back to
+     * {@code BigDecimal} only when the intermediate product does not fit in a {@code long}.
+     * @throws ArithmeticException if the result does not fit
+     */
+    public Money times(Rate rate) {
+        long high = Math.multiplyHigh(units, rate.value());
+        long low = units * rate.value();
+        if ((high == 0 && low >= 0) || (high == -1 && low < 0)) {
+            return new Money(divideHalfUp(low, POWERS_OF_TEN[rate.scale()]));
+        }
+        return of(toBigDecimal().multiply(BigDecimal.valueOf(rate.value(), rate.scale())));
+    }
+
+    public int signum() {
+        return Long.signum(units);
+    }
+
+    public boolean isPositive() {
+        return units > 0;
+    }
+
+    public boolean isLessThan(Money other) {
+        return units < other.units;
+    }
+
+    public boolean isGreaterThan(Money other) {
+        return units > other.units;
+    }
+
+    public static Money min(Money a, Money b) {
+        return a.units <= b.units ? a : b;
+    }
+
+    public static Money max(Money a, Money b) {
+        return a.units >= b.units ? a : b;
+    }
+
+    @Override
+    public int compareTo(Money other) {
+        return Long.compare(units, other.units);
+    }
+
+    @Override
+    public String toString() {
+        return toBigDecimal().toPlainString();
+    }
+
+    // |remainder| < divisor <= 10^18, so doubling it cannot overflow
+    private static long divideHalfUp(long dividend, long divisor) {
+        long quotient = dividend / divisor;
+        long remainder = dividend % divisor;
+        if (Math.abs(remainder) * 2 >= divisor) {
+            quotient += Long.signum(dividend);
+        }
+        return quotient;
+    }
+
+    /**
+     * Multiplier such as a fee percent ({@code 0.01} = 1%), as {@code value / 10^scale}.
+     * Converted once, when the rate is configured, not per operation.
+     */
+    public record Rate(long value, int scale) {
+
+        public static final Rate ZERO = new Rate(0, 0);
+
+        public Rate {
+            if (scale < 0 || scale >= POWERS_OF_TEN.length) {
+                throw new IllegalArgumentException("Rate scale must be between 0 and 18: " + scale);
+            }
+        }
+
+        /**
+         * @throws ArithmeticException if the rate has more than 18 decimals or does not fit
+         */
+        public static Rate of(BigDecimal rate) {
+            BigDecimal normalized = rate.stripTrailingZeros();
+            if (normalized.scale() < 0) {
+                normalized = normalized.setScale(0);
+            }
+            if (normalized.scale() >= POWERS_OF_TEN.length) {
+                throw new ArithmeticException("Rate has too many decimals: " + rate);
+            }
+            return new Rate(normalized.unscaledValue().longValueExact(), normalized.scale());
+        }
+
+        public BigDecimal toBigDecimal() {
+            return BigDecimal.valueOf(value, scale);
+        }
+    }
+}
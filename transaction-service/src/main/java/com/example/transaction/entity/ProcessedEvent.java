@@ -0,0 +1,72 @@
+package com.example.transaction.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.Table;
+import jakarta.persistence.Transient;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import org.springframework.data.domain.Persistable;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Marker that a consumed Kafka event has already been applied.
+ * The id is assigned by the producer, so {@link Persistable#isNew()} is overridden
+ * to make {@code save} a plain INSERT instead of a SELECT + INSERT merge.
+ */
+@Entity
+@Table(name = "processed_events")
+@Getter
+@NoArgsConstructor
+public class ProcessedEvent implements Persistable<UUID> {
+
+    @Id
+    @Column(name = "event_id", updatable = false, nullable = false)
+    private UUID eventId;
+
+    @Column(name = "event_type", nullable = false, length = 64)
+    private String eventType;
+
+    // Sharding key: owner of the balance the event changed
+    @Column(name = "user_uid", nullable = false, updatable = false)
+    private UUID userUid;
+
+    @Column(name = "processed_at", nullable = false, updatable = false)
+    private LocalDateTime processedAt;
+
+    @Transient
+    private boolean isNew = true;
+
+    public ProcessedEvent(UUID eventId, String eventType, UUID userUid) {
+        this.eventId = eventId;
+        this.eventType = eventType;
+        this.userUid = userUid;
+    }
+
+    @Override
+    public UUID getId() {
+        return eventId;
+    }
+
+    @Override
+    public boolean isNew() {
+        return isNew;
+    }
+
+    @PrePersist
+    protected void onCreate() {
+        processedAt = LocalDateTime.now();
+    }
+
+    @PostLoad
+    @PostPersist
+    protected void markNotNew() {
+        isNew = false;
+    }
+}
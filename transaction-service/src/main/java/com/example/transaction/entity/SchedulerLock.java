@@ -0,0 +1,37 @@
+package com.example.transaction.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Lock row of a scheduled job that runs on one node at a time. A run holds the row lock
+ * for the length of its transaction; nodes that cannot take it skip the round. The job can
+ * leave a value on its row for the other nodes to read, see
+ * {@link com.example.transaction.repository.SchedulerLockRepository#report}.
+ */
+@Entity
+@Table(name = "scheduler_locks")
+@Getter
+@NoArgsConstructor
+public class SchedulerLock {
+
+    @Id
+    @Column(name = "name", nullable = false, updatable = false, length = 64)
+    private String name;
+
+    @Column(name = "reported_value")
+    private Long reportedValue;
+
+    @Column(name = "reported_at")
+    private LocalDateTime reportedAt;
+
+    public SchedulerLock(String name) {
+        this.name = name;
+    }
+}
@@ -0,0 +1,56 @@
+package com.example.transaction.entity;
+
+import com.example.transaction.entity.enums.ShardBucketState;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Id;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * A virtual bucket of {@code user_uid} that was moved off its default data source.
+ * Buckets without a row stay where {@code UserBucketRouting} puts them by default.
+ */
+@Entity
+@Table(name = "shard_buckets")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ShardBucket {
+
+    @Id
+    @Column(name = "bucket", nullable = false, updatable = false)
+    private Integer bucket;
+
+    @Column(name = "source_data_source", nullable = false, length = 32)
+    private String sourceDataSource;
+
+    @Column(name = "target_data_source", nullable = false, length = 32)
+    private String targetDataSource;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "state", nullable = false, length = 16)
+    private ShardBucketState state;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "moved_at")
+    private LocalDateTime movedAt;
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+    }
+}
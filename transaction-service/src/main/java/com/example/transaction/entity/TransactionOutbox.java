@@ -0,0 +1,107 @@
+package com.example.transaction.entity;
+
+import com.example.transaction.entity.enums.OutboxStatus;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Id;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.hibernate.annotations.UuidGenerator;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Kafka event written in the same DB transaction as the state change it describes.
+ * Published asynchronously by {@code TransactionOutboxRelay}.
+ * <p>
+ * Sharded by {@code user_uid} like the wallet it is keyed by, so under sharding the row
+ * commits in the same local transaction as the balance change on the user's data source.
+ */
+@Entity
+@Table(name = "transaction_outbox")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TransactionOutbox {
+
+    // Generated in the application: known before the INSERT, so Hibernate batches outbox
+    // rows, and unique on every shard, which a per-database sequence is not
+    @Id
+    @UuidGenerator(algorithm = UuidV7Generator.class)
+    @Column(name = "id", updatable = false, nullable = false)
+    private UUID id;
+
+    // Sharding key: owner of the wallet the event is keyed by
+    @Column(name = "user_uid", nullable = false, updatable = false)
+    private UUID userUid;
+
+    @Column(name = "topic", nullable = false, length = 128)
+    private String topic;
+
+    @Column(name = "message_key", nullable = false, length = 64)
+    private String messageKey;
+
+    @Column(name = "event_type", nullable = false, length = 64)
+    private String eventType;
+
+    // JSON payload; null when the topic is binary-encoded
+    @Column(name = "payload", columnDefinition = "TEXT")
+    private String payload;
+
+    @Column(name = "payload_binary")
+    private byte[] payloadBinary;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, length = 16)
+    @Builder.Default
+    private OutboxStatus status = OutboxStatus.PENDING;
+
+    @Column(name = "attempts", nullable = false)
+    @Builder.Default
+    private int attempts = 0;
+
+    @Column(name = "last_error", length = 512)
+    private String lastError;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "sent_at")
+    private LocalDateTime sentAt;
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+    }
+
+    /**
+     * @return the record value as sent to Kafka: the binary payload, or the JSON one as UTF-8
+     */
+    public byte[] payloadBytes() {
+        return payloadBinary != null ? payloadBinary : payload.getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Record a failed publish attempt; gives up after {@code maxAttempts}.
+     * @param error failure description
+     * @param maxAttempts attempts before the entry is marked FAILED
+     */
+    public void recordFailure(String error, int maxAttempts) {
+        this.attempts++;
+        this.lastError = error != null && error.length() > 512 ? error.substring(0, 512) : error;
+        if (this.attempts >= maxAttempts) {
+            this.status = OutboxStatus.FAILED;
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.example.transaction.entity;
+
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.id.uuid.UuidValueGenerator;
+
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Time-ordered UUID version 7 (RFC 9562): 48-bit Unix millis, 12-bit sequence, 62 random bits.
+ * <p>
+ * Keys generated in the application are known before the INSERT, so Hibernate can batch them,
+ * and new rows land on the right-most page of the primary key index instead of splitting
+ * random pages as {@code uuid_generate_v4()} does. Within one JVM the ids are strictly
+ * increasing: the 12-bit sequence orders ids of the same millisecond and, if it overflows,
+ * borrows the next millisecond.
+ */
+public class UuidV7Generator implements UuidValueGenerator {
+
+    private static final AtomicLong LAST = new AtomicLong();
+
+    @Override
+    public UUID generateUuid(SharedSessionContractImplementor session) {
+        return next();
+    }
+
+    public static UUID next() {
+        long now = System.currentTimeMillis() << 12;
+        long stamp = LAST.updateAndGet(last -> Math.max(now, last + 1));
+
+        long millis = stamp >>> 12;
+        long sequence = stamp & 0xFFF;
+        long mostSigBits = (millis << 16) | 0x7000L | sequence;
+        long leastSigBits = (ThreadLocalRandom.current().nextLong() & 0x3FFFFFFFFFFFFFFFL) | 0x8000000000000000L;
+        return new UUID(mostSigBits, leastSigBits);
+    }
+}
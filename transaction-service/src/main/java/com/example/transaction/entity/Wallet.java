@@ -2,6 +2,7 @@ package com.example.transaction.entity;
 
 import com.example.transaction.entity.enums.WalletStatus;
 import jakarta.persistence.Column;
+import jakarta.persistence.Convert;
 import jakarta.persistence.Entity;
 import jakarta.persistence.EnumType;
 import jakarta.persistence.Enumerated;
@@ -45,21 +46,41 @@ public class Wallet extends BaseEntity {
     private WalletStatus status = WalletStatus.ACTIVE;
 
     @Column(name = "balance", nullable = false, precision = 19, scale = 4)
+    @Convert(converter = MoneyConverter.class)
     @Builder.Default
-    private BigDecimal balance = BigDecimal.ZERO;
+    private Money balance = Money.ZERO;
+
+    // Opt-in hot-wallet mode: credits go to one of N wallet_balance_slots rows instead of
+    // this row; the wallet's balance is this column plus the slots (see WalletBalanceService)
+    @Column(name = "balance_slots", nullable = false)
+    @Builder.Default
+    private int balanceSlots = 0;
 
     @Column(name = "archived_at")
     private LocalDateTime archivedAt;
 
+    // DTOs, events and tests see BigDecimal; the arithmetic below stays on Money
+    public BigDecimal getBalance() {
+        return balance.toBigDecimal();
+    }
+
+    public void setBalance(BigDecimal balance) {
+        this.balance = Money.of(balance);
+    }
+
     /**
      * Credit (add) amount to the wallet balance.
      * @param amount amount to add
      */
-    public void credit(BigDecimal amount) {
-        if (amount == null || amount.compareTo(BigDecimal.ZERO) <= 0) {
+    public void credit(Money amount) {
+        if (amount == null || !amount.isPositive()) {
             throw new IllegalArgumentException("Credit amount must be positive");
         }
-        this.balance = this.balance.add(amount);
+        this.balance = this.balance.plus(amount);
+    }
+
+    public void credit(BigDecimal amount) {
+        credit(amount != null ? Money.of(amount) : null);
     }
 
     /**
@@ -67,14 +88,14 @@ public class Wallet extends BaseEntity {
      * @param amount amount to subtract
      * @throws IllegalStateException if insufficient balance
      */
-    public void debit(BigDecimal amount) {
-        if (amount == null || amount.compareTo(BigDecimal.ZERO) <= 0) {
+    public void debit(Money amount) {
+        if (amount == null || !amount.isPositive()) {
             throw new IllegalArgumentException("Debit amount must be positive");
         }
-        if (this.balance.compareTo(amount) < 0) {
+        if (this.balance.isLessThan(amount)) {
             throw new IllegalStateException("Insufficient balance");
         }
-        this.balance = this.balance.subtract(amount);
+        this.balance = this.balance.minus(amount);
     }
 
     /**
@@ -82,8 +103,12 @@ public class Wallet extends BaseEntity {
      * @param amount amount to check
      * @return true if balance >= amount
      */
-    public boolean hasSufficientBalance(BigDecimal amount) {
-        return this.balance.compareTo(amount) >= 0;
+    public boolean hasSufficientBalance(Money amount) {
+        return !this.balance.isLessThan(amount);
+    }
+
+    public boolean hasBalanceSlots() {
+        return this.balanceSlots > 0;
     }
 
     /**
@@ -0,0 +1,44 @@
+package com.example.transaction.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+/**
+ * One of the N balance slots of a hot wallet. Concurrent credits update different slot
+ * rows instead of queueing on the single {@code wallets} row lock.
+ */
+@Entity
+@Table(name = "wallet_balance_slots",
+        uniqueConstraints = @UniqueConstraint(name = "uk_wallet_balance_slots_wallet_slot",
+                columnNames = {"wallet_uid", "slot"}))
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class WalletBalanceSlot extends BaseEntity {
+
+    @Column(name = "wallet_uid", nullable = false, updatable = false)
+    private UUID walletUid;
+
+    // Sharding key, same as the wallet's
+    @Column(name = "user_uid", nullable = false, updatable = false)
+    private UUID userUid;
+
+    @Column(name = "slot", nullable = false, updatable = false)
+    private int slot;
+
+    @Column(name = "balance", nullable = false, precision = 19, scale = 4)
+    @Builder.Default
+    private BigDecimal balance = BigDecimal.ZERO;
+}
@@ -0,0 +1,90 @@
+package com.example.transaction.entity;
+
+import com.example.transaction.entity.enums.PaymentType;
+import com.example.transaction.entity.enums.TransactionStatus;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Id;
+import jakarta.persistence.IdClass;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Immutable;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * Rollup of a wallet's finished transactions of one type and final status on one day
+ * (the date of {@code transactions.created_at}), in one counter slot. Rows are only ever
+ * incremented with an upsert, never loaded and saved, hence immutable for Hibernate.
+ * <p>
+ * Wallets without balance slots use slot 0 only. A wallet with N balance slots spreads its
+ * counters over slots 0..N-1 like its credits; {@link #MOVED_SLOT} holds the counters moved
+ * in by resharding.
+ */
+@Entity
+@Immutable
+@Table(name = "wallet_daily_stats")
+@IdClass(WalletDailyStat.Key.class)
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class WalletDailyStat {
+
+    public static final int MOVED_SLOT = -1;
+
+    @Id
+    @Column(name = "wallet_uid", nullable = false)
+    private UUID walletUid;
+
+    @Id
+    @Column(name = "stat_date", nullable = false)
+    private LocalDate statDate;
+
+    @Id
+    @Enumerated(EnumType.STRING)
+    @Column(name = "type", nullable = false, length = 20)
+    private PaymentType type;
+
+    @Id
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, length = 32)
+    private TransactionStatus status;
+
+    @Id
+    @Column(name = "slot", nullable = false)
+    private int slot;
+
+    @Column(name = "user_uid", nullable = false)
+    private UUID userUid;
+
+    @Column(name = "tx_count", nullable = false)
+    private long txCount;
+
+    @Column(name = "amount_sum", nullable = false, precision = 19, scale = 4)
+    private BigDecimal amountSum;
+
+    @Column(name = "fee_sum", nullable = false, precision = 19, scale = 4)
+    private BigDecimal feeSum;
+
+    @Getter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @EqualsAndHashCode
+    public static class Key implements Serializable {
+        private UUID walletUid;
+        private LocalDate statDate;
+        private PaymentType type;
+        private TransactionStatus status;
+        private int slot;
+    }
+}
@@ -0,0 +1,8 @@
+package com.example.transaction.entity.enums;
+
+public enum LedgerAccount {
+    WALLET,
+    EXTERNAL,
+    FEES,
+    OPENING
+}
@@ -0,0 +1,7 @@
+package com.example.transaction.entity.enums;
+
+public enum OutboxStatus {
+    PENDING,
+    SENT,
+    FAILED
+}
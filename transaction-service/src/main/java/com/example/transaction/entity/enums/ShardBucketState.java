@@ -0,0 +1,6 @@
+package com.example.transaction.entity.enums;
+
+public enum ShardBucketState {
+    MOVING,
+    MOVED
+}
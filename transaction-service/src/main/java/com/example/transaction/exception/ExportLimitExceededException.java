@@ -0,0 +1,9 @@
+package com.example.transaction.exception;
+
+
+public class ExportLimitExceededException extends RuntimeException {
+
+    public ExportLimitExceededException(String message) {
+        super(message);
+    }
+}
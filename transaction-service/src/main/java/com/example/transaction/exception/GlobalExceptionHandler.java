@@ -59,6 +59,48 @@ public class GlobalExceptionHandler {
         return buildErrorResponse(HttpStatus.BAD_REQUEST, ex.getMessage(), request.getRequestURI());
     }
 
+    @ExceptionHandler(WalletLockTimeoutException.class)
+    public ResponseEntity<ErrorResponse> handleWalletLockTimeout(
+            WalletLockTimeoutException ex, HttpServletRequest request) {
+        log.warn("Wallet lock timeout: {}", ex.getMessage());
+        return buildErrorResponse(HttpStatus.SERVICE_UNAVAILABLE, ex.getMessage(), request.getRequestURI());
+    }
+
+    @ExceptionHandler(InitRequestCapacityExceededException.class)
+    public ResponseEntity<ErrorResponse> handleInitRequestCapacityExceeded(
+            InitRequestCapacityExceededException ex, HttpServletRequest request) {
+        log.warn("Init request capacity exceeded: {}", ex.getMessage());
+        return buildErrorResponse(HttpStatus.SERVICE_UNAVAILABLE, ex.getMessage(), request.getRequestURI());
+    }
+
+    @ExceptionHandler(ExportLimitExceededException.class)
+    public ResponseEntity<ErrorResponse> handleExportLimitExceeded(
+            ExportLimitExceededException ex, HttpServletRequest request) {
+        log.warn("Export limit exceeded: {}", ex.getMessage());
+        return buildErrorResponse(HttpStatus.TOO_MANY_REQUESTS, ex.getMessage(), request.getRequestURI());
+    }
+
+    @ExceptionHandler(OutboxBackpressureException.class)
+    public ResponseEntity<ErrorResponse> handleOutboxBackpressure(
+            OutboxBackpressureException ex, HttpServletRequest request) {
+        log.warn("Outbox backpressure: {}", ex.getMessage());
+        return buildErrorResponse(HttpStatus.SERVICE_UNAVAILABLE, ex.getMessage(), request.getRequestURI());
+    }
+
+    @ExceptionHandler(ShardSearchException.class)
+    public ResponseEntity<ErrorResponse> handleShardSearch(
+            ShardSearchException ex, HttpServletRequest request) {
+        log.warn("Shard search failed: {}", ex.getMessage());
+        return buildErrorResponse(HttpStatus.SERVICE_UNAVAILABLE, ex.getMessage(), request.getRequestURI());
+    }
+
+    @ExceptionHandler(ShardBucketMoveException.class)
+    public ResponseEntity<ErrorResponse> handleShardBucketMove(
+            ShardBucketMoveException ex, HttpServletRequest request) {
+        log.warn("Shard bucket move rejected: {}", ex.getMessage());
+        return buildErrorResponse(HttpStatus.CONFLICT, ex.getMessage(), request.getRequestURI());
+    }
+
     @ExceptionHandler(MethodArgumentNotValidException.class)
     public ResponseEntity<ErrorResponse> handleValidationErrors(
             MethodArgumentNotValidException ex, HttpServletRequest request) {
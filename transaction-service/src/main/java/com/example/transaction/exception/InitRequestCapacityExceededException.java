@@ -0,0 +1,13 @@
+package com.example.transaction.exception;
+
+
+public class InitRequestCapacityExceededException extends RuntimeException {
+
+    public InitRequestCapacityExceededException(int capacity) {
+        super(String.format("Too many pending init requests (capacity %d), try again later", capacity));
+    }
+
+    public InitRequestCapacityExceededException(String message) {
+        super(message);
+    }
+}
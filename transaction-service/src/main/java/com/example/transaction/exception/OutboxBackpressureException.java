@@ -0,0 +1,9 @@
+package com.example.transaction.exception;
+
+public class OutboxBackpressureException extends RuntimeException {
+
+    public OutboxBackpressureException(long pending, long maxPending) {
+        super(String.format("Event publishing is behind (%d pending events, limit %d), try again later",
+                pending, maxPending));
+    }
+}
@@ -0,0 +1,8 @@
+package com.example.transaction.exception;
+
+public class ShardBucketMoveException extends RuntimeException {
+
+    public ShardBucketMoveException(String message) {
+        super(message);
+    }
+}
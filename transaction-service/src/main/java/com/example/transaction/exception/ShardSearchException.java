@@ -0,0 +1,13 @@
+package com.example.transaction.exception;
+
+
+public class ShardSearchException extends RuntimeException {
+
+    public ShardSearchException(String shard, long timeoutMs) {
+        super(String.format("Shard %s did not answer the search within %d ms", shard, timeoutMs));
+    }
+
+    public ShardSearchException(String shard, Throwable cause) {
+        super("Search failed on shard " + shard + ": " + cause.getMessage(), cause);
+    }
+}
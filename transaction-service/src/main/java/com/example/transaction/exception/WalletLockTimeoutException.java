@@ -0,0 +1,14 @@
+package com.example.transaction.exception;
+
+import java.util.UUID;
+
+public class WalletLockTimeoutException extends RuntimeException {
+
+    public WalletLockTimeoutException(UUID walletUid, long timeoutMs) {
+        super(String.format("Timed out after %d ms waiting for wallet lock: %s", timeoutMs, walletUid));
+    }
+
+    public WalletLockTimeoutException(String message) {
+        super(message);
+    }
+}
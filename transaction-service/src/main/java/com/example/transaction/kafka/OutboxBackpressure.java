@@ -0,0 +1,73 @@
+package com.example.transaction.kafka;
+
+import com.example.transaction.exception.OutboxBackpressureException;
+import com.example.transaction.repository.SchedulerLockRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Turns a growing outbox backlog into fast 503s instead of unbounded work.
+ * <p>
+ * Request threads never talk to Kafka: events are rows in {@code transaction_outbox} and
+ * {@link TransactionOutboxRelay} publishes them. When Kafka is slow or unreachable the
+ * backlog grows; past {@code app.outbox.max-pending} rows, confirms that would add events are
+ * refused before anything is claimed or debited. The backlog is counted by the node running
+ * the relay, across all data sources, and reported on the relay's {@code scheduler_locks}
+ * row; every node reads that one row on a short fixed delay. With
+ * {@code app.outbox.backlog-check-enabled=false} it is never read and nothing is refused.
+ */
+@Slf4j
+@Component
+public class OutboxBackpressure {
+
+    private final SchedulerLockRepository schedulerLockRepository;
+    private final Counter rejected;
+
+    @Value("${app.outbox.max-pending:100000}")
+    private long maxPending = 100_000;
+
+    @Value("${app.outbox.backlog-check-enabled:true}")
+    private boolean backlogCheckEnabled = true;
+
+    private volatile long pending;
+
+    public OutboxBackpressure(SchedulerLockRepository schedulerLockRepository, MeterRegistry meterRegistry) {
+        this.schedulerLockRepository = schedulerLockRepository;
+        Gauge.builder("transaction_outbox_pending", this, backpressure -> backpressure.pending)
+                .description("Outbox events not yet acknowledged by Kafka (queue depth)")
+                .register(meterRegistry);
+        this.rejected = Counter.builder("transaction_outbox_backpressure_rejections_total")
+                .description("Requests refused with 503 because the outbox backlog was over the limit")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${app.outbox.backlog-check-interval-ms:1000}")
+    public void refresh() {
+        if (!backlogCheckEnabled) {
+            return;
+        }
+        try {
+            schedulerLockRepository.findReportedValue(TransactionOutboxRelay.RELAY_LOCK)
+                    .ifPresent(reported -> pending = reported);
+        } catch (DataAccessException e) {
+            log.warn("Failed to read the outbox backlog: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * @throws OutboxBackpressureException if the last reported backlog is at the limit
+     */
+    public void check() {
+        long current = pending;
+        if (maxPending > 0 && current >= maxPending) {
+            rejected.increment();
+            throw new OutboxBackpressureException(current, maxPending);
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package com.example.transaction.kafka;
 
+import com.example.transaction.entity.Money;
 import com.example.transaction.entity.Transaction;
 import com.example.transaction.entity.Wallet;
 import com.example.transaction.entity.enums.TransactionStatus;
@@ -8,11 +9,29 @@ import com.example.transaction.kafka.event.WithdrawalCompletedEvent;
 import com.example.transaction.kafka.event.WithdrawalFailedEvent;
 import com.example.transaction.repository.TransactionRepository;
 import com.example.transaction.repository.WalletRepository;
+import com.example.transaction.service.LedgerService;
+import com.example.transaction.service.ProcessedEventLedger;
+import com.example.transaction.service.WalletBalanceService;
+import com.example.transaction.service.WalletCache;
+import com.example.transaction.service.WalletDailyStatsService;
+import com.example.transaction.service.WalletLockManager;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
 import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.listener.BatchListenerFailedException;
 import org.springframework.stereotype.Component;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
 
 @Slf4j
 @Component
@@ -21,39 +40,201 @@ public class TransactionEventConsumer {
 
     private final TransactionRepository transactionRepository;
     private final WalletRepository walletRepository;
+    private final WalletLockManager walletLockManager;
+    private final TransactionTemplate transactionTemplate;
+    private final ProcessedEventLedger processedEventLedger;
+    private final WalletBalanceService walletBalanceService;
+    private final LedgerService ledgerService;
+    private final WalletCache walletCache;
+    private final WalletDailyStatsService walletDailyStatsService;
+    private final WalletWorkerPool walletWorkers;
 
+    /**
+     * Batch listener: credits are grouped per wallet, so a poll touching the same wallet
+     * many times locks and updates it once. Wallets are spread over {@link WalletWorkerPool}
+     * lanes, each lane writing its wallets in a transaction of its own. If a grouped write
+     * fails, records are replayed one by one to find the poisoned one (lanes that committed
+     * are skipped as processed); only that record goes to the dead-letter topic.
+     */
     @KafkaListener(
             topics = "${app.kafka.topics.deposit-completed}",
             containerFactory = "depositCompletedListenerFactory"
     )
-    @Transactional
-    public void handleDepositCompleted(DepositCompletedEvent event) {
-        log.info("Received DepositCompletedEvent: transactionUid={}, amount={}",
-                event.getTransactionUid(), event.getAmount());
+    public void handleDepositCompleted(List<ConsumerRecord<String, DepositCompletedEvent>> records) {
+        log.info("Received {} DepositCompletedEvents", records.size());
+
+        int undeserializable = indexOfNullValue(records);
+        List<ConsumerRecord<String, DepositCompletedEvent>> processable =
+                undeserializable < 0 ? records : records.subList(0, undeserializable);
+
+        if (!processable.isEmpty()) {
+            try {
+                walletWorkers.forEachLane(processable.stream().map(ConsumerRecord::value).toList(),
+                        DepositCompletedEvent::getWalletUid, this::applyDepositCompletedBatch);
+            } catch (RuntimeException e) {
+                log.warn("Grouped processing of {} DepositCompletedEvents failed, retrying one by one: {}",
+                        processable.size(), e.getMessage());
+                applyDepositCompletedIndividually(processable);
+            }
+        }
+
+        if (undeserializable >= 0) {
+            throw new BatchListenerFailedException(
+                    "Undeserializable deposit-completed record", undeserializable);
+        }
+    }
+
+    private void applyDepositCompletedBatch(List<DepositCompletedEvent> events) {
+        List<DepositCompletedEvent> fresh = events.stream()
+                .filter(event -> !processedEventLedger.isRecentlyProcessed(event.getEventId()))
+                .toList();
+        if (fresh.isEmpty()) {
+            return;
+        }
+
+        // Wallets with balance slots are credited without their row lock, so not queued on it either
+        Set<UUID> walletUids = new HashSet<>();
+        fresh.stream()
+                .map(DepositCompletedEvent::getWalletUid)
+                .filter(walletUid -> !walletBalanceService.isSlotted(walletUid))
+                .forEach(walletUids::add);
+
+        walletLockManager.executeWithLocks(walletUids, () -> {
+            transactionTemplate.executeWithoutResult(status -> creditGrouped(fresh));
+            return null;
+        });
+    }
+
+    private void creditGrouped(List<DepositCompletedEvent> events) {
+        Set<UUID> transactionUids = new HashSet<>();
+        events.forEach(event -> transactionUids.add(event.getTransactionUid()));
+        Map<UUID, TransactionRepository.StatusView> statuses = new HashMap<>();
+        for (TransactionRepository.StatusView view : transactionRepository.findStatusesByUidIn(transactionUids)) {
+            statuses.put(view.getUid(), view);
+        }
+
+        // Claims go to the transaction owner's shard, next to the credit they guard
+        Set<UUID> claimed = processedEventLedger.claimAll(events,
+                event -> statusOf(statuses, event).getUserUid());
+
+        Map<UUID, DepositCompletedEvent> byTransaction = new LinkedHashMap<>();
+        for (DepositCompletedEvent event : events) {
+            if (event.getEventId() == null || claimed.contains(event.getEventId())) {
+                byTransaction.putIfAbsent(event.getTransactionUid(), event);
+            }
+        }
+        if (byTransaction.isEmpty()) {
+            return;
+        }
+
+        List<UUID> pending = new ArrayList<>();
+        List<TransactionRepository.StatusView> completed = new ArrayList<>();
+        Map<UUID, Money> creditsByWallet = new HashMap<>();
+        for (DepositCompletedEvent event : byTransaction.values()) {
+            TransactionRepository.StatusView current = statusOf(statuses, event);
+            if (current.getStatus() != TransactionStatus.PENDING) {
+                log.warn("Transaction {} is not in PENDING state, current state: {}",
+                        event.getTransactionUid(), current.getStatus());
+                continue;
+            }
+            pending.add(event.getTransactionUid());
+            completed.add(current);
+            creditsByWallet.merge(event.getWalletUid(), Money.of(event.getAmount()), Money::plus);
+            ledgerService.recordDeposit(event.getTransactionUid(), current.getUserUid(),
+                    event.getWalletUid(), event.getAmount());
+        }
+
+        if (pending.isEmpty()) {
+            return;
+        }
+
+        creditsByWallet.entrySet().removeIf(credit ->
+                walletBalanceService.creditSlot(credit.getKey(), credit.getValue().toBigDecimal()));
+
+        if (!creditsByWallet.isEmpty()) {
+            List<Wallet> wallets = walletRepository.findAllByIdForUpdate(creditsByWallet.keySet());
+            if (wallets.size() != creditsByWallet.size()) {
+                throw new IllegalStateException("Wallet not found for one of: " + creditsByWallet.keySet());
+            }
+            for (Wallet wallet : wallets) {
+                wallet.credit(creditsByWallet.get(wallet.getUid()));
+                walletCache.evictAfterCommit(wallet.getUid());
+            }
+            walletRepository.saveAll(wallets);
+        }
+
+        int updated = transactionRepository.updateStatus(
+                pending, TransactionStatus.PENDING, TransactionStatus.COMPLETED, LocalDateTime.now());
+        if (updated != pending.size()) {
+            throw new IllegalStateException(
+                    "Expected to complete " + pending.size() + " transactions, updated " + updated);
+        }
+        walletDailyStatsService.recordAll(completed, TransactionStatus.COMPLETED);
 
+        log.info("Deposits completed: {} transactions", pending.size());
+    }
+
+    private static TransactionRepository.StatusView statusOf(
+            Map<UUID, TransactionRepository.StatusView> statuses, DepositCompletedEvent event) {
+        TransactionRepository.StatusView status = statuses.get(event.getTransactionUid());
+        if (status == null) {
+            throw new IllegalStateException("Transaction not found: " + event.getTransactionUid());
+        }
+        return status;
+    }
+
+    private void applyDepositCompletedIndividually(List<ConsumerRecord<String, DepositCompletedEvent>> records) {
+        WalletWorkerPool.Failure failure = walletWorkers.forEachInOrder(records,
+                record -> record.value().getWalletUid(), record -> {
+                    DepositCompletedEvent event = record.value();
+                    if (processedEventLedger.isRecentlyProcessed(event.getEventId())) {
+                        return;
+                    }
+                    walletLockManager.runWithLock(event.getWalletUid(), () ->
+                            transactionTemplate.executeWithoutResult(status -> applyDepositCompleted(event)));
+                });
+
+        if (failure != null) {
+            throw new BatchListenerFailedException("Failed to process DepositCompletedEvent: "
+                    + records.get(failure.index()).value().getTransactionUid(), failure.cause(), failure.index());
+        }
+    }
+
+    private static int indexOfNullValue(List<? extends ConsumerRecord<?, ?>> records) {
+        for (int i = 0; i < records.size(); i++) {
+            if (records.get(i).value() == null) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private void applyDepositCompleted(DepositCompletedEvent event) {
         try {
             Transaction transaction = transactionRepository.findById(event.getTransactionUid())
                     .orElseThrow(() -> new IllegalStateException(
                             "Transaction not found: " + event.getTransactionUid()));
 
+            if (!processedEventLedger.claim(event, transaction.getUserUid())) {
+                return;
+            }
+
             if (transaction.getStatus() != TransactionStatus.PENDING) {
                 log.warn("Transaction {} is not in PENDING state, current state: {}",
                         event.getTransactionUid(), transaction.getStatus());
                 return;
             }
 
-            Wallet wallet = walletRepository.findByIdForUpdate(event.getWalletUid())
-                    .orElseThrow(() -> new IllegalStateException(
-                            "Wallet not found: " + event.getWalletUid()));
-
-            wallet.credit(event.getAmount());
-            walletRepository.save(wallet);
+            walletBalanceService.credit(event.getWalletUid(), event.getAmount());
+            ledgerService.recordDeposit(transaction.getUid(), transaction.getUserUid(),
+                    event.getWalletUid(), event.getAmount());
 
             transaction.complete();
             transactionRepository.save(transaction);
+            walletDailyStatsService.record(transaction);
 
-            log.info("Deposit completed: transactionUid={}, walletUid={}, amount={}, newBalance={}",
-                    transaction.getUid(), wallet.getUid(), event.getAmount(), wallet.getBalance());
+            log.info("Deposit completed: transactionUid={}, walletUid={}, amount={}",
+                    transaction.getUid(), event.getWalletUid(), event.getAmount());
 
         } catch (Exception e) {
             log.error("Failed to process DepositCompletedEvent: transactionUid={}",
@@ -66,16 +247,28 @@ public class TransactionEventConsumer {
             topics = "${app.kafka.topics.withdrawal-completed}",
             containerFactory = "withdrawalCompletedListenerFactory"
     )
-    @Transactional
     public void handleWithdrawalCompleted(WithdrawalCompletedEvent event) {
         log.info("Received WithdrawalCompletedEvent: transactionUid={}, amount={}",
                 event.getTransactionUid(), event.getAmount());
 
+        if (processedEventLedger.isRecentlyProcessed(event.getEventId())) {
+            return;
+        }
+
+        // No balance change: the funds were deducted on confirm, so no wallet lock is needed
+        transactionTemplate.executeWithoutResult(status -> applyWithdrawalCompleted(event));
+    }
+
+    private void applyWithdrawalCompleted(WithdrawalCompletedEvent event) {
         try {
             Transaction transaction = transactionRepository.findById(event.getTransactionUid())
                     .orElseThrow(() -> new IllegalStateException(
                             "Transaction not found: " + event.getTransactionUid()));
 
+            if (!processedEventLedger.claim(event, transaction.getUserUid())) {
+                return;
+            }
+
             if (transaction.getStatus() != TransactionStatus.PENDING) {
                 log.warn("Transaction {} is not in PENDING state, current state: {}",
                         event.getTransactionUid(), transaction.getStatus());
@@ -84,6 +277,7 @@ public class TransactionEventConsumer {
 
             transaction.complete();
             transactionRepository.save(transaction);
+            walletDailyStatsService.record(transaction);
 
             log.info("Withdrawal completed: transactionUid={}", transaction.getUid());
 
@@ -98,34 +292,44 @@ public class TransactionEventConsumer {
             topics = "${app.kafka.topics.withdrawal-failed}",
             containerFactory = "withdrawalFailedListenerFactory"
     )
-    @Transactional
     public void handleWithdrawalFailed(WithdrawalFailedEvent event) {
         log.info("Received WithdrawalFailedEvent: transactionUid={}, reason={}",
                 event.getTransactionUid(), event.getReason());
 
+        if (processedEventLedger.isRecentlyProcessed(event.getEventId())) {
+            return;
+        }
+
+        walletLockManager.runWithLock(event.getWalletUid(), () ->
+                transactionTemplate.executeWithoutResult(status -> applyWithdrawalFailed(event)));
+    }
+
+    private void applyWithdrawalFailed(WithdrawalFailedEvent event) {
         try {
             Transaction transaction = transactionRepository.findById(event.getTransactionUid())
                     .orElseThrow(() -> new IllegalStateException(
                             "Transaction not found: " + event.getTransactionUid()));
 
+            if (!processedEventLedger.claim(event, transaction.getUserUid())) {
+                return;
+            }
+
             if (transaction.getStatus() != TransactionStatus.PENDING) {
                 log.warn("Transaction {} is not in PENDING state, current state: {}",
                         event.getTransactionUid(), transaction.getStatus());
                 return;
             }
 
-            Wallet wallet = walletRepository.findByIdForUpdate(event.getWalletUid())
-                    .orElseThrow(() -> new IllegalStateException(
-                            "Wallet not found: " + event.getWalletUid()));
-
-            wallet.credit(event.getRefundAmount());
-            walletRepository.save(wallet);
+            walletBalanceService.credit(event.getWalletUid(), event.getRefundAmount());
+            ledgerService.recordWithdrawalRefund(transaction.getUid(), transaction.getUserUid(),
+                    event.getWalletUid(), event.getRefundAmount(), transaction.getFee());
 
             transaction.fail(event.getReason());
             transactionRepository.save(transaction);
+            walletDailyStatsService.record(transaction);
 
             log.info("Withdrawal failed and refunded: transactionUid={}, walletUid={}, refundAmount={}, reason={}",
-                    transaction.getUid(), wallet.getUid(), event.getRefundAmount(), event.getReason());
+                    transaction.getUid(), event.getWalletUid(), event.getRefundAmount(), event.getReason());
 
         } catch (Exception e) {
             log.error("Failed to process WithdrawalFailedEvent: transactionUid={}",
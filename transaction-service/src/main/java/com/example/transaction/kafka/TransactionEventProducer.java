@@ -1,26 +1,48 @@
 package com.example.transaction.kafka;
 
+import com.example.transaction.config.KafkaFormatProperties;
 import com.example.transaction.entity.Transaction;
+import com.example.transaction.entity.TransactionOutbox;
 import com.example.transaction.entity.Wallet;
+import com.example.transaction.kafka.codec.BinaryEventCodec;
+import com.example.transaction.kafka.codec.EventFormat;
+import com.example.transaction.kafka.event.BaseEvent;
 import com.example.transaction.kafka.event.DepositRequestedEvent;
 import com.example.transaction.kafka.event.WithdrawalRequestedEvent;
+import com.example.transaction.repository.TransactionOutboxRepository;
+import com.example.transaction.service.WalletTypeCache;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.kafka.core.KafkaTemplate;
-import org.springframework.kafka.support.SendResult;
+import org.springframework.kafka.support.JacksonUtils;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.UUID;
-import java.util.concurrent.CompletableFuture;
 
+/**
+ * Records outgoing events in {@code transaction_outbox} within the caller's DB transaction.
+ * Nothing is sent to Kafka here: {@link TransactionOutboxRelay} publishes committed rows,
+ * so a rollback never leaks an event and Kafka latency never blocks the request. Rows carry
+ * the wallet owner's {@code user_uid}, so under sharding they land on the same data source as
+ * the wallet and transaction rows and commit with them.
+ * Events are keyed by wallet UID, so all events of a wallet share a partition and stay in order.
+ */
 @Slf4j
 @Component
 @RequiredArgsConstructor
 public class TransactionEventProducer {
 
-    private final KafkaTemplate<String, Object> kafkaTemplate;
+    // Same mapper configuration as Spring Kafka's JsonSerializer, so payloads are unchanged
+    private final ObjectMapper objectMapper = JacksonUtils.enhancedObjectMapper();
+
+    private final TransactionOutboxRepository outboxRepository;
+    private final WalletTypeCache walletTypeCache;
+    private final KafkaFormatProperties kafkaFormats;
 
     @Value("${app.kafka.topics.deposit-requested}")
     private String depositRequestedTopic;
@@ -28,6 +50,7 @@ public class TransactionEventProducer {
     @Value("${app.kafka.topics.withdrawal-requested}")
     private String withdrawalRequestedTopic;
 
+    @Transactional(propagation = Propagation.MANDATORY)
     public void sendDepositRequested(Transaction transaction, Wallet wallet) {
         DepositRequestedEvent event = DepositRequestedEvent.builder()
                 .eventId(UUID.randomUUID())
@@ -37,13 +60,14 @@ public class TransactionEventProducer {
                 .walletUid(wallet.getUid())
                 .amount(transaction.getAmount())
                 .fee(transaction.getFee())
-                .currencyCode(wallet.getWalletType().getCurrencyCode())
+                .currencyCode(walletTypeCache.currencyCodeOf(wallet))
                 .paymentMethodId(transaction.getPaymentMethodId())
                 .build();
 
-        sendEvent(depositRequestedTopic, transaction.getUid().toString(), event);
+        sendEvent(depositRequestedTopic, wallet, event);
     }
 
+    @Transactional(propagation = Propagation.MANDATORY)
     public void sendWithdrawalRequested(Transaction transaction, Wallet wallet) {
         WithdrawalRequestedEvent event = WithdrawalRequestedEvent.builder()
                 .eventId(UUID.randomUUID())
@@ -54,27 +78,37 @@ public class TransactionEventProducer {
                 .amount(transaction.getAmount())
                 .fee(transaction.getFee())
                 .totalAmount(transaction.getTotalAmount())
-                .currencyCode(wallet.getWalletType().getCurrencyCode())
+                .currencyCode(walletTypeCache.currencyCodeOf(wallet))
                 .paymentMethodId(transaction.getPaymentMethodId())
                 .build();
 
-        sendEvent(withdrawalRequestedTopic, transaction.getUid().toString(), event);
+        sendEvent(withdrawalRequestedTopic, wallet, event);
     }
 
-    private void sendEvent(String topic, String key, Object payload) {
-        log.info("Sending event to topic {}: key={}, payload={}", topic, key, payload.getClass().getSimpleName());
+    private void sendEvent(String topic, Wallet wallet, BaseEvent event) {
+        String key = wallet.getUid().toString();
+        log.info("Writing event to outbox for topic {}: key={}, payload={}",
+                topic, key, event.getClass().getSimpleName());
+
+        TransactionOutbox.TransactionOutboxBuilder entry = TransactionOutbox.builder()
+                .topic(topic)
+                .messageKey(key)
+                .userUid(wallet.getUserUid())
+                .eventType(event.getClass().getSimpleName());
+        if (kafkaFormats.formatOf(topic) == EventFormat.BINARY) {
+            entry.payloadBinary(BinaryEventCodec.encode(event));
+        } else {
+            entry.payload(toJson(event));
+        }
 
-        CompletableFuture<SendResult<String, Object>> future = kafkaTemplate.send(topic, key, payload);
+        outboxRepository.save(entry.build());
+    }
 
-        future.whenComplete((result, ex) -> {
-            if (ex != null) {
-                log.error("Failed to send event to topic {}: key={}", topic, key, ex);
-            } else {
-                log.info("Event sent to topic {}: key={}, partition={}, offset={}",
-                        topic, key,
-                        result.getRecordMetadata().partition(),
-                        result.getRecordMetadata().offset());
-            }
-        });
+    private String toJson(BaseEvent event) {
+        try {
+            return objectMapper.writeValueAsString(event);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize event " + event.getEventId(), e);
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,335 @@
+package com.example.transaction.kafka;
+
+import com.example.transaction.entity.TransactionOutbox;
+import com.example.transaction.entity.enums.OutboxStatus;
+import com.example.transaction.repository.SchedulerLockRepository;
+import com.example.transaction.repository.TransactionOutboxRepository;
+import com.example.transaction.sharding.ShardBucketTable;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.shardingsphere.infra.hint.HintManager;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Publishes committed {@code transaction_outbox} rows to Kafka.
+ * <p>
+ * Each round claims a batch with {@code FOR UPDATE}, sends the whole batch
+ * without waiting per record, flushes once and marks all acknowledged rows SENT with a
+ * single UPDATE. Rows whose send failed stay PENDING until {@code max-attempts} is reached.
+ * Delivery is at-least-once: consumers must tolerate duplicates.
+ * <p>
+ * Rows of one message key (one wallet) are published in id order. Once a row of a key fails
+ * or is not acknowledged in time, the later rows of that key in the batch are not sent; those
+ * already handed to the producer are not marked SENT even if acknowledged, and are sent again
+ * after the failed row on a later round. So a row is never marked SENT while an earlier row of
+ * its key is still pending.
+ * <p>
+ * Only one node relays at a time: a round holds the {@code outbox-relay} row of
+ * {@code scheduler_locks} for its whole length, and the other nodes skip it. Two relays
+ * draining the same outbox would each skip the rows the other has locked and could publish
+ * later rows of a wallet before earlier ones. Each batch commits in a transaction of its own.
+ * <p>
+ * At most {@code max-in-flight} records are unacknowledged at any time; when the window is
+ * full the relay waits for acks (up to the send timeout) instead of letting the producer
+ * buffer fill up and block in {@code send}. Entries that did not get a slot stay PENDING for
+ * the next round without counting as a failed attempt.
+ * <p>
+ * Under sharding every data source holds the outbox rows of its own users, so each round
+ * drains the data sources one after another, pinning the claim and the updates to one of
+ * them. A user's outbox rows move with the user when its bucket is resharded.
+ * <p>
+ * The relay also measures the backlog for {@link OutboxBackpressure}: at most once per
+ * {@code backlog-check-interval-ms}, a round counts the PENDING rows of every data source and
+ * reports the total on its lock row, so the count runs on one node instead of on each of them.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "app.outbox", name = "relay-enabled", havingValue = "true", matchIfMissing = true)
+public class TransactionOutboxRelay {
+
+    static final String RELAY_LOCK = "outbox-relay";
+
+    private final TransactionOutboxRepository outboxRepository;
+    private final SchedulerLockRepository schedulerLockRepository;
+    private final ShardBucketTable shardBucketTable;
+    private final KafkaTemplate<String, byte[]> outboxKafkaTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionTemplate batchTemplate;
+    private final Counter sentCounter;
+    private final Counter failedCounter;
+    private final Timer publishLatency;
+    private final Timer eventAge;
+    private final int maxInFlight;
+    private final Semaphore inFlight;
+
+    @Value("${app.outbox.batch-size:500}")
+    private int batchSize = 500;
+
+    @Value("${app.outbox.send-timeout-ms:10000}")
+    private long sendTimeoutMs = 10_000;
+
+    @Value("${app.outbox.max-attempts:10}")
+    private int maxAttempts = 10;
+
+    @Value("${app.outbox.retention-hours:24}")
+    private int retentionHours = 24;
+
+    @Value("${app.outbox.backlog-check-enabled:true}")
+    private boolean backlogCheckEnabled = true;
+
+    @Value("${app.outbox.backlog-check-interval-ms:1000}")
+    private long backlogCheckIntervalMs = 1000;
+
+    private long backlogCountedAt;
+
+    public TransactionOutboxRelay(TransactionOutboxRepository outboxRepository,
+                                  SchedulerLockRepository schedulerLockRepository,
+                                  ShardBucketTable shardBucketTable,
+                                  KafkaTemplate<String, byte[]> outboxKafkaTemplate,
+                                  TransactionTemplate transactionTemplate,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${app.outbox.max-in-flight:1000}") int maxInFlight) {
+        this.outboxRepository = outboxRepository;
+        this.schedulerLockRepository = schedulerLockRepository;
+        this.shardBucketTable = shardBucketTable;
+        this.outboxKafkaTemplate = outboxKafkaTemplate;
+        this.transactionTemplate = transactionTemplate;
+        // Batches commit on their own while the round keeps holding the relay lock
+        this.batchTemplate = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        this.batchTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.maxInFlight = maxInFlight;
+        this.inFlight = new Semaphore(maxInFlight);
+        this.sentCounter = Counter.builder("transaction_outbox_sent_total")
+                .description("Outbox events published to Kafka")
+                .register(meterRegistry);
+        this.failedCounter = Counter.builder("transaction_outbox_send_failures_total")
+                .description("Outbox publish attempts that were not acknowledged")
+                .register(meterRegistry);
+        this.publishLatency = Timer.builder("transaction_outbox_publish_latency_seconds")
+                .description("Time from handing a record to the producer to its acknowledgement")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.eventAge = Timer.builder("transaction_outbox_event_age_seconds")
+                .description("Time from writing an event to the outbox to its acknowledgement")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        Gauge.builder("transaction_outbox_in_flight", inFlight, window -> maxInFlight - window.availablePermits())
+                .description("Outbox records sent and not yet acknowledged")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${app.outbox.poll-interval-ms:200}")
+    public void relay() {
+        transactionTemplate.executeWithoutResult(status -> {
+            if (!schedulerLockRepository.tryLockJob(RELAY_LOCK)) {
+                log.debug("Outbox relay round skipped, another node holds the lock");
+                return;
+            }
+            drainAll();
+            reportBacklog();
+        });
+    }
+
+    private void drainAll() {
+        List<String> dataSources = shardBucketTable.dataSourceNames();
+        if (dataSources.isEmpty()) {
+            // Not sharded: the only database holds the whole outbox
+            drain();
+            return;
+        }
+        for (String dataSource : dataSources) {
+            try (HintManager hintManager = HintManager.getInstance()) {
+                hintManager.setDataSourceName(dataSource);
+                drain();
+            } catch (RuntimeException e) {
+                // One unreachable shard must not hold back the events of the others
+                log.warn("Outbox relay on {} failed, will retry: {}", dataSource, e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Count the PENDING rows of every data source and report the total on the relay's lock
+     * row. If a data source cannot be counted the last reported value stays.
+     */
+    private void reportBacklog() {
+        long now = System.currentTimeMillis();
+        if (!backlogCheckEnabled || now - backlogCountedAt < backlogCheckIntervalMs) {
+            return;
+        }
+        backlogCountedAt = now;
+        List<String> dataSources = shardBucketTable.dataSourceNames();
+        long pending = 0;
+        try {
+            if (dataSources.isEmpty()) {
+                pending = countPending();
+            }
+            for (String dataSource : dataSources) {
+                try (HintManager hintManager = HintManager.getInstance()) {
+                    hintManager.setDataSourceName(dataSource);
+                    pending += countPending();
+                }
+            }
+        } catch (RuntimeException e) {
+            log.warn("Failed to count the outbox backlog: {}", e.getMessage());
+            return;
+        }
+        schedulerLockRepository.report(RELAY_LOCK, pending, LocalDateTime.now());
+    }
+
+    private long countPending() {
+        Long count = batchTemplate.execute(status -> outboxRepository.countByStatus(OutboxStatus.PENDING));
+        return count != null ? count : 0;
+    }
+
+    private void drain() {
+        int sent;
+        do {
+            sent = relayBatch();
+        } while (sent == batchSize);
+    }
+
+    /**
+     * Publish one batch of pending entries from the current data source.
+     * @return number of entries acknowledged by Kafka
+     */
+    public int relayBatch() {
+        Integer sent = batchTemplate.execute(status -> {
+            List<TransactionOutbox> batch = outboxRepository.lockPendingBatch(batchSize);
+            if (batch.isEmpty()) {
+                return 0;
+            }
+
+            long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(sendTimeoutMs);
+            // Keys with a failed or unacknowledged row: their later rows wait for the next round
+            Set<String> blockedKeys = new HashSet<>();
+            List<TransactionOutbox> sending = new ArrayList<>(batch.size());
+            List<CompletableFuture<SendResult<String, byte[]>>> futures = new ArrayList<>(batch.size());
+            for (int i = 0; i < batch.size(); i++) {
+                TransactionOutbox entry = batch.get(i);
+                if (blockedKeys.contains(entry.getMessageKey())) {
+                    continue;
+                }
+                if (!acquireSlot(deadline)) {
+                    log.warn("Outbox in-flight window ({}) still full after {} ms, {} entries left for the next round",
+                            maxInFlight, sendTimeoutMs, batch.size() - i);
+                    break;
+                }
+                CompletableFuture<SendResult<String, byte[]>> future = send(entry);
+                if (future.isCompletedExceptionally()) {
+                    blockedKeys.add(entry.getMessageKey());
+                }
+                sending.add(entry);
+                futures.add(future);
+            }
+            outboxKafkaTemplate.flush();
+
+            // Rebuilt in id order from the acknowledgements
+            blockedKeys.clear();
+            List<UUID> sentIds = new ArrayList<>(futures.size());
+            int failed = 0;
+            for (int i = 0; i < futures.size(); i++) {
+                TransactionOutbox entry = sending.get(i);
+                if (!awaitAck(entry, futures.get(i), deadline)) {
+                    failed++;
+                    blockedKeys.add(entry.getMessageKey());
+                } else if (!blockedKeys.contains(entry.getMessageKey())) {
+                    sentIds.add(entry.getId());
+                    if (entry.getCreatedAt() != null) {
+                        eventAge.record(Duration.between(entry.getCreatedAt(), LocalDateTime.now()));
+                    }
+                }
+                // Acknowledged behind a failed row of its key: stays PENDING and follows that row
+            }
+
+            if (!sentIds.isEmpty()) {
+                outboxRepository.markSent(sentIds, OutboxStatus.SENT, LocalDateTime.now());
+            }
+
+            sentCounter.increment(sentIds.size());
+            failedCounter.increment(failed);
+            log.debug("Relayed {}/{} outbox entries", sentIds.size(), batch.size());
+            return sentIds.size();
+        });
+
+        return sent != null ? sent : 0;
+    }
+
+    /**
+     * Wait for the acknowledgement of one record; a failure is recorded on the entry.
+     * @return true if Kafka acknowledged the record
+     */
+    private boolean awaitAck(TransactionOutbox entry, CompletableFuture<SendResult<String, byte[]>> future,
+                             long deadline) {
+        try {
+            future.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            entry.recordFailure("Interrupted while waiting for ack", maxAttempts);
+        } catch (Exception e) {
+            log.warn("Outbox entry={} publish to {} failed: {}, attempts={}/{}",
+                    entry.getId(), entry.getTopic(), e.getMessage(), entry.getAttempts() + 1, maxAttempts);
+            entry.recordFailure(e.getMessage(), maxAttempts);
+        }
+        return false;
+    }
+
+    private CompletableFuture<SendResult<String, byte[]>> send(TransactionOutbox entry) {
+        long start = System.nanoTime();
+        CompletableFuture<SendResult<String, byte[]>> future;
+        try {
+            future = outboxKafkaTemplate.send(entry.getTopic(), entry.getMessageKey(), entry.payloadBytes());
+        } catch (RuntimeException e) {
+            // Thrown before the record was queued, e.g. metadata not available within max.block.ms
+            inFlight.release();
+            return CompletableFuture.failedFuture(e);
+        }
+        return future.whenComplete((result, ex) -> {
+            inFlight.release();
+            if (ex == null) {
+                publishLatency.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            }
+        });
+    }
+
+    private boolean acquireSlot(long deadline) {
+        try {
+            return inFlight.tryAcquire(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.outbox.purge-interval-ms:3600000}")
+    public void purgeSent() {
+        Integer removed = transactionTemplate.execute(status -> outboxRepository.deleteSentBefore(
+                OutboxStatus.SENT, LocalDateTime.now().minusHours(retentionHours)));
+
+        if (removed != null && removed > 0) {
+            log.info("Purged {} sent outbox entries", removed);
+        }
+    }
+}
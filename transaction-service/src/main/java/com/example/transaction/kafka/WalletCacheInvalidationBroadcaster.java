@@ -0,0 +1,146 @@
+package com.example.transaction.kafka;
+
+import com.example.transaction.service.WalletCache;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.annotation.TopicPartition;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Spreads wallet cache evictions to the other transaction-service nodes.
+ * <p>
+ * Messages are a plain {@code nodeId,walletUid,userUid,publishedAtMillis} string (empty
+ * fields for unknown uids): no schema, a few dozen bytes. Every node assigns itself the
+ * topic's single partition, without a consumer group, and skips its own messages. Sends
+ * are fire-and-forget; a lost message leaves an entry stale for at most the cache TTL.
+ * <p>
+ * The committing request thread only enqueues: a single publisher thread drains a bounded
+ * queue into the producer, so a slow or unreachable cluster never holds a request thread.
+ * When the queue is full the eviction is dropped and counted.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "app.transaction", name = "wallet-cache-broadcast-enabled",
+        havingValue = "true", matchIfMissing = true)
+public class WalletCacheInvalidationBroadcaster {
+
+    // Tags this node's messages so it can skip them
+    public static final String NODE_ID = UUID.randomUUID().toString();
+
+    private final KafkaTemplate<String, String> kafkaTemplate;
+    private final WalletCache walletCache;
+    private final Timer invalidationLag;
+    private final Counter dropped;
+    private final ThreadPoolExecutor publisher;
+
+    @Value("${app.kafka.topics.wallet-cache-invalidation}")
+    private String topic;
+
+    public WalletCacheInvalidationBroadcaster(
+            @Qualifier("walletCacheKafkaTemplate") KafkaTemplate<String, String> kafkaTemplate,
+            WalletCache walletCache,
+            MeterRegistry meterRegistry,
+            @Value("${app.transaction.wallet-cache-broadcast-queue-size:10000}") int queueSize) {
+        this.kafkaTemplate = kafkaTemplate;
+        this.walletCache = walletCache;
+        this.invalidationLag = Timer.builder("wallet_cache_invalidation_lag_seconds")
+                .description("Time from a commit on one node to the eviction on another")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+        this.dropped = Counter.builder("wallet_cache_broadcasts_dropped_total")
+                .description("Evictions not broadcast because the publish queue was full")
+                .register(meterRegistry);
+        this.publisher = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueSize),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "wallet-cache-broadcast");
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                (runnable, executor) -> dropped.increment());
+        Gauge.builder("wallet_cache_broadcast_queue_size", publisher, executor -> executor.getQueue().size())
+                .description("Evictions waiting to be handed to the producer")
+                .register(meterRegistry);
+    }
+
+    public void broadcast(UUID walletUid, UUID userUid) {
+        String key = walletUid != null ? walletUid.toString() : String.valueOf(userUid);
+        String message = encode(NODE_ID, walletUid, userUid, System.currentTimeMillis());
+        publisher.execute(() -> publish(key, message));
+    }
+
+    private void publish(String key, String message) {
+        try {
+            kafkaTemplate.send(topic, key, message).whenComplete((result, ex) -> {
+                if (ex != null) {
+                    log.warn("Failed to broadcast wallet cache eviction for {}: {}", key, ex.getMessage());
+                }
+            });
+        } catch (RuntimeException e) {
+            log.warn("Failed to broadcast wallet cache eviction for {}: {}", key, e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        publisher.shutdown();
+    }
+
+    // The topic is created with one partition (KafkaConfig), so partition 0 is all of it
+    @KafkaListener(
+            topicPartitions = @TopicPartition(
+                    topic = "${app.kafka.topics.wallet-cache-invalidation}", partitions = "0"),
+            containerFactory = "walletCacheInvalidationListenerFactory"
+    )
+    public void onInvalidation(String message) {
+        Invalidation invalidation = decode(message);
+        if (invalidation == null || NODE_ID.equals(invalidation.nodeId())) {
+            return;
+        }
+        walletCache.evictRemote(invalidation.walletUid(), invalidation.userUid());
+        invalidationLag.record(Duration.ofMillis(
+                Math.max(0, System.currentTimeMillis() - invalidation.publishedAtMillis())));
+    }
+
+    static String encode(String nodeId, UUID walletUid, UUID userUid, long publishedAtMillis) {
+        return nodeId + ',' + (walletUid != null ? walletUid : "") + ','
+                + (userUid != null ? userUid : "") + ',' + publishedAtMillis;
+    }
+
+    static Invalidation decode(String message) {
+        String[] fields = message != null ? message.split(",", -1) : new String[0];
+        if (fields.length != 4) {
+            log.warn("Ignoring malformed wallet cache invalidation: {}", message);
+            return null;
+        }
+        try {
+            return new Invalidation(fields[0], uuidOrNull(fields[1]), uuidOrNull(fields[2]),
+                    Long.parseLong(fields[3]));
+        } catch (IllegalArgumentException e) {
+            log.warn("Ignoring malformed wallet cache invalidation: {}", message);
+            return null;
+        }
+    }
+
+    private static UUID uuidOrNull(String value) {
+        return value.isEmpty() ? null : UUID.fromString(value);
+    }
+
+    record Invalidation(String nodeId, UUID walletUid, UUID userUid, long publishedAtMillis) {
+    }
+}
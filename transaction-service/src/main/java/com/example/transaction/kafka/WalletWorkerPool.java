@@ -0,0 +1,154 @@
+package com.example.transaction.kafka;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Processes the records of one poll on per-wallet lanes.
+ * <p>
+ * Each lane is a single worker thread and a wallet always hashes to the same lane, so the
+ * records of one wallet keep their partition order while different wallets of the same
+ * partition are applied in parallel. The listener thread waits for every lane before it
+ * returns, so offsets are still committed only once the whole poll has been handled.
+ * With a single lane, or when a poll touches one lane only, records run on the caller.
+ */
+@Component
+public class WalletWorkerPool {
+
+    private final ExecutorService[] lanes;
+
+    public WalletWorkerPool(@Value("${app.kafka.consumer.wallet-workers:8}") int workers) {
+        this.lanes = new ExecutorService[Math.max(1, workers)];
+        for (int i = 0; i < lanes.length; i++) {
+            String name = "wallet-worker-" + i;
+            lanes[i] = Executors.newSingleThreadExecutor(runnable -> {
+                Thread thread = new Thread(runnable, name);
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+
+    /**
+     * Record that could not be processed and everything after it on its lane was skipped.
+     * @param index position of the record in the poll
+     */
+    public record Failure(int index, RuntimeException cause) {
+    }
+
+    /**
+     * Hand each lane its records, in poll order, as one list.
+     * @throws RuntimeException the failure of the lane whose first record comes earliest,
+     *         after every lane has finished
+     */
+    public <T> void forEachLane(List<T> items, Function<T, UUID> walletOf, Consumer<List<T>> action) {
+        Failure failure = earliest(run(items, walletOf, indexes -> {
+            try {
+                action.accept(indexes.stream().map(items::get).toList());
+                return null;
+            } catch (RuntimeException e) {
+                return new Failure(indexes.get(0), e);
+            }
+        }));
+        if (failure != null) {
+            throw failure.cause();
+        }
+    }
+
+    /**
+     * Apply {@code action} to each record in poll order within its lane; a lane stops at
+     * its first failure, the others run to the end.
+     * @return the failure with the lowest index: every record before it has been applied;
+     *         null if all records were applied
+     */
+    public <T> Failure forEachInOrder(List<T> items, Function<T, UUID> walletOf, Consumer<T> action) {
+        return earliest(run(items, walletOf, indexes -> {
+            for (int index : indexes) {
+                try {
+                    action.accept(items.get(index));
+                } catch (RuntimeException e) {
+                    return new Failure(index, e);
+                }
+            }
+            return null;
+        }));
+    }
+
+    private <T> List<Failure> run(List<T> items, Function<T, UUID> walletOf, Function<List<Integer>, Failure> task) {
+        Map<Integer, List<Integer>> indexesByLane = new LinkedHashMap<>();
+        for (int i = 0; i < items.size(); i++) {
+            indexesByLane.computeIfAbsent(laneOf(walletOf.apply(items.get(i))), lane -> new ArrayList<>()).add(i);
+        }
+
+        List<Failure> failures = new ArrayList<>(indexesByLane.size());
+        if (indexesByLane.size() <= 1) {
+            indexesByLane.values().forEach(indexes -> failures.add(task.apply(indexes)));
+            return failures;
+        }
+
+        List<Future<Failure>> futures = new ArrayList<>(indexesByLane.size());
+        indexesByLane.forEach((lane, indexes) -> futures.add(lanes[lane].submit(() -> task.apply(indexes))));
+        for (Future<Failure> future : futures) {
+            failures.add(await(future));
+        }
+        return failures;
+    }
+
+    // Lanes are never cancelled: a half-applied lane would leave a wallet mid-poll
+    private static Failure await(Future<Failure> future) {
+        boolean interrupted = false;
+        try {
+            while (true) {
+                try {
+                    return future.get();
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                } catch (ExecutionException e) {
+                    throw new IllegalStateException("Wallet worker failed", e.getCause());
+                }
+            }
+        } finally {
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private static Failure earliest(List<Failure> failures) {
+        Failure earliest = null;
+        for (Failure failure : failures) {
+            if (failure != null && (earliest == null || failure.index() < earliest.index())) {
+                earliest = failure;
+            }
+        }
+        return earliest;
+    }
+
+    private int laneOf(UUID walletUid) {
+        if (walletUid == null || lanes.length == 1) {
+            return 0;
+        }
+        int hash = walletUid.hashCode();
+        return Math.floorMod(hash ^ (hash >>> 16), lanes.length);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        for (ExecutorService lane : lanes) {
+            lane.shutdown();
+        }
+    }
+}
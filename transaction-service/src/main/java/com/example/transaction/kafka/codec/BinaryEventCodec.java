@@ -0,0 +1,370 @@
+package com.example.transaction.kafka.codec;
+
+import com.example.transaction.kafka.event.BaseEvent;
+import com.example.transaction.kafka.event.DepositCompletedEvent;
+import com.example.transaction.kafka.event.DepositRequestedEvent;
+import com.example.transaction.kafka.event.WithdrawalCompletedEvent;
+import com.example.transaction.kafka.event.WithdrawalFailedEvent;
+import com.example.transaction.kafka.event.WithdrawalRequestedEvent;
+import org.apache.kafka.common.errors.SerializationException;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.time.DateTimeException;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.UUID;
+
+/**
+ * Compact binary encoding of the transaction events, written by hand instead of reflection.
+ * <pre>
+ * byte    magic 0xC1 (never valid UTF-8, so it cannot start a JSON payload)
+ * byte    schema version
+ * byte    event type
+ * varint  presence bits, bit i set = field i is not null
+ * fields  in schema order, absent ones skipped
+ * </pre>
+ * Field order is the {@link BaseEvent} fields (eventId, timestamp, transactionUid, userUid)
+ * followed by the subclass fields as declared. UUIDs take 16 bytes, timestamps are UTC epoch
+ * seconds plus nanos, amounts are scale plus unscaled value, strings are length-prefixed UTF-8,
+ * integers are zigzag varints.
+ * <p>
+ * New fields are only ever appended: a reader stops after the fields it knows, so older
+ * consumers keep working. Any other change bumps {@link #VERSION}; readers reject versions
+ * they do not know.
+ */
+public final class BinaryEventCodec {
+
+    public static final byte MAGIC = (byte) 0xC1;
+    public static final byte VERSION = 1;
+
+    private static final byte DEPOSIT_REQUESTED = 1;
+    private static final byte WITHDRAWAL_REQUESTED = 2;
+    private static final byte DEPOSIT_COMPLETED = 3;
+    private static final byte WITHDRAWAL_COMPLETED = 4;
+    private static final byte WITHDRAWAL_FAILED = 5;
+
+    private BinaryEventCodec() {
+    }
+
+    /**
+     * @return whether {@code data} starts like a binary-encoded event
+     */
+    public static boolean isBinary(byte[] data) {
+        return data != null && data.length > 0 && data[0] == MAGIC;
+    }
+
+    public static byte[] encode(BaseEvent event) {
+        Writer out = new Writer();
+        if (event instanceof DepositRequestedEvent e) {
+            out.header(DEPOSIT_REQUESTED, e, bit(4, e.getWalletUid()) | bit(5, e.getAmount()) | bit(6, e.getFee())
+                    | bit(7, e.getCurrencyCode()) | bit(8, e.getPaymentMethodId()));
+            out.uuid(e.getWalletUid()).decimal(e.getAmount()).decimal(e.getFee())
+                    .string(e.getCurrencyCode()).varlong(e.getPaymentMethodId());
+        } else if (event instanceof WithdrawalRequestedEvent e) {
+            out.header(WITHDRAWAL_REQUESTED, e, bit(4, e.getWalletUid()) | bit(5, e.getAmount()) | bit(6, e.getFee())
+                    | bit(7, e.getTotalAmount()) | bit(8, e.getCurrencyCode()) | bit(9, e.getPaymentMethodId()));
+            out.uuid(e.getWalletUid()).decimal(e.getAmount()).decimal(e.getFee()).decimal(e.getTotalAmount())
+                    .string(e.getCurrencyCode()).varlong(e.getPaymentMethodId());
+        } else if (event instanceof DepositCompletedEvent e) {
+            out.header(DEPOSIT_COMPLETED, e, bit(4, e.getWalletUid()) | bit(5, e.getAmount())
+                    | bit(6, e.getExternalReferenceId()));
+            out.uuid(e.getWalletUid()).decimal(e.getAmount()).string(e.getExternalReferenceId());
+        } else if (event instanceof WithdrawalCompletedEvent e) {
+            out.header(WITHDRAWAL_COMPLETED, e, bit(4, e.getWalletUid()) | bit(5, e.getAmount())
+                    | bit(6, e.getExternalReferenceId()));
+            out.uuid(e.getWalletUid()).decimal(e.getAmount()).string(e.getExternalReferenceId());
+        } else if (event instanceof WithdrawalFailedEvent e) {
+            out.header(WITHDRAWAL_FAILED, e, bit(4, e.getWalletUid()) | bit(5, e.getRefundAmount())
+                    | bit(6, e.getReason()) | bit(7, e.getErrorCode()));
+            out.uuid(e.getWalletUid()).decimal(e.getRefundAmount()).string(e.getReason()).string(e.getErrorCode());
+        } else {
+            throw new SerializationException("No binary schema for " + event.getClass().getSimpleName());
+        }
+        return out.toByteArray();
+    }
+
+    public static BaseEvent decode(byte[] data) {
+        Reader in = new Reader(data);
+        try {
+            if (in.readByte() != MAGIC) {
+                throw new SerializationException("Not a binary event");
+            }
+            byte version = in.readByte();
+            if (version != VERSION) {
+                throw new SerializationException("Unsupported binary event version " + version);
+            }
+            byte type = in.readByte();
+            in.presence = in.readVarlong();
+
+            return switch (type) {
+                case DEPOSIT_REQUESTED -> {
+                    DepositRequestedEvent e = new DepositRequestedEvent();
+                    in.base(e);
+                    e.setWalletUid(in.uuid());
+                    e.setAmount(in.decimal());
+                    e.setFee(in.decimal());
+                    e.setCurrencyCode(in.string());
+                    e.setPaymentMethodId(in.varlong());
+                    yield e;
+                }
+                case WITHDRAWAL_REQUESTED -> {
+                    WithdrawalRequestedEvent e = new WithdrawalRequestedEvent();
+                    in.base(e);
+                    e.setWalletUid(in.uuid());
+                    e.setAmount(in.decimal());
+                    e.setFee(in.decimal());
+                    e.setTotalAmount(in.decimal());
+                    e.setCurrencyCode(in.string());
+                    e.setPaymentMethodId(in.varlong());
+                    yield e;
+                }
+                case DEPOSIT_COMPLETED -> {
+                    DepositCompletedEvent e = new DepositCompletedEvent();
+                    in.base(e);
+                    e.setWalletUid(in.uuid());
+                    e.setAmount(in.decimal());
+                    e.setExternalReferenceId(in.string());
+                    yield e;
+                }
+                case WITHDRAWAL_COMPLETED -> {
+                    WithdrawalCompletedEvent e = new WithdrawalCompletedEvent();
+                    in.base(e);
+                    e.setWalletUid(in.uuid());
+                    e.setAmount(in.decimal());
+                    e.setExternalReferenceId(in.string());
+                    yield e;
+                }
+                case WITHDRAWAL_FAILED -> {
+                    WithdrawalFailedEvent e = new WithdrawalFailedEvent();
+                    in.base(e);
+                    e.setWalletUid(in.uuid());
+                    e.setRefundAmount(in.decimal());
+                    e.setReason(in.string());
+                    e.setErrorCode(in.string());
+                    yield e;
+                }
+                default -> throw new SerializationException("Unknown binary event type " + type);
+            };
+        } catch (ArrayIndexOutOfBoundsException | DateTimeException e) {
+            throw new SerializationException("Malformed binary event", e);
+        }
+    }
+
+    private static long bit(int field, Object value) {
+        return value != null ? 1L << field : 0;
+    }
+
+    private static final class Writer {
+
+        private byte[] buf = new byte[128];
+        private int pos;
+
+        // Fields 0-3 are the BaseEvent ones, the subclass passes the presence bits of its own
+        void header(byte type, BaseEvent event, long fieldPresence) {
+            long presence = fieldPresence | bit(0, event.getEventId()) | bit(1, event.getTimestamp())
+                    | bit(2, event.getTransactionUid()) | bit(3, event.getUserUid());
+            writeByte(MAGIC);
+            writeByte(VERSION);
+            writeByte(type);
+            writeVarlong(presence);
+            uuid(event.getEventId()).timestamp(event.getTimestamp())
+                    .uuid(event.getTransactionUid()).uuid(event.getUserUid());
+        }
+
+        Writer uuid(UUID value) {
+            if (value != null) {
+                writeLong(value.getMostSignificantBits());
+                writeLong(value.getLeastSignificantBits());
+            }
+            return this;
+        }
+
+        Writer timestamp(LocalDateTime value) {
+            if (value != null) {
+                writeVarlong(zigzag(value.toEpochSecond(ZoneOffset.UTC)));
+                writeVarlong(value.getNano());
+            }
+            return this;
+        }
+
+        // Header is zigzag(scale) << 1 | wide; narrow values carry the unscaled long as a zigzag varint
+        Writer decimal(BigDecimal value) {
+            if (value != null) {
+                BigInteger unscaled = value.unscaledValue();
+                long scale = zigzag(value.scale());
+                if (unscaled.bitLength() < 64) {
+                    writeVarlong(scale << 1);
+                    writeVarlong(zigzag(unscaled.longValue()));
+                } else {
+                    byte[] bytes = unscaled.toByteArray();
+                    writeVarlong(scale << 1 | 1);
+                    writeVarlong(bytes.length);
+                    writeBytes(bytes);
+                }
+            }
+            return this;
+        }
+
+        Writer string(String value) {
+            if (value != null) {
+                byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+                writeVarlong(bytes.length);
+                writeBytes(bytes);
+            }
+            return this;
+        }
+
+        Writer varlong(Long value) {
+            if (value != null) {
+                writeVarlong(zigzag(value));
+            }
+            return this;
+        }
+
+        byte[] toByteArray() {
+            return Arrays.copyOf(buf, pos);
+        }
+
+        private void writeByte(byte value) {
+            ensure(1);
+            buf[pos++] = value;
+        }
+
+        private void writeLong(long value) {
+            ensure(8);
+            for (int shift = 56; shift >= 0; shift -= 8) {
+                buf[pos++] = (byte) (value >>> shift);
+            }
+        }
+
+        private void writeVarlong(long value) {
+            ensure(10);
+            while ((value & ~0x7FL) != 0) {
+                buf[pos++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            buf[pos++] = (byte) value;
+        }
+
+        private void writeBytes(byte[] bytes) {
+            ensure(bytes.length);
+            System.arraycopy(bytes, 0, buf, pos, bytes.length);
+            pos += bytes.length;
+        }
+
+        private void ensure(int extra) {
+            if (pos + extra > buf.length) {
+                buf = Arrays.copyOf(buf, Math.max(buf.length * 2, pos + extra));
+            }
+        }
+
+        private static long zigzag(long value) {
+            return (value << 1) ^ (value >> 63);
+        }
+    }
+
+    private static final class Reader {
+
+        private final byte[] buf;
+        private int pos;
+        private long presence;
+        private int field;
+
+        Reader(byte[] buf) {
+            this.buf = buf;
+        }
+
+        void base(BaseEvent event) {
+            event.setEventId(uuid());
+            event.setTimestamp(timestamp());
+            event.setTransactionUid(uuid());
+            event.setUserUid(uuid());
+        }
+
+        UUID uuid() {
+            return present() ? new UUID(readLong(), readLong()) : null;
+        }
+
+        LocalDateTime timestamp() {
+            if (!present()) {
+                return null;
+            }
+            long seconds = unzigzag(readVarlong());
+            return LocalDateTime.ofEpochSecond(seconds, (int) readVarlong(), ZoneOffset.UTC);
+        }
+
+        BigDecimal decimal() {
+            if (!present()) {
+                return null;
+            }
+            long header = readVarlong();
+            int scale = (int) unzigzag(header >>> 1);
+            if ((header & 1) == 0) {
+                return BigDecimal.valueOf(unzigzag(readVarlong()), scale);
+            }
+            return new BigDecimal(new BigInteger(readBytes((int) readVarlong())), scale);
+        }
+
+        String string() {
+            if (!present()) {
+                return null;
+            }
+            int length = (int) readVarlong();
+            if (length < 0 || length > buf.length - pos) {
+                throw new SerializationException("Invalid string length " + length);
+            }
+            String value = new String(buf, pos, length, StandardCharsets.UTF_8);
+            pos += length;
+            return value;
+        }
+
+        Long varlong() {
+            return present() ? unzigzag(readVarlong()) : null;
+        }
+
+        // Fields appended by a newer writer are simply never read
+        private boolean present() {
+            return (presence & (1L << field++)) != 0;
+        }
+
+        byte readByte() {
+            return buf[pos++];
+        }
+
+        private long readLong() {
+            long value = 0;
+            for (int i = 0; i < 8; i++) {
+                value = (value << 8) | (buf[pos++] & 0xFF);
+            }
+            return value;
+        }
+
+        long readVarlong() {
+            long value = 0;
+            for (int shift = 0; shift < 64; shift += 7) {
+                byte b = buf[pos++];
+                value |= (long) (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return value;
+                }
+            }
+            throw new SerializationException("Malformed varint");
+        }
+
+        private byte[] readBytes(int length) {
+            if (length < 0 || length > buf.length - pos) {
+                throw new SerializationException("Invalid byte length " + length);
+            }
+            byte[] bytes = Arrays.copyOfRange(buf, pos, pos + length);
+            pos += length;
+            return bytes;
+        }
+
+        private static long unzigzag(long value) {
+            return (value >>> 1) ^ -(value & 1);
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.example.transaction.kafka.codec;
+
+import com.example.transaction.kafka.event.BaseEvent;
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.serialization.Deserializer;
+
+/**
+ * Value deserializer for topics switched to {@link EventFormat#BINARY}. The format is told
+ * apart by the first byte, so JSON records still in the topic (or from producers not yet
+ * switched) keep being read through the JSON deserializer.
+ */
+public class EventDeserializer<T extends BaseEvent> implements Deserializer<T> {
+
+    private final Class<T> targetType;
+    private final Deserializer<T> jsonDeserializer;
+
+    public EventDeserializer(Class<T> targetType, Deserializer<T> jsonDeserializer) {
+        this.targetType = targetType;
+        this.jsonDeserializer = jsonDeserializer;
+    }
+
+    @Override
+    public T deserialize(String topic, byte[] data) {
+        return deserialize(topic, null, data);
+    }
+
+    @Override
+    public T deserialize(String topic, Headers headers, byte[] data) {
+        if (data == null) {
+            return null;
+        }
+        if (!BinaryEventCodec.isBinary(data)) {
+            return headers != null
+                    ? jsonDeserializer.deserialize(topic, headers, data)
+                    : jsonDeserializer.deserialize(topic, data);
+        }
+        BaseEvent event = BinaryEventCodec.decode(data);
+        if (!targetType.isInstance(event)) {
+            throw new SerializationException(String.format("Expected %s on %s, got %s",
+                    targetType.getSimpleName(), topic, event.getClass().getSimpleName()));
+        }
+        return targetType.cast(event);
+    }
+
+    @Override
+    public void close() {
+        jsonDeserializer.close();
+    }
+}
@@ -0,0 +1,11 @@
+package com.example.transaction.kafka.codec;
+
+/**
+ * Wire format of a Kafka topic's values.
+ */
+public enum EventFormat {
+    /** Jackson JSON, as written by Spring Kafka's {@code JsonSerializer} */
+    JSON,
+    /** {@link BinaryEventCodec} */
+    BINARY
+}
@@ -17,9 +17,9 @@ public class TransactionMapper {
         return TransactionInitResponse.builder()
                 .requestUid(initRequest.getRequestUid())
                 .walletUid(initRequest.getWalletUid())
-                .amount(initRequest.getAmount())
-                .fee(initRequest.getFee())
-                .totalAmount(initRequest.getTotalAmount())
+                .amount(initRequest.getAmount().toBigDecimal())
+                .fee(initRequest.getFee().toBigDecimal())
+                .totalAmount(initRequest.getTotalAmount().toBigDecimal())
                 .currencyCode(currencyCode)
                 .available(true)
                 .expiresAt(initRequest.getExpiresAt().atOffset(ZoneOffset.UTC))
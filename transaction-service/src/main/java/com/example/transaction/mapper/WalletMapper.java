@@ -4,12 +4,20 @@ import com.example.transaction.dto.WalletResponse;
 import com.example.transaction.entity.Wallet;
 import org.springframework.stereotype.Component;
 
+import java.math.BigDecimal;
 import java.time.ZoneOffset;
 
 @Component
 public class WalletMapper {
 
     public WalletResponse toResponse(Wallet wallet) {
+        return wallet == null ? null : toResponse(wallet, wallet.getBalance());
+    }
+
+    /**
+     * @param balance total balance of the wallet, including its balance slots if any
+     */
+    public WalletResponse toResponse(Wallet wallet, BigDecimal balance) {
         if (wallet == null) {
             return null;
         }
@@ -20,7 +28,7 @@ public class WalletMapper {
                 .walletTypeUid(wallet.getWalletType().getUid())
                 .name(wallet.getName())
                 .status(WalletResponse.StatusEnum.fromValue(wallet.getStatus().name()))
-                .balance(wallet.getBalance())
+                .balance(balance)
                 .currencyCode(wallet.getWalletType().getCurrencyCode())
                 .createdAt(wallet.getCreatedAt() != null
                         ? wallet.getCreatedAt().atOffset(ZoneOffset.UTC)
@@ -0,0 +1,13 @@
+package com.example.transaction.repository;
+
+import com.example.transaction.entity.FeeRule;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface FeeRuleRepository extends JpaRepository<FeeRule, Long> {
+
+    List<FeeRule> findByActiveTrueOrderById();
+}
@@ -0,0 +1,32 @@
+package com.example.transaction.repository;
+
+import com.example.transaction.entity.LedgerCheckpoint;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+public interface LedgerCheckpointRepository extends JpaRepository<LedgerCheckpoint, UUID> {
+
+    Optional<LedgerCheckpoint> findFirstByWalletUidAndCheckpointAtLessThanEqualOrderByCheckpointAtDesc(
+            UUID walletUid, LocalDateTime at);
+
+    /**
+     * Latest checkpoint at or before {@code at} of each of the given wallets.
+     */
+    @Query("SELECT c FROM LedgerCheckpoint c WHERE c.walletUid IN :walletUids AND c.checkpointAt = " +
+            "(SELECT MAX(l.checkpointAt) FROM LedgerCheckpoint l " +
+            "WHERE l.walletUid = c.walletUid AND l.checkpointAt <= :at)")
+    List<LedgerCheckpoint> findLatestAtOrBefore(@Param("walletUids") Collection<UUID> walletUids,
+                                                @Param("at") LocalDateTime at);
+
+    @Query("SELECT MAX(c.checkpointAt) FROM LedgerCheckpoint c")
+    Optional<LocalDateTime> findLastCheckpointAt();
+}
@@ -0,0 +1,61 @@
+package com.example.transaction.repository;
+
+import com.example.transaction.entity.LedgerEntry;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface LedgerEntryRepository extends JpaRepository<LedgerEntry, UUID> {
+
+    /**
+     * Tail of a wallet's entries up to {@code upTo} not covered by the checkpoint taken at
+     * {@code checkpointAt}: stamped by a later run or not stamped yet, however old their
+     * {@code created_at}. Served by idx_ledger_entries_wallet_checkpoint.
+     */
+    @Query("SELECT COALESCE(SUM(e.amount), 0) FROM LedgerEntry e " +
+            "WHERE e.walletUid = :walletUid AND e.createdAt <= :upTo " +
+            "AND (e.checkpointAt IS NULL OR e.checkpointAt > :checkpointAt)")
+    BigDecimal sumForWalletAfterCheckpoint(@Param("walletUid") UUID walletUid,
+                                           @Param("checkpointAt") LocalDateTime checkpointAt,
+                                           @Param("upTo") LocalDateTime upTo);
+
+    @Query("SELECT COALESCE(SUM(e.amount), 0) FROM LedgerEntry e " +
+            "WHERE e.walletUid = :walletUid AND e.createdAt <= :upTo")
+    BigDecimal sumForWalletUpTo(@Param("walletUid") UUID walletUid, @Param("upTo") LocalDateTime upTo);
+
+    /**
+     * Stamp every committed entry up to {@code checkpointAt} that no earlier run has
+     * covered. Entries of transactions still open are invisible here and get the stamp of
+     * the first run after they commit, whatever their {@code created_at}.
+     */
+    @Modifying
+    @Query(value = "UPDATE ledger_entries SET checkpoint_at = :checkpointAt " +
+            "WHERE checkpoint_at IS NULL AND created_at <= :checkpointAt", nativeQuery = true)
+    int stampForCheckpoint(@Param("checkpointAt") LocalDateTime checkpointAt);
+
+    /**
+     * Per-wallet movement stamped by the run at {@code checkpointAt}, for wallets that had any.
+     */
+    @Query("SELECT e.walletUid AS walletUid, e.userUid AS userUid, SUM(e.amount) AS amount " +
+            "FROM LedgerEntry e WHERE e.walletUid IS NOT NULL AND e.checkpointAt = :checkpointAt " +
+            "GROUP BY e.walletUid, e.userUid")
+    List<WalletMovement> sumByWalletStampedAt(@Param("checkpointAt") LocalDateTime checkpointAt);
+
+    List<LedgerEntry> findByTransactionUid(UUID transactionUid);
+
+    interface WalletMovement {
+        UUID getWalletUid();
+
+        UUID getUserUid();
+
+        BigDecimal getAmount();
+    }
+}
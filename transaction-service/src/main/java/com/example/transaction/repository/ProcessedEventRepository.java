@@ -0,0 +1,24 @@
+package com.example.transaction.repository;
+
+import com.example.transaction.entity.ProcessedEvent;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Set;
+import java.util.UUID;
+
+@Repository
+public interface ProcessedEventRepository extends JpaRepository<ProcessedEvent, UUID> {
+
+    @Query("SELECT p.eventId FROM ProcessedEvent p WHERE p.eventId IN :eventIds")
+    Set<UUID> findExistingIds(@Param("eventIds") Collection<UUID> eventIds);
+
+    @Modifying
+    @Query("DELETE FROM ProcessedEvent p WHERE p.processedAt < :before")
+    int deleteProcessedBefore(@Param("before") LocalDateTime before);
+}
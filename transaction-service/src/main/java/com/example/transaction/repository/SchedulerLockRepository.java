@@ -0,0 +1,51 @@
+package com.example.transaction.repository;
+
+import com.example.transaction.entity.SchedulerLock;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+@Repository
+public interface SchedulerLockRepository extends JpaRepository<SchedulerLock, String> {
+
+    /**
+     * Lock the job's row until the caller's transaction ends. Empty when another node holds
+     * it (or the row does not exist yet): the lock is skipped rather than waited on.
+     */
+    @Query(value = "SELECT * FROM scheduler_locks WHERE name = :name FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    Optional<SchedulerLock> tryLock(@Param("name") String name);
+
+    /**
+     * Take the job's lock for the caller's transaction. The row is seeded by migration; a fresh
+     * schema without it gets the row inserted, which holds it for the transaction just the same.
+     * @return false when another node holds the lock
+     */
+    default boolean tryLockJob(String name) {
+        if (tryLock(name).isPresent()) {
+            return true;
+        }
+        if (existsById(name)) {
+            return false;
+        }
+        saveAndFlush(new SchedulerLock(name));
+        return true;
+    }
+
+    /**
+     * Publish a value on the job's row; called by the node holding the job's lock.
+     */
+    @Modifying
+    @Query("UPDATE SchedulerLock l SET l.reportedValue = :value, l.reportedAt = :reportedAt WHERE l.name = :name")
+    int report(@Param("name") String name, @Param("value") long value, @Param("reportedAt") LocalDateTime reportedAt);
+
+    /**
+     * The value last published on the job's row; empty before the first report.
+     */
+    @Query("SELECT l.reportedValue FROM SchedulerLock l WHERE l.name = :name")
+    Optional<Long> findReportedValue(@Param("name") String name);
+}
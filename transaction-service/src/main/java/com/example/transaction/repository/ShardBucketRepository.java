@@ -0,0 +1,14 @@
+package com.example.transaction.repository;
+
+import com.example.transaction.entity.ShardBucket;
+import com.example.transaction.entity.enums.ShardBucketState;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface ShardBucketRepository extends JpaRepository<ShardBucket, Integer> {
+
+    List<ShardBucket> findByStateOrderByBucket(ShardBucketState state);
+}
@@ -0,0 +1,41 @@
+package com.example.transaction.repository;
+
+import com.example.transaction.entity.TransactionOutbox;
+import com.example.transaction.entity.enums.OutboxStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface TransactionOutboxRepository extends JpaRepository<TransactionOutbox, UUID> {
+
+    /**
+     * Claim the oldest pending entries. Only the relay holding the {@code outbox-relay} lock
+     * calls this; rows still locked by a relay that lost the lock mid-round are waited on, not
+     * skipped, so no later row of a wallet overtakes them. Under sharding the caller pins the
+     * query to one data source.
+     */
+    @Query(value = "SELECT * FROM transaction_outbox WHERE status = 'PENDING' " +
+            "ORDER BY id LIMIT :limit FOR UPDATE", nativeQuery = true)
+    List<TransactionOutbox> lockPendingBatch(@Param("limit") int limit);
+
+    @Modifying
+    @Query("UPDATE TransactionOutbox o SET o.status = :status, o.sentAt = :sentAt WHERE o.id IN :ids")
+    int markSent(@Param("ids") Collection<UUID> ids,
+                 @Param("status") OutboxStatus status,
+                 @Param("sentAt") LocalDateTime sentAt);
+
+    @Modifying
+    @Query("DELETE FROM TransactionOutbox o WHERE o.status = :status AND o.sentAt < :before")
+    int deleteSentBefore(@Param("status") OutboxStatus status,
+                         @Param("before") LocalDateTime before);
+
+    long countByStatus(OutboxStatus status);
+}
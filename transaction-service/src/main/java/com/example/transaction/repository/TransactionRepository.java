@@ -3,22 +3,52 @@ package com.example.transaction.repository;
 import com.example.transaction.entity.Transaction;
 import com.example.transaction.entity.enums.PaymentType;
 import com.example.transaction.entity.enums.TransactionStatus;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 @Repository
 public interface TransactionRepository extends JpaRepository<Transaction, UUID>, JpaSpecificationExecutor<Transaction> {
 
+    // Matches idx_transactions_user_created_uid (user_uid, created_at DESC, uid)
+    Sort KEYSET_SORT = Sort.by(Sort.Order.desc("createdAt"), Sort.Order.asc("uid"));
+
+    // In-memory twin of KEYSET_SORT, for merging pages read from several shards
+    Comparator<Transaction> KEYSET_ORDER = Comparator
+            .comparing(Transaction::getCreatedAt, Comparator.reverseOrder())
+            .thenComparing(Transaction::getUid);
+
+    // Search results need the wallet's wallet_type_uid (currency comes from WalletTypeCache);
+    // fetch the wallet row in the same query
+    String[] SEARCH_FETCH_GRAPH = {"wallet"};
+
+    // Rows per JDBC round trip of the export cursor, also how often the export clears the session
+    int EXPORT_FETCH_SIZE = 500;
+
+    @Override
+    @EntityGraph(attributePaths = {"wallet"})
+    Page<Transaction> findAll(Specification<Transaction> spec, Pageable pageable);
+
     List<Transaction> findByUserUid(UUID userUid);
 
     Page<Transaction> findByUserUid(UUID userUid, Pageable pageable);
@@ -42,4 +72,71 @@ public interface TransactionRepository extends JpaRepository<Transaction, UUID>,
     Page<Transaction> findByCreatedAtBetween(LocalDateTime from, LocalDateTime to, Pageable pageable);
 
     long countByUserUidAndStatus(UUID userUid, TransactionStatus status);
+
+    /**
+     * Server-side cursor over one user's history in {@link #KEYSET_SORT} order, read
+     * {@link #EXPORT_FETCH_SIZE} rows at a time. Must be consumed inside a transaction and
+     * closed. The date bounds are mandatory plain range predicates, so months outside them
+     * are pruned.
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + EXPORT_FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT t FROM Transaction t JOIN FETCH t.wallet w " +
+            "WHERE t.userUid = :userUid AND (:walletUid IS NULL OR w.uid = :walletUid) " +
+            "AND t.createdAt >= :from AND t.createdAt < :to " +
+            "ORDER BY t.createdAt DESC, t.uid")
+    Stream<Transaction> streamForExport(@Param("userUid") UUID userUid,
+                                        @Param("walletUid") UUID walletUid,
+                                        @Param("from") LocalDateTime from,
+                                        @Param("to") LocalDateTime to);
+
+    /**
+     * Keyset page: up to {@code limit} rows matching {@code spec} that come after
+     * {@code (afterCreatedAt, afterUid)}; no COUNT query, no OFFSET scan.
+     * A null {@code afterCreatedAt} starts from the newest row.
+     */
+    default List<Transaction> findSeekPage(Specification<Transaction> spec,
+                                           LocalDateTime afterCreatedAt,
+                                           UUID afterUid,
+                                           int limit) {
+        return findBy(spec.and(TransactionSpecification.seekAfter(afterCreatedAt, afterUid)),
+                query -> query.sortBy(KEYSET_SORT).project(SEARCH_FETCH_GRAPH).limit(limit).all());
+    }
+
+    @Query("SELECT t.uid AS uid, t.userUid AS userUid, t.status AS status, t.wallet.uid AS walletUid, " +
+            "t.type AS type, t.amount AS amount, t.fee AS fee, t.createdAt AS createdAt " +
+            "FROM Transaction t WHERE t.uid IN :uids")
+    List<StatusView> findStatusesByUidIn(@Param("uids") Collection<UUID> uids);
+
+    /**
+     * Move a set of transactions from one status to another in a single statement.
+     * Rows not in {@code from} are left untouched; callers compare the returned count.
+     */
+    @Modifying
+    @Query("UPDATE Transaction t SET t.status = :to, t.modifiedAt = :modifiedAt " +
+            "WHERE t.uid IN :uids AND t.status = :from")
+    int updateStatus(@Param("uids") Collection<UUID> uids,
+                     @Param("from") TransactionStatus from,
+                     @Param("to") TransactionStatus to,
+                     @Param("modifiedAt") LocalDateTime modifiedAt);
+
+    interface StatusView {
+        UUID getUid();
+
+        UUID getUserUid();
+
+        TransactionStatus getStatus();
+
+        UUID getWalletUid();
+
+        PaymentType getType();
+
+        BigDecimal getAmount();
+
+        BigDecimal getFee();
+
+        LocalDateTime getCreatedAt();
+    }
 }
\ No newline at end of file
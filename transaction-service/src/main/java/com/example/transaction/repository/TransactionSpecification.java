@@ -45,6 +45,17 @@ public final class TransactionSpecification {
                 dateTo == null ? null : cb.lessThanOrEqualTo(root.get("createdAt"), dateTo);
     }
 
+    /**
+     * Rows strictly after {@code (createdAt, uid)} in {@code created_at DESC, uid ASC} order.
+     */
+    public static Specification<Transaction> seekAfter(LocalDateTime createdAt, UUID uid) {
+        return (root, query, cb) -> createdAt == null ? null : cb.or(
+                cb.lessThan(root.get("createdAt"), createdAt),
+                cb.and(
+                        cb.equal(root.get("createdAt"), createdAt),
+                        cb.greaterThan(root.get("uid"), uid)));
+    }
+
     public static Specification<Transaction> buildSpecification(
             UUID userUid,
             UUID walletUid,
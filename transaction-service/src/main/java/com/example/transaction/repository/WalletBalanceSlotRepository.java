@@ -0,0 +1,48 @@
+package com.example.transaction.repository;
+
+import com.example.transaction.entity.WalletBalanceSlot;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface WalletBalanceSlotRepository extends JpaRepository<WalletBalanceSlot, UUID> {
+
+    /**
+     * Credit one slot with a single UPDATE; only that slot row is locked.
+     * @return 0 if the slot does not exist (wallet is not, or no longer, in slot mode)
+     */
+    @Modifying
+    @Query("UPDATE WalletBalanceSlot s SET s.balance = s.balance + :amount " +
+            "WHERE s.walletUid = :walletUid AND s.userUid = :userUid AND s.slot = :slot")
+    int addToSlot(@Param("walletUid") UUID walletUid,
+                  @Param("userUid") UUID userUid,
+                  @Param("slot") int slot,
+                  @Param("amount") BigDecimal amount);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM WalletBalanceSlot s WHERE s.walletUid = :walletUid ORDER BY s.slot")
+    List<WalletBalanceSlot> findByWalletUidForUpdate(@Param("walletUid") UUID walletUid);
+
+    @Query("SELECT COALESCE(SUM(s.balance), 0) FROM WalletBalanceSlot s WHERE s.walletUid = :walletUid")
+    BigDecimal sumByWalletUid(@Param("walletUid") UUID walletUid);
+
+    @Query("SELECT s.walletUid AS walletUid, SUM(s.balance) AS balance FROM WalletBalanceSlot s " +
+            "WHERE s.walletUid IN :walletUids GROUP BY s.walletUid")
+    List<SlotTotal> sumByWalletUidIn(@Param("walletUids") Collection<UUID> walletUids);
+
+    interface SlotTotal {
+        UUID getWalletUid();
+
+        BigDecimal getBalance();
+    }
+}
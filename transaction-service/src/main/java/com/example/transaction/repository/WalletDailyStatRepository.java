@@ -0,0 +1,68 @@
+package com.example.transaction.repository;
+
+import com.example.transaction.entity.WalletDailyStat;
+import com.example.transaction.entity.enums.PaymentType;
+import com.example.transaction.entity.enums.TransactionStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface WalletDailyStatRepository extends JpaRepository<WalletDailyStat, WalletDailyStat.Key> {
+
+    /**
+     * Add to a day's counters in one statement; Hibernate renders the conflict clause per
+     * dialect ({@code ON CONFLICT ... DO UPDATE} on Postgres, {@code MERGE} on H2).
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("INSERT INTO WalletDailyStat (walletUid, statDate, type, status, slot, userUid, txCount, amountSum, feeSum) " +
+            "VALUES (:walletUid, :statDate, :type, :status, :slot, :userUid, :count, :amount, :fee) " +
+            "ON CONFLICT (walletUid, statDate, type, status, slot) DO UPDATE SET " +
+            "txCount = txCount + excluded.txCount, " +
+            "amountSum = amountSum + excluded.amountSum, " +
+            "feeSum = feeSum + excluded.feeSum")
+    int increment(@Param("walletUid") UUID walletUid,
+                  @Param("statDate") LocalDate statDate,
+                  @Param("type") PaymentType type,
+                  @Param("status") TransactionStatus status,
+                  @Param("slot") int slot,
+                  @Param("userUid") UUID userUid,
+                  @Param("count") long count,
+                  @Param("amount") BigDecimal amount,
+                  @Param("fee") BigDecimal fee);
+
+    /**
+     * Days of a range with the counter slots summed. Carries no {@code user_uid}, so under
+     * sharding it runs on every data source and the sums include both sides of a bucket move.
+     */
+    @Query("SELECT s.statDate AS statDate, s.type AS type, s.status AS status, " +
+            "SUM(s.txCount) AS txCount, SUM(s.amountSum) AS amountSum, SUM(s.feeSum) AS feeSum " +
+            "FROM WalletDailyStat s " +
+            "WHERE s.walletUid = :walletUid AND s.statDate BETWEEN :from AND :to " +
+            "GROUP BY s.statDate, s.type, s.status " +
+            "ORDER BY s.statDate, s.type, s.status")
+    List<DayTotal> sumByDay(@Param("walletUid") UUID walletUid,
+                            @Param("from") LocalDate from,
+                            @Param("to") LocalDate to);
+
+    interface DayTotal {
+        LocalDate getStatDate();
+
+        PaymentType getType();
+
+        TransactionStatus getStatus();
+
+        Long getTxCount();
+
+        BigDecimal getAmountSum();
+
+        BigDecimal getFeeSum();
+    }
+}
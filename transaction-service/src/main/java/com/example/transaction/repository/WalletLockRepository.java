@@ -0,0 +1,22 @@
+package com.example.transaction.repository;
+
+import com.example.transaction.entity.Wallet;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Wallet row locks, part of {@link WalletRepository}.
+ */
+public interface WalletLockRepository {
+
+    Optional<Wallet> findByIdForUpdate(UUID uid);
+
+    /**
+     * Lock several wallets in one round trip. Rows are locked in {@code uid} order,
+     * so concurrent callers always acquire them in the same canonical order.
+     */
+    List<Wallet> findAllByIdForUpdate(Collection<UUID> uids);
+}
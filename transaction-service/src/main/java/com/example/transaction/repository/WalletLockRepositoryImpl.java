@@ -0,0 +1,70 @@
+package com.example.transaction.repository;
+
+import com.example.transaction.entity.Wallet;
+import com.example.transaction.sharding.ShardBucketTable;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.LockModeType;
+import lombok.RequiredArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * A wallet lock is a {@code SELECT ... FOR UPDATE} by uid, which ShardingSphere sends to every
+ * data source. While the wallet's user is being moved, the statement can pass the target before
+ * the copy commits and then wait on the source until the source row is deleted, and come back
+ * without the wallet. The move is over by then, so while a bucket is moving, wallets missing
+ * from the result are locked once more with a new statement, which sees the copy.
+ */
+@RequiredArgsConstructor
+class WalletLockRepositoryImpl implements WalletLockRepository {
+
+    private final EntityManager entityManager;
+    private final ShardBucketTable shardBucketTable;
+
+    @Override
+    public Optional<Wallet> findByIdForUpdate(UUID uid) {
+        List<Wallet> locked = lockById(uid);
+        if (locked.isEmpty() && shardBucketTable.hasMovingBuckets()) {
+            locked = lockById(uid);
+        }
+        return locked.stream().findFirst();
+    }
+
+    @Override
+    public List<Wallet> findAllByIdForUpdate(Collection<UUID> uids) {
+        List<Wallet> locked = lockAll(uids);
+        if (locked.size() == uids.size() || !shardBucketTable.hasMovingBuckets()) {
+            return locked;
+        }
+        Set<UUID> missing = new HashSet<>(uids);
+        locked.forEach(wallet -> missing.remove(wallet.getUid()));
+        if (missing.isEmpty()) {
+            return locked;
+        }
+        List<Wallet> all = new ArrayList<>(locked);
+        all.addAll(lockAll(missing));
+        all.sort(Comparator.comparing(Wallet::getUid));
+        return all;
+    }
+
+    private List<Wallet> lockById(UUID uid) {
+        return entityManager.createQuery("SELECT w FROM Wallet w WHERE w.uid = :uid", Wallet.class)
+                .setParameter("uid", uid)
+                .setLockMode(LockModeType.PESSIMISTIC_WRITE)
+                .getResultList();
+    }
+
+    private List<Wallet> lockAll(Collection<UUID> uids) {
+        return entityManager.createQuery("SELECT w FROM Wallet w WHERE w.uid IN :uids ORDER BY w.uid", Wallet.class)
+                .setParameter("uids", uids)
+                .setLockMode(LockModeType.PESSIMISTIC_WRITE)
+                .getResultList();
+    }
+}
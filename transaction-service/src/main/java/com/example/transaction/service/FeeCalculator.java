@@ -1,26 +1,48 @@
 package com.example.transaction.service;
 
 import com.example.transaction.config.AppProperties;
+import com.example.transaction.entity.Money;
 import com.example.transaction.entity.enums.PaymentType;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Component;
 
 import java.math.BigDecimal;
-import java.math.RoundingMode;
 
+/**
+ * Fee of an operation: the matching tier of the {@code fee_rules} schedule, or the flat
+ * {@code app.transaction.*-fee-percent} of its type when no rule covers it.
+ */
 @Component
 @RequiredArgsConstructor
 public class FeeCalculator {
 
     private final AppProperties appProperties;
+    private final FeeRuleEngine feeRuleEngine;
+
+    // Flat percents converted to Money.Rate once, reconverted only if the property is rebound
+    private final FlatRate[] flatRates = new FlatRate[PaymentType.values().length];
 
     public BigDecimal calculateFee(BigDecimal amount, PaymentType type) {
+        return calculateFee(amount, type, null, null);
+    }
+
+    public BigDecimal calculateFee(BigDecimal amount, PaymentType type, String currencyCode, Long paymentMethodId) {
         if (amount == null || amount.compareTo(BigDecimal.ZERO) <= 0) {
             return BigDecimal.ZERO;
         }
+        return calculateFee(Money.of(amount), type, currencyCode, paymentMethodId).toBigDecimal();
+    }
+
+    public Money calculateFee(Money amount, PaymentType type, String currencyCode, Long paymentMethodId) {
+        if (!amount.isPositive()) {
+            return Money.ZERO;
+        }
 
-        BigDecimal feePercent = getFeePercent(type);
-        return amount.multiply(feePercent).setScale(4, RoundingMode.HALF_UP);
+        FeeSchedule.Tier tier = feeRuleEngine.find(type, currencyCode, paymentMethodId, amount);
+        if (tier != null) {
+            return tier.feeFor(amount);
+        }
+        return amount.times(flatRate(type));
     }
 
     public BigDecimal getFeePercent(PaymentType type) {
@@ -35,4 +57,17 @@ public class FeeCalculator {
         BigDecimal fee = calculateFee(amount, type);
         return amount.add(fee);
     }
-}
\ No newline at end of file
+
+    private Money.Rate flatRate(PaymentType type) {
+        BigDecimal percent = getFeePercent(type);
+        FlatRate cached = flatRates[type.ordinal()];
+        if (cached == null || cached.percent() != percent) {
+            cached = new FlatRate(percent, Money.Rate.of(percent));
+            flatRates[type.ordinal()] = cached;
+        }
+        return cached.rate();
+    }
+
+    private record FlatRate(BigDecimal percent, Money.Rate rate) {
+    }
+}
@@ -0,0 +1,62 @@
+package com.example.transaction.service;
+
+import com.example.transaction.entity.Money;
+import com.example.transaction.entity.enums.PaymentType;
+import com.example.transaction.repository.FeeRuleRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Holds the compiled {@link FeeSchedule} used by {@link FeeCalculator}.
+ * <p>
+ * The {@code fee_rules} table is polled, not queried per init: active rules are reloaded on a
+ * fixed delay and, only when they differ from the last load, compiled into a new schedule that
+ * replaces the old one with a single volatile write. A rule set that fails to compile is logged
+ * once and the previous schedule stays in effect until the rules change again.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class FeeRuleEngine {
+
+    private final FeeRuleRepository feeRuleRepository;
+
+    private volatile FeeSchedule schedule = FeeSchedule.EMPTY;
+
+    // Guarded by this; only refresh() reads and writes it
+    private List<FeeSchedule.Rule> loadedRules = List.of();
+
+    /**
+     * @return the tier for {@code amount}, or null if no rule covers it
+     */
+    public FeeSchedule.Tier find(PaymentType type, String currencyCode, Long paymentMethodId, Money amount) {
+        return schedule.find(type, currencyCode, paymentMethodId, amount);
+    }
+
+    public FeeSchedule schedule() {
+        return schedule;
+    }
+
+    // No initial delay: the first load runs as soon as the scheduler starts
+    @Scheduled(fixedDelayString = "${app.transaction.fee-rules-refresh-ms:30000}")
+    public synchronized void refresh() {
+        List<FeeSchedule.Rule> rules = feeRuleRepository.findByActiveTrueOrderById().stream()
+                .map(FeeSchedule.Rule::of)
+                .toList();
+        if (rules.equals(loadedRules)) {
+            return;
+        }
+
+        loadedRules = rules;
+        try {
+            schedule = FeeSchedule.compile(rules);
+            log.info("Fee schedule compiled: {} rules", rules.size());
+        } catch (IllegalArgumentException e) {
+            log.error("Fee rules rejected, keeping the previous schedule: {}", e.getMessage());
+        }
+    }
+}
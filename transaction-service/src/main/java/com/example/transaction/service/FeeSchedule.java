@@ -0,0 +1,187 @@
+package com.example.transaction.service;
+
+import com.example.transaction.entity.FeeRule;
+import com.example.transaction.entity.Money;
+import com.example.transaction.entity.enums.PaymentType;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Immutable, compiled form of the {@code fee_rules} table.
+ * <p>
+ * Rules are indexed by type, currency and payment method, and each leaf holds its amount tiers as
+ * a sorted {@code long[]} of lower bounds in {@link Money} units, so a lookup is at most four
+ * hash probes and a binary search, with no allocation.
+ * <p>
+ * The most specific leaf that has a tier for the amount wins: exact currency and method, then
+ * the currency with any method, then any currency with the method, then any currency and any
+ * method.
+ */
+public final class FeeSchedule {
+
+    public static final FeeSchedule EMPTY = new FeeSchedule(new TypeRules[PaymentType.values().length], 0);
+
+    private final TypeRules[] byType;
+    private final int ruleCount;
+
+    private FeeSchedule(TypeRules[] byType, int ruleCount) {
+        this.byType = byType;
+        this.ruleCount = ruleCount;
+    }
+
+    /**
+     * Fee parameters of one amount tier.
+     * @param maxFee null = no cap
+     */
+    public record Tier(Money.Rate feePercent, Money fixedFee, Money minFee, Money maxFee) {
+
+        public static Tier of(BigDecimal feePercent, BigDecimal fixedFee, BigDecimal minFee, BigDecimal maxFee) {
+            return new Tier(Money.Rate.of(feePercent), Money.of(fixedFee), Money.of(minFee),
+                    maxFee != null ? Money.of(maxFee) : null);
+        }
+
+        public Money feeFor(Money amount) {
+            Money fee = amount.times(feePercent);
+            if (fixedFee.signum() != 0) {
+                fee = fee.plus(fixedFee);
+            }
+            if (fee.isLessThan(minFee)) {
+                fee = minFee;
+            } else if (maxFee != null && fee.isGreaterThan(maxFee)) {
+                fee = maxFee;
+            }
+            return fee;
+        }
+    }
+
+    /**
+     * Value copy of a {@link FeeRule} row; equal rule lists compile to equal schedules.
+     */
+    public record Rule(PaymentType type, String currencyCode, Long paymentMethodId, Money minAmount, Tier tier) {
+
+        public static Rule of(FeeRule rule) {
+            return new Rule(rule.getType(), rule.getCurrencyCode(), rule.getPaymentMethodId(),
+                    Money.of(rule.getMinAmount()),
+                    Tier.of(rule.getFeePercent(), rule.getFixedFee(), rule.getMinFee(), rule.getMaxFee()));
+        }
+    }
+
+    /**
+     * @throws IllegalArgumentException if two rules have the same key and lower bound
+     */
+    public static FeeSchedule compile(List<Rule> rules) {
+        Map<PaymentType, Map<String, Map<Long, List<Rule>>>> grouped = new HashMap<>();
+        for (Rule rule : rules) {
+            grouped.computeIfAbsent(rule.type(), type -> new HashMap<>())
+                    .computeIfAbsent(rule.currencyCode(), currency -> new HashMap<>())
+                    .computeIfAbsent(rule.paymentMethodId(), method -> new ArrayList<>())
+                    .add(rule);
+        }
+
+        TypeRules[] byType = new TypeRules[PaymentType.values().length];
+        grouped.forEach((type, byCurrency) -> {
+            Map<String, CurrencyRules> currencies = new HashMap<>();
+            byCurrency.forEach((currency, byMethod) -> currencies.put(currency, compileCurrency(byMethod)));
+            CurrencyRules anyCurrency = currencies.remove(null);
+            byType[type.ordinal()] = new TypeRules(Map.copyOf(currencies), anyCurrency);
+        });
+        return new FeeSchedule(byType, rules.size());
+    }
+
+    private static CurrencyRules compileCurrency(Map<Long, List<Rule>> byMethod) {
+        Map<Long, Tiers> methods = new HashMap<>();
+        byMethod.forEach((method, tiers) -> methods.put(method, Tiers.of(tiers)));
+        Tiers anyMethod = methods.remove(null);
+        return new CurrencyRules(Map.copyOf(methods), anyMethod);
+    }
+
+    /**
+     * @param currencyCode null matches only rules for any currency
+     * @param paymentMethodId null matches only rules for any method
+     * @return the tier for {@code amount}, or null if no rule covers it
+     */
+    public Tier find(PaymentType type, String currencyCode, Long paymentMethodId, Money amount) {
+        TypeRules rules = byType[type.ordinal()];
+        return rules != null ? rules.find(currencyCode, paymentMethodId, amount) : null;
+    }
+
+    public int ruleCount() {
+        return ruleCount;
+    }
+
+    private record TypeRules(Map<String, CurrencyRules> byCurrency, CurrencyRules anyCurrency) {
+
+        Tier find(String currencyCode, Long paymentMethodId, Money amount) {
+            CurrencyRules currency = currencyCode != null ? byCurrency.get(currencyCode) : null;
+            Tier tier = currency != null ? currency.find(paymentMethodId, amount) : null;
+            if (tier == null && anyCurrency != null) {
+                tier = anyCurrency.find(paymentMethodId, amount);
+            }
+            return tier;
+        }
+    }
+
+    private record CurrencyRules(Map<Long, Tiers> byMethod, Tiers anyMethod) {
+
+        Tier find(Long paymentMethodId, Money amount) {
+            Tiers method = paymentMethodId != null ? byMethod.get(paymentMethodId) : null;
+            Tier tier = method != null ? method.find(amount) : null;
+            if (tier == null && anyMethod != null) {
+                tier = anyMethod.find(amount);
+            }
+            return tier;
+        }
+    }
+
+    // Tier i covers [lowerBounds[i], lowerBounds[i + 1])
+    private static final class Tiers {
+
+        private final long[] lowerBounds;
+        private final Tier[] tiers;
+
+        private Tiers(long[] lowerBounds, Tier[] tiers) {
+            this.lowerBounds = lowerBounds;
+            this.tiers = tiers;
+        }
+
+        static Tiers of(List<Rule> rules) {
+            Rule[] sorted = rules.toArray(Rule[]::new);
+            Arrays.sort(sorted, Comparator.comparing(Rule::minAmount));
+            long[] lowerBounds = new long[sorted.length];
+            Tier[] tiers = new Tier[sorted.length];
+            for (int i = 0; i < sorted.length; i++) {
+                if (i > 0 && sorted[i].minAmount().units() == lowerBounds[i - 1]) {
+                    throw new IllegalArgumentException("Duplicate fee tier " + sorted[i].type() + "/"
+                            + Objects.toString(sorted[i].currencyCode(), "*") + "/"
+                            + Objects.toString(sorted[i].paymentMethodId(), "*") + " from " + sorted[i].minAmount());
+                }
+                lowerBounds[i] = sorted[i].minAmount().units();
+                tiers[i] = sorted[i].tier();
+            }
+            return new Tiers(lowerBounds, tiers);
+        }
+
+        // Last tier whose lower bound is <= amount
+        Tier find(Money amount) {
+            long units = amount.units();
+            int low = 0;
+            int high = lowerBounds.length - 1;
+            while (low <= high) {
+                int mid = (low + high) >>> 1;
+                if (lowerBounds[mid] <= units) {
+                    low = mid + 1;
+                } else {
+                    high = mid - 1;
+                }
+            }
+            return high >= 0 ? tiers[high] : null;
+        }
+    }
+}
@@ -1,10 +1,10 @@
 package com.example.transaction.service;
 
+import com.example.transaction.entity.Money;
 import com.example.transaction.entity.enums.PaymentType;
 import lombok.Builder;
 import lombok.Data;
 
-import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.UUID;
 
@@ -17,9 +17,9 @@ public class InitRequest {
     private UUID walletUid;
     private UUID targetWalletUid;
     private PaymentType type;
-    private BigDecimal amount;
-    private BigDecimal fee;
-    private BigDecimal totalAmount;
+    private Money amount;
+    private Money fee;
+    private Money totalAmount;
     private Long paymentMethodId;
     private LocalDateTime createdAt;
     private LocalDateTime expiresAt;
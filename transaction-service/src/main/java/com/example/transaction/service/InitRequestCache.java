@@ -1,91 +1,236 @@
 package com.example.transaction.service;
 
 import com.example.transaction.config.AppProperties;
+import com.example.transaction.exception.InitRequestCapacityExceededException;
 import com.example.transaction.exception.InvalidTransactionException;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
-
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded in-memory {@link InitRequestStore}, the default implementation.
+ * <p>
+ * Entries are indexed both by request UID and by expiry time, so the sweep only
+ * touches entries that are actually due ({@code O(expired)}, not {@code O(size)}).
+ * Once {@code app.transaction.init-request-max-size} is reached new inits are
+ * rejected instead of growing the heap.
+ * <p>
+ * A claim made inside a transaction is undone on rollback, the same as the {@code DELETE}
+ * of {@link JdbcInitRequestStore}.
+ */
 @Slf4j
 @Component
 @RequiredArgsConstructor
-public class InitRequestCache {
+@ConditionalOnProperty(prefix = "app.transaction", name = "init-request-store",
+        havingValue = "memory", matchIfMissing = true)
+public class InitRequestCache implements InitRequestStore, MeterBinder {
 
     private final AppProperties appProperties;
-    private final Map<UUID, InitRequest> cache = new ConcurrentHashMap<>();
-
+    private final Map<UUID, Entry> cache = new ConcurrentHashMap<>();
+    private final ConcurrentSkipListMap<Entry, Boolean> expiryIndex = new ConcurrentSkipListMap<>();
+    private final AtomicInteger size = new AtomicInteger();
+    private final AtomicLong sequence = new AtomicLong();
+    private final AtomicLong expirations = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private final AtomicLong rejections = new AtomicLong();
+
+    @Override
     public void put(InitRequest request) {
-        cache.put(request.getRequestUid(), request);
+        int capacity = appProperties.getInitRequestMaxSize();
+        if (size.incrementAndGet() > capacity) {
+            size.decrementAndGet();
+            cleanupExpired();
+            if (size.incrementAndGet() > capacity) {
+                size.decrementAndGet();
+                rejections.incrementAndGet();
+                log.warn("Init request store is full ({}), rejecting: {}", capacity, request.getRequestUid());
+                throw new InitRequestCapacityExceededException(capacity);
+            }
+        }
+
+        Entry entry = new Entry(request, toEpochMillis(request.getExpiresAt()), sequence.incrementAndGet());
+        expiryIndex.put(entry, Boolean.TRUE);
+        Entry previous = cache.put(request.getRequestUid(), entry);
+        if (previous != null) {
+            unlink(previous);
+        }
+
         log.debug("Stored init request: {}, expires at: {}",
                 request.getRequestUid(), request.getExpiresAt());
     }
 
-
+    @Override
     public Optional<InitRequest> get(UUID requestUid) {
-        InitRequest request = cache.get(requestUid);
+        Entry entry = cache.get(requestUid);
 
-        if (request == null) {
+        if (entry == null) {
             return Optional.empty();
         }
 
-        if (request.isExpired()) {
-            cache.remove(requestUid);
+        if (entry.isExpired(System.currentTimeMillis())) {
+            if (cache.remove(requestUid, entry)) {
+                unlink(entry);
+                expirations.incrementAndGet();
+            }
             log.debug("Init request expired and removed: {}", requestUid);
             return Optional.empty();
         }
 
-        return Optional.of(request);
+        return Optional.of(entry.request());
     }
 
+    @Override
     public InitRequest getAndRemove(UUID requestUid) {
-        InitRequest request = cache.remove(requestUid);
+        Entry entry = cache.remove(requestUid);
 
-        if (request == null) {
+        if (entry == null) {
             throw new InvalidTransactionException(
                     "Init request not found: " + requestUid);
         }
 
-        if (request.isExpired()) {
+        unlink(entry);
+
+        if (entry.isExpired(System.currentTimeMillis())) {
+            expirations.incrementAndGet();
             throw new InvalidTransactionException(
                     "Init request expired: " + requestUid);
         }
 
+        restoreOnRollback(entry);
         log.debug("Retrieved and removed init request: {}", requestUid);
-        return request;
+        return entry.request();
     }
 
+    @Override
     public void remove(UUID requestUid) {
-        cache.remove(requestUid);
+        Entry entry = cache.remove(requestUid);
+        if (entry != null) {
+            unlink(entry);
+            evictions.incrementAndGet();
+        }
         log.debug("Removed init request: {}", requestUid);
     }
 
-    public boolean exists(UUID requestUid) {
-        return get(requestUid).isPresent();
-    }
-
+    @Override
     public LocalDateTime calculateExpiresAt() {
         return LocalDateTime.now().plusMinutes(appProperties.getInitRequestTtlMinutes());
     }
 
+    @Override
     public int size() {
-        return cache.size();
+        return size.get();
     }
 
-    @Scheduled(fixedRate = 60000)
+    @Scheduled(fixedDelayString = "${app.transaction.init-request-sweep-interval-ms:1000}")
     public void cleanupExpired() {
-        int before = cache.size();
-        cache.entrySet().removeIf(entry -> entry.getValue().isExpired());
-        int removed = before - cache.size();
+        long now = System.currentTimeMillis();
+        int removed = 0;
+
+        Map.Entry<Entry, Boolean> head;
+        while ((head = expiryIndex.firstEntry()) != null && head.getKey().isExpired(now)) {
+            Entry entry = head.getKey();
+            if (expiryIndex.remove(entry) != null) {
+                size.decrementAndGet();
+                if (cache.remove(entry.request().getRequestUid(), entry)) {
+                    expirations.incrementAndGet();
+                    removed++;
+                }
+            }
+        }
 
         if (removed > 0) {
             log.info("Cleaned up {} expired init requests", removed);
         }
     }
-}
\ No newline at end of file
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("init_request_cache_size", size, AtomicInteger::get)
+                .description("Pending init requests waiting for confirmation")
+                .register(registry);
+        FunctionCounter.builder("init_request_cache_expirations_total", expirations, AtomicLong::get)
+                .description("Init requests dropped because their TTL elapsed")
+                .register(registry);
+        FunctionCounter.builder("init_request_cache_evictions_total", evictions, AtomicLong::get)
+                .description("Init requests discarded before confirmation")
+                .register(registry);
+        FunctionCounter.builder("init_request_cache_rejections_total", rejections, AtomicLong::get)
+                .description("Init requests rejected because the store was full")
+                .register(registry);
+    }
+
+    private void restoreOnRollback(Entry entry) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_ROLLED_BACK) {
+                    restore(entry);
+                }
+            }
+        });
+    }
+
+    /**
+     * Put a claimed entry back unless it expired meanwhile or the UID was reused.
+     * Capacity is not checked: the entry held its slot before the claim.
+     */
+    private void restore(Entry entry) {
+        if (entry.isExpired(System.currentTimeMillis())) {
+            return;
+        }
+        size.incrementAndGet();
+        expiryIndex.put(entry, Boolean.TRUE);
+        if (cache.putIfAbsent(entry.request().getRequestUid(), entry) != null) {
+            unlink(entry);
+            return;
+        }
+        log.debug("Restored init request after rollback: {}", entry.request().getRequestUid());
+    }
+
+    /**
+     * Remove an entry from the expiry index; the index owns the size slot.
+     */
+    private void unlink(Entry entry) {
+        if (expiryIndex.remove(entry) != null) {
+            size.decrementAndGet();
+        }
+    }
+
+    private static long toEpochMillis(LocalDateTime dateTime) {
+        return dateTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    private record Entry(InitRequest request, long expiresAtMillis, long seq) implements Comparable<Entry> {
+
+        boolean isExpired(long nowMillis) {
+            return nowMillis > expiresAtMillis;
+        }
+
+        @Override
+        public int compareTo(Entry other) {
+            int byExpiry = Long.compare(expiresAtMillis, other.expiresAtMillis);
+            return byExpiry != 0 ? byExpiry : Long.compare(seq, other.seq);
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.example.transaction.service;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Storage for pending init requests between the init and confirm phases.
+ * <p>
+ * Selected with {@code app.transaction.init-request-store}:
+ * {@code memory} (default, per-JVM) or {@code jdbc} (shared Postgres table, so
+ * init and confirm may be served by different replicas).
+ */
+public interface InitRequestStore {
+
+    void put(InitRequest request);
+
+    Optional<InitRequest> get(UUID requestUid);
+
+    /**
+     * Atomically claim a request: fetch it and delete it, so at most one confirm gets it.
+     * <p>
+     * The claim belongs to the caller's transaction. If one is active the request is gone for
+     * everybody else at once, but it comes back when that transaction rolls back (e.g. on
+     * {@code InsufficientBalanceException}) and can be confirmed again until it expires.
+     * Without a transaction the claim is final.
+     * @throws com.example.transaction.exception.InvalidTransactionException if missing or expired
+     */
+    InitRequest getAndRemove(UUID requestUid);
+
+    void remove(UUID requestUid);
+
+    int size();
+
+    LocalDateTime calculateExpiresAt();
+
+    default boolean exists(UUID requestUid) {
+        return get(requestUid).isPresent();
+    }
+}
@@ -0,0 +1,141 @@
+package com.example.transaction.service;
+
+import com.example.transaction.config.AppProperties;
+import com.example.transaction.entity.Money;
+import com.example.transaction.entity.enums.PaymentType;
+import com.example.transaction.exception.InvalidTransactionException;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.shardingsphere.driver.jdbc.core.datasource.ShardingSphereDataSource;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * {@link InitRequestStore} backed by the {@code init_requests} Postgres UNLOGGED table.
+ * <p>
+ * Shared by all replicas, so a request initialized on one node can be confirmed on another.
+ * {@link #getAndRemove} is a single {@code DELETE ... RETURNING}, so two concurrent confirms
+ * of the same request can never both succeed. The delete joins the caller's transaction, so a
+ * rollback restores the request.
+ * <p>
+ * Not available with sharding: {@code init_requests} has no home on the user's data source,
+ * so the claim would commit apart from the confirm writes, and a failure between the two
+ * commits could lose a request or confirm it twice. The store refuses to start there.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "app.transaction", name = "init-request-store", havingValue = "jdbc")
+public class JdbcInitRequestStore implements InitRequestStore {
+
+    private static final String COLUMNS = "request_uid, user_uid, wallet_uid, target_wallet_uid, type, " +
+            "amount, fee, total_amount, payment_method_id, created_at, expires_at";
+
+    private static final RowMapper<InitRequest> ROW_MAPPER = (rs, rowNum) -> InitRequest.builder()
+            .requestUid(rs.getObject("request_uid", UUID.class))
+            .userUid(rs.getObject("user_uid", UUID.class))
+            .walletUid(rs.getObject("wallet_uid", UUID.class))
+            .targetWalletUid(rs.getObject("target_wallet_uid", UUID.class))
+            .type(PaymentType.valueOf(rs.getString("type")))
+            .amount(Money.of(rs.getBigDecimal("amount")))
+            .fee(Money.of(rs.getBigDecimal("fee")))
+            .totalAmount(Money.of(rs.getBigDecimal("total_amount")))
+            .paymentMethodId(rs.getObject("payment_method_id", Long.class))
+            .createdAt(rs.getTimestamp("created_at").toLocalDateTime())
+            .expiresAt(rs.getTimestamp("expires_at").toLocalDateTime())
+            .build();
+
+    private final JdbcTemplate jdbcTemplate;
+    private final AppProperties appProperties;
+
+    public JdbcInitRequestStore(JdbcTemplate jdbcTemplate, AppProperties appProperties) {
+        if (jdbcTemplate.getDataSource() instanceof ShardingSphereDataSource) {
+            throw new IllegalStateException("app.transaction.init-request-store=jdbc is not supported "
+                    + "with sharding: the claim would not commit with the confirm; use memory");
+        }
+        this.jdbcTemplate = jdbcTemplate;
+        this.appProperties = appProperties;
+    }
+
+    @Override
+    public void put(InitRequest request) {
+        jdbcTemplate.update("INSERT INTO init_requests (" + COLUMNS + ") VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)",
+                request.getRequestUid(),
+                request.getUserUid(),
+                request.getWalletUid(),
+                request.getTargetWalletUid(),
+                request.getType().name(),
+                request.getAmount().toBigDecimal(),
+                request.getFee().toBigDecimal(),
+                request.getTotalAmount().toBigDecimal(),
+                request.getPaymentMethodId(),
+                Timestamp.valueOf(request.getCreatedAt()),
+                Timestamp.valueOf(request.getExpiresAt()));
+
+        log.debug("Stored init request: {}, expires at: {}",
+                request.getRequestUid(), request.getExpiresAt());
+    }
+
+    @Override
+    public Optional<InitRequest> get(UUID requestUid) {
+        List<InitRequest> found = jdbcTemplate.query(
+                "SELECT " + COLUMNS + " FROM init_requests WHERE request_uid = ? AND expires_at >= ?",
+                ROW_MAPPER, requestUid, Timestamp.valueOf(LocalDateTime.now()));
+        return found.stream().findFirst();
+    }
+
+    @Override
+    public InitRequest getAndRemove(UUID requestUid) {
+        List<InitRequest> removed = jdbcTemplate.query(
+                "DELETE FROM init_requests WHERE request_uid = ? RETURNING " + COLUMNS,
+                ROW_MAPPER, requestUid);
+
+        if (removed.isEmpty()) {
+            throw new InvalidTransactionException(
+                    "Init request not found: " + requestUid);
+        }
+
+        InitRequest request = removed.get(0);
+        if (request.isExpired()) {
+            throw new InvalidTransactionException(
+                    "Init request expired: " + requestUid);
+        }
+
+        log.debug("Retrieved and removed init request: {}", requestUid);
+        return request;
+    }
+
+    @Override
+    public void remove(UUID requestUid) {
+        jdbcTemplate.update("DELETE FROM init_requests WHERE request_uid = ?", requestUid);
+        log.debug("Removed init request: {}", requestUid);
+    }
+
+    @Override
+    public int size() {
+        Integer count = jdbcTemplate.queryForObject("SELECT count(*) FROM init_requests", Integer.class);
+        return count != null ? count : 0;
+    }
+
+    @Override
+    public LocalDateTime calculateExpiresAt() {
+        return LocalDateTime.now().plusMinutes(appProperties.getInitRequestTtlMinutes());
+    }
+
+    @Scheduled(fixedDelayString = "${app.transaction.init-request-sweep-interval-ms:1000}")
+    public void cleanupExpired() {
+        int removed = jdbcTemplate.update("DELETE FROM init_requests WHERE expires_at < ?",
+                Timestamp.valueOf(LocalDateTime.now()));
+
+        if (removed > 0) {
+            log.info("Cleaned up {} expired init requests", removed);
+        }
+    }
+}
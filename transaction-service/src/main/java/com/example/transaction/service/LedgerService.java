@@ -0,0 +1,234 @@
+package com.example.transaction.service;
+
+import com.example.transaction.config.AppProperties;
+import com.example.transaction.entity.LedgerCheckpoint;
+import com.example.transaction.entity.LedgerEntry;
+import com.example.transaction.entity.enums.LedgerAccount;
+import com.example.transaction.repository.LedgerCheckpointRepository;
+import com.example.transaction.repository.LedgerEntryRepository;
+import com.example.transaction.repository.SchedulerLockRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Append-only double-entry ledger next to the mutable {@code wallets.balance}.
+ * <p>
+ * Every balance change is recorded in the same DB transaction as a set of
+ * {@code ledger_entries} legs that sum to zero: the wallet legs plus the counter-accounts
+ * money comes from or goes to ({@link LedgerAccount#EXTERNAL} for the payment provider,
+ * {@link LedgerAccount#FEES} for collected fees). A scheduled job materializes per-wallet
+ * balances into {@code ledger_checkpoints}, so the balance at any instant is the nearest
+ * earlier checkpoint plus a short tail of the wallet's entries.
+ * <p>
+ * {@code created_at} comes from the application clock when the legs are posted, and a
+ * transaction may commit well after that. Checkpoints therefore do not cut the ledger by
+ * {@code created_at}: each run stamps the entries it is the first to see committed, and a
+ * checkpoint covers exactly the entries stamped by its run or an earlier one.
+ */
+@Slf4j
+@Service
+public class LedgerService {
+
+    // The first checkpoint run may take any instant
+    private static final LocalDateTime LEDGER_START = LocalDateTime.of(1970, 1, 1, 0, 0);
+    static final String CHECKPOINT_LOCK = "ledger-checkpoints";
+
+    private final LedgerEntryRepository entryRepository;
+    private final LedgerCheckpointRepository checkpointRepository;
+    private final SchedulerLockRepository schedulerLockRepository;
+    private final AppProperties appProperties;
+    private final Counter checkpointsWritten;
+
+    public LedgerService(LedgerEntryRepository entryRepository,
+                         LedgerCheckpointRepository checkpointRepository,
+                         SchedulerLockRepository schedulerLockRepository,
+                         AppProperties appProperties,
+                         MeterRegistry meterRegistry) {
+        this.entryRepository = entryRepository;
+        this.checkpointRepository = checkpointRepository;
+        this.schedulerLockRepository = schedulerLockRepository;
+        this.appProperties = appProperties;
+        this.checkpointsWritten = Counter.builder("ledger_checkpoints_written_total")
+                .description("Wallet balance checkpoints materialized from the ledger")
+                .register(meterRegistry);
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordDeposit(UUID transactionUid, UUID userUid, UUID walletUid, BigDecimal amount) {
+        post(transactionUid, userUid, List.of(
+                wallet(walletUid, userUid, amount),
+                account(LedgerAccount.EXTERNAL, amount.negate())));
+    }
+
+    /**
+     * @param amount paid out to the provider; the wallet is debited {@code amount + fee}
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordWithdrawal(UUID transactionUid, UUID userUid, UUID walletUid,
+                                 BigDecimal amount, BigDecimal fee) {
+        BigDecimal feeAmount = orZero(fee);
+        post(transactionUid, userUid, List.of(
+                wallet(walletUid, userUid, amount.add(feeAmount).negate()),
+                account(LedgerAccount.EXTERNAL, amount),
+                account(LedgerAccount.FEES, feeAmount)));
+    }
+
+    /**
+     * Reverse a failed withdrawal: the fee is returned first, the rest comes back from the provider.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordWithdrawalRefund(UUID transactionUid, UUID userUid, UUID walletUid,
+                                       BigDecimal refund, BigDecimal fee) {
+        BigDecimal feeRefund = orZero(fee).min(refund);
+        post(transactionUid, userUid, List.of(
+                wallet(walletUid, userUid, refund),
+                account(LedgerAccount.FEES, feeRefund.negate()),
+                account(LedgerAccount.EXTERNAL, refund.subtract(feeRefund).negate())));
+    }
+
+    /**
+     * @param targetUserUid owner of the target wallet, the sharding key of its leg
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordTransfer(UUID transactionUid, UUID userUid, UUID sourceWalletUid,
+                               UUID targetWalletUid, UUID targetUserUid,
+                               BigDecimal amount, BigDecimal fee) {
+        BigDecimal feeAmount = orZero(fee);
+        post(transactionUid, userUid, List.of(
+                wallet(sourceWalletUid, userUid, amount.add(feeAmount).negate()),
+                wallet(targetWalletUid, targetUserUid, amount),
+                account(LedgerAccount.FEES, feeAmount)));
+    }
+
+    /**
+     * Balance of a wallet at an instant: nearest checkpoint at or before it plus the
+     * wallet's entries up to the instant that the checkpoint does not cover. Without a
+     * checkpoint, all entries up to it. The checkpoint is read first: entries a run stamps
+     * in between carry a later stamp and still count in the tail.
+     */
+    @Transactional(readOnly = true)
+    public BigDecimal getBalanceAt(UUID walletUid, LocalDateTime at) {
+        Optional<LedgerCheckpoint> checkpoint = checkpointRepository
+                .findFirstByWalletUidAndCheckpointAtLessThanEqualOrderByCheckpointAtDesc(walletUid, at);
+        if (checkpoint.isEmpty()) {
+            return entryRepository.sumForWalletUpTo(walletUid, at);
+        }
+        return checkpoint.get().getBalance().add(entryRepository.sumForWalletAfterCheckpoint(
+                walletUid, checkpoint.get().getCheckpointAt(), at));
+    }
+
+    /**
+     * Materialize the balance of every wallet that moved since the last checkpoint run:
+     * stamp the committed entries no run has covered, then roll each wallet's previous
+     * checkpoint forward by what was stamped. An entry committed after a run, with a
+     * {@code created_at} before it, is stamped and counted by the next one. Checkpoints
+     * trail the clock by {@code ledger-checkpoint-lag-ms}, which keeps most entries in the
+     * run of their own instant.
+     * <p>
+     * Every node schedules the job; the run that takes the {@code scheduler_locks} row does
+     * the work and the others skip the round.
+     */
+    @Scheduled(
+            initialDelayString = "${app.transaction.ledger-checkpoint-interval-ms:3600000}",
+            fixedDelayString = "${app.transaction.ledger-checkpoint-interval-ms:3600000}")
+    @Transactional
+    public int writeCheckpoints() {
+        if (!schedulerLockRepository.tryLockJob(CHECKPOINT_LOCK)) {
+            log.debug("Ledger checkpoint run skipped, another node holds the lock");
+            return 0;
+        }
+
+        LocalDateTime after = checkpointRepository.findLastCheckpointAt().orElse(LEDGER_START);
+        // The stamp is matched by equality, so keep it at the column's microsecond precision
+        LocalDateTime upTo = LocalDateTime.now().minusNanos(appProperties.getLedgerCheckpointLagMs() * 1_000_000)
+                .truncatedTo(ChronoUnit.MICROS);
+        if (!upTo.isAfter(after)) {
+            return 0;
+        }
+
+        entryRepository.stampForCheckpoint(upTo);
+        List<LedgerEntryRepository.WalletMovement> movements = entryRepository.sumByWalletStampedAt(upTo);
+        if (movements.isEmpty()) {
+            return 0;
+        }
+
+        Map<UUID, BigDecimal> previous = new HashMap<>();
+        for (LedgerCheckpoint checkpoint : checkpointRepository.findLatestAtOrBefore(
+                movements.stream().map(LedgerEntryRepository.WalletMovement::getWalletUid).toList(), after)) {
+            previous.put(checkpoint.getWalletUid(), checkpoint.getBalance());
+        }
+
+        List<LedgerCheckpoint> checkpoints = new ArrayList<>(movements.size());
+        for (LedgerEntryRepository.WalletMovement movement : movements) {
+            checkpoints.add(LedgerCheckpoint.builder()
+                    .walletUid(movement.getWalletUid())
+                    .userUid(movement.getUserUid())
+                    .checkpointAt(upTo)
+                    .balance(previous.getOrDefault(movement.getWalletUid(), BigDecimal.ZERO)
+                            .add(movement.getAmount()))
+                    .build());
+        }
+        checkpointRepository.saveAll(checkpoints);
+        checkpointsWritten.increment(checkpoints.size());
+
+        log.info("Ledger checkpoint at {}: {} wallets", upTo, checkpoints.size());
+        return checkpoints.size();
+    }
+
+    private void post(UUID transactionUid, UUID userUid, List<Leg> legs) {
+        BigDecimal total = BigDecimal.ZERO;
+        for (Leg leg : legs) {
+            total = total.add(leg.amount());
+        }
+        if (total.signum() != 0) {
+            throw new IllegalStateException("Unbalanced ledger posting for transaction " + transactionUid + ": " + total);
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        List<LedgerEntry> entries = new ArrayList<>(legs.size());
+        for (Leg leg : legs) {
+            if (leg.amount().signum() == 0) {
+                continue;
+            }
+            entries.add(LedgerEntry.builder()
+                    .createdAt(now)
+                    .transactionUid(transactionUid)
+                    .account(leg.account())
+                    .walletUid(leg.walletUid())
+                    .userUid(leg.userUid() != null ? leg.userUid() : userUid)
+                    .amount(leg.amount())
+                    .build());
+        }
+        entryRepository.saveAll(entries);
+    }
+
+    private static BigDecimal orZero(BigDecimal amount) {
+        return amount != null ? amount : BigDecimal.ZERO;
+    }
+
+    private static Leg wallet(UUID walletUid, UUID userUid, BigDecimal amount) {
+        return new Leg(LedgerAccount.WALLET, walletUid, userUid, amount);
+    }
+
+    private static Leg account(LedgerAccount account, BigDecimal amount) {
+        return new Leg(account, null, null, amount);
+    }
+
+    private record Leg(LedgerAccount account, UUID walletUid, UUID userUid, BigDecimal amount) {
+    }
+}
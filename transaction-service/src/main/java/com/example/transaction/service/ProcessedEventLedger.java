@@ -0,0 +1,176 @@
+package com.example.transaction.service;
+
+import com.example.transaction.config.AppProperties;
+import com.example.transaction.entity.ProcessedEvent;
+import com.example.transaction.kafka.event.BaseEvent;
+import com.example.transaction.repository.ProcessedEventRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * Deduplicates consumed Kafka events by {@code eventId}.
+ * <p>
+ * The {@code processed_events} table is the source of truth: a claim is inserted in the
+ * same DB transaction as the balance change, so an event is applied at most once even when
+ * a redelivery races with the original. Claims carry the {@code user_uid} of the balance
+ * they guard; under sharding that puts them on the same data source as the balance, in the
+ * same local transaction. Lookups by event id go to every data source, so a claim still
+ * found on the source of a bucket move counts. A bounded LRU of recently committed ids sits in
+ * front of it, so redeliveries after a rebalance are dropped without touching the database.
+ */
+@Slf4j
+@Component
+public class ProcessedEventLedger {
+
+    private final ProcessedEventRepository processedEventRepository;
+    private final AppProperties appProperties;
+    private final Map<UUID, Boolean> recent;
+    private final Counter cacheHits;
+    private final Counter databaseHits;
+
+    public ProcessedEventLedger(ProcessedEventRepository processedEventRepository,
+                                AppProperties appProperties,
+                                MeterRegistry meterRegistry) {
+        this.processedEventRepository = processedEventRepository;
+        this.appProperties = appProperties;
+
+        int capacity = appProperties.getProcessedEventCacheSize();
+        this.recent = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<UUID, Boolean> eldest) {
+                return size() > capacity;
+            }
+        };
+
+        this.cacheHits = Counter.builder("processed_event_duplicates_total")
+                .tag("source", "cache")
+                .description("Redelivered events dropped by the in-memory cache")
+                .register(meterRegistry);
+        this.databaseHits = Counter.builder("processed_event_duplicates_total")
+                .tag("source", "db")
+                .description("Redelivered events dropped by the processed_events table")
+                .register(meterRegistry);
+        Gauge.builder("processed_event_cache_size", this, ProcessedEventLedger::cachedCount)
+                .description("Event ids held in the in-memory dedup cache")
+                .register(meterRegistry);
+    }
+
+    /**
+     * O(1) in-memory check, safe to call before taking any lock or opening a transaction.
+     * @return true if the event was recently applied on this instance
+     */
+    public boolean isRecentlyProcessed(UUID eventId) {
+        if (eventId == null) {
+            return false;
+        }
+        boolean hit;
+        synchronized (recent) {
+            hit = recent.get(eventId) != null;
+        }
+        if (hit) {
+            cacheHits.increment();
+        }
+        return hit;
+    }
+
+    /**
+     * Claim an event inside the caller's transaction.
+     * @param userUid owner of the balance the event changes, the sharding key of the claim
+     * @return false if the event was already processed and must be skipped
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public boolean claim(BaseEvent event, UUID userUid) {
+        if (event.getEventId() == null) {
+            return true;
+        }
+        return !claimAll(List.of(event), claimed -> userUid).isEmpty();
+    }
+
+    /**
+     * Claim a batch of events inside the caller's transaction with one lookup.
+     * Events without an {@code eventId} cannot be deduplicated and are not returned.
+     * @param userUidOf owner of the balance each event changes, the sharding key of its claim
+     * @return ids of the events that were not processed before and are now claimed
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public <E extends BaseEvent> Set<UUID> claimAll(Collection<E> events, Function<? super E, UUID> userUidOf) {
+        Map<UUID, E> candidates = new LinkedHashMap<>();
+        for (E event : events) {
+            if (event.getEventId() != null) {
+                candidates.putIfAbsent(event.getEventId(), event);
+            }
+        }
+        if (candidates.isEmpty()) {
+            return Set.of();
+        }
+
+        Set<UUID> existing = processedEventRepository.findExistingIds(candidates.keySet());
+        if (!existing.isEmpty()) {
+            databaseHits.increment(existing.size());
+            log.info("Skipping {} already processed events", existing.size());
+        }
+
+        List<ProcessedEvent> claims = new ArrayList<>(candidates.size());
+        candidates.forEach((eventId, event) -> {
+            if (!existing.contains(eventId)) {
+                claims.add(new ProcessedEvent(eventId, event.getClass().getSimpleName(), userUidOf.apply(event)));
+            }
+        });
+        processedEventRepository.saveAll(claims);
+
+        Set<UUID> claimed = new LinkedHashSet<>();
+        claims.forEach(claim -> claimed.add(claim.getEventId()));
+        rememberAfterCommit(claimed);
+        return claimed;
+    }
+
+    @Scheduled(cron = "${app.transaction.processed-event-purge-cron:0 30 3 * * *}")
+    @Transactional
+    public void purgeExpired() {
+        int removed = processedEventRepository.deleteProcessedBefore(
+                LocalDateTime.now().minusDays(appProperties.getProcessedEventRetentionDays()));
+
+        if (removed > 0) {
+            log.info("Purged {} processed event ids", removed);
+        }
+    }
+
+    int cachedCount() {
+        synchronized (recent) {
+            return recent.size();
+        }
+    }
+
+    private void rememberAfterCommit(Set<UUID> eventIds) {
+        if (eventIds.isEmpty()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                synchronized (recent) {
+                    eventIds.forEach(eventId -> recent.put(eventId, Boolean.TRUE));
+                }
+            }
+        });
+    }
+}
@@ -0,0 +1,206 @@
+package com.example.transaction.service;
+
+import com.example.transaction.config.AppProperties;
+import com.example.transaction.dto.TransactionStatusResponse;
+import com.example.transaction.entity.Transaction;
+import com.example.transaction.exception.ExportLimitExceededException;
+import com.example.transaction.mapper.TransactionMapper;
+import com.example.transaction.repository.TransactionRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+/**
+ * Full statement exports written straight to the response.
+ * <p>
+ * Rows come from a server-side cursor ({@link TransactionRepository#streamForExport}, fetched
+ * {@value TransactionRepository#EXPORT_FETCH_SIZE} at a time) and are encoded one by one into
+ * a buffered stream; the persistence context is cleared after every fetch, so memory stays
+ * flat whatever the size of the history. An export keeps its connection for its whole
+ * duration, which is why exports are capped per user and in total.
+ */
+@Slf4j
+@Service
+public class TransactionExportService {
+
+    static final String CSV_HEADER =
+            "uid,created_at,type,status,amount,fee,currency_code,wallet_uid,target_wallet_uid,failure_reason";
+
+    private static final LocalDateTime MIN_CREATED_AT = LocalDateTime.of(1970, 1, 1, 0, 0);
+    private static final LocalDateTime MAX_CREATED_AT = LocalDateTime.of(9999, 12, 31, 0, 0);
+
+    public enum Format {
+        CSV, NDJSON;
+
+        public static Format of(String value) {
+            return value == null ? NDJSON : valueOf(value.toUpperCase(Locale.ROOT));
+        }
+    }
+
+    private final TransactionRepository transactionRepository;
+    private final TransactionMapper transactionMapper;
+    private final WalletTypeCache walletTypeCache;
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
+    private final AppProperties appProperties;
+    private final TransactionTemplate readOnlyTemplate;
+
+    private final Map<UUID, Integer> activeByUser = new ConcurrentHashMap<>();
+    private final AtomicInteger active = new AtomicInteger();
+    private final Counter rejected;
+    private final Counter exportedRows;
+
+    public TransactionExportService(TransactionRepository transactionRepository,
+                                    TransactionMapper transactionMapper,
+                                    WalletTypeCache walletTypeCache,
+                                    EntityManager entityManager,
+                                    ObjectMapper objectMapper,
+                                    AppProperties appProperties,
+                                    PlatformTransactionManager transactionManager,
+                                    MeterRegistry meterRegistry) {
+        this.transactionRepository = transactionRepository;
+        this.transactionMapper = transactionMapper;
+        this.walletTypeCache = walletTypeCache;
+        this.entityManager = entityManager;
+        this.objectMapper = objectMapper;
+        this.appProperties = appProperties;
+        this.readOnlyTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTemplate.setReadOnly(true);
+
+        Gauge.builder("transaction_exports_active", active, AtomicInteger::get)
+                .description("Statement exports currently streaming")
+                .register(meterRegistry);
+        this.rejected = Counter.builder("transaction_exports_rejected_total")
+                .description("Statement exports rejected by the concurrency limits")
+                .register(meterRegistry);
+        this.exportedRows = Counter.builder("transaction_exports_rows_total")
+                .description("Transactions written by statement exports")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Takes an export slot for the user, or throws {@link ExportLimitExceededException}.
+     * Every successful call must be paired with {@link #release(UUID)}.
+     */
+    public void acquire(UUID userUid) {
+        int perUserLimit = appProperties.getExportMaxConcurrentPerUser();
+        boolean[] granted = {false};
+        activeByUser.compute(userUid, (uid, running) -> {
+            int current = running == null ? 0 : running;
+            if (current >= perUserLimit) {
+                return running;
+            }
+            if (active.incrementAndGet() > appProperties.getExportMaxConcurrent()) {
+                active.decrementAndGet();
+                return running;
+            }
+            granted[0] = true;
+            return current + 1;
+        });
+
+        if (!granted[0]) {
+            rejected.increment();
+            throw new ExportLimitExceededException(
+                    "Too many statement exports in progress for user " + userUid + ", try again later");
+        }
+    }
+
+    public void release(UUID userUid) {
+        activeByUser.computeIfPresent(userUid, (uid, running) -> running > 1 ? running - 1 : null);
+        active.decrementAndGet();
+    }
+
+    /**
+     * Writes the user's transactions, newest first, in the requested format. Bounds are
+     * {@code [from, to)}; either may be {@code null}.
+     */
+    public void export(UUID userUid, UUID walletUid, LocalDateTime from, LocalDateTime to,
+                       Format format, OutputStream target) {
+        LocalDateTime lower = from != null ? from : MIN_CREATED_AT;
+        LocalDateTime upper = to != null ? to : MAX_CREATED_AT;
+
+        long rows = readOnlyTemplate.execute(status -> {
+            try (Stream<Transaction> transactions =
+                         transactionRepository.streamForExport(userUid, walletUid, lower, upper)) {
+                return write(transactions.iterator(), format, new BufferedOutputStream(target, 64 * 1024));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+
+        exportedRows.increment(rows);
+        log.info("Exported {} transactions of user {} as {}", rows, userUid, format);
+    }
+
+    private long write(Iterator<Transaction> transactions, Format format, OutputStream out) throws IOException {
+        if (format == Format.CSV) {
+            out.write((CSV_HEADER + "\n").getBytes(StandardCharsets.UTF_8));
+        }
+
+        long rows = 0;
+        while (transactions.hasNext()) {
+            Transaction transaction = transactions.next();
+            TransactionStatusResponse row = transactionMapper.toStatusResponse(
+                    transaction, walletTypeCache.currencyCodeOf(transaction.getWallet()));
+
+            if (format == Format.CSV) {
+                out.write(toCsvLine(row).getBytes(StandardCharsets.UTF_8));
+            } else {
+                out.write(objectMapper.writeValueAsBytes(row));
+                out.write('\n');
+            }
+
+            // Rows already written must not pile up in the persistence context
+            if (++rows % TransactionRepository.EXPORT_FETCH_SIZE == 0) {
+                entityManager.clear();
+            }
+        }
+        out.flush();
+        return rows;
+    }
+
+    static String toCsvLine(TransactionStatusResponse row) {
+        return String.join(",",
+                csv(row.getUid()),
+                csv(row.getCreatedAt()),
+                csv(row.getType()),
+                csv(row.getStatus()),
+                csv(row.getAmount() != null ? row.getAmount().toPlainString() : null),
+                csv(row.getFee() != null ? row.getFee().toPlainString() : null),
+                csv(row.getCurrencyCode()),
+                csv(row.getWalletUid()),
+                csv(row.getTargetWalletUid()),
+                csv(row.getFailureReason())) + "\n";
+    }
+
+    private static String csv(Object value) {
+        if (value == null) {
+            return "";
+        }
+        String text = value.toString();
+        if (text.indexOf(',') < 0 && text.indexOf('"') < 0 && text.indexOf('\n') < 0 && text.indexOf('\r') < 0) {
+            return text;
+        }
+        return '"' + text.replace("\"", "\"\"") + '"';
+    }
+}
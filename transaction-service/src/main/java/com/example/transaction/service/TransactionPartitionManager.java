@@ -0,0 +1,176 @@
+package com.example.transaction.service;
+
+import com.example.transaction.config.AppProperties;
+import com.example.transaction.repository.SchedulerLockRepository;
+import com.example.transaction.sharding.ShardBucketTable;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.shardingsphere.infra.hint.HintManager;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.TreeSet;
+
+/**
+ * Keeps the monthly range partitions of {@code transactions} (see V10) in step with the clock.
+ * <p>
+ * Partitions for the current month and {@code partition-months-ahead} months after it are
+ * created up front, so inserts never fall into {@code transactions_default}. Partitions older
+ * than {@code partition-retention-months} are detached: they stay as standalone tables for
+ * archival (dump, then drop) unless {@code partition-drop-detached} is set. Queries that filter
+ * on {@code created_at} with plain range predicates are pruned to the matching months.
+ * <p>
+ * Every node runs this at startup and at the same cron time, so a run holds the
+ * {@code transaction-partitions} row of {@code scheduler_locks} for its transaction and
+ * the other nodes skip the round. The DDL runs in that transaction; each CREATE gets a
+ * savepoint, so one failed month does not abort the rest.
+ * <p>
+ * Under the {@code sharding} profile every shard holds its own {@code transactions} table, so
+ * a run maintains the data sources one after another, pinning the catalog query and the DDL to
+ * one of them with {@link HintManager}.
+ * <p>
+ * Detaching a month releases its uids in {@code transaction_uids} (V10), which keeps
+ * {@code uid} unique now that the primary key also holds {@code created_at}.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "app.transaction", name = "partition-maintenance-enabled",
+        havingValue = "true", matchIfMissing = true)
+public class TransactionPartitionManager {
+
+    static final String PARTITION_PREFIX = "transactions_p";
+    static final String MAINTENANCE_LOCK = "transaction-partitions";
+
+    private static final DateTimeFormatter SUFFIX = DateTimeFormatter.ofPattern("yyyy_MM");
+
+    private static final String ATTACHED_PARTITIONS = "SELECT c.relname FROM pg_inherits i " +
+            "JOIN pg_class c ON c.oid = i.inhrelid " +
+            "JOIN pg_class p ON p.oid = i.inhparent " +
+            "WHERE p.relname = 'transactions' AND c.relname LIKE 'transactions\\_p%'";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final SchedulerLockRepository schedulerLockRepository;
+    private final ShardBucketTable shardBucketTable;
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionTemplate savepointTemplate;
+    private final AppProperties appProperties;
+    private final Counter created;
+    private final Counter detached;
+
+    public TransactionPartitionManager(JdbcTemplate jdbcTemplate,
+                                       SchedulerLockRepository schedulerLockRepository,
+                                       ShardBucketTable shardBucketTable,
+                                       TransactionTemplate transactionTemplate,
+                                       AppProperties appProperties,
+                                       MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.schedulerLockRepository = schedulerLockRepository;
+        this.shardBucketTable = shardBucketTable;
+        this.transactionTemplate = transactionTemplate;
+        this.savepointTemplate = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        this.savepointTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_NESTED);
+        this.appProperties = appProperties;
+        this.created = Counter.builder("transaction_partitions_created_total")
+                .description("Monthly transactions partitions created ahead of time")
+                .register(meterRegistry);
+        this.detached = Counter.builder("transaction_partitions_detached_total")
+                .description("Monthly transactions partitions detached after the retention")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    @Scheduled(cron = "${app.transaction.partition-maintenance-cron:0 15 2 * * *}")
+    public void maintain() {
+        maintain(YearMonth.now());
+    }
+
+    void maintain(YearMonth currentMonth) {
+        transactionTemplate.executeWithoutResult(status -> {
+            if (!schedulerLockRepository.tryLockJob(MAINTENANCE_LOCK)) {
+                log.debug("Partition maintenance skipped, another node holds the lock");
+                return;
+            }
+            List<String> dataSources = shardBucketTable.dataSourceNames();
+            if (dataSources.isEmpty()) {
+                maintainTable(currentMonth);
+                return;
+            }
+            for (String dataSource : dataSources) {
+                try (HintManager hintManager = HintManager.getInstance()) {
+                    hintManager.setDataSourceName(dataSource);
+                    maintainTable(currentMonth);
+                }
+            }
+        });
+    }
+
+    private void maintainTable(YearMonth currentMonth) {
+        TreeSet<YearMonth> attached = attachedPartitions();
+        createUpcoming(currentMonth, attached);
+        detachExpired(currentMonth, attached);
+    }
+
+    private void createUpcoming(YearMonth currentMonth, TreeSet<YearMonth> attached) {
+        YearMonth last = currentMonth.plusMonths(appProperties.getPartitionMonthsAhead());
+        for (YearMonth month = currentMonth; !month.isAfter(last); month = month.plusMonths(1)) {
+            if (attached.contains(month)) {
+                continue;
+            }
+            try {
+                String sql = "CREATE TABLE IF NOT EXISTS " + partitionName(month) +
+                        " PARTITION OF transactions FOR VALUES FROM ('" + month.atDay(1) +
+                        "') TO ('" + month.plusMonths(1).atDay(1) + "')";
+                savepointTemplate.executeWithoutResult(savepoint -> jdbcTemplate.execute(sql));
+                created.increment();
+                log.info("Created transactions partition {}", partitionName(month));
+            } catch (DataAccessException e) {
+                // Typically rows of that month already sit in transactions_default
+                log.error("Failed to create transactions partition {}: {}", partitionName(month), e.getMessage());
+            }
+        }
+    }
+
+    private void detachExpired(YearMonth currentMonth, TreeSet<YearMonth> attached) {
+        int retention = appProperties.getPartitionRetentionMonths();
+        if (retention <= 0) {
+            return;
+        }
+        YearMonth oldestKept = currentMonth.minusMonths(retention - 1L);
+        for (YearMonth month : attached.headSet(oldestKept)) {
+            String partition = partitionName(month);
+            jdbcTemplate.execute("ALTER TABLE transactions DETACH PARTITION " + partition);
+            jdbcTemplate.update("DELETE FROM transaction_uids WHERE created_at >= ? AND created_at < ?",
+                    month.atDay(1).atStartOfDay(), month.plusMonths(1).atDay(1).atStartOfDay());
+            detached.increment();
+
+            if (appProperties.isPartitionDropDetached()) {
+                jdbcTemplate.execute("DROP TABLE " + partition);
+                log.info("Detached and dropped transactions partition {}", partition);
+            } else {
+                log.info("Detached transactions partition {}, kept for archival", partition);
+            }
+        }
+    }
+
+    private TreeSet<YearMonth> attachedPartitions() {
+        TreeSet<YearMonth> months = new TreeSet<>();
+        for (String name : jdbcTemplate.queryForList(ATTACHED_PARTITIONS, String.class)) {
+            months.add(YearMonth.parse(name.substring(PARTITION_PREFIX.length()), SUFFIX));
+        }
+        return months;
+    }
+
+    static String partitionName(YearMonth month) {
+        return PARTITION_PREFIX + month.format(SUFFIX);
+    }
+}
@@ -1,12 +1,16 @@
 package com.example.transaction.service;
 
 import com.example.transaction.config.AppProperties;
+import com.example.transaction.dto.BatchConfirmItemResult;
+import com.example.transaction.dto.BatchConfirmResponse;
 import com.example.transaction.dto.TransactionConfirmRequest;
 import com.example.transaction.dto.TransactionConfirmResponse;
+import com.example.transaction.dto.TransactionCursorPageResponse;
 import com.example.transaction.dto.TransactionInitRequest;
 import com.example.transaction.dto.TransactionInitResponse;
 import com.example.transaction.dto.TransactionPageResponse;
 import com.example.transaction.dto.TransactionStatusResponse;
+import com.example.transaction.entity.Money;
 import com.example.transaction.entity.Transaction;
 import com.example.transaction.entity.Wallet;
 import com.example.transaction.entity.enums.PaymentType;
@@ -14,12 +18,15 @@ import com.example.transaction.entity.enums.TransactionStatus;
 import com.example.transaction.exception.InsufficientBalanceException;
 import com.example.transaction.exception.InvalidTransactionException;
 import com.example.transaction.exception.TransactionNotFoundException;
-import com.example.transaction.exception.WalletNotFoundException;
+import com.example.transaction.kafka.OutboxBackpressure;
 import com.example.transaction.kafka.TransactionEventProducer;
 import com.example.transaction.mapper.TransactionMapper;
 import com.example.transaction.repository.TransactionRepository;
 import com.example.transaction.repository.TransactionSpecification;
 import com.example.transaction.repository.WalletRepository;
+import com.example.transaction.sharding.ShardDualReader;
+import com.example.transaction.sharding.ShardScatterGather;
+import com.example.transaction.sharding.ShardWriteRouter;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
@@ -28,10 +35,18 @@ import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
@@ -44,9 +59,20 @@ public class TransactionService {
     private final WalletRepository walletRepository;
     private final WalletService walletService;
     private final FeeCalculator feeCalculator;
-    private final InitRequestCache initRequestCache;
+    private final InitRequestStore initRequestStore;
     private final TransactionMapper transactionMapper;
     private final TransactionEventProducer eventProducer;
+    private final WalletLockManager walletLockManager;
+    private final TransactionTemplate transactionTemplate;
+    private final WalletTypeCache walletTypeCache;
+    private final ShardDualReader shardDualReader;
+    private final ShardScatterGather shardScatterGather;
+    private final ShardWriteRouter shardWriteRouter;
+    private final WalletBalanceService walletBalanceService;
+    private final LedgerService ledgerService;
+    private final WalletCache walletCache;
+    private final WalletDailyStatsService walletDailyStatsService;
+    private final OutboxBackpressure outboxBackpressure;
 
     // ==================== INIT METHODS ====================
 
@@ -83,8 +109,9 @@ public class TransactionService {
     }
 
     private TransactionInitResponse initTransaction(TransactionInitRequest request, PaymentType type) {
-        // Validate amount
-        if (request.getAmount() == null || request.getAmount().compareTo(BigDecimal.ZERO) <= 0) {
+        // Validate amount (rounded to the 4 decimals the columns keep)
+        Money amount = request.getAmount() != null ? toMoney(request.getAmount()) : Money.ZERO;
+        if (!amount.isPositive()) {
             throw new InvalidTransactionException("Amount must be positive");
         }
 
@@ -97,17 +124,22 @@ public class TransactionService {
         }
 
         // Calculate fee and total
-        BigDecimal fee = feeCalculator.calculateFee(request.getAmount(), type);
-        BigDecimal totalAmount = request.getAmount().add(fee);
+        String currencyCode = walletTypeCache.currencyCodeOf(wallet);
+        Money fee;
+        Money totalAmount;
+        try {
+            fee = feeCalculator.calculateFee(amount, type, currencyCode, request.getPaymentMethodId());
+            totalAmount = amount.plus(fee);
+        } catch (ArithmeticException e) {
+            throw new InvalidTransactionException("Amount is out of range: " + request.getAmount());
+        }
 
         // For withdrawal and transfer - check balance
-        BigDecimal available = wallet.getBalance();
         if (type == PaymentType.WITHDRAWAL || type == PaymentType.TRANSFER) {
-            if (!wallet.hasSufficientBalance(totalAmount)) {
+            if (!walletBalanceService.hasSufficientBalance(wallet, totalAmount)) {
                 throw new InsufficientBalanceException(
-                        wallet.getUid(), totalAmount, wallet.getBalance());
+                        wallet.getUid(), totalAmount.toBigDecimal(), walletBalanceService.totalBalance(wallet));
             }
-            available = wallet.getBalance().subtract(totalAmount);
         }
 
         // For transfer - validate target wallet
@@ -117,15 +149,14 @@ public class TransactionService {
                 throw new InvalidTransactionException("Target wallet is not active: " + targetWallet.getUid());
             }
             // Check same currency
-            if (!wallet.getWalletType().getCurrencyCode()
-                    .equals(targetWallet.getWalletType().getCurrencyCode())) {
+            if (!currencyCode.equals(walletTypeCache.currencyCodeOf(targetWallet))) {
                 throw new InvalidTransactionException("Wallets must have the same currency");
             }
         }
 
         // Create init request
         UUID requestUid = UUID.randomUUID();
-        LocalDateTime expiresAt = initRequestCache.calculateExpiresAt();
+        LocalDateTime expiresAt = initRequestStore.calculateExpiresAt();
 
         InitRequest initRequest = InitRequest.builder()
                 .requestUid(requestUid)
@@ -133,7 +164,7 @@ public class TransactionService {
                 .walletUid(wallet.getUid())
                 .targetWalletUid(request.getTargetWalletUid())
                 .type(type)
-                .amount(request.getAmount())
+                .amount(amount)
                 .fee(fee)
                 .totalAmount(totalAmount)
                 .paymentMethodId(request.getPaymentMethodId())
@@ -141,70 +172,98 @@ public class TransactionService {
                 .expiresAt(expiresAt)
                 .build();
 
-        // Store in cache
-        initRequestCache.put(initRequest);
+        // Store until confirm
+        initRequestStore.put(initRequest);
 
         log.info("Created init request: {} for {} transaction, expires at: {}",
                 requestUid, type, expiresAt);
 
-        String currencyCode = wallet.getWalletType().getCurrencyCode();
         return transactionMapper.toInitResponse(initRequest, currencyCode);
     }
 
     // ==================== CONFIRM METHODS ====================
+    // Confirm methods take the in-process wallet lock first and only then open the
+    // DB transaction, so contending requests wait without holding a pooled connection.
 
-    @Transactional
     public TransactionConfirmResponse confirmDeposit(TransactionConfirmRequest request) {
         log.info("Confirm deposit for requestUid: {}", request.getRequestUid());
+        outboxBackpressure.check();
 
-        return confirmTransaction(request, PaymentType.DEPOSIT);
+        return walletLockManager.executeWithLock(request.getWalletUid(), () ->
+                transactionTemplate.execute(status -> confirmTransaction(request, PaymentType.DEPOSIT)));
     }
 
-    @Transactional
     public TransactionConfirmResponse confirmWithdrawal(TransactionConfirmRequest request) {
         log.info("Confirm withdrawal for requestUid: {}", request.getRequestUid());
+        outboxBackpressure.check();
 
-        return confirmTransaction(request, PaymentType.WITHDRAWAL);
+        return walletLockManager.executeWithLock(request.getWalletUid(), () ->
+                transactionTemplate.execute(status -> confirmTransaction(request, PaymentType.WITHDRAWAL)));
     }
 
-    @Transactional
     public TransactionConfirmResponse confirmTransfer(TransactionConfirmRequest request) {
         log.info("Confirm transfer for requestUid: {}", request.getRequestUid());
 
+        // Target wallet is only known from the init request; peek it to lock both wallets.
+        // A target with balance slots is credited without its lock.
+        List<UUID> walletUids = initRequestStore.get(request.getRequestUid())
+                .filter(initRequest -> initRequest.getTargetWalletUid() != null)
+                .filter(initRequest -> !walletBalanceService.isSlotted(initRequest.getTargetWalletUid()))
+                .map(initRequest -> List.of(request.getWalletUid(), initRequest.getTargetWalletUid()))
+                .orElse(List.of(request.getWalletUid()));
+
+        return walletLockManager.executeWithLocks(walletUids, () ->
+                transactionTemplate.execute(status -> doConfirmTransfer(request)));
+    }
+
+    private TransactionConfirmResponse doConfirmTransfer(TransactionConfirmRequest request) {
         // Get and validate init request
-        InitRequest initRequest = initRequestCache.getAndRemove(request.getRequestUid());
+        InitRequest initRequest = initRequestStore.getAndRemove(request.getRequestUid());
         validateConfirmRequest(initRequest, request, PaymentType.TRANSFER);
 
-        // Get wallets with lock
-        Wallet sourceWallet = walletService.getWalletForUpdate(initRequest.getWalletUid());
-        Wallet targetWallet = walletService.getWalletForUpdate(initRequest.getTargetWalletUid());
+        // A slotted target is credited on one of its slots and its row is never locked;
+        // the credit is rolled back with everything else if the debit below fails
+        UUID targetUid = initRequest.getTargetWalletUid();
+        boolean creditedSlot = walletBalanceService.creditSlot(
+                targetUid, initRequest.getAmount().toBigDecimal());
+
+        // Lock the wallets in canonical UID order with a single round trip
+        Map<UUID, Wallet> lockedWallets = walletService.getWalletsForUpdate(creditedSlot
+                ? List.of(initRequest.getWalletUid())
+                : List.of(initRequest.getWalletUid(), targetUid));
+        Wallet sourceWallet = lockedWallets.get(initRequest.getWalletUid());
+        shardWriteRouter.followWallet(initRequest.getUserUid(), sourceWallet.getUid());
+
+        // Validate balance again (may have changed since init) and debit
+        walletBalanceService.debit(sourceWallet, initRequest.getTotalAmount());
+        walletRepository.save(sourceWallet);
 
-        // Validate balances again (may have changed since init)
-        BigDecimal totalDebit = initRequest.getTotalAmount();
-        if (!sourceWallet.hasSufficientBalance(totalDebit)) {
-            throw new InsufficientBalanceException(
-                    sourceWallet.getUid(), totalDebit, sourceWallet.getBalance());
+        Wallet targetWallet;
+        if (creditedSlot) {
+            targetWallet = walletRepository.getReferenceById(targetUid);
+        } else {
+            targetWallet = lockedWallets.get(targetUid);
+            targetWallet.credit(initRequest.getAmount());
+            walletRepository.save(targetWallet);
+            walletCache.evictAfterCommit(targetUid);
         }
 
-        // Perform transfer
-        sourceWallet.debit(totalDebit);
-        targetWallet.credit(initRequest.getAmount());
-
-        walletRepository.save(sourceWallet);
-        walletRepository.save(targetWallet);
-
         // Create completed transaction
         Transaction transaction = Transaction.builder()
                 .userUid(initRequest.getUserUid())
                 .wallet(sourceWallet)
                 .targetWallet(targetWallet)
-                .amount(initRequest.getAmount())
+                .amount(initRequest.getAmount().toBigDecimal())
                 .type(PaymentType.TRANSFER)
                 .status(TransactionStatus.COMPLETED)
-                .fee(initRequest.getFee())
+                .fee(initRequest.getFee().toBigDecimal())
                 .build();
 
         Transaction savedTransaction = transactionRepository.save(transaction);
+        walletDailyStatsService.record(savedTransaction);
+        ledgerService.recordTransfer(savedTransaction.getUid(), initRequest.getUserUid(),
+                sourceWallet.getUid(), targetUid, targetWallet.getUserUid(),
+                initRequest.getAmount().toBigDecimal(), initRequest.getFee().toBigDecimal());
 
         log.info("Transfer completed: {} from wallet {} to wallet {}, amount: {}",
                 savedTransaction.getUid(), sourceWallet.getUid(),
@@ -213,24 +272,184 @@ public class TransactionService {
         return transactionMapper.toConfirmResponse(savedTransaction);
     }
 
+    /**
+     * Confirm many deposit/withdrawal init requests at once.
+     * <p>
+     * Items are grouped by wallet; every wallet lock is taken once and all wallets are locked
+     * with a single {@code SELECT ... FOR UPDATE}. Balances are checked and debited first, then
+     * transactions, ledger entries and outbox rows are persisted phase by phase, so Hibernate
+     * flushes each kind as one JDBC batch. A rejected item (expired request, mismatch,
+     * insufficient balance, transfer) does not affect the others.
+     * @return one result per item, in request order
+     */
+    public BatchConfirmResponse confirmBatch(List<TransactionConfirmRequest> items) {
+        log.info("Batch confirm of {} items", items.size());
+        outboxBackpressure.check();
+
+        BatchConfirmItemResult[] results = new BatchConfirmItemResult[items.size()];
+        Map<UUID, List<Integer>> itemsByWallet = new LinkedHashMap<>();
+        Set<UUID> seen = new HashSet<>();
+
+        // Validate against a peeked copy; requests are only claimed under the wallet lock
+        for (int i = 0; i < items.size(); i++) {
+            TransactionConfirmRequest item = items.get(i);
+            if (!seen.add(item.getRequestUid())) {
+                results[i] = rejected(item.getRequestUid(), "Duplicate requestUid in batch");
+                continue;
+            }
+            Optional<InitRequest> initRequest = initRequestStore.get(item.getRequestUid());
+            if (initRequest.isEmpty()) {
+                results[i] = rejected(item.getRequestUid(), "Init request not found: " + item.getRequestUid());
+                continue;
+            }
+            PaymentType type = initRequest.get().getType();
+            if (type == PaymentType.TRANSFER) {
+                results[i] = rejected(item.getRequestUid(), "Transfers cannot be confirmed in a batch");
+                continue;
+            }
+            try {
+                validateConfirmRequest(initRequest.get(), item, type);
+            } catch (InvalidTransactionException e) {
+                results[i] = rejected(item.getRequestUid(), e.getMessage());
+                continue;
+            }
+            itemsByWallet.computeIfAbsent(item.getWalletUid(), uid -> new ArrayList<>()).add(i);
+        }
+
+        if (!itemsByWallet.isEmpty()) {
+            walletLockManager.executeWithLocks(itemsByWallet.keySet(), () ->
+                    transactionTemplate.execute(status -> {
+                        confirmBatchLocked(items, itemsByWallet, results);
+                        return null;
+                    }));
+        }
+
+        List<BatchConfirmItemResult> resultList = List.of(results);
+        int confirmed = (int) resultList.stream()
+                .filter(r -> r.getStatus() == BatchConfirmItemResult.StatusEnum.CONFIRMED)
+                .count();
+
+        log.info("Batch confirm done: {} confirmed, {} rejected", confirmed, items.size() - confirmed);
+
+        return BatchConfirmResponse.builder()
+                .confirmed(confirmed)
+                .rejected(items.size() - confirmed)
+                .results(resultList)
+                .build();
+    }
+
+    private void confirmBatchLocked(List<TransactionConfirmRequest> items,
+                                    Map<UUID, List<Integer>> itemsByWallet,
+                                    BatchConfirmItemResult[] results) {
+        Map<UUID, Wallet> wallets = new HashMap<>();
+        for (Wallet wallet : walletRepository.findAllByIdForUpdate(itemsByWallet.keySet())) {
+            wallets.put(wallet.getUid(), wallet);
+            shardWriteRouter.followWallet(wallet.getUserUid(), wallet.getUid());
+        }
+
+        // Check, claim and debit; nothing is persisted yet, so no statement is flushed in between.
+        // A request is claimed only once it is accepted, and the store gives it back if this
+        // transaction rolls back.
+        List<Transaction> transactions = new ArrayList<>();
+        List<Integer> transactionItems = new ArrayList<>();
+        Map<UUID, Wallet> debited = new LinkedHashMap<>();
+        itemsByWallet.forEach((walletUid, indexes) -> {
+            Wallet wallet = wallets.get(walletUid);
+            for (int index : indexes) {
+                UUID requestUid = items.get(index).getRequestUid();
+                if (wallet == null) {
+                    results[index] = rejected(requestUid, "Wallet not found: " + walletUid);
+                    continue;
+                }
+
+                Optional<InitRequest> peeked = initRequestStore.get(requestUid);
+                if (peeked.isEmpty()) {
+                    results[index] = rejected(requestUid, "Init request not found: " + requestUid);
+                    continue;
+                }
+
+                // Checked up front: a throwing debit would mark the whole batch rollback-only
+                if (peeked.get().getType() == PaymentType.WITHDRAWAL
+                        && !walletBalanceService.hasSufficientBalance(wallet, peeked.get().getTotalAmount())) {
+                    results[index] = rejected(requestUid, "Insufficient balance in wallet " + walletUid);
+                    continue;
+                }
+
+                InitRequest initRequest;
+                try {
+                    initRequest = initRequestStore.getAndRemove(requestUid);
+                } catch (InvalidTransactionException e) {
+                    results[index] = rejected(requestUid, e.getMessage());
+                    continue;
+                }
+
+                if (initRequest.getType() == PaymentType.WITHDRAWAL) {
+                    walletBalanceService.debit(wallet, initRequest.getTotalAmount());
+                    debited.put(walletUid, wallet);
+                }
+
+                transactions.add(Transaction.builder()
+                        .userUid(initRequest.getUserUid())
+                        .wallet(wallet)
+                        .amount(initRequest.getAmount().toBigDecimal())
+                        .type(initRequest.getType())
+                        .status(TransactionStatus.PENDING)
+                        .fee(initRequest.getFee().toBigDecimal())
+                        .paymentMethodId(initRequest.getPaymentMethodId())
+                        .build());
+                transactionItems.add(index);
+            }
+        });
+
+        walletRepository.saveAll(debited.values());
+        List<Transaction> saved = transactionRepository.saveAll(transactions);
+
+        for (Transaction transaction : saved) {
+            if (transaction.getType() == PaymentType.WITHDRAWAL) {
+                ledgerService.recordWithdrawal(transaction.getUid(), transaction.getUserUid(),
+                        transaction.getWallet().getUid(), transaction.getAmount(), transaction.getFee());
+            }
+        }
+
+        for (int i = 0; i < saved.size(); i++) {
+            Transaction transaction = saved.get(i);
+            if (transaction.getType() == PaymentType.DEPOSIT) {
+                eventProducer.sendDepositRequested(transaction, transaction.getWallet());
+            } else {
+                eventProducer.sendWithdrawalRequested(transaction, transaction.getWallet());
+            }
+            results[transactionItems.get(i)] = BatchConfirmItemResult.builder()
+                    .requestUid(items.get(transactionItems.get(i)).getRequestUid())
+                    .status(BatchConfirmItemResult.StatusEnum.CONFIRMED)
+                    .transaction(transactionMapper.toConfirmResponse(transaction))
+                    .build();
+        }
+
+        log.info("Created {} pending transactions for {} wallets", saved.size(), wallets.size());
+    }
+
+    private static BatchConfirmItemResult rejected(UUID requestUid, String error) {
+        return BatchConfirmItemResult.builder()
+                .requestUid(requestUid)
+                .status(BatchConfirmItemResult.StatusEnum.REJECTED)
+                .error(error)
+                .build();
+    }
+
     private TransactionConfirmResponse confirmTransaction(
             TransactionConfirmRequest request, PaymentType expectedType) {
 
         // Get and validate init request
-        InitRequest initRequest = initRequestCache.getAndRemove(request.getRequestUid());
+        InitRequest initRequest = initRequestStore.getAndRemove(request.getRequestUid());
         validateConfirmRequest(initRequest, request, expectedType);
 
         // Get wallet with lock
         Wallet wallet = walletService.getWalletForUpdate(initRequest.getWalletUid());
+        shardWriteRouter.followWallet(initRequest.getUserUid(), wallet.getUid());
 
         // For withdrawal - reserve balance (debit immediately)
         if (expectedType == PaymentType.WITHDRAWAL) {
-            BigDecimal totalDebit = initRequest.getTotalAmount();
-            if (!wallet.hasSufficientBalance(totalDebit)) {
-                throw new InsufficientBalanceException(
-                        wallet.getUid(), totalDebit, wallet.getBalance());
-            }
-            wallet.debit(totalDebit);
+            walletBalanceService.debit(wallet, initRequest.getTotalAmount());
             walletRepository.save(wallet);
         }
 
@@ -238,14 +457,18 @@ public class TransactionService {
         Transaction transaction = Transaction.builder()
                 .userUid(initRequest.getUserUid())
                 .wallet(wallet)
-                .amount(initRequest.getAmount())
+                .amount(initRequest.getAmount().toBigDecimal())
                 .type(expectedType)
                 .status(TransactionStatus.PENDING)
-                .fee(initRequest.getFee())
+                .fee(initRequest.getFee().toBigDecimal())
                 .paymentMethodId(initRequest.getPaymentMethodId())
                 .build();
 
         Transaction savedTransaction = transactionRepository.save(transaction);
+        if (expectedType == PaymentType.WITHDRAWAL) {
+            ledgerService.recordWithdrawal(savedTransaction.getUid(), initRequest.getUserUid(), wallet.getUid(),
+                    initRequest.getAmount().toBigDecimal(), initRequest.getFee().toBigDecimal());
+        }
 
         log.info("Created pending {} transaction: {}", expectedType, savedTransaction.getUid());
 
@@ -259,6 +482,14 @@ public class TransactionService {
         return transactionMapper.toConfirmResponse(savedTransaction);
     }
 
+    private static Money toMoney(BigDecimal amount) {
+        try {
+            return Money.of(amount);
+        } catch (ArithmeticException e) {
+            throw new InvalidTransactionException("Amount is out of range: " + amount);
+        }
+    }
+
     private void validateConfirmRequest(
             InitRequest initRequest,
             TransactionConfirmRequest confirmRequest,
@@ -277,7 +508,7 @@ public class TransactionService {
 
         // Validate amount matches
         if (confirmRequest.getAmount() != null &&
-                confirmRequest.getAmount().compareTo(initRequest.getAmount()) != 0) {
+                !toMoney(confirmRequest.getAmount()).equals(initRequest.getAmount())) {
             throw new InvalidTransactionException("Amount mismatch");
         }
     }
@@ -291,7 +522,7 @@ public class TransactionService {
         Transaction transaction = transactionRepository.findByIdWithWallets(transactionUid)
                 .orElseThrow(() -> new TransactionNotFoundException(transactionUid));
 
-        String currencyCode = transaction.getWallet().getWalletType().getCurrencyCode();
+        String currencyCode = walletTypeCache.currencyCodeOf(transaction.getWallet());
         return transactionMapper.toStatusResponse(transaction, currencyCode);
     }
 
@@ -328,12 +559,7 @@ public class TransactionService {
         Page<Transaction> transactionPage = transactionRepository.findAll(spec, pageRequest);
 
         // Map to response
-        List<TransactionStatusResponse> content = transactionPage.getContent().stream()
-                .map(t -> {
-                    String currencyCode = t.getWallet().getWalletType().getCurrencyCode();
-                    return transactionMapper.toStatusResponse(t, currencyCode);
-                })
-                .collect(Collectors.toList());
+        List<TransactionStatusResponse> content = toStatusResponses(transactionPage.getContent());
 
         return TransactionPageResponse.builder()
                 .content(content)
@@ -344,6 +570,112 @@ public class TransactionService {
                 .build();
     }
 
+    /**
+     * Keyset variant of {@link #searchTransactions}: seeks on {@code (createdAt, uid)} from the
+     * cursor instead of skipping rows, and runs COUNT only when {@code includeTotal} is set.
+     */
+    @Transactional(readOnly = true)
+    public TransactionCursorPageResponse searchTransactionsByCursor(
+            UUID userUid,
+            UUID walletUid,
+            String type,
+            String status,
+            LocalDateTime dateFrom,
+            LocalDateTime dateTo,
+            String cursor,
+            Integer size,
+            boolean includeTotal) {
+
+        log.debug("Searching transactions by cursor: userUid={}, walletUid={}, type={}, status={}",
+                userUid, walletUid, type, status);
+
+        PaymentType paymentType = type != null ? PaymentType.valueOf(type.toUpperCase()) : null;
+        TransactionStatus transactionStatus = status != null ?
+                TransactionStatus.valueOf(status.toUpperCase()) : null;
+
+        Specification<Transaction> spec = TransactionSpecification.buildSpecification(
+                userUid, walletUid, paymentType, transactionStatus, dateFrom, dateTo);
+
+        TransactionCursor after = cursor != null && !cursor.isBlank() ? TransactionCursor.decode(cursor) : null;
+        int pageSize = size != null ? size : 20;
+
+        // One extra row tells whether a next page exists without counting
+        List<Transaction> rows = shardDualReader.readSorted(userUid,
+                () -> transactionRepository.findSeekPage(spec,
+                        after != null ? after.createdAt() : null,
+                        after != null ? after.uid() : null,
+                        pageSize + 1),
+                Transaction::getUid, TransactionRepository.KEYSET_ORDER, pageSize + 1);
+
+        return toCursorPage(rows, pageSize, includeTotal ? transactionRepository.count(spec) : null);
+    }
+
+    /**
+     * Cursor search over all users. Each shard gets the filters, the seek predicate and the
+     * {@code size + 1} limit; the per-shard pages are merged in memory. Not transactional:
+     * shard queries run on their own threads.
+     */
+    public TransactionCursorPageResponse searchAllTransactionsByCursor(
+            UUID walletUid,
+            String type,
+            String status,
+            LocalDateTime dateFrom,
+            LocalDateTime dateTo,
+            String cursor,
+            Integer size) {
+
+        log.debug("Admin search by cursor: walletUid={}, type={}, status={}, dateFrom={}, dateTo={}",
+                walletUid, type, status, dateFrom, dateTo);
+
+        PaymentType paymentType = type != null ? PaymentType.valueOf(type.toUpperCase()) : null;
+        TransactionStatus transactionStatus = status != null ?
+                TransactionStatus.valueOf(status.toUpperCase()) : null;
+
+        Specification<Transaction> spec = TransactionSpecification.buildSpecification(
+                null, walletUid, paymentType, transactionStatus, dateFrom, dateTo);
+
+        TransactionCursor after = cursor != null && !cursor.isBlank() ? TransactionCursor.decode(cursor) : null;
+        int pageSize = size != null ? size : 20;
+
+        List<Transaction> rows = shardScatterGather.searchAll(
+                () -> transactionRepository.findSeekPage(spec,
+                        after != null ? after.createdAt() : null,
+                        after != null ? after.uid() : null,
+                        pageSize + 1),
+                TransactionRepository.KEYSET_ORDER, pageSize + 1);
+
+        return toCursorPage(rows, pageSize, null);
+    }
+
+    // rows holds up to pageSize + 1 entries; the extra one only signals a next page
+    private TransactionCursorPageResponse toCursorPage(List<Transaction> rows, int pageSize, Long totalElements) {
+        boolean hasNext = rows.size() > pageSize;
+        List<Transaction> page = hasNext ? rows.subList(0, pageSize) : rows;
+
+        String nextCursor = null;
+        if (hasNext) {
+            Transaction last = page.get(page.size() - 1);
+            nextCursor = new TransactionCursor(last.getCreatedAt(), last.getUid()).encode();
+        }
+
+        return TransactionCursorPageResponse.builder()
+                .content(toStatusResponses(page))
+                .size(page.size())
+                .hasNext(hasNext)
+                .nextCursor(nextCursor)
+                .totalElements(totalElements)
+                .build();
+    }
+
+    private List<TransactionStatusResponse> toStatusResponses(List<Transaction> transactions) {
+        return transactions.stream()
+                .map(t -> {
+                    String currencyCode = walletTypeCache.currencyCodeOf(t.getWallet());
+                    return transactionMapper.toStatusResponse(t, currencyCode);
+                })
+                .collect(Collectors.toList());
+    }
+
     @Transactional
     public TransactionStatusResponse completeTransaction(UUID transactionUid,
                                                          String externalTransactionId) {
@@ -361,9 +693,10 @@ public class TransactionService {
 
         transaction.complete();
         Transaction saved = transactionRepository.save(transaction);
+        walletDailyStatsService.record(saved);
 
         log.info("Transaction completed: uid={}", transactionUid);
-        String currencyCode = saved.getWallet().getWalletType().getCurrencyCode();
+        String currencyCode = walletTypeCache.currencyCodeOf(saved.getWallet());
         return transactionMapper.toStatusResponse(saved, currencyCode);
     }
 
@@ -381,20 +714,20 @@ public class TransactionService {
         }
 
         if (transaction.isWithdrawal()) {
-            Wallet wallet = walletRepository.findByIdForUpdate(transaction.getWallet().getUid())
-                    .orElseThrow(() -> new WalletNotFoundException(
-                            transaction.getWallet().getUid()));
-            wallet.credit(transaction.getTotalAmount());
-            walletRepository.save(wallet);
+            UUID walletUid = transaction.getWallet().getUid();
+            walletBalanceService.credit(walletUid, transaction.getTotalAmount());
+            ledgerService.recordWithdrawalRefund(transaction.getUid(), transaction.getUserUid(),
+                    walletUid, transaction.getTotalAmount(), transaction.getFee());
             log.info("Wallet balance restored: walletUid={} amount={}",
-                    wallet.getUid(), transaction.getTotalAmount());
+                    walletUid, transaction.getTotalAmount());
         }
 
         transaction.fail(reason);
         Transaction saved = transactionRepository.save(transaction);
+        walletDailyStatsService.record(saved);
 
         log.info("Transaction failed: uid={}", transactionUid);
-        String currencyCode = saved.getWallet().getWalletType().getCurrencyCode();
+        String currencyCode = walletTypeCache.currencyCodeOf(saved.getWallet());
         return transactionMapper.toStatusResponse(saved, currencyCode);
     }
 }
\ No newline at end of file
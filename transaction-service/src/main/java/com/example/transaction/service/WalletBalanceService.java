@@ -0,0 +1,281 @@
+package com.example.transaction.service;
+
+import com.example.transaction.entity.Money;
+import com.example.transaction.entity.Wallet;
+import com.example.transaction.entity.WalletBalanceSlot;
+import com.example.transaction.exception.InsufficientBalanceException;
+import com.example.transaction.exception.WalletNotFoundException;
+import com.example.transaction.repository.WalletBalanceSlotRepository;
+import com.example.transaction.repository.WalletRepository;
+import com.example.transaction.sharding.ShardBucketTable;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Balance operations for wallets that may be split into balance slots.
+ * <p>
+ * A wallet with {@code balance_slots = N > 0} keeps its balance in the {@code wallets} row
+ * plus N {@code wallet_balance_slots} rows. Credits add to a random slot with a single UPDATE
+ * and never touch the wallet row, so concurrent deposits and incoming transfers to a hot
+ * wallet do not serialize on one row lock. Debits run with the wallet row locked and sweep
+ * the slots into it only when the row alone does not cover the amount. Wallets without slots
+ * (the default) behave exactly as before.
+ */
+@Slf4j
+@Service
+public class WalletBalanceService {
+
+    private final WalletRepository walletRepository;
+    private final WalletBalanceSlotRepository slotRepository;
+    private final WalletCache walletCache;
+    private final ShardBucketTable shardBucketTable;
+    private final Counter slotCredits;
+    private final Counter consolidations;
+
+    // Slotted wallets, so the credit path can skip loading and locking the wallet row
+    private volatile Map<UUID, SlottedWallet> slotted = Map.of();
+
+    public WalletBalanceService(WalletRepository walletRepository,
+                                WalletBalanceSlotRepository slotRepository,
+                                WalletCache walletCache,
+                                ShardBucketTable shardBucketTable,
+                                MeterRegistry meterRegistry) {
+        this.walletRepository = walletRepository;
+        this.slotRepository = slotRepository;
+        this.walletCache = walletCache;
+        this.shardBucketTable = shardBucketTable;
+        this.slotCredits = Counter.builder("wallet_balance_slot_credits_total")
+                .description("Credits applied to a balance slot instead of the wallet row")
+                .register(meterRegistry);
+        this.consolidations = Counter.builder("wallet_balance_consolidations_total")
+                .description("Debits that had to sweep balance slots into the wallet row")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    @Scheduled(
+            initialDelayString = "${app.transaction.balance-slot-refresh-ms:30000}",
+            fixedDelayString = "${app.transaction.balance-slot-refresh-ms:30000}")
+    public void refresh() {
+        Map<UUID, SlottedWallet> loaded = new HashMap<>();
+        for (WalletRepository.SlottedWalletView view : walletRepository.findSlottedWallets()) {
+            loaded.put(view.getUid(), new SlottedWallet(view.getUserUid(), view.getBalanceSlots()));
+        }
+        slotted = Map.copyOf(loaded);
+        log.debug("Balance slot snapshot refreshed: {} slotted wallets", loaded.size());
+    }
+
+    /**
+     * Refresh the snapshot once the caller's transaction commits, so it never sees slot
+     * changes that may still roll back and does not hold the transaction open while reading.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void refreshAfterCommit() {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                refresh();
+            }
+        });
+    }
+
+    /**
+     * True if credits to this wallet go to balance slots and do not need the wallet row lock.
+     * Based on a snapshot; a stale answer only costs contention, never correctness.
+     */
+    public boolean isSlotted(UUID walletUid) {
+        return slottedWallet(walletUid) != null;
+    }
+
+    /**
+     * Slot for a per-wallet counter row: a random one of the wallet's balance slots, so the
+     * counters of a hot wallet are spread like its credits; 0 for wallets without slots.
+     */
+    public int counterSlot(UUID walletUid) {
+        SlottedWallet wallet = slotted.get(walletUid);
+        return wallet != null ? ThreadLocalRandom.current().nextInt(wallet.slots()) : 0;
+    }
+
+    /**
+     * Credit a wallet by uid. Slotted wallets get a lock-free slot credit; others (or a
+     * wallet whose slots were just removed) are credited on the locked wallet row.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void credit(UUID walletUid, BigDecimal amount) {
+        if (creditSlot(walletUid, amount)) {
+            return;
+        }
+        Wallet wallet = walletRepository.findByIdForUpdate(walletUid)
+                .orElseThrow(() -> new WalletNotFoundException(walletUid));
+        wallet.credit(amount);
+        walletRepository.save(wallet);
+        walletCache.evictAfterCommit(walletUid);
+    }
+
+    /**
+     * Try to credit one balance slot of a slotted wallet.
+     * @return false if the wallet is not slotted and must be credited on its row
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public boolean creditSlot(UUID walletUid, BigDecimal amount) {
+        SlottedWallet wallet = slottedWallet(walletUid);
+        if (wallet == null) {
+            return false;
+        }
+        int slot = ThreadLocalRandom.current().nextInt(wallet.slots());
+        if (slotRepository.addToSlot(walletUid, wallet.userUid(), slot, amount) == 0) {
+            return false;
+        }
+        slotCredits.increment();
+        walletCache.evictAfterCommit(walletUid);
+        return true;
+    }
+
+    /**
+     * Total balance (wallet row plus slots). Only slotted wallets cost a query.
+     */
+    public BigDecimal totalBalance(Wallet wallet) {
+        if (!wallet.hasBalanceSlots()) {
+            return wallet.getBalance();
+        }
+        return wallet.getBalance().add(slotRepository.sumByWalletUid(wallet.getUid()));
+    }
+
+    /**
+     * Total balances of several wallets with at most one query.
+     */
+    public Map<UUID, BigDecimal> totalBalances(Collection<Wallet> wallets) {
+        Map<UUID, BigDecimal> balances = new HashMap<>();
+        List<UUID> withSlots = new ArrayList<>();
+        for (Wallet wallet : wallets) {
+            balances.put(wallet.getUid(), wallet.getBalance());
+            if (wallet.hasBalanceSlots()) {
+                withSlots.add(wallet.getUid());
+            }
+        }
+        if (!withSlots.isEmpty()) {
+            for (WalletBalanceSlotRepository.SlotTotal total : slotRepository.sumByWalletUidIn(withSlots)) {
+                balances.merge(total.getWalletUid(), total.getBalance(), BigDecimal::add);
+            }
+        }
+        return balances;
+    }
+
+    /**
+     * Sufficiency check that reads the slots only when the wallet row alone is not enough.
+     */
+    public boolean hasSufficientBalance(Wallet wallet, Money amount) {
+        if (wallet.hasSufficientBalance(amount)) {
+            return true;
+        }
+        return wallet.hasBalanceSlots() && totalBalance(wallet).compareTo(amount.toBigDecimal()) >= 0;
+    }
+
+    /**
+     * Debit a wallet whose row is locked by the caller's transaction. Slots are locked and
+     * swept into the row only if the row balance is short.
+     * @throws InsufficientBalanceException if the total balance does not cover the amount
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void debit(Wallet wallet, Money amount) {
+        if (!wallet.hasSufficientBalance(amount) && wallet.hasBalanceSlots()) {
+            consolidate(wallet);
+        }
+        if (!wallet.hasSufficientBalance(amount)) {
+            throw new InsufficientBalanceException(wallet.getUid(), amount.toBigDecimal(), wallet.getBalance());
+        }
+        wallet.debit(amount);
+        walletCache.evictAfterCommit(wallet.getUid());
+    }
+
+    /**
+     * Change the number of balance slots of a wallet whose row is locked by the caller's
+     * transaction. Removed slots (all of them when {@code slots} is 0) are swept into the row.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void configureSlots(Wallet wallet, int slots) {
+        if (slots < 0) {
+            throw new IllegalArgumentException("Balance slots must not be negative");
+        }
+        List<WalletBalanceSlot> existing = slotRepository.findByWalletUidForUpdate(wallet.getUid());
+        Set<Integer> present = new HashSet<>();
+        List<WalletBalanceSlot> removed = new ArrayList<>();
+        for (WalletBalanceSlot slot : existing) {
+            if (slot.getSlot() >= slots) {
+                if (slot.getBalance().signum() > 0) {
+                    wallet.credit(slot.getBalance());
+                }
+                removed.add(slot);
+            } else {
+                present.add(slot.getSlot());
+            }
+        }
+        slotRepository.deleteAll(removed);
+
+        List<WalletBalanceSlot> added = new ArrayList<>();
+        for (int i = 0; i < slots; i++) {
+            if (!present.contains(i)) {
+                added.add(WalletBalanceSlot.builder()
+                        .walletUid(wallet.getUid())
+                        .userUid(wallet.getUserUid())
+                        .slot(i)
+                        .build());
+            }
+        }
+        slotRepository.saveAll(added);
+
+        wallet.setBalanceSlots(slots);
+        walletRepository.save(wallet);
+        walletCache.evictAfterCommit(wallet.getUid());
+        log.info("Wallet {} balance slots set to {}", wallet.getUid(), slots);
+    }
+
+    /**
+     * Wallets of a bucket that is being resharded are credited on their row under the
+     * wallet lock, which is what keeps ReshardingJob's copy and delete consistent.
+     */
+    private SlottedWallet slottedWallet(UUID walletUid) {
+        SlottedWallet wallet = slotted.get(walletUid);
+        if (wallet == null || shardBucketTable.movingBucketOf(wallet.userUid()).isPresent()) {
+            return null;
+        }
+        return wallet;
+    }
+
+    private void consolidate(Wallet wallet) {
+        BigDecimal swept = BigDecimal.ZERO;
+        for (WalletBalanceSlot slot : slotRepository.findByWalletUidForUpdate(wallet.getUid())) {
+            if (slot.getBalance().signum() != 0) {
+                swept = swept.add(slot.getBalance());
+                slot.setBalance(BigDecimal.ZERO);
+            }
+        }
+        if (swept.signum() != 0) {
+            wallet.credit(swept);
+        }
+        consolidations.increment();
+        log.debug("Consolidated {} from balance slots into wallet {}", swept, wallet.getUid());
+    }
+
+    private record SlottedWallet(UUID userUid, int slots) {
+    }
+}
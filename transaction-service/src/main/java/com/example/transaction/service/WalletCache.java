@@ -0,0 +1,235 @@
+package com.example.transaction.service;
+
+import com.example.transaction.config.AppProperties;
+import com.example.transaction.dto.WalletResponse;
+import com.example.transaction.kafka.WalletCacheInvalidationBroadcaster;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Supplier;
+
+/**
+ * Bounded, short-TTL snapshot cache of wallet read responses
+ * ({@code GET /wallets/{uid}} and {@code GET /wallets/user/{userUid}}).
+ * <p>
+ * A node that changes a wallet evicts it (and its owner's wallet list) right after the DB
+ * transaction commits, and broadcasts the eviction to the other nodes through
+ * {@link WalletCacheInvalidationBroadcaster}; the TTL bounds staleness if a broadcast is lost.
+ * A load that races with an eviction of the same key is returned but not cached.
+ */
+@Slf4j
+@Component
+public class WalletCache {
+
+    private static final int GENERATION_STRIPES = 64;
+
+    private final ObjectProvider<WalletCacheInvalidationBroadcaster> broadcaster;
+    private final long ttlNanos;
+    private final Map<UUID, Entry<WalletResponse>> wallets;
+    private final Map<UUID, Entry<List<WalletResponse>>> userWallets;
+    // walletUid -> userUid of cached wallets, so a wallet eviction also drops its owner's list
+    private final Map<UUID, UUID> owners;
+    private final AtomicLongArray generations = new AtomicLongArray(GENERATION_STRIPES);
+
+    private final Counter walletHits;
+    private final Counter walletMisses;
+    private final Counter userWalletsHits;
+    private final Counter userWalletsMisses;
+    private final Counter localInvalidations;
+    private final Counter remoteInvalidations;
+    private final DistributionSummary hitAge;
+
+    public WalletCache(AppProperties appProperties,
+                       MeterRegistry meterRegistry,
+                       ObjectProvider<WalletCacheInvalidationBroadcaster> broadcaster) {
+        this.broadcaster = broadcaster;
+        this.ttlNanos = appProperties.getWalletCacheTtlMs() * 1_000_000;
+
+        int capacity = appProperties.getWalletCacheSize();
+        this.wallets = lru(capacity);
+        this.userWallets = lru(capacity);
+        this.owners = lru(capacity);
+
+        this.walletHits = requests(meterRegistry, "wallet", "hit");
+        this.walletMisses = requests(meterRegistry, "wallet", "miss");
+        this.userWalletsHits = requests(meterRegistry, "user_wallets", "hit");
+        this.userWalletsMisses = requests(meterRegistry, "user_wallets", "miss");
+        this.localInvalidations = Counter.builder("wallet_cache_invalidations_total")
+                .tag("source", "local")
+                .description("Wallet cache evictions caused by a commit on this node")
+                .register(meterRegistry);
+        this.remoteInvalidations = Counter.builder("wallet_cache_invalidations_total")
+                .tag("source", "remote")
+                .description("Wallet cache evictions received from other nodes")
+                .register(meterRegistry);
+        this.hitAge = DistributionSummary.builder("wallet_cache_hit_age_seconds")
+                .baseUnit("seconds")
+                .description("Age of cached wallet data when served, an upper bound of its staleness")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+        Gauge.builder("wallet_cache_size", this, WalletCache::size)
+                .description("Wallets and wallet lists held in the read cache")
+                .register(meterRegistry);
+    }
+
+    public WalletResponse getWallet(UUID walletUid, Supplier<WalletResponse> loader) {
+        WalletResponse cached = lookup(wallets, walletUid, walletHits, walletMisses);
+        if (cached != null) {
+            return cached;
+        }
+
+        long generation = generationOf(walletUid);
+        WalletResponse loaded = loader.get();
+        synchronized (this) {
+            if (generationOf(walletUid) == generation) {
+                wallets.put(walletUid, new Entry<>(loaded, System.nanoTime()));
+                owners.put(walletUid, loaded.getUserUid());
+            }
+        }
+        return loaded;
+    }
+
+    public List<WalletResponse> getWalletsByUser(UUID userUid, Supplier<List<WalletResponse>> loader) {
+        List<WalletResponse> cached = lookup(userWallets, userUid, userWalletsHits, userWalletsMisses);
+        if (cached != null) {
+            return cached;
+        }
+
+        long generation = generationOf(userUid);
+        List<WalletResponse> loaded = List.copyOf(loader.get());
+        synchronized (this) {
+            if (generationOf(userUid) == generation) {
+                userWallets.put(userUid, new Entry<>(loaded, System.nanoTime()));
+                loaded.forEach(wallet -> owners.put(wallet.getUid(), userUid));
+            }
+        }
+        return loaded;
+    }
+
+    /**
+     * Evict a wallet changed by the caller's transaction once it commits (immediately
+     * without a transaction), here and on the other nodes.
+     */
+    public void evictAfterCommit(UUID walletUid) {
+        afterCommit(walletUid, null);
+    }
+
+    /**
+     * Evict a user's wallet list, e.g. after a wallet was created for them.
+     */
+    public void evictUserAfterCommit(UUID userUid) {
+        afterCommit(null, userUid);
+    }
+
+    /**
+     * Apply an eviction received from another node.
+     */
+    public void evictRemote(UUID walletUid, UUID userUid) {
+        evict(walletUid, userUid);
+        remoteInvalidations.increment();
+    }
+
+    int size() {
+        synchronized (this) {
+            return wallets.size() + userWallets.size();
+        }
+    }
+
+    private void afterCommit(UUID walletUid, UUID userUid) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            evictAndBroadcast(walletUid, userUid);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                evictAndBroadcast(walletUid, userUid);
+            }
+        });
+    }
+
+    private void evictAndBroadcast(UUID walletUid, UUID userUid) {
+        UUID owner = evict(walletUid, userUid);
+        localInvalidations.increment();
+        broadcaster.ifAvailable(b -> b.broadcast(walletUid, owner));
+    }
+
+    /**
+     * @return the owner of the wallet if known, so other nodes can drop the list too
+     */
+    private synchronized UUID evict(UUID walletUid, UUID userUid) {
+        UUID owner = userUid;
+        if (walletUid != null) {
+            bump(walletUid);
+            wallets.remove(walletUid);
+            UUID cachedOwner = owners.remove(walletUid);
+            if (owner == null) {
+                owner = cachedOwner;
+            }
+        }
+        if (owner != null) {
+            bump(owner);
+            userWallets.remove(owner);
+        }
+        return owner;
+    }
+
+    private <T> T lookup(Map<UUID, Entry<T>> cache, UUID key, Counter hits, Counter misses) {
+        Entry<T> entry;
+        synchronized (this) {
+            entry = cache.get(key);
+        }
+        long age = entry != null ? System.nanoTime() - entry.loadedAt() : Long.MAX_VALUE;
+        if (age > ttlNanos) {
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        hitAge.record(age / 1e9);
+        return entry.value();
+    }
+
+    private long generationOf(UUID key) {
+        return generations.get(stripeOf(key));
+    }
+
+    private void bump(UUID key) {
+        generations.incrementAndGet(stripeOf(key));
+    }
+
+    private static int stripeOf(UUID key) {
+        return (key.hashCode() & 0x7fffffff) % GENERATION_STRIPES;
+    }
+
+    private static Counter requests(MeterRegistry meterRegistry, String cache, String result) {
+        return Counter.builder("wallet_cache_requests_total")
+                .tag("cache", cache)
+                .tag("result", result)
+                .description("Wallet read cache lookups; hit rate = hit / (hit + miss)")
+                .register(meterRegistry);
+    }
+
+    private static <K, V> Map<K, V> lru(int capacity) {
+        return new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+                return size() > capacity;
+            }
+        };
+    }
+
+    private record Entry<T>(T value, long loadedAt) {
+    }
+}
@@ -0,0 +1,155 @@
+package com.example.transaction.service;
+
+import com.example.transaction.dto.WalletDailyStatsItem;
+import com.example.transaction.dto.WalletDailyStatsResponse;
+import com.example.transaction.entity.Transaction;
+import com.example.transaction.entity.WalletDailyStat;
+import com.example.transaction.entity.enums.TransactionStatus;
+import com.example.transaction.exception.InvalidTransactionException;
+import com.example.transaction.exception.WalletNotFoundException;
+import com.example.transaction.repository.TransactionRepository;
+import com.example.transaction.repository.WalletDailyStatRepository;
+import com.example.transaction.repository.WalletRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+
+/**
+ * Per-wallet daily counters of finished transactions ({@code wallet_daily_stats}).
+ * <p>
+ * A transaction is counted once, when it reaches COMPLETED or FAILED, in the same DB
+ * transaction as the status change: on the day it was created, under its type and final
+ * status. "How much did this wallet withdraw this month" then reads at most a few rows per
+ * day instead of scanning {@code transactions}.
+ * <p>
+ * A wallet with balance slots spreads its counters over the same number of rows (see
+ * {@link WalletBalanceService#counterSlot}), so completions on a hot wallet do not queue on
+ * one row lock inside the balance transaction.
+ */
+@Service
+@RequiredArgsConstructor
+public class WalletDailyStatsService {
+
+    static final int MAX_RANGE_DAYS = 366;
+
+    private final WalletDailyStatRepository statRepository;
+    private final WalletRepository walletRepository;
+    private final WalletBalanceService walletBalanceService;
+
+    /**
+     * Count a transaction that has just reached its final status.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void record(Transaction transaction) {
+        UUID walletUid = transaction.getWallet().getUid();
+        statRepository.increment(walletUid, transaction.getCreatedAt().toLocalDate(),
+                transaction.getType(), transaction.getStatus(), walletBalanceService.counterSlot(walletUid),
+                transaction.getUserUid(), 1, transaction.getAmount(), orZero(transaction.getFee()));
+    }
+
+    /**
+     * Count a set of transactions moved to {@code status} by one bulk update; one upsert
+     * per wallet and day, however many transactions share it.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordAll(Collection<TransactionRepository.StatusView> transactions, TransactionStatus status) {
+        Map<WalletDailyStat.Key, Delta> deltas = new LinkedHashMap<>();
+        Map<UUID, Integer> slots = new HashMap<>();
+        for (TransactionRepository.StatusView transaction : transactions) {
+            int slot = slots.computeIfAbsent(transaction.getWalletUid(), walletBalanceService::counterSlot);
+            WalletDailyStat.Key key = new WalletDailyStat.Key(transaction.getWalletUid(),
+                    transaction.getCreatedAt().toLocalDate(), transaction.getType(), status, slot);
+            deltas.computeIfAbsent(key, k -> new Delta(transaction.getUserUid()))
+                    .add(transaction.getAmount(), transaction.getFee());
+        }
+
+        deltas.forEach((key, delta) -> statRepository.increment(key.getWalletUid(), key.getStatDate(),
+                key.getType(), key.getStatus(), key.getSlot(), delta.userUid, delta.count, delta.amount, delta.fee));
+    }
+
+    /**
+     * Days of {@code [from, to]} with finished transactions, plus totals over the range.
+     */
+    @Transactional(readOnly = true)
+    public WalletDailyStatsResponse getDailyStats(UUID walletUid, LocalDate from, LocalDate to) {
+        if (from.isAfter(to)) {
+            throw new InvalidTransactionException("dateFrom must not be after dateTo");
+        }
+        if (ChronoUnit.DAYS.between(from, to) >= MAX_RANGE_DAYS) {
+            throw new InvalidTransactionException("Date range must not exceed " + MAX_RANGE_DAYS + " days");
+        }
+        if (!walletRepository.existsById(walletUid)) {
+            throw new WalletNotFoundException(walletUid);
+        }
+
+        List<WalletDailyStatsItem> days = new ArrayList<>();
+        Map<String, WalletDailyStatsItem> totals = new TreeMap<>();
+        for (WalletDailyStatRepository.DayTotal stat : statRepository.sumByDay(walletUid, from, to)) {
+            days.add(WalletDailyStatsItem.builder()
+                    .date(stat.getStatDate())
+                    .type(WalletDailyStatsItem.TypeEnum.fromValue(stat.getType().name()))
+                    .status(WalletDailyStatsItem.StatusEnum.fromValue(stat.getStatus().name()))
+                    .count(stat.getTxCount())
+                    .amount(stat.getAmountSum())
+                    .fee(stat.getFeeSum())
+                    .build());
+
+            totals.merge(stat.getType() + "/" + stat.getStatus(),
+                    WalletDailyStatsItem.builder()
+                            .type(WalletDailyStatsItem.TypeEnum.fromValue(stat.getType().name()))
+                            .status(WalletDailyStatsItem.StatusEnum.fromValue(stat.getStatus().name()))
+                            .count(stat.getTxCount())
+                            .amount(stat.getAmountSum())
+                            .fee(stat.getFeeSum())
+                            .build(),
+                    (total, day) -> {
+                        total.setCount(total.getCount() + day.getCount());
+                        total.setAmount(total.getAmount().add(day.getAmount()));
+                        total.setFee(total.getFee().add(day.getFee()));
+                        return total;
+                    });
+        }
+
+        return WalletDailyStatsResponse.builder()
+                .walletUid(walletUid)
+                .dateFrom(from)
+                .dateTo(to)
+                .days(days)
+                .totals(new ArrayList<>(totals.values()))
+                .build();
+    }
+
+    private static BigDecimal orZero(BigDecimal amount) {
+        return amount != null ? amount : BigDecimal.ZERO;
+    }
+
+    private static final class Delta {
+        private final UUID userUid;
+        private long count;
+        private BigDecimal amount = BigDecimal.ZERO;
+        private BigDecimal fee = BigDecimal.ZERO;
+
+        private Delta(UUID userUid) {
+            this.userUid = userUid;
+        }
+
+        private void add(BigDecimal transactionAmount, BigDecimal transactionFee) {
+            count++;
+            amount = amount.add(transactionAmount);
+            fee = fee.add(orZero(transactionFee));
+        }
+    }
+}
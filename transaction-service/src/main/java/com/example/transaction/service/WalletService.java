@@ -1,7 +1,9 @@
 package com.example.transaction.service;
 
 import com.example.transaction.dto.CreateWalletRequest;
+import com.example.transaction.dto.WalletBalanceAtResponse;
 import com.example.transaction.dto.WalletResponse;
+import com.example.transaction.entity.Money;
 import com.example.transaction.entity.Wallet;
 import com.example.transaction.entity.WalletType;
 import com.example.transaction.entity.enums.WalletStatus;
@@ -11,13 +13,21 @@ import com.example.transaction.exception.WalletTypeNotFoundException;
 import com.example.transaction.mapper.WalletMapper;
 import com.example.transaction.repository.WalletRepository;
 import com.example.transaction.repository.WalletTypeRepository;
+import com.example.transaction.sharding.ShardDualReader;
+import com.example.transaction.sharding.ShardWriteRouter;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.time.OffsetDateTime;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
@@ -29,6 +39,11 @@ public class WalletService {
     private final WalletRepository walletRepository;
     private final WalletTypeRepository walletTypeRepository;
     private final WalletMapper walletMapper;
+    private final ShardDualReader shardDualReader;
+    private final ShardWriteRouter shardWriteRouter;
+    private final WalletBalanceService walletBalanceService;
+    private final LedgerService ledgerService;
+    private final WalletCache walletCache;
 
     @Transactional
     public WalletResponse createWallet(CreateWalletRequest request) {
@@ -43,7 +58,8 @@ public class WalletService {
                 .orElseThrow(() -> new WalletTypeNotFoundException(walletTypeUid));
 
         // Check if user already has wallet of this type
-        if (walletRepository.existsByUserUidAndWalletTypeUid(userUid, walletTypeUid)) {
+        if (shardDualReader.exists(userUid,
+                () -> walletRepository.existsByUserUidAndWalletTypeUid(userUid, walletTypeUid))) {
             throw new DuplicateWalletException(userUid, walletTypeUid);
         }
 
@@ -53,10 +69,11 @@ public class WalletService {
                 .walletType(walletType)
                 .userUid(userUid)
                 .status(WalletStatus.ACTIVE)
-                .balance(BigDecimal.ZERO)
+                .balance(Money.ZERO)
                 .build();
 
         Wallet savedWallet = walletRepository.save(wallet);
+        walletCache.evictUserAfterCommit(userUid);
         log.info("Created wallet: {} for user: {}", savedWallet.getUid(), userUid);
 
         return walletMapper.toResponse(savedWallet);
@@ -69,23 +86,26 @@ public class WalletService {
         Wallet wallet = walletRepository.findByIdWithWalletType(walletUid)
                 .orElseThrow(() -> new WalletNotFoundException(walletUid));
 
-        return walletMapper.toResponse(wallet);
+        return walletMapper.toResponse(wallet, walletBalanceService.totalBalance(wallet));
     }
 
     @Transactional(readOnly = true)
     public List<WalletResponse> getWalletsByUser(UUID userUid) {
         log.debug("Getting wallets for user: {}", userUid);
 
-        List<Wallet> wallets = walletRepository.findByUserUid(userUid);
+        List<Wallet> wallets = shardDualReader.readAll(userUid,
+                () -> walletRepository.findByUserUid(userUid), Wallet::getUid);
 
+        Map<UUID, BigDecimal> balances = walletBalanceService.totalBalances(wallets);
         return wallets.stream()
-                .map(walletMapper::toResponse)
+                .map(wallet -> walletMapper.toResponse(wallet, balances.get(wallet.getUid())))
                 .collect(Collectors.toList());
     }
 
     @Transactional(readOnly = true)
     public Wallet getWalletEntity(UUID walletUid) {
-        return walletRepository.findByIdWithWalletType(walletUid)
+        // Currency is resolved through WalletTypeCache, the wallet type itself is not joined
+        return walletRepository.findById(walletUid)
                 .orElseThrow(() -> new WalletNotFoundException(walletUid));
     }
 
@@ -94,4 +114,58 @@ public class WalletService {
         return walletRepository.findByIdForUpdate(walletUid)
                 .orElseThrow(() -> new WalletNotFoundException(walletUid));
     }
-}
\ No newline at end of file
+
+    /**
+     * Lock all given wallets with a single {@code SELECT ... FOR UPDATE ORDER BY uid},
+     * so multi-wallet operations never lock in request order and cannot deadlock.
+     * @return locked wallets keyed by UID
+     * @throws WalletNotFoundException if any of the wallets does not exist
+     */
+    @Transactional
+    public Map<UUID, Wallet> getWalletsForUpdate(Collection<UUID> walletUids) {
+        Set<UUID> distinctUids = new HashSet<>(walletUids);
+
+        Map<UUID, Wallet> wallets = new LinkedHashMap<>();
+        for (Wallet wallet : walletRepository.findAllByIdForUpdate(distinctUids)) {
+            wallets.put(wallet.getUid(), wallet);
+        }
+
+        for (UUID walletUid : distinctUids) {
+            if (!wallets.containsKey(walletUid)) {
+                throw new WalletNotFoundException(walletUid);
+            }
+        }
+
+        return wallets;
+    }
+
+    /**
+     * Enable (slots > 0), resize or disable (slots = 0) balance slots of a wallet.
+     * Callers hold the in-process wallet lock, so no debit races the sweep.
+     */
+    @Transactional
+    public WalletResponse configureBalanceSlots(UUID walletUid, int slots) {
+        Wallet wallet = walletRepository.findByIdForUpdate(walletUid)
+                .orElseThrow(() -> new WalletNotFoundException(walletUid));
+        shardWriteRouter.followWallet(wallet.getUserUid(), walletUid);
+        walletBalanceService.configureSlots(wallet, slots);
+        walletBalanceService.refreshAfterCommit();
+        return walletMapper.toResponse(wallet, walletBalanceService.totalBalance(wallet));
+    }
+
+    /**
+     * Balance of a wallet at an instant, from the ledger rather than the current row.
+     */
+    @Transactional(readOnly = true)
+    public WalletBalanceAtResponse getBalanceAt(UUID walletUid, OffsetDateTime at) {
+        if (!walletRepository.existsById(walletUid)) {
+            throw new WalletNotFoundException(walletUid);
+        }
+
+        return WalletBalanceAtResponse.builder()
+                .walletUid(walletUid)
+                .at(at)
+                .balance(ledgerService.getBalanceAt(walletUid, at.toLocalDateTime()))
+                .build();
+    }
+}
@@ -0,0 +1,80 @@
+package com.example.transaction.service;
+
+import com.example.transaction.entity.Wallet;
+import com.example.transaction.entity.WalletType;
+import com.example.transaction.exception.WalletTypeNotFoundException;
+import com.example.transaction.repository.WalletTypeRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Read-through, immutable in-memory snapshot of {@code wallet_types}.
+ * <p>
+ * The table is tiny and practically static, so the hot path resolves the currency of a wallet
+ * from its {@code wallet_type_uid} (available on the wallet row, no join or lazy load) instead
+ * of walking {@code wallet.getWalletType()}. The snapshot is swapped atomically on a TTL, and
+ * reloaded on a miss so newly created types are visible immediately.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class WalletTypeCache {
+
+    private final WalletTypeRepository walletTypeRepository;
+
+    private volatile Map<UUID, CachedWalletType> snapshot = Map.of();
+
+    public CachedWalletType get(UUID walletTypeUid) {
+        CachedWalletType walletType = snapshot.get(walletTypeUid);
+        if (walletType != null) {
+            return walletType;
+        }
+
+        walletType = reloadIfMissing(walletTypeUid).get(walletTypeUid);
+        if (walletType == null) {
+            throw new WalletTypeNotFoundException(walletTypeUid);
+        }
+        return walletType;
+    }
+
+    /**
+     * Currency of a wallet without initializing its lazy {@code walletType} association.
+     */
+    public String currencyCodeOf(Wallet wallet) {
+        return get(wallet.getWalletType().getUid()).currencyCode();
+    }
+
+    @Scheduled(
+            initialDelayString = "${app.transaction.wallet-type-cache-ttl-ms:60000}",
+            fixedDelayString = "${app.transaction.wallet-type-cache-ttl-ms:60000}")
+    public void refresh() {
+        Map<UUID, CachedWalletType> loaded = new HashMap<>();
+        for (WalletType walletType : walletTypeRepository.findAll()) {
+            loaded.put(walletType.getUid(), CachedWalletType.of(walletType));
+        }
+        snapshot = Map.copyOf(loaded);
+        log.debug("Wallet type snapshot refreshed: {} types", loaded.size());
+    }
+
+    private synchronized Map<UUID, CachedWalletType> reloadIfMissing(UUID walletTypeUid) {
+        // Another thread may have reloaded while this one waited
+        if (!snapshot.containsKey(walletTypeUid)) {
+            refresh();
+        }
+        return snapshot;
+    }
+
+    public record CachedWalletType(UUID uid, String name, String currencyCode, String status) {
+
+        static CachedWalletType of(WalletType walletType) {
+            return new CachedWalletType(walletType.getUid(), walletType.getName(),
+                    walletType.getCurrencyCode(), walletType.getStatus());
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package com.example.transaction.sharding;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Merges lists that are each already sorted by the same order, as returned by one shard.
+ */
+public final class KWayMerge {
+
+    private KWayMerge() {
+    }
+
+    /**
+     * @return the first {@code limit} elements of all inputs in {@code order};
+     * reads at most {@code limit} elements plus one head per input
+     */
+    public static <T> List<T> merge(List<? extends List<T>> sortedInputs, Comparator<? super T> order, int limit) {
+        PriorityQueue<Head<T>> heads = new PriorityQueue<>(Math.max(1, sortedInputs.size()),
+                (a, b) -> order.compare(a.value, b.value));
+        for (List<T> input : sortedInputs) {
+            Iterator<T> iterator = input.iterator();
+            if (iterator.hasNext()) {
+                heads.add(new Head<>(iterator.next(), iterator));
+            }
+        }
+
+        List<T> merged = new ArrayList<>(limit);
+        while (merged.size() < limit && !heads.isEmpty()) {
+            Head<T> head = heads.poll();
+            merged.add(head.value);
+            if (head.rest.hasNext()) {
+                heads.add(new Head<>(head.rest.next(), head.rest));
+            }
+        }
+        return merged;
+    }
+
+    private record Head<T>(T value, Iterator<T> rest) {
+    }
+}
@@ -0,0 +1,299 @@
+package com.example.transaction.sharding;
+
+import com.example.transaction.entity.ShardBucket;
+import com.example.transaction.entity.WalletDailyStat;
+import com.example.transaction.entity.enums.ShardBucketState;
+import com.example.transaction.repository.ShardBucketRepository;
+import com.example.transaction.service.WalletLockManager;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.shardingsphere.infra.hint.HintManager;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+/**
+ * Copies the rows of {@link ShardBucketState#MOVING} buckets from their source to their
+ * target data source, one user at a time.
+ * <p>
+ * Each run walks the wallets of every source data source once, in {@code user_uid} pages on its
+ * index, for the users of all buckets moving off it. Every other row of a user is written next
+ * to its wallets ({@link ShardWriteRouter}), so a user without wallets on the source has
+ * nothing left there. A user is moved in three steps, each pinned to one data source with
+ * {@link HintManager}: its source rows are locked {@code FOR UPDATE}; the missing ones are
+ * inserted on the target in a transaction of their own, which commits; then the source rows are
+ * deleted and the source transaction commits. A failure between the two commits leaves the
+ * source rows in place, to be deleted by the next run. Rows already on the target were written
+ * after the move started and win. Balance updates lock the wallet row by uid on every data
+ * source; one that comes back without the wallet because the user was moved under it locks the
+ * wallet again and finds the copy (see {@code WalletLockRepository}). Daily stats counters have
+ * no uid and must add up instead: the user's source counters are summed per key into the
+ * target's {@link WalletDailyStat#MOVED_SLOT}, which live writes never use, so a repeated copy
+ * finds its own rows and skips them. A bucket is marked MOVED once a scan finds none of its
+ * users left on the source; until then {@link ShardDualReader} reads both sides.
+ * Processed-event markers move with their user, so a redelivered event still finds its claim
+ * next to the balance it changed. Outbox
+ * rows move as well, under the ids the relay orders them by; a batch the relay is publishing
+ * holds their row locks, so they are copied once it has marked them sent.
+ * <p>
+ * Buckets are only picked up {@code move-settle-ms} after the move started, so every
+ * instance has already switched its writes to the target. Until a user is moved, writes next
+ * to its wallets stay on the source ({@link ShardWriteRouter}) and are moved with it; the
+ * wallet row lock taken first in each move keeps them out of it.
+ */
+@Slf4j
+@Component
+@Profile("sharding")
+@ConditionalOnProperty(prefix = "app.sharding", name = "resharding-enabled", havingValue = "true")
+public class ReshardingJob {
+
+    private static final List<String> TABLES = List.of("wallets", "wallet_balance_slots", "transactions", "ledger_entries",
+            "ledger_checkpoints", "processed_events", "transaction_outbox");
+    // Tables whose primary key is not uid
+    private static final Map<String, String> KEY_COLUMNS = Map.of("processed_events", "event_id", "transaction_outbox", "id");
+    private static final String STATS_TABLE = "wallet_daily_stats";
+    // Below every user_uid in PostgreSQL's byte order
+    private static final UUID FIRST_USER = new UUID(0, 0);
+
+    private final ShardBucketRepository shardBucketRepository;
+    private final ShardBucketRegistry shardBucketRegistry;
+    private final ShardBucketTable shardBucketTable;
+    private final WalletLockManager walletLockManager;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionTemplate copyTransactionTemplate;
+    private final MeterRegistry meterRegistry;
+    private final long settleMs;
+    private final int scanPageSize;
+
+    public ReshardingJob(ShardBucketRepository shardBucketRepository,
+                         ShardBucketRegistry shardBucketRegistry,
+                         ShardBucketTable shardBucketTable,
+                         WalletLockManager walletLockManager,
+                         JdbcTemplate jdbcTemplate,
+                         TransactionTemplate transactionTemplate,
+                         MeterRegistry meterRegistry,
+                         @Value("${app.sharding.move-settle-ms:15000}") long settleMs,
+                         @Value("${app.sharding.resharding-scan-page-size:500}") int scanPageSize) {
+        this.shardBucketRepository = shardBucketRepository;
+        this.shardBucketRegistry = shardBucketRegistry;
+        this.shardBucketTable = shardBucketTable;
+        this.walletLockManager = walletLockManager;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.copyTransactionTemplate = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        this.copyTransactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.meterRegistry = meterRegistry;
+        this.settleMs = settleMs;
+        this.scanPageSize = scanPageSize;
+    }
+
+    @Scheduled(fixedDelayString = "${app.sharding.resharding-interval-ms:10000}")
+    public void run() {
+        LocalDateTime settledBefore = LocalDateTime.now().minusNanos(settleMs * 1_000_000);
+        Map<String, List<ShardBucketMove>> movesBySource = new LinkedHashMap<>();
+        for (ShardBucket bucket : shardBucketRepository.findByStateOrderByBucket(ShardBucketState.MOVING)) {
+            if (bucket.getCreatedAt().isAfter(settledBefore)) {
+                continue;
+            }
+            movesBySource.computeIfAbsent(bucket.getSourceDataSource(), source -> new ArrayList<>())
+                    .add(new ShardBucketMove(bucket.getBucket(), bucket.getSourceDataSource(),
+                            bucket.getTargetDataSource(), bucket.getState()));
+        }
+
+        movesBySource.forEach((source, moves) -> {
+            try {
+                moveBuckets(source, moves);
+            } catch (Exception e) {
+                log.error("Failed to scan {} for moving buckets, will retry: {}", source, e.getMessage(), e);
+            }
+        });
+    }
+
+    /**
+     * Move the users of the buckets found on the source page by page. A bucket none of whose
+     * users were found is complete: the previous runs copied everything, including rows
+     * written to the source by an instance that had not switched yet. A bucket whose move
+     * failed is skipped for the rest of the run.
+     */
+    void moveBuckets(String source, List<ShardBucketMove> moves) {
+        int bucketCount = shardBucketTable.bucketCount();
+        Map<Integer, ShardBucketMove> movesByBucket = new HashMap<>();
+        moves.forEach(move -> movesByBucket.put(move.bucket(), move));
+        Map<Integer, Integer> movedUsers = new HashMap<>();
+        Set<Integer> failed = new HashSet<>();
+
+        UUID after = FIRST_USER;
+        List<UUID> page;
+        do {
+            UUID cursor = after;
+            page = onDataSource(source, () -> jdbcTemplate.queryForList(
+                    "SELECT DISTINCT user_uid FROM wallets WHERE user_uid > ? ORDER BY user_uid LIMIT ?",
+                    UUID.class, cursor, scanPageSize));
+            for (UUID userUid : page) {
+                ShardBucketMove move = movesByBucket.get(UserBucketRouting.bucketOf(userUid, bucketCount));
+                if (move == null || failed.contains(move.bucket())) {
+                    continue;
+                }
+                try {
+                    moveUser(move, userUid);
+                    movedUsers.merge(move.bucket(), 1, Integer::sum);
+                } catch (Exception e) {
+                    failed.add(move.bucket());
+                    log.error("Failed to move bucket {}, will retry: {}", move.bucket(), e.getMessage(), e);
+                }
+            }
+            if (!page.isEmpty()) {
+                after = page.get(page.size() - 1);
+            }
+        } while (page.size() == scanPageSize);
+
+        for (ShardBucketMove move : moves) {
+            if (failed.contains(move.bucket())) {
+                continue;
+            }
+            Integer moved = movedUsers.get(move.bucket());
+            if (moved != null) {
+                log.info("Moved bucket {}: {} users {} -> {}", move.bucket(), moved,
+                        move.sourceDataSource(), move.targetDataSource());
+                continue;
+            }
+            try {
+                shardBucketRegistry.completeMove(move.bucket());
+            } catch (Exception e) {
+                log.error("Failed to complete bucket {}, will retry: {}", move.bucket(), e.getMessage(), e);
+            }
+        }
+    }
+
+    void moveUser(ShardBucketMove move, UUID userUid) {
+        List<UUID> walletUids = onDataSource(move.sourceDataSource(), () -> jdbcTemplate.queryForList(
+                "SELECT uid FROM wallets WHERE user_uid = ?", UUID.class, userUid));
+
+        // Balance updates on this instance wait in memory instead of on the row locks below
+        walletLockManager.executeWithLocks(walletUids, () -> {
+            transactionTemplate.executeWithoutResult(status -> {
+                // 1. Source: lock the user's rows
+                Map<String, List<Map<String, Object>>> rowsByTable = new LinkedHashMap<>();
+                for (String table : TABLES) {
+                    rowsByTable.put(table, lockOnSource(move, table, userUid));
+                }
+                List<Map<String, Object>> stats = lockStatsOnSource(move, userUid);
+
+                // 2. Target: insert what is missing and commit
+                copyTransactionTemplate.executeWithoutResult(copy -> {
+                    rowsByTable.forEach((table, rows) -> copyMissing(move, table, userUid, rows));
+                    copyStats(move, stats);
+                });
+
+                // 3. Source: delete the copied rows, committed with the source transaction
+                if (!stats.isEmpty()) {
+                    onDataSource(move.sourceDataSource(), () -> jdbcTemplate.update(
+                            "DELETE FROM " + STATS_TABLE + " WHERE user_uid = ?", userUid));
+                }
+                // Reverse order: transactions and balance slots reference wallets
+                for (int i = TABLES.size() - 1; i >= 0; i--) {
+                    String table = TABLES.get(i);
+                    deleteFromSource(move, table, rowsByTable.get(table));
+                }
+            });
+            return null;
+        });
+    }
+
+    private List<Map<String, Object>> lockOnSource(ShardBucketMove move, String table, UUID userUid) {
+        return onDataSource(move.sourceDataSource(), () -> jdbcTemplate.queryForList(
+                "SELECT * FROM " + table + " WHERE user_uid = ? ORDER BY " + keyOf(table) + " FOR UPDATE", userUid));
+    }
+
+    /**
+     * Lock the user's counters on the source and return them summed over their slots.
+     */
+    private List<Map<String, Object>> lockStatsOnSource(ShardBucketMove move, UUID userUid) {
+        return onDataSource(move.sourceDataSource(), () -> {
+            jdbcTemplate.queryForList("SELECT slot FROM " + STATS_TABLE + " WHERE user_uid = ? FOR UPDATE",
+                    Integer.class, userUid);
+            return jdbcTemplate.queryForList(
+                    "SELECT wallet_uid, stat_date, type, status, user_uid, SUM(tx_count) AS tx_count, " +
+                            "SUM(amount_sum) AS amount_sum, SUM(fee_sum) AS fee_sum FROM " + STATS_TABLE +
+                            " WHERE user_uid = ? GROUP BY wallet_uid, stat_date, type, status, user_uid", userUid);
+        });
+    }
+
+    private void copyStats(ShardBucketMove move, List<Map<String, Object>> stats) {
+        if (stats.isEmpty()) {
+            return;
+        }
+        List<Object[]> inserts = stats.stream().map(row -> new Object[]{
+                row.get("wallet_uid"), row.get("stat_date"), row.get("type"), row.get("status"),
+                WalletDailyStat.MOVED_SLOT, row.get("user_uid"),
+                row.get("tx_count"), row.get("amount_sum"), row.get("fee_sum")}).toList();
+        onDataSource(move.targetDataSource(), () -> jdbcTemplate.batchUpdate(
+                "INSERT INTO " + STATS_TABLE + " (wallet_uid, stat_date, type, status, slot, user_uid, " +
+                        "tx_count, amount_sum, fee_sum) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?) ON CONFLICT DO NOTHING",
+                inserts));
+        meterRegistry.counter("resharding_rows_copied_total", "table", STATS_TABLE).increment(inserts.size());
+    }
+
+    private void copyMissing(ShardBucketMove move, String table, UUID userUid, List<Map<String, Object>> sourceRows) {
+        if (sourceRows.isEmpty()) {
+            return;
+        }
+
+        String key = keyOf(table);
+        Set<UUID> onTarget = new HashSet<>(onDataSource(move.targetDataSource(), () -> jdbcTemplate.queryForList(
+                "SELECT " + key + " FROM " + table + " WHERE user_uid = ?", UUID.class, userUid)));
+
+        List<Object[]> inserts = new ArrayList<>();
+        List<String> columns = new ArrayList<>(sourceRows.get(0).keySet());
+        for (Map<String, Object> row : sourceRows) {
+            if (!onTarget.contains((UUID) row.get(key))) {
+                inserts.add(columns.stream().map(row::get).toArray());
+            }
+        }
+
+        if (!inserts.isEmpty()) {
+            String sql = "INSERT INTO " + table + " (" + String.join(", ", columns) + ") VALUES ("
+                    + String.join(", ", columns.stream().map(c -> "?").toList()) + ")";
+            onDataSource(move.targetDataSource(), () -> jdbcTemplate.batchUpdate(sql, inserts));
+            meterRegistry.counter("resharding_rows_copied_total", "table", table).increment(inserts.size());
+        }
+    }
+
+    private void deleteFromSource(ShardBucketMove move, String table, List<Map<String, Object>> rows) {
+        if (rows.isEmpty()) {
+            return;
+        }
+        String key = keyOf(table);
+        List<Object[]> args = rows.stream().map(row -> new Object[]{row.get(key)}).toList();
+        onDataSource(move.sourceDataSource(), () -> jdbcTemplate.batchUpdate(
+                "DELETE FROM " + table + " WHERE " + key + " = ?", args));
+    }
+
+    private static String keyOf(String table) {
+        return KEY_COLUMNS.getOrDefault(table, "uid");
+    }
+
+    private <T> T onDataSource(String dataSourceName, Supplier<T> action) {
+        try (HintManager hintManager = HintManager.getInstance()) {
+            hintManager.setDataSourceName(dataSourceName);
+            return action.get();
+        }
+    }
+}
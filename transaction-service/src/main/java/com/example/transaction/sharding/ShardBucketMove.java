@@ -0,0 +1,17 @@
+package com.example.transaction.sharding;
+
+import com.example.transaction.entity.enums.ShardBucketState;
+
+/**
+ * A bucket that no longer lives on its default data source.
+ * Writes and primary reads go to {@code targetDataSource} as soon as the move starts, except
+ * writes next to a wallet that is still on {@code sourceDataSource} ({@link ShardWriteRouter});
+ * while it is {@link ShardBucketState#MOVING}, rows not yet copied are still read from
+ * {@code sourceDataSource}.
+ */
+public record ShardBucketMove(int bucket, String sourceDataSource, String targetDataSource, ShardBucketState state) {
+
+    public boolean isMoving() {
+        return state == ShardBucketState.MOVING;
+    }
+}
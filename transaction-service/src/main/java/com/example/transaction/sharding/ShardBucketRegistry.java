@@ -0,0 +1,119 @@
+package com.example.transaction.sharding;
+
+import com.example.transaction.entity.ShardBucket;
+import com.example.transaction.entity.enums.ShardBucketState;
+import com.example.transaction.exception.ShardBucketMoveException;
+import com.example.transaction.repository.ShardBucketRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.shardingsphere.infra.hint.HintManager;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Keeps {@link ShardBucketTable} in sync with the {@code shard_buckets} table, so every
+ * instance routes moved buckets the same way within one refresh interval.
+ */
+@Slf4j
+@Component
+@Profile("sharding")
+@RequiredArgsConstructor
+public class ShardBucketRegistry {
+
+    private final ShardBucketRepository shardBucketRepository;
+    private final ShardBucketTable shardBucketTable;
+    private final JdbcTemplate jdbcTemplate;
+
+    @PostConstruct
+    @Scheduled(
+            initialDelayString = "${app.sharding.bucket-refresh-ms:5000}",
+            fixedDelayString = "${app.sharding.bucket-refresh-ms:5000}")
+    public void refresh() {
+        Map<Integer, ShardBucketMove> loaded = new HashMap<>();
+        for (ShardBucket bucket : shardBucketRepository.findAll()) {
+            loaded.put(bucket.getBucket(), new ShardBucketMove(bucket.getBucket(),
+                    bucket.getSourceDataSource(), bucket.getTargetDataSource(), bucket.getState()));
+        }
+        shardBucketTable.replace(loaded);
+        log.debug("Shard bucket table refreshed: {} moved buckets", loaded.size());
+    }
+
+    /**
+     * Route a bucket to {@code targetDataSource} from now on; its existing rows are copied
+     * by {@link ReshardingJob} and read from both sides until then. Writes next to a wallet
+     * that is still on the source stay there until its user is copied ({@link ShardWriteRouter}).
+     *
+     * @throws IllegalArgumentException if the bucket is out of range, the target is not a
+     *                                  configured data source or already holds the bucket
+     * @throws ShardBucketMoveException if the bucket is still moving
+     */
+    @Transactional
+    public ShardBucket startMove(int bucket, String targetDataSource) {
+        if (bucket < 0 || bucket >= shardBucketTable.bucketCount()) {
+            throw new IllegalArgumentException("Bucket must be between 0 and "
+                    + (shardBucketTable.bucketCount() - 1) + ": " + bucket);
+        }
+
+        ShardBucket current = shardBucketRepository.findById(bucket).orElse(null);
+        if (current != null && current.getState() == ShardBucketState.MOVING) {
+            throw new ShardBucketMoveException("Bucket " + bucket + " is already moving to "
+                    + current.getTargetDataSource());
+        }
+        String source = current != null ? current.getTargetDataSource() : shardBucketTable.defaultDataSourceOf(bucket);
+        if (source.equals(targetDataSource)) {
+            throw new IllegalArgumentException("Bucket " + bucket + " already lives on " + targetDataSource);
+        }
+        checkDataSource(targetDataSource);
+        if (current != null) {
+            shardBucketRepository.delete(current);
+            shardBucketRepository.flush();
+        }
+
+        ShardBucket move;
+        try {
+            move = shardBucketRepository.saveAndFlush(ShardBucket.builder()
+                    .bucket(bucket)
+                    .sourceDataSource(source)
+                    .targetDataSource(targetDataSource)
+                    .state(ShardBucketState.MOVING)
+                    .build());
+        } catch (DataIntegrityViolationException e) {
+            throw new ShardBucketMoveException("Bucket " + bucket + " was moved concurrently");
+        }
+        log.info("Bucket {} moving: {} -> {}", bucket, source, targetDataSource);
+        refresh();
+        return move;
+    }
+
+    /**
+     * The target must be a data source ShardingSphere knows, with the sharded tables in place.
+     */
+    private void checkDataSource(String dataSourceName) {
+        try (HintManager hintManager = HintManager.getInstance()) {
+            hintManager.setDataSourceName(dataSourceName);
+            jdbcTemplate.queryForObject("SELECT COUNT(*) FROM wallets WHERE 1 = 0", Long.class);
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Data source " + dataSourceName
+                    + " is not configured or not reachable: " + e.getMessage(), e);
+        }
+    }
+
+    @Transactional
+    public void completeMove(int bucket) {
+        ShardBucket move = shardBucketRepository.findById(bucket)
+                .orElseThrow(() -> new IllegalStateException("Bucket " + bucket + " is not moving"));
+        move.setState(ShardBucketState.MOVED);
+        move.setMovedAt(LocalDateTime.now());
+        log.info("Bucket {} moved to {}", bucket, move.getTargetDataSource());
+        refresh();
+    }
+}
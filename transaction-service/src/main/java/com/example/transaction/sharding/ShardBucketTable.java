@@ -0,0 +1,173 @@
+package com.example.transaction.sharding;
+
+import org.apache.shardingsphere.driver.jdbc.core.connection.ShardingSphereConnection;
+import org.apache.shardingsphere.driver.jdbc.core.datasource.ShardingSphereDataSource;
+import org.apache.shardingsphere.sharding.rule.ShardingRule;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.UUID;
+
+/**
+ * Data source layout and moved buckets, the routing state shared by the sharding algorithm
+ * and the Spring beans ({@link ShardBucketRegistry}, {@link ShardDualReader}, ...).
+ * <p>
+ * ShardingSphere instantiates {@link UserBucketShardingAlgorithm} through SPI, outside of the
+ * Spring context; on startup this bean finds the algorithm in the ShardingSphere data source,
+ * takes its layout and binds itself to it. Without a ShardingSphere data source the table is
+ * inactive. The map of moves is immutable and swapped atomically, so routing never takes a
+ * lock. Users pinned by {@link ShardWriteRouter} are a resource of the transaction that
+ * pinned them.
+ */
+@Component
+public class ShardBucketTable {
+
+    private final int bucketCount;
+    private final int dataSourceCount;
+    private final String dataSourcePrefix;
+    private volatile Map<Integer, ShardBucketMove> moves = Map.of();
+
+    @Autowired
+    public ShardBucketTable(DataSource dataSource) throws SQLException {
+        this(findAlgorithm(dataSource));
+    }
+
+    /**
+     * A table with the given layout; a bucket count of 0 means sharding is not active.
+     */
+    public ShardBucketTable(int bucketCount, int dataSourceCount, String dataSourcePrefix) {
+        this.bucketCount = bucketCount;
+        this.dataSourceCount = dataSourceCount;
+        this.dataSourcePrefix = dataSourcePrefix;
+    }
+
+    private ShardBucketTable(Optional<UserBucketShardingAlgorithm> algorithm) {
+        this(algorithm.map(UserBucketShardingAlgorithm::getBucketCount).orElse(0),
+                algorithm.map(UserBucketShardingAlgorithm::getDataSourceCount).orElse(0),
+                algorithm.map(UserBucketShardingAlgorithm::getDataSourcePrefix).orElse(null));
+        algorithm.ifPresent(configured -> configured.bind(this));
+    }
+
+    /**
+     * The {@code USER_BUCKET} algorithm instance ShardingSphere routes with, if any.
+     */
+    private static Optional<UserBucketShardingAlgorithm> findAlgorithm(DataSource dataSource) throws SQLException {
+        if (!(dataSource instanceof ShardingSphereDataSource)) {
+            return Optional.empty();
+        }
+        try (Connection connection = dataSource.getConnection()) {
+            ShardingSphereConnection shardingConnection = connection.unwrap(ShardingSphereConnection.class);
+            return shardingConnection.getContextManager().getDatabase(shardingConnection.getDatabaseName())
+                    .getRuleMetaData().findSingleRule(ShardingRule.class).stream()
+                    .flatMap(rule -> rule.getShardingAlgorithms().values().stream())
+                    .filter(UserBucketShardingAlgorithm.class::isInstance)
+                    .map(UserBucketShardingAlgorithm.class::cast)
+                    .findFirst();
+        }
+    }
+
+    public int bucketCount() {
+        return bucketCount;
+    }
+
+    public String defaultDataSourceOf(int bucket) {
+        return dataSourcePrefix + UserBucketRouting.defaultDataSourceIndex(bucket, dataSourceCount);
+    }
+
+    public void replace(Map<Integer, ShardBucketMove> loaded) {
+        moves = Map.copyOf(loaded);
+    }
+
+    /**
+     * Every data source that can hold rows: the default layout plus move targets, and
+     * sources of moves still in progress. Empty when sharding is not active.
+     */
+    public List<String> dataSourceNames() {
+        if (bucketCount == 0) {
+            return List.of();
+        }
+        Set<String> names = new TreeSet<>();
+        for (int i = 0; i < dataSourceCount; i++) {
+            names.add(dataSourcePrefix + i);
+        }
+        for (ShardBucketMove move : moves.values()) {
+            names.add(move.targetDataSource());
+            if (move.isMoving()) {
+                names.add(move.sourceDataSource());
+            }
+        }
+        return List.copyOf(names);
+    }
+
+    public boolean hasMovingBuckets() {
+        return moves.values().stream().anyMatch(ShardBucketMove::isMoving);
+    }
+
+    /**
+     * @return the move of the user's bucket if it is still being copied
+     */
+    public Optional<ShardBucketMove> movingBucketOf(UUID userUid) {
+        Map<Integer, ShardBucketMove> current = moves;
+        if (userUid == null || current.isEmpty() || bucketCount == 0) {
+            return Optional.empty();
+        }
+        ShardBucketMove move = current.get(UserBucketRouting.bucketOf(userUid, bucketCount));
+        return move != null && move.isMoving() ? Optional.of(move) : Optional.empty();
+    }
+
+    /**
+     * Data source of the user's rows for the statement being routed.
+     */
+    String dataSourceOf(Object userUid) {
+        int bucket = UserBucketRouting.bucketOf(userUid, bucketCount);
+        ShardBucketMove move = moves.get(bucket);
+        if (move != null) {
+            return move.isMoving() && isPinnedToSource(userUid) ? move.sourceDataSource() : move.targetDataSource();
+        }
+        return defaultDataSourceOf(bucket);
+    }
+
+    /**
+     * Route the user's statements in the current transaction to the source of its moving
+     * bucket; the pin is released with the transaction's resources.
+     * @return false if the user was already pinned
+     */
+    boolean pinToSource(UUID userUid) {
+        Set<UUID> pinned = pinned();
+        if (pinned == null) {
+            pinned = new HashSet<>();
+            TransactionSynchronizationManager.bindResource(this, pinned);
+        }
+        return pinned.add(userUid);
+    }
+
+    void unpinFromSource(UUID userUid) {
+        Set<UUID> pinned = pinned();
+        if (pinned != null && pinned.remove(userUid) && pinned.isEmpty()) {
+            TransactionSynchronizationManager.unbindResource(this);
+        }
+    }
+
+    private boolean isPinnedToSource(Object userUid) {
+        Set<UUID> pinned = pinned();
+        if (pinned == null) {
+            return false;
+        }
+        return pinned.contains(userUid instanceof UUID value ? value : UUID.fromString(userUid.toString()));
+    }
+
+    @SuppressWarnings("unchecked")
+    private Set<UUID> pinned() {
+        return (Set<UUID>) TransactionSynchronizationManager.getResource(this);
+    }
+}
@@ -0,0 +1,85 @@
+package com.example.transaction.sharding;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.apache.shardingsphere.infra.hint.HintManager;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.BooleanSupplier;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Dual-read for per-user queries while the user's bucket is being moved.
+ * <p>
+ * During a move new rows land on the target and old rows are copied over user by user, so
+ * a user's rows can sit on either side. The query is run once as routed (target) and once
+ * pinned to the source with {@link HintManager#setDataSourceName}, and the results are
+ * merged by uid with the target copy winning. Outside of a move this is a plain call.
+ */
+@Component
+public class ShardDualReader {
+
+    private final ShardBucketTable shardBucketTable;
+    private final Counter dualReads;
+
+    public ShardDualReader(ShardBucketTable shardBucketTable, MeterRegistry meterRegistry) {
+        this.shardBucketTable = shardBucketTable;
+        this.dualReads = Counter.builder("shard_dual_reads_total")
+                .description("Per-user reads also sent to the source of a bucket being moved")
+                .register(meterRegistry);
+    }
+
+    public <T> List<T> readAll(UUID userUid, Supplier<List<T>> read, Function<T, UUID> idOf) {
+        Optional<ShardBucketMove> move = shardBucketTable.movingBucketOf(userUid);
+        if (move.isEmpty()) {
+            return read.get();
+        }
+        return merge(read.get(), readFromSource(move.get(), read), idOf);
+    }
+
+    /**
+     * Same as {@link #readAll} for a query that returns the first {@code limit} rows in
+     * {@code order}: both sides are already sorted, so the merged prefix is exact.
+     */
+    public <T> List<T> readSorted(UUID userUid, Supplier<List<T>> read, Function<T, UUID> idOf,
+                                  Comparator<T> order, int limit) {
+        Optional<ShardBucketMove> move = shardBucketTable.movingBucketOf(userUid);
+        if (move.isEmpty()) {
+            return read.get();
+        }
+        List<T> merged = merge(read.get(), readFromSource(move.get(), read), idOf);
+        merged.sort(order);
+        return merged.size() > limit ? new ArrayList<>(merged.subList(0, limit)) : merged;
+    }
+
+    public boolean exists(UUID userUid, BooleanSupplier check) {
+        if (check.getAsBoolean()) {
+            return true;
+        }
+        Optional<ShardBucketMove> move = shardBucketTable.movingBucketOf(userUid);
+        return move.isPresent() && readFromSource(move.get(), check::getAsBoolean);
+    }
+
+    private <T> T readFromSource(ShardBucketMove move, Supplier<T> read) {
+        dualReads.increment();
+        try (HintManager hintManager = HintManager.getInstance()) {
+            hintManager.setDataSourceName(move.sourceDataSource());
+            return read.get();
+        }
+    }
+
+    private static <T> List<T> merge(List<T> target, List<T> source, Function<T, UUID> idOf) {
+        Map<UUID, T> merged = new LinkedHashMap<>();
+        target.forEach(row -> merged.put(idOf.apply(row), row));
+        source.forEach(row -> merged.putIfAbsent(idOf.apply(row), row));
+        return new ArrayList<>(merged.values());
+    }
+}
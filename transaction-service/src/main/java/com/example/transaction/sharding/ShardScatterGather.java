@@ -0,0 +1,112 @@
+package com.example.transaction.sharding;
+
+import com.example.transaction.exception.ShardSearchException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.shardingsphere.infra.hint.HintManager;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Runs a query without a {@code user_uid} predicate on every shard in parallel and merges
+ * the results, instead of letting ShardingSphere execute it on all data sources and merge
+ * the full result sets.
+ * <p>
+ * The query must already carry its limit and seek predicate, so each shard returns at most
+ * {@code limit} rows in {@code order}; a k-way merge then keeps the first {@code limit}.
+ * Shard latency is recorded per data source in {@code shard_search_seconds}.
+ */
+@Slf4j
+@Component
+public class ShardScatterGather {
+
+    private final ShardBucketTable shardBucketTable;
+    private final MeterRegistry meterRegistry;
+    private final ExecutorService executor;
+    private final long timeoutMs;
+
+    public ShardScatterGather(ShardBucketTable shardBucketTable,
+                              MeterRegistry meterRegistry,
+                              @Value("${app.sharding.scatter-gather-threads:8}") int threads,
+                              @Value("${app.sharding.scatter-gather-timeout-ms:5000}") long timeoutMs) {
+        this.shardBucketTable = shardBucketTable;
+        this.meterRegistry = meterRegistry;
+        this.timeoutMs = timeoutMs;
+
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "shard-search-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public <T> List<T> searchAll(Supplier<List<T>> query, Comparator<? super T> order, int limit) {
+        List<String> shards = shardBucketTable.dataSourceNames();
+        if (shards.isEmpty()) {
+            // Not sharded: the query already runs on the only database
+            return query.get();
+        }
+
+        List<Future<List<T>>> futures = new ArrayList<>(shards.size());
+        for (String shard : shards) {
+            futures.add(executor.submit(() -> searchShard(shard, query)));
+        }
+
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMs);
+        List<List<T>> results = new ArrayList<>(shards.size());
+        try {
+            for (int i = 0; i < futures.size(); i++) {
+                results.add(await(shards.get(i), futures.get(i), deadline));
+            }
+        } finally {
+            futures.forEach(future -> future.cancel(true));
+        }
+        return KWayMerge.merge(results, order, limit);
+    }
+
+    private <T> List<T> searchShard(String shard, Supplier<List<T>> query) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        try (HintManager hintManager = HintManager.getInstance()) {
+            hintManager.setDataSourceName(shard);
+            return query.get();
+        } finally {
+            sample.stop(Timer.builder("shard_search_seconds")
+                    .tag("shard", shard)
+                    .description("Latency of one shard's part of a scatter-gather search")
+                    .register(meterRegistry));
+        }
+    }
+
+    private <T> List<T> await(String shard, Future<List<T>> future, long deadline) {
+        try {
+            return future.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            throw new ShardSearchException(shard, timeoutMs);
+        } catch (ExecutionException e) {
+            throw new ShardSearchException(shard, e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ShardSearchException(shard, e);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
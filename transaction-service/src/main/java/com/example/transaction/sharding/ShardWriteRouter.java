@@ -0,0 +1,71 @@
+package com.example.transaction.sharding;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.apache.shardingsphere.infra.hint.HintManager;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Keeps a user's writes next to its wallet while the user's bucket is being moved.
+ * <p>
+ * A moving bucket routes to the target, but {@link ReshardingJob} moves a user's rows only
+ * after the settle time, on its next run. Until then the wallet row is on the source, and a
+ * transaction or balance slot inserted on the target would break its foreign key to the
+ * wallet and commit apart from the balance change. Called with the wallet row locked,
+ * {@link #followWallet} looks for the row on the source; if it is there, the user's statements
+ * in the current transaction are routed to the source as well. The job locks the same row
+ * before it moves the user, so the answer holds until commit. Outside of a move this is a
+ * map lookup.
+ */
+@Component
+public class ShardWriteRouter {
+
+    private final ShardBucketTable shardBucketTable;
+    private final JdbcTemplate jdbcTemplate;
+    private final Counter sourceWrites;
+
+    public ShardWriteRouter(ShardBucketTable shardBucketTable, JdbcTemplate jdbcTemplate, MeterRegistry meterRegistry) {
+        this.shardBucketTable = shardBucketTable;
+        this.jdbcTemplate = jdbcTemplate;
+        this.sourceWrites = Counter.builder("shard_source_writes_total")
+                .description("Transactions kept on the source of a moving bucket because the wallet is still there")
+                .register(meterRegistry);
+    }
+
+    /**
+     * @param userUid   owner of the wallet, the sharding key of the rows about to be written
+     * @param walletUid wallet the caller holds the row lock on
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void followWallet(UUID userUid, UUID walletUid) {
+        Optional<ShardBucketMove> move = shardBucketTable.movingBucketOf(userUid);
+        if (move.isEmpty() || !isOnSource(move.get(), walletUid)) {
+            return;
+        }
+        if (shardBucketTable.pinToSource(userUid)) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    shardBucketTable.unpinFromSource(userUid);
+                }
+            });
+            sourceWrites.increment();
+        }
+    }
+
+    private boolean isOnSource(ShardBucketMove move, UUID walletUid) {
+        try (HintManager hintManager = HintManager.getInstance()) {
+            hintManager.setDataSourceName(move.sourceDataSource());
+            return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM wallets WHERE uid = ?",
+                    Long.class, walletUid) > 0;
+        }
+    }
+}
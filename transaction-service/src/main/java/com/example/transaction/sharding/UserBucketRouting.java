@@ -0,0 +1,40 @@
+package com.example.transaction.sharding;
+
+import java.util.UUID;
+
+/**
+ * Maps a {@code user_uid} to one of a fixed number of virtual buckets and a bucket to its
+ * default data source.
+ * <p>
+ * The bucket count never changes; adding a database means moving some buckets to it (see
+ * {@link ReshardingJob}), so only the users of the moved buckets change location, unlike
+ * {@code hash % databases} where almost every user is remapped.
+ * <p>
+ * The default layout reproduces the INLINE rule the service was sharded with before,
+ * {@code ds_${Math.abs(user_uid.hashCode()) % 2}}: the bucket is that same hash modulo the
+ * bucket count, and buckets are striped over the data sources. As long as the bucket count is
+ * a multiple of the data source count, {@code bucket % dataSources} equals
+ * {@code hash % dataSources}, so existing rows stay where they are and no migration is needed.
+ */
+public final class UserBucketRouting {
+
+    private UserBucketRouting() {
+    }
+
+    /**
+     * Always in {@code [0, bucketCount)}. {@code user_uid} is bound as a {@link UUID}, so the
+     * hash is {@link UUID#hashCode()} as in the old expression; {@code Math.abs} stays negative
+     * for {@code Integer.MIN_VALUE}, hence {@link Math#floorMod}.
+     */
+    public static int bucketOf(Object userUid, int bucketCount) {
+        UUID uuid = userUid instanceof UUID value ? value : UUID.fromString(userUid.toString());
+        return Math.floorMod(Math.abs(uuid.hashCode()), bucketCount);
+    }
+
+    /**
+     * Initial layout: bucket {@code b} on data source {@code b % dataSourceCount}.
+     */
+    public static int defaultDataSourceIndex(int bucket, int dataSourceCount) {
+        return bucket % dataSourceCount;
+    }
+}
@@ -0,0 +1,92 @@
+package com.example.transaction.sharding;
+
+import org.apache.shardingsphere.sharding.api.sharding.standard.PreciseShardingValue;
+import org.apache.shardingsphere.sharding.api.sharding.standard.RangeShardingValue;
+import org.apache.shardingsphere.sharding.api.sharding.standard.StandardShardingAlgorithm;
+
+import java.util.Collection;
+import java.util.Properties;
+
+/**
+ * {@code USER_BUCKET} database sharding algorithm for {@code user_uid}.
+ * <p>
+ * Each user hashes to one of {@code bucket-count} virtual buckets. A bucket lives on its
+ * default data source ({@code data-source-prefix} + {@code bucket % data-source-count}, the
+ * placement of the old INLINE rule) unless the {@link ShardBucketTable} bound on startup says
+ * it was moved. Routing is a hash, a modulo and one map lookup. A user of a moving bucket whose
+ * wallet is still on the source stays there for the transaction that pinned it
+ * ({@link ShardWriteRouter}).
+ */
+public class UserBucketShardingAlgorithm implements StandardShardingAlgorithm<Comparable<?>> {
+
+    static final String TYPE = "USER_BUCKET";
+
+    private int bucketCount;
+    private int dataSourceCount;
+    private String dataSourcePrefix;
+    private volatile ShardBucketTable table;
+
+    @Override
+    public void init(Properties props) {
+        bucketCount = Integer.parseInt(props.getProperty("bucket-count", "1024"));
+        dataSourceCount = Integer.parseInt(props.getProperty("data-source-count", "2"));
+        dataSourcePrefix = props.getProperty("data-source-prefix", "ds_");
+
+        // A multiple keeps bucket % data-source-count equal to the legacy hash % data-source-count
+        if (bucketCount <= 0 || dataSourceCount <= 0 || bucketCount % dataSourceCount != 0) {
+            throw new IllegalArgumentException("Invalid " + TYPE + " props: bucket-count=" + bucketCount
+                    + ", data-source-count=" + dataSourceCount);
+        }
+    }
+
+    /**
+     * Route moved buckets and pinned users from {@code bucketTable} from now on.
+     */
+    public void bind(ShardBucketTable bucketTable) {
+        table = bucketTable;
+    }
+
+    @Override
+    public String doSharding(Collection<String> availableTargetNames, PreciseShardingValue<Comparable<?>> shardingValue) {
+        String target = dataSourceOf(shardingValue.getValue());
+        if (!availableTargetNames.contains(target)) {
+            throw new IllegalStateException("Bucket of user " + shardingValue.getValue()
+                    + " is assigned to unknown data source " + target);
+        }
+        return target;
+    }
+
+    /**
+     * Ranges of a random id carry no locality, so a range condition goes to every data source.
+     */
+    @Override
+    public Collection<String> doSharding(Collection<String> availableTargetNames, RangeShardingValue<Comparable<?>> shardingValue) {
+        return availableTargetNames;
+    }
+
+    public String dataSourceOf(Object userUid) {
+        ShardBucketTable bound = table;
+        if (bound != null) {
+            return bound.dataSourceOf(userUid);
+        }
+        int bucket = UserBucketRouting.bucketOf(userUid, bucketCount);
+        return dataSourcePrefix + UserBucketRouting.defaultDataSourceIndex(bucket, dataSourceCount);
+    }
+
+    public int getBucketCount() {
+        return bucketCount;
+    }
+
+    public int getDataSourceCount() {
+        return dataSourceCount;
+    }
+
+    public String getDataSourcePrefix() {
+        return dataSourcePrefix;
+    }
+
+    @Override
+    public String getType() {
+        return TYPE;
+    }
+}
@@ -0,0 +1,75 @@
+-- Monthly range partitions of transactions on created_at. Vacuum and index maintenance work
+-- per month, and old months can be detached for archival (TransactionPartitionManager).
+-- The primary key must contain the partition key, so it becomes (uid, created_at); uid alone
+-- stays unique through transaction_uids, see below.
+-- Rewrites the table once: run in a maintenance window on large installations.
+CREATE TABLE transactions_partitioned (
+    LIKE transactions INCLUDING DEFAULTS INCLUDING CONSTRAINTS
+) PARTITION BY RANGE (created_at);
+
+-- One partition per month from the oldest row up to three months ahead; newer months are
+-- created by the application. The default partition only catches rows outside of them.
+DO $$
+DECLARE
+    month DATE := date_trunc('month', COALESCE((SELECT min(created_at) FROM transactions), now()));
+    last_month DATE := date_trunc('month', now()) + INTERVAL '3 months';
+BEGIN
+    WHILE month <= last_month LOOP
+        EXECUTE format(
+            'CREATE TABLE transactions_p%s PARTITION OF transactions_partitioned FOR VALUES FROM (%L) TO (%L)',
+            to_char(month, 'YYYY_MM'), month, month + INTERVAL '1 month');
+        month := month + INTERVAL '1 month';
+    END LOOP;
+END $$;
+
+CREATE TABLE transactions_default PARTITION OF transactions_partitioned DEFAULT;
+
+INSERT INTO transactions_partitioned SELECT * FROM transactions;
+
+DROP TABLE transactions;
+ALTER TABLE transactions_partitioned RENAME TO transactions;
+
+ALTER TABLE transactions ADD CONSTRAINT transactions_pkey PRIMARY KEY (uid, created_at);
+ALTER TABLE transactions ADD CONSTRAINT fk_transactions_wallet
+    FOREIGN KEY (wallet_uid) REFERENCES wallets(uid);
+ALTER TABLE transactions ADD CONSTRAINT fk_transactions_target_wallet
+    FOREIGN KEY (target_wallet_uid) REFERENCES wallets(uid);
+
+-- Defined on the parent, so every existing and future partition gets them
+CREATE INDEX idx_transactions_user_uid ON transactions(user_uid);
+CREATE INDEX idx_transactions_wallet_uid ON transactions(wallet_uid);
+CREATE INDEX idx_transactions_target_wallet_uid ON transactions(target_wallet_uid);
+CREATE INDEX idx_transactions_type ON transactions(type);
+CREATE INDEX idx_transactions_status ON transactions(status);
+CREATE INDEX idx_transactions_created_at ON transactions(created_at);
+CREATE INDEX idx_transactions_user_type_status ON transactions(user_uid, type, status);
+CREATE INDEX idx_transactions_user_created_uid ON transactions(user_uid, created_at DESC, uid);
+
+-- A uid is unique across months: every row of transactions records its uid here, and the
+-- primary key rejects a second one. Deletes (a user moved by resharding) release the uid;
+-- TransactionPartitionManager releases the uids of the months it detaches.
+CREATE TABLE transaction_uids (
+    uid UUID PRIMARY KEY,
+    created_at TIMESTAMP NOT NULL
+);
+
+INSERT INTO transaction_uids (uid, created_at) SELECT uid, created_at FROM transactions;
+
+CREATE INDEX idx_transaction_uids_created_at ON transaction_uids(created_at);
+
+CREATE FUNCTION record_transaction_uid() RETURNS trigger AS $$
+BEGIN
+    INSERT INTO transaction_uids (uid, created_at) VALUES (NEW.uid, NEW.created_at);
+    RETURN NULL;
+END $$ LANGUAGE plpgsql;
+
+CREATE FUNCTION release_transaction_uid() RETURNS trigger AS $$
+BEGIN
+    DELETE FROM transaction_uids WHERE uid = OLD.uid;
+    RETURN NULL;
+END $$ LANGUAGE plpgsql;
+
+CREATE TRIGGER trg_transactions_record_uid AFTER INSERT ON transactions
+    FOR EACH ROW EXECUTE FUNCTION record_transaction_uid();
+CREATE TRIGGER trg_transactions_release_uid AFTER DELETE ON transactions
+    FOR EACH ROW EXECUTE FUNCTION release_transaction_uid();
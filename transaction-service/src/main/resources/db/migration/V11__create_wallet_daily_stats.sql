@@ -0,0 +1,26 @@
+-- Per-wallet daily rollup of finished transactions, keyed by the day of created_at.
+-- Incremented with an upsert in the same DB transaction as the final status change.
+-- Counters of a wallet with balance slots are spread over as many rows as its balance, so
+-- completions on a hot wallet do not all upsert one row; readers sum the slots.
+-- Slot -1 holds the counters a user brought along when resharding moved its bucket here.
+CREATE TABLE wallet_daily_stats (
+    wallet_uid UUID NOT NULL,
+    stat_date DATE NOT NULL,
+    type VARCHAR(20) NOT NULL,
+    status VARCHAR(32) NOT NULL,
+    slot INTEGER NOT NULL DEFAULT 0,
+    user_uid UUID NOT NULL,
+    tx_count BIGINT NOT NULL,
+    amount_sum DECIMAL(19, 4) NOT NULL,
+    fee_sum DECIMAL(19, 4) NOT NULL,
+
+    PRIMARY KEY (wallet_uid, stat_date, type, status, slot)
+);
+
+-- Backfill from the transactions that already reached a final status
+INSERT INTO wallet_daily_stats (wallet_uid, stat_date, type, status, user_uid, tx_count, amount_sum, fee_sum)
+SELECT wallet_uid, created_at::date, type, status, MIN(user_uid::text)::uuid,
+       COUNT(*), SUM(amount), COALESCE(SUM(fee), 0)
+FROM transactions
+WHERE status IN ('COMPLETED', 'FAILED')
+GROUP BY wallet_uid, created_at::date, type, status;
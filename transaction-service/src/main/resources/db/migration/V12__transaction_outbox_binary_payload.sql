@@ -0,0 +1,4 @@
+-- Events of topics configured as binary (app.kafka.formats) are stored encoded;
+-- JSON topics keep using the text column. Exactly one of the two is set.
+ALTER TABLE transaction_outbox ALTER COLUMN payload DROP NOT NULL;
+ALTER TABLE transaction_outbox ADD COLUMN payload_binary BYTEA;
@@ -0,0 +1,23 @@
+-- Tiered fee rules, compiled into an in-memory schedule by FeeRuleEngine.
+-- A rule applies from min_amount up to the next min_amount of the same
+-- (type, currency_code, payment_method_id); NULL currency / method match any.
+-- Operations without a matching rule keep the flat app.transaction.*-fee-percent.
+CREATE TABLE fee_rules (
+    id BIGSERIAL PRIMARY KEY,
+    type VARCHAR(20) NOT NULL,
+    currency_code VARCHAR(3),
+    payment_method_id BIGINT,
+    min_amount DECIMAL(19, 4) NOT NULL DEFAULT 0,
+    fee_percent DECIMAL(9, 6) NOT NULL DEFAULT 0,
+    fixed_fee DECIMAL(19, 4) NOT NULL DEFAULT 0,
+    min_fee DECIMAL(19, 4) NOT NULL DEFAULT 0,
+    max_fee DECIMAL(19, 4),
+    active BOOLEAN NOT NULL DEFAULT TRUE,
+    updated_at TIMESTAMP NOT NULL DEFAULT now(),
+
+    CONSTRAINT uk_fee_rules_tier
+        UNIQUE NULLS NOT DISTINCT (type, currency_code, payment_method_id, min_amount),
+    CONSTRAINT chk_fee_rules_amounts
+        CHECK (min_amount >= 0 AND fee_percent >= 0 AND fixed_fee >= 0 AND min_fee >= 0
+               AND (max_fee IS NULL OR max_fee >= min_fee))
+);
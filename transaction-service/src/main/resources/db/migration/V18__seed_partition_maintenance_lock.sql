@@ -0,0 +1,3 @@
+-- Monthly partition maintenance runs on every node at startup and at the same cron time;
+-- a run holds this row lock for its transaction and the other nodes skip the round.
+INSERT INTO scheduler_locks (name) VALUES ('transaction-partitions');
@@ -0,0 +1,3 @@
+-- The outbox relay runs on one node at a time, so rows of one wallet are published in order;
+-- a round holds this row lock and the other nodes skip it.
+INSERT INTO scheduler_locks (name) VALUES ('outbox-relay');
@@ -0,0 +1,18 @@
+-- Pending init requests shared between replicas (app.transaction.init-request-store=jdbc).
+-- UNLOGGED: short-lived data, no WAL overhead; contents are lost on crash, which only
+-- forces affected users to re-init.
+CREATE UNLOGGED TABLE init_requests (
+    request_uid UUID PRIMARY KEY,
+    user_uid UUID NOT NULL,
+    wallet_uid UUID NOT NULL,
+    target_wallet_uid UUID,
+    type VARCHAR(20) NOT NULL,
+    amount DECIMAL(19, 4) NOT NULL,
+    fee DECIMAL(19, 4) NOT NULL,
+    total_amount DECIMAL(19, 4) NOT NULL,
+    payment_method_id BIGINT,
+    created_at TIMESTAMP NOT NULL,
+    expires_at TIMESTAMP NOT NULL
+);
+
+CREATE INDEX idx_init_requests_expires_at ON init_requests(expires_at);
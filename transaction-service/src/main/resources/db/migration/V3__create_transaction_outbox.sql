@@ -0,0 +1,17 @@
+-- Ids come from the application (UUIDv7): known before the INSERT, so outbox rows are
+-- JDBC-batched, and ordered by creation like a sequence
+CREATE TABLE transaction_outbox (
+    id UUID PRIMARY KEY,
+    topic VARCHAR(128) NOT NULL,
+    message_key VARCHAR(64) NOT NULL,
+    event_type VARCHAR(64) NOT NULL,
+    payload TEXT NOT NULL,
+    status VARCHAR(16) NOT NULL DEFAULT 'PENDING',
+    attempts INTEGER NOT NULL DEFAULT 0,
+    last_error VARCHAR(512),
+    created_at TIMESTAMP NOT NULL DEFAULT now(),
+    sent_at TIMESTAMP
+);
+
+-- Relay only ever scans pending rows in id order
+CREATE INDEX idx_transaction_outbox_pending ON transaction_outbox(id) WHERE status = 'PENDING';
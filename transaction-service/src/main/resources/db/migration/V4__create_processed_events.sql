@@ -0,0 +1,11 @@
+CREATE TABLE processed_events (
+    event_id UUID PRIMARY KEY,
+    event_type VARCHAR(64) NOT NULL,
+    -- Sharding key: owner of the balance the event changed, so under sharding the claim
+    -- commits on the user's data source, in the same local transaction as the balance
+    user_uid UUID NOT NULL,
+    processed_at TIMESTAMP NOT NULL DEFAULT now()
+);
+
+-- Retention purge deletes by age
+CREATE INDEX idx_processed_events_processed_at ON processed_events(processed_at);
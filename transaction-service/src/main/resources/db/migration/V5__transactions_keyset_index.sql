@@ -0,0 +1,3 @@
+-- Keyset pagination of a user's history: WHERE user_uid = ? AND (created_at, uid) after cursor
+-- ORDER BY created_at DESC, uid is a single index range scan
+CREATE INDEX idx_transactions_user_created_uid ON transactions(user_uid, created_at DESC, uid);
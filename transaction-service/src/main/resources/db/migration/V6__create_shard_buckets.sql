@@ -0,0 +1,10 @@
+-- Buckets moved off their default data source by the resharding job.
+-- Lives on ds_0 only (single table in shardingsphere-config.yaml).
+CREATE TABLE shard_buckets (
+    bucket INTEGER PRIMARY KEY,
+    source_data_source VARCHAR(32) NOT NULL,
+    target_data_source VARCHAR(32) NOT NULL,
+    state VARCHAR(16) NOT NULL,
+    created_at TIMESTAMP NOT NULL DEFAULT now(),
+    moved_at TIMESTAMP
+);
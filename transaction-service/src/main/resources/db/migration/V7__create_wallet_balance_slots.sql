@@ -0,0 +1,20 @@
+-- Opt-in balance slots for hot wallets: credits go to one of N slot rows,
+-- the wallet balance is wallets.balance plus the sum of its slots.
+ALTER TABLE wallets ADD COLUMN balance_slots INTEGER NOT NULL DEFAULT 0;
+
+CREATE TABLE wallet_balance_slots (
+    uid UUID PRIMARY KEY DEFAULT uuid_generate_v4(),
+    created_at TIMESTAMP NOT NULL DEFAULT now(),
+    modified_at TIMESTAMP,
+    wallet_uid UUID NOT NULL,
+    user_uid UUID NOT NULL,
+    slot INTEGER NOT NULL,
+    balance DECIMAL(19, 4) NOT NULL DEFAULT 0.0,
+
+    CONSTRAINT fk_wallet_balance_slots_wallet
+        FOREIGN KEY (wallet_uid) REFERENCES wallets(uid),
+    CONSTRAINT uk_wallet_balance_slots_wallet_slot
+        UNIQUE (wallet_uid, slot),
+    CONSTRAINT chk_wallet_balance_slots_balance_non_negative
+        CHECK (balance >= 0)
+);
@@ -0,0 +1,64 @@
+-- Append-only double-entry ledger: the legs of each transaction sum to zero.
+CREATE TABLE ledger_entries (
+    uid UUID PRIMARY KEY DEFAULT uuid_generate_v4(),
+    created_at TIMESTAMP NOT NULL DEFAULT now(),
+    transaction_uid UUID,
+    account VARCHAR(16) NOT NULL,
+    wallet_uid UUID,
+    user_uid UUID NOT NULL,
+    amount DECIMAL(19, 4) NOT NULL,
+    -- Set by the first checkpoint run after the entry committed; created_at comes from the
+    -- application clock when the legs are posted, so a slow transaction can commit behind a
+    -- checkpoint already taken, and checkpoints sum entries by this stamp instead
+    checkpoint_at TIMESTAMP,
+
+    CONSTRAINT chk_ledger_entries_wallet_account
+        CHECK ((account = 'WALLET') = (wallet_uid IS NOT NULL))
+);
+
+-- Balance of one wallet as of a point in time
+CREATE INDEX idx_ledger_entries_wallet_created ON ledger_entries (wallet_uid, created_at)
+    WHERE wallet_uid IS NOT NULL;
+-- Checkpoint job: unstamped entries, then the entries it has just stamped
+CREATE INDEX idx_ledger_entries_checkpoint ON ledger_entries (checkpoint_at);
+-- Tail of one wallet: entries stamped after its checkpoint or not stamped yet
+CREATE INDEX idx_ledger_entries_wallet_checkpoint ON ledger_entries (wallet_uid, checkpoint_at)
+    WHERE wallet_uid IS NOT NULL;
+CREATE INDEX idx_ledger_entries_transaction ON ledger_entries (transaction_uid);
+
+-- Materialized wallet balances: sum of the wallet's entries stamped up to checkpoint_at
+CREATE TABLE ledger_checkpoints (
+    uid UUID PRIMARY KEY DEFAULT uuid_generate_v4(),
+    wallet_uid UUID NOT NULL,
+    user_uid UUID NOT NULL,
+    checkpoint_at TIMESTAMP NOT NULL,
+    balance DECIMAL(19, 4) NOT NULL
+);
+
+CREATE INDEX idx_ledger_checkpoints_wallet_at ON ledger_checkpoints (wallet_uid, checkpoint_at DESC);
+
+-- Opening balances of existing wallets (row plus balance slots), so the ledger
+-- agrees with wallets from the start
+INSERT INTO ledger_entries (created_at, account, wallet_uid, user_uid, amount)
+SELECT now(), 'WALLET', w.uid, w.user_uid,
+       w.balance + COALESCE((SELECT SUM(s.balance) FROM wallet_balance_slots s WHERE s.wallet_uid = w.uid), 0)
+FROM wallets w;
+
+INSERT INTO ledger_entries (created_at, account, user_uid, amount)
+SELECT created_at, 'OPENING', user_uid, -amount
+FROM ledger_entries
+WHERE account = 'WALLET' AND transaction_uid IS NULL;
+
+DELETE FROM ledger_entries WHERE amount = 0;
+
+-- One row per scheduled job that must run on a single node at a time; a run holds the
+-- row lock for its transaction and other nodes skip the round. The node holding the lock can
+-- publish one figure for all nodes (the outbox relay reports the outbox backlog there).
+-- Lives on ds_0 only (single table in shardingsphere-config.yaml).
+CREATE TABLE scheduler_locks (
+    name VARCHAR(64) PRIMARY KEY,
+    reported_value BIGINT,
+    reported_at TIMESTAMP
+);
+
+INSERT INTO scheduler_locks (name) VALUES ('ledger-checkpoints');
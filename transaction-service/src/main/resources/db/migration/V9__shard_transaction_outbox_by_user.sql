@@ -0,0 +1,9 @@
+-- Under sharding the outbox lives with the wallet and transaction rows it describes, on the
+-- user's data source, so it commits in the same local transaction. The rows carry the
+-- sharding key; application-generated ids are unique on every shard, which a per-database
+-- sequence would not be.
+ALTER TABLE transaction_outbox ADD COLUMN user_uid UUID;
+
+-- Rows written before this migration are keyed by wallet uid; left null where the wallet
+-- is not in this database
+UPDATE transaction_outbox o SET user_uid = w.user_uid FROM wallets w WHERE o.message_key = w.uid::text;
@@ -0,0 +1,79 @@
+package com.example.transaction.entity;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("Money Tests")
+class MoneyTest {
+
+    private static final Money MAX = new Money(Long.MAX_VALUE);
+
+    @Test
+    @DisplayName("should round to 4 decimals half up and convert back exactly")
+    void shouldConvertAtBoundary() {
+        assertThat(Money.of("100.00").units()).isEqualTo(1_000_000L);
+        assertThat(Money.of("0.00005").units()).isEqualTo(1L);
+        assertThat(Money.of("-0.00005").units()).isEqualTo(-1L);
+        assertThat(Money.of("0.00004")).isEqualTo(Money.ZERO);
+        assertThat(Money.of("12.3456").toBigDecimal()).isEqualTo(new BigDecimal("12.3456"));
+        assertThat(Money.of("1.5")).hasToString("1.5000");
+    }
+
+    @Test
+    @DisplayName("should reject amounts that do not fit in a long")
+    void shouldRejectOutOfRange() {
+        assertThat(Money.of("922337203685477.5807")).isEqualTo(MAX);
+        assertThatThrownBy(() -> Money.of("922337203685477.5808")).isInstanceOf(ArithmeticException.class);
+    }
+
+    @Test
+    @DisplayName("should throw on overflow instead of wrapping")
+    void shouldCheckOverflow() {
+        assertThat(Money.of("10.50").plus(Money.of("0.25"))).isEqualTo(Money.of("10.75"));
+        assertThat(Money.of("10.50").minus(Money.of("10.75"))).isEqualTo(Money.of("-0.25"));
+
+        assertThatThrownBy(() -> MAX.plus(new Money(1))).isInstanceOf(ArithmeticException.class);
+        assertThatThrownBy(() -> new Money(Long.MIN_VALUE).minus(new Money(1)))
+                .isInstanceOf(ArithmeticException.class);
+    }
+
+    @Test
+    @DisplayName("should multiply by a rate exactly as BigDecimal with HALF_UP")
+    void shouldMatchBigDecimalMultiplication() {
+        String[] amounts = {"0.0001", "0.0049", "0.0050", "1.2345", "99.9999", "12345.6789", "-7.0050"};
+        String[] rates = {"0", "0.005", "0.01", "0.015", "0.000001", "1", "2.5"};
+        for (String amount : amounts) {
+            for (String rate : rates) {
+                BigDecimal expected = new BigDecimal(amount).multiply(new BigDecimal(rate))
+                        .setScale(Money.SCALE, RoundingMode.HALF_UP);
+
+                assertThat(Money.of(amount).times(Money.Rate.of(new BigDecimal(rate))).toBigDecimal())
+                        .as("%s * %s", amount, rate)
+                        .isEqualTo(expected);
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("should fall back to BigDecimal when the product overflows a long")
+    void shouldMultiplyLargeAmounts() {
+        Money large = Money.of("900000000000000.0000");
+
+        assertThat(large.times(Money.Rate.of(new BigDecimal("0.01")))).isEqualTo(Money.of("9000000000000.0000"));
+        assertThatThrownBy(() -> large.times(Money.Rate.of(new BigDecimal("2"))))
+                .isInstanceOf(ArithmeticException.class);
+    }
+
+    @Test
+    @DisplayName("should normalize rates so equal values are equal")
+    void shouldNormalizeRates() {
+        assertThat(Money.Rate.of(new BigDecimal("0.010000"))).isEqualTo(Money.Rate.of(new BigDecimal("0.01")));
+        assertThat(Money.Rate.of(new BigDecimal("1E+2"))).isEqualTo(new Money.Rate(100, 0));
+    }
+}
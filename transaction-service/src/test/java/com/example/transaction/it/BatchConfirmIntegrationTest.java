@@ -0,0 +1,214 @@
+package com.example.transaction.it;
+
+import com.example.transaction.dto.BatchConfirmItemResult;
+import com.example.transaction.dto.BatchConfirmResponse;
+import com.example.transaction.dto.TransactionConfirmRequest;
+import com.example.transaction.dto.TransactionInitRequest;
+import com.example.transaction.dto.TransactionInitResponse;
+import com.example.transaction.entity.WalletType;
+import com.example.transaction.entity.enums.TransactionStatus;
+import com.example.transaction.kafka.TransactionEventProducer;
+import com.example.transaction.repository.TransactionRepository;
+import com.example.transaction.repository.WalletRepository;
+import com.example.transaction.service.InitRequestStore;
+import com.example.transaction.service.TransactionService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Batch confirm of deposits and withdrawals: per-item results in request order, rejected
+ * items leave the rest untouched and keep their init requests, and the statement count does
+ * not grow with the batch.
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+        + "com.example.transaction.it.StatementRecorder")
+@ActiveProfiles("test")
+@Import(WalletFixtures.class)
+class BatchConfirmIntegrationTest {
+
+    private static final BigDecimal INITIAL_BALANCE = new BigDecimal("100.00");
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private WalletRepository walletRepository;
+
+    @Autowired
+    private WalletFixtures walletFixtures;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private InitRequestStore initRequestStore;
+
+    @MockitoBean
+    private TransactionEventProducer eventProducer;
+
+    private WalletType walletType;
+
+    @BeforeEach
+    void setUp() {
+        walletType = walletFixtures.createWalletType("Batch");
+    }
+
+    @Test
+    @DisplayName("confirms deposits and withdrawals of several wallets, rejecting only the bad items")
+    void shouldConfirmValidItemsAndRejectTheRest() {
+        UUID payroll = createWallet(INITIAL_BALANCE);
+        UUID employee = createWallet(BigDecimal.ZERO);
+
+        TransactionConfirmRequest withdrawal = confirmOf(init(payroll, "40.00", false));
+        TransactionConfirmRequest overdraft = confirmOf(init(payroll, "70.00", false));
+        TransactionConfirmRequest deposit = confirmOf(init(employee, "25.00", true));
+        TransactionConfirmRequest unknown = TransactionConfirmRequest.builder()
+                .requestUid(UUID.randomUUID())
+                .walletUid(employee)
+                .amount(BigDecimal.ONE)
+                .build();
+
+        BatchConfirmResponse response = transactionService.confirmBatch(
+                List.of(withdrawal, overdraft, deposit, unknown, deposit));
+
+        assertThat(response.getConfirmed()).isEqualTo(2);
+        assertThat(response.getRejected()).isEqualTo(3);
+        assertThat(response.getResults()).extracting(BatchConfirmItemResult::getRequestUid)
+                .containsExactly(withdrawal.getRequestUid(), overdraft.getRequestUid(),
+                        deposit.getRequestUid(), unknown.getRequestUid(), deposit.getRequestUid());
+        assertThat(response.getResults()).extracting(BatchConfirmItemResult::getStatus)
+                .containsExactly(BatchConfirmItemResult.StatusEnum.CONFIRMED,
+                        BatchConfirmItemResult.StatusEnum.REJECTED,
+                        BatchConfirmItemResult.StatusEnum.CONFIRMED,
+                        BatchConfirmItemResult.StatusEnum.REJECTED,
+                        BatchConfirmItemResult.StatusEnum.REJECTED);
+        assertThat(response.getResults().get(1).getError()).contains("Insufficient balance");
+        assertThat(response.getResults().get(4).getError()).contains("Duplicate");
+
+        // 40.00 plus the 1% withdrawal fee
+        assertThat(balanceOf(payroll)).isEqualByComparingTo("59.60");
+        assertThat(balanceOf(employee)).isEqualByComparingTo(BigDecimal.ZERO);
+
+        UUID depositUid = response.getResults().get(2).getTransaction().getTransactionUid();
+        assertThat(transactionRepository.findById(depositUid).orElseThrow().getStatus())
+                .isEqualTo(TransactionStatus.PENDING);
+        verify(eventProducer).sendDepositRequested(any(), any());
+        verify(eventProducer).sendWithdrawalRequested(any(), any());
+    }
+
+    @Test
+    @DisplayName("an item rejected for insufficient balance keeps its init request")
+    void shouldNotClaimRejectedItems() {
+        UUID wallet = createWallet(INITIAL_BALANCE);
+        TransactionConfirmRequest drain = confirmOf(init(wallet, "60.00", false));
+        TransactionConfirmRequest overdraft = confirmOf(init(wallet, "60.00", false));
+        // Both fit the balance at init; the first one leaves too little for the second
+        transactionService.confirmWithdrawal(drain);
+
+        BatchConfirmResponse response = transactionService.confirmBatch(List.of(overdraft));
+
+        assertThat(response.getResults().get(0).getError()).contains("Insufficient balance");
+        assertThat(initRequestStore.exists(overdraft.getRequestUid())).isTrue();
+    }
+
+    @Test
+    @DisplayName("a batch that rolls back gives its claimed init requests back")
+    void shouldRestoreClaimsOnRollback() {
+        TransactionConfirmRequest first = confirmOf(init(createWallet(BigDecimal.ZERO), "10.00", true));
+        TransactionConfirmRequest second = confirmOf(init(createWallet(BigDecimal.ZERO), "10.00", true));
+        doThrow(new IllegalStateException("outbox down")).when(eventProducer).sendDepositRequested(any(), any());
+
+        assertThatThrownBy(() -> transactionService.confirmBatch(List.of(first, second)))
+                .isInstanceOf(IllegalStateException.class);
+
+        assertThat(initRequestStore.exists(first.getRequestUid())).isTrue();
+        assertThat(initRequestStore.exists(second.getRequestUid())).isTrue();
+    }
+
+    @Test
+    @DisplayName("rejects transfers, which are confirmed synchronously one by one")
+    void shouldRejectTransfers() {
+        UUID source = createWallet(INITIAL_BALANCE);
+        UUID target = createWallet(BigDecimal.ZERO);
+        TransactionInitResponse init = transactionService.initTransfer(
+                TransactionInitRequest.builder()
+                        .walletUid(source)
+                        .targetWalletUid(target)
+                        .amount(BigDecimal.TEN)
+                        .build());
+
+        BatchConfirmResponse response = transactionService.confirmBatch(List.of(confirmOf(init, source)));
+
+        assertThat(response.getResults().get(0).getStatus()).isEqualTo(BatchConfirmItemResult.StatusEnum.REJECTED);
+        assertThat(balanceOf(source)).isEqualByComparingTo(INITIAL_BALANCE);
+    }
+
+    @Test
+    @DisplayName("statement count does not grow with the number of wallets and items")
+    void shouldBatchStatements() {
+        long small = statementsForDeposits(5);
+        long large = statementsForDeposits(40);
+
+        assertThat(large).isEqualTo(small);
+        verify(eventProducer, times(45)).sendDepositRequested(any(), any());
+    }
+
+    private long statementsForDeposits(int wallets) {
+        List<TransactionConfirmRequest> items = new ArrayList<>();
+        for (int i = 0; i < wallets; i++) {
+            items.add(confirmOf(init(createWallet(BigDecimal.ZERO), "10.00", true)));
+        }
+
+        StatementRecorder.start();
+        BatchConfirmResponse response = transactionService.confirmBatch(items);
+
+        assertThat(response.getConfirmed()).isEqualTo(wallets);
+        return StatementRecorder.count();
+    }
+
+    private TransactionInitResponse init(UUID walletUid, String amount, boolean deposit) {
+        TransactionInitRequest request = TransactionInitRequest.builder()
+                .walletUid(walletUid)
+                .amount(new BigDecimal(amount))
+                .build();
+        return deposit ? transactionService.initDeposit(request) : transactionService.initWithdrawal(request);
+    }
+
+    private TransactionConfirmRequest confirmOf(TransactionInitResponse init) {
+        return confirmOf(init, init.getWalletUid());
+    }
+
+    private TransactionConfirmRequest confirmOf(TransactionInitResponse init, UUID walletUid) {
+        return TransactionConfirmRequest.builder()
+                .requestUid(init.getRequestUid())
+                .walletUid(walletUid)
+                .amount(init.getAmount())
+                .build();
+    }
+
+    private UUID createWallet(BigDecimal balance) {
+        return walletFixtures.createWallet(walletType, "Batch wallet", balance);
+    }
+
+    private BigDecimal balanceOf(UUID walletUid) {
+        return walletRepository.findById(walletUid).orElseThrow().getBalance();
+    }
+}
@@ -0,0 +1,101 @@
+package com.example.transaction.it;
+
+import com.example.transaction.dto.TransactionConfirmRequest;
+import com.example.transaction.dto.TransactionConfirmResponse;
+import com.example.transaction.dto.TransactionInitRequest;
+import com.example.transaction.dto.TransactionInitResponse;
+import com.example.transaction.service.TransactionService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Round trips of a single confirm. Ids are generated in the application, so no INSERT is
+ * executed on persist and every table gets one batched statement at flush, however many
+ * rows it receives (three ledger legs for a withdrawal).
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+        + "com.example.transaction.it.StatementRecorder")
+@ActiveProfiles("test")
+@Import(WalletFixtures.class)
+class ConfirmRoundTripTest {
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private WalletFixtures walletFixtures;
+
+    private UUID walletUid;
+
+    @BeforeEach
+    void setUp() {
+        walletUid = walletFixtures.createWallet(walletFixtures.createWalletType("Round trip"),
+                "Round trip", new BigDecimal("1000.00"));
+    }
+
+    @Test
+    @DisplayName("deposit confirm — lock, transactions insert, outbox insert")
+    void depositConfirmShouldUseThreeStatements() {
+        TransactionConfirmRequest request = init(false);
+        StatementRecorder.start();
+        confirm(request, false);
+
+        assertThat(StatementRecorder.roundTrips()).containsExactly(
+                "select wallets", "insert transactions", "insert transaction_outbox");
+    }
+
+    @Test
+    @DisplayName("withdrawal confirm — three ledger legs share one batched statement")
+    void withdrawalConfirmShouldBatchLedgerLegs() {
+        TransactionConfirmRequest request = init(true);
+        StatementRecorder.start();
+        confirm(request, true);
+
+        assertThat(StatementRecorder.roundTrips()).containsExactly(
+                "select wallets", "insert transactions", "insert ledger_entries",
+                "insert transaction_outbox", "update wallets");
+    }
+
+    @Test
+    @DisplayName("transaction ids are time-ordered UUIDv7")
+    void transactionIdsShouldBeTimeOrdered() {
+        UUID first = confirm(init(false), false).getTransactionUid();
+        UUID second = confirm(init(true), true).getTransactionUid();
+
+        assertThat(first.version()).isEqualTo(7);
+        assertThat(second.version()).isEqualTo(7);
+        assertThat(second).isGreaterThan(first);
+    }
+
+    private TransactionConfirmRequest init(boolean withdrawal) {
+        TransactionInitRequest initRequest = TransactionInitRequest.builder()
+                .walletUid(walletUid)
+                .amount(new BigDecimal("10.00"))
+                .build();
+        TransactionInitResponse init = withdrawal
+                ? transactionService.initWithdrawal(initRequest)
+                : transactionService.initDeposit(initRequest);
+
+        return TransactionConfirmRequest.builder()
+                .requestUid(init.getRequestUid())
+                .walletUid(walletUid)
+                .amount(init.getAmount())
+                .build();
+    }
+
+    private TransactionConfirmResponse confirm(TransactionConfirmRequest request, boolean withdrawal) {
+        return withdrawal
+                ? transactionService.confirmWithdrawal(request)
+                : transactionService.confirmDeposit(request);
+    }
+}
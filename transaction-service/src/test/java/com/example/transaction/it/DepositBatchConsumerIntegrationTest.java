@@ -0,0 +1,186 @@
+package com.example.transaction.it;
+
+import com.example.transaction.dto.CreateWalletRequest;
+import com.example.transaction.entity.Transaction;
+import com.example.transaction.entity.Wallet;
+import com.example.transaction.entity.WalletType;
+import com.example.transaction.entity.enums.PaymentType;
+import com.example.transaction.entity.enums.TransactionStatus;
+import com.example.transaction.kafka.TransactionEventConsumer;
+import com.example.transaction.kafka.event.DepositCompletedEvent;
+import com.example.transaction.repository.TransactionRepository;
+import com.example.transaction.repository.WalletRepository;
+import com.example.transaction.repository.WalletTypeRepository;
+import com.example.transaction.service.WalletService;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.kafka.listener.BatchListenerFailedException;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowableOfType;
+
+/**
+ * Grouped deposit-completed processing against the real schema (H2).
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class DepositBatchConsumerIntegrationTest {
+
+    private static final String TOPIC = "test-deposit-completed";
+
+    @Autowired
+    private TransactionEventConsumer eventConsumer;
+
+    @Autowired
+    private WalletService walletService;
+
+    @Autowired
+    private WalletRepository walletRepository;
+
+    @Autowired
+    private WalletTypeRepository walletTypeRepository;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    private WalletType walletType;
+
+    @BeforeEach
+    void setUp() {
+        walletType = new WalletType();
+        walletType.setName("USD Wallet");
+        walletType.setCurrencyCode("USD");
+        walletType.setStatus("ACTIVE");
+        walletTypeRepository.save(walletType);
+    }
+
+    @Test
+    @DisplayName("should sum credits per wallet and complete every transaction in the poll")
+    void shouldApplyGroupedCredits() {
+        UUID walletA = createWallet("Wallet A");
+        UUID walletB = createWallet("Wallet B");
+
+        List<DepositCompletedEvent> events = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            events.add(event(pendingDeposit(walletA, "10.00"), walletA, "10.00"));
+        }
+        for (int i = 0; i < 2; i++) {
+            events.add(event(pendingDeposit(walletB, "25.00"), walletB, "25.00"));
+        }
+        // Redelivered duplicate must not be credited twice
+        events.add(events.get(0));
+
+        eventConsumer.handleDepositCompleted(records(events));
+
+        assertThat(balanceOf(walletA)).isEqualByComparingTo("30.00");
+        assertThat(balanceOf(walletB)).isEqualByComparingTo("50.00");
+        events.forEach(event -> assertThat(statusOf(event.getTransactionUid()))
+                .isEqualTo(TransactionStatus.COMPLETED));
+    }
+
+    @Test
+    @DisplayName("should skip transactions that are already completed")
+    void shouldSkipCompletedTransactions() {
+        UUID wallet = createWallet("Wallet");
+        DepositCompletedEvent event = event(pendingDeposit(wallet, "10.00"), wallet, "10.00");
+
+        eventConsumer.handleDepositCompleted(records(List.of(event)));
+        eventConsumer.handleDepositCompleted(records(List.of(event)));
+
+        assertThat(balanceOf(wallet)).isEqualByComparingTo("10.00");
+    }
+
+    @Test
+    @DisplayName("should apply records before the poisoned one and report its index")
+    void shouldIsolatePoisonedRecord() {
+        UUID wallet = createWallet("Wallet");
+        DepositCompletedEvent first = event(pendingDeposit(wallet, "10.00"), wallet, "10.00");
+        DepositCompletedEvent second = event(pendingDeposit(wallet, "20.00"), wallet, "20.00");
+        DepositCompletedEvent unknown = event(UUID.randomUUID(), wallet, "30.00");
+        DepositCompletedEvent after = event(pendingDeposit(wallet, "40.00"), wallet, "40.00");
+
+        BatchListenerFailedException failure = catchThrowableOfType(
+                BatchListenerFailedException.class,
+                () -> eventConsumer.handleDepositCompleted(records(List.of(first, second, unknown, after))));
+
+        assertThat(failure).isNotNull();
+        assertThat(failure.getIndex()).isEqualTo(2);
+        assertThat(balanceOf(wallet)).isEqualByComparingTo("30.00");
+        assertThat(statusOf(after.getTransactionUid())).isEqualTo(TransactionStatus.PENDING);
+    }
+
+    @Test
+    @DisplayName("should report an undeserializable record after applying the ones before it")
+    void shouldReportUndeserializableRecord() {
+        UUID wallet = createWallet("Wallet");
+        DepositCompletedEvent first = event(pendingDeposit(wallet, "10.00"), wallet, "10.00");
+
+        List<ConsumerRecord<String, DepositCompletedEvent>> records = new ArrayList<>(records(List.of(first)));
+        records.add(new ConsumerRecord<>(TOPIC, 0, 1, "broken", null));
+
+        BatchListenerFailedException failure = catchThrowableOfType(
+                BatchListenerFailedException.class,
+                () -> eventConsumer.handleDepositCompleted(records));
+
+        assertThat(failure.getIndex()).isEqualTo(1);
+        assertThat(balanceOf(wallet)).isEqualByComparingTo("10.00");
+    }
+
+    private UUID createWallet(String name) {
+        return walletService.createWallet(
+                CreateWalletRequest.builder()
+                        .userUid(UUID.randomUUID())
+                        .walletTypeUid(walletType.getUid())
+                        .name(name)
+                        .build()).getUid();
+    }
+
+    private UUID pendingDeposit(UUID walletUid, String amount) {
+        Wallet wallet = walletRepository.findById(walletUid).orElseThrow();
+        Transaction transaction = Transaction.builder()
+                .userUid(wallet.getUserUid())
+                .wallet(wallet)
+                .amount(new BigDecimal(amount))
+                .type(PaymentType.DEPOSIT)
+                .build();
+        return transactionRepository.save(transaction).getUid();
+    }
+
+    private DepositCompletedEvent event(UUID transactionUid, UUID walletUid, String amount) {
+        return DepositCompletedEvent.builder()
+                .eventId(UUID.randomUUID())
+                .timestamp(LocalDateTime.now())
+                .transactionUid(transactionUid)
+                .walletUid(walletUid)
+                .amount(new BigDecimal(amount))
+                .build();
+    }
+
+    private List<ConsumerRecord<String, DepositCompletedEvent>> records(List<DepositCompletedEvent> events) {
+        List<ConsumerRecord<String, DepositCompletedEvent>> records = new ArrayList<>();
+        for (int i = 0; i < events.size(); i++) {
+            DepositCompletedEvent event = events.get(i);
+            records.add(new ConsumerRecord<>(TOPIC, 0, i, event.getTransactionUid().toString(), event));
+        }
+        return records;
+    }
+
+    private BigDecimal balanceOf(UUID walletUid) {
+        return walletRepository.findById(walletUid).orElseThrow().getBalance();
+    }
+
+    private TransactionStatus statusOf(UUID transactionUid) {
+        return transactionRepository.findById(transactionUid).orElseThrow().getStatus();
+    }
+}
@@ -0,0 +1,180 @@
+package com.example.transaction.it;
+
+import com.example.transaction.dto.TransactionConfirmRequest;
+import com.example.transaction.dto.TransactionInitRequest;
+import com.example.transaction.dto.TransactionInitResponse;
+import com.example.transaction.dto.WalletResponse;
+import com.example.transaction.entity.WalletType;
+import com.example.transaction.kafka.TransactionEventProducer;
+import com.example.transaction.repository.WalletBalanceSlotRepository;
+import com.example.transaction.repository.WalletRepository;
+import com.example.transaction.service.TransactionService;
+import com.example.transaction.service.WalletService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * A merchant wallet with balance slots receives concurrent transfers without its row being
+ * touched; reads, debits and disabling the mode all see the total.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@Import(WalletFixtures.class)
+class HotWalletBalanceSlotsIntegrationTest {
+
+    private static final int SLOTS = 4;
+    private static final int PAYERS = 8;
+    private static final int TRANSFERS_PER_PAYER = 5;
+    private static final BigDecimal INITIAL_BALANCE = new BigDecimal("100.00");
+    private static final BigDecimal AMOUNT = new BigDecimal("2.00");
+    private static final BigDecimal RECEIVED =
+            AMOUNT.multiply(BigDecimal.valueOf(PAYERS * TRANSFERS_PER_PAYER));
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private WalletService walletService;
+
+    @Autowired
+    private WalletRepository walletRepository;
+
+    @Autowired
+    private WalletFixtures walletFixtures;
+
+    @Autowired
+    private WalletBalanceSlotRepository slotRepository;
+
+    @MockitoBean
+    private TransactionEventProducer eventProducer;
+
+    private WalletType walletType;
+    private UUID merchant;
+    private List<UUID> payers;
+
+    @BeforeEach
+    void setUp() {
+        walletType = walletFixtures.createWalletType("Hot");
+
+        merchant = createWallet("Merchant", BigDecimal.ZERO);
+        payers = new ArrayList<>();
+        for (int i = 0; i < PAYERS; i++) {
+            payers.add(createWallet("Payer " + i, INITIAL_BALANCE));
+        }
+
+        walletService.configureBalanceSlots(merchant, SLOTS);
+    }
+
+    @Test
+    @DisplayName("concurrent transfers credit the slots, balance reads return the total")
+    void shouldCreditSlotsConcurrently() throws Exception {
+        receiveTransfers();
+
+        assertThat(rowBalanceOf(merchant)).isEqualByComparingTo(BigDecimal.ZERO);
+        assertThat(slotRepository.sumByWalletUid(merchant)).isEqualByComparingTo(RECEIVED);
+        assertThat(walletService.getWallet(merchant).getBalance()).isEqualByComparingTo(RECEIVED);
+    }
+
+    @Test
+    @DisplayName("debit larger than the wallet row consolidates the slots")
+    void shouldConsolidateOnDebit() throws Exception {
+        receiveTransfers();
+
+        TransactionInitResponse init = transactionService.initWithdrawal(
+                TransactionInitRequest.builder()
+                        .walletUid(merchant)
+                        .amount(new BigDecimal("50.00"))
+                        .build());
+        transactionService.confirmWithdrawal(
+                TransactionConfirmRequest.builder()
+                        .requestUid(init.getRequestUid())
+                        .walletUid(merchant)
+                        .amount(new BigDecimal("50.00"))
+                        .build());
+
+        BigDecimal expected = RECEIVED.subtract(init.getTotalAmount());
+        assertThat(slotRepository.sumByWalletUid(merchant)).isEqualByComparingTo(BigDecimal.ZERO);
+        assertThat(rowBalanceOf(merchant)).isEqualByComparingTo(expected);
+        assertThat(walletService.getWallet(merchant).getBalance()).isEqualByComparingTo(expected);
+    }
+
+    @Test
+    @DisplayName("disabling slots sweeps them into the wallet row")
+    void shouldSweepSlotsWhenDisabled() throws Exception {
+        receiveTransfers();
+
+        WalletResponse response = walletService.configureBalanceSlots(merchant, 0);
+
+        assertThat(response.getBalance()).isEqualByComparingTo(RECEIVED);
+        assertThat(rowBalanceOf(merchant)).isEqualByComparingTo(RECEIVED);
+        assertThat(slotRepository.sumByWalletUid(merchant)).isEqualByComparingTo(BigDecimal.ZERO);
+        assertThat(walletRepository.findById(merchant).orElseThrow().getBalanceSlots()).isZero();
+    }
+
+    private void receiveTransfers() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(PAYERS);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<Void>> futures = new ArrayList<>();
+            for (UUID payer : payers) {
+                Callable<Void> task = () -> {
+                    start.await();
+                    for (int i = 0; i < TRANSFERS_PER_PAYER; i++) {
+                        transfer(payer, merchant);
+                    }
+                    return null;
+                };
+                futures.add(executor.submit(task));
+            }
+            start.countDown();
+            for (Future<Void> future : futures) {
+                future.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private void transfer(UUID source, UUID target) {
+        TransactionInitResponse init = transactionService.initTransfer(
+                TransactionInitRequest.builder()
+                        .walletUid(source)
+                        .targetWalletUid(target)
+                        .amount(AMOUNT)
+                        .build());
+
+        transactionService.confirmTransfer(
+                TransactionConfirmRequest.builder()
+                        .requestUid(init.getRequestUid())
+                        .walletUid(source)
+                        .amount(AMOUNT)
+                        .build());
+    }
+
+    private UUID createWallet(String name, BigDecimal balance) {
+        return walletFixtures.createWallet(walletType, name, balance);
+    }
+
+    private BigDecimal rowBalanceOf(UUID walletUid) {
+        return walletRepository.findById(walletUid).orElseThrow().getBalance();
+    }
+}
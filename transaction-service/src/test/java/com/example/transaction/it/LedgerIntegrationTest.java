@@ -0,0 +1,211 @@
+package com.example.transaction.it;
+
+import com.example.transaction.dto.TransactionConfirmRequest;
+import com.example.transaction.dto.TransactionConfirmResponse;
+import com.example.transaction.dto.TransactionInitRequest;
+import com.example.transaction.dto.TransactionInitResponse;
+import com.example.transaction.entity.LedgerEntry;
+import com.example.transaction.entity.Wallet;
+import com.example.transaction.entity.WalletType;
+import com.example.transaction.entity.enums.LedgerAccount;
+import com.example.transaction.kafka.TransactionEventProducer;
+import com.example.transaction.repository.LedgerCheckpointRepository;
+import com.example.transaction.repository.LedgerEntryRepository;
+import com.example.transaction.repository.WalletRepository;
+import com.example.transaction.service.LedgerService;
+import com.example.transaction.service.TransactionService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Every balance change writes a zero-sum set of ledger legs, and balances at past instants
+ * are answered from checkpoints plus the tail of entries.
+ */
+@SpringBootTest(properties = "app.transaction.ledger-checkpoint-lag-ms=0")
+@ActiveProfiles("test")
+@Import(WalletFixtures.class)
+class LedgerIntegrationTest {
+
+    private static final BigDecimal INITIAL_BALANCE = new BigDecimal("100.00");
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private LedgerService ledgerService;
+
+    @Autowired
+    private LedgerEntryRepository ledgerEntryRepository;
+
+    @Autowired
+    private LedgerCheckpointRepository ledgerCheckpointRepository;
+
+    @Autowired
+    private WalletRepository walletRepository;
+
+    @Autowired
+    private WalletFixtures walletFixtures;
+
+    @MockitoBean
+    private TransactionEventProducer eventProducer;
+
+    private UUID walletA;
+    private UUID walletB;
+
+    @BeforeEach
+    void setUp() {
+        WalletType walletType = walletFixtures.createWalletType("Ledger");
+
+        walletA = createWallet(walletType, "Wallet A", INITIAL_BALANCE);
+        walletB = createWallet(walletType, "Wallet B", BigDecimal.ZERO);
+    }
+
+    @Test
+    @DisplayName("transfer — legs sum to zero, fee goes to the FEES account")
+    void shouldPostBalancedTransfer() {
+        UUID transactionUid = transfer(walletA, walletB, new BigDecimal("10.00"));
+
+        List<LedgerEntry> legs = ledgerEntryRepository.findByTransactionUid(transactionUid);
+        assertThat(sum(legs)).isEqualByComparingTo(BigDecimal.ZERO);
+        assertThat(legs).extracting(LedgerEntry::getAccount)
+                .containsExactlyInAnyOrder(LedgerAccount.WALLET, LedgerAccount.WALLET, LedgerAccount.FEES);
+        assertThat(balanceAt(walletA, LocalDateTime.now())).isEqualByComparingTo(rowBalanceOf(walletA));
+        assertThat(balanceAt(walletB, LocalDateTime.now())).isEqualByComparingTo(new BigDecimal("10.00"));
+    }
+
+    @Test
+    @DisplayName("failed withdrawal — debit and refund both balance and cancel out on the wallet")
+    void shouldPostWithdrawalAndRefund() {
+        TransactionInitResponse init = transactionService.initWithdrawal(
+                TransactionInitRequest.builder()
+                        .walletUid(walletA)
+                        .amount(new BigDecimal("40.00"))
+                        .build());
+        TransactionConfirmResponse confirmed = transactionService.confirmWithdrawal(
+                TransactionConfirmRequest.builder()
+                        .requestUid(init.getRequestUid())
+                        .walletUid(walletA)
+                        .amount(new BigDecimal("40.00"))
+                        .build());
+
+        transactionService.failTransaction(confirmed.getTransactionUid(), "Provider declined");
+
+        List<LedgerEntry> legs = ledgerEntryRepository.findByTransactionUid(confirmed.getTransactionUid());
+        assertThat(legs).hasSize(6);
+        assertThat(sum(legs)).isEqualByComparingTo(BigDecimal.ZERO);
+        assertThat(balanceAt(walletA, LocalDateTime.now())).isEqualByComparingTo(INITIAL_BALANCE);
+        assertThat(rowBalanceOf(walletA)).isEqualByComparingTo(INITIAL_BALANCE);
+    }
+
+    @Test
+    @DisplayName("getBalanceAt — checkpoint plus tail matches the balance at each instant")
+    void shouldAnswerBalanceAtFromCheckpointAndTail() throws InterruptedException {
+        transfer(walletA, walletB, new BigDecimal("10.00"));
+        BigDecimal afterFirst = rowBalanceOf(walletA);
+        LocalDateTime between = tick();
+
+        assertThat(ledgerService.writeCheckpoints()).isGreaterThanOrEqualTo(2);
+        tick();
+
+        transfer(walletA, walletB, new BigDecimal("20.00"));
+
+        assertThat(balanceAt(walletA, between)).isEqualByComparingTo(afterFirst);
+        assertThat(balanceAt(walletB, between)).isEqualByComparingTo(new BigDecimal("10.00"));
+        assertThat(balanceAt(walletA, LocalDateTime.now())).isEqualByComparingTo(rowBalanceOf(walletA));
+        assertThat(balanceAt(walletB, LocalDateTime.now())).isEqualByComparingTo(new BigDecimal("30.00"));
+    }
+
+    @Test
+    @DisplayName("late commit — legs posted before a checkpoint but committed after it count in the next one")
+    void shouldCountLateCommitInNextCheckpoint() throws InterruptedException {
+        transfer(walletA, walletB, new BigDecimal("10.00"));
+        LocalDateTime posted = tick();
+
+        ledgerService.writeCheckpoints();
+        tick();
+
+        // A slow transaction commits only now, with the created_at it got when posting
+        UUID userUid = walletRepository.findById(walletB).orElseThrow().getUserUid();
+        ledgerEntryRepository.saveAll(List.of(
+                LedgerEntry.builder().createdAt(posted).account(LedgerAccount.WALLET)
+                        .walletUid(walletB).userUid(userUid).amount(new BigDecimal("5.00")).build(),
+                LedgerEntry.builder().createdAt(posted).account(LedgerAccount.EXTERNAL)
+                        .userUid(userUid).amount(new BigDecimal("-5.00")).build()));
+
+        assertThat(balanceAt(walletB, LocalDateTime.now())).isEqualByComparingTo(new BigDecimal("15.00"));
+
+        assertThat(ledgerService.writeCheckpoints()).isGreaterThanOrEqualTo(1);
+        LocalDateTime now = LocalDateTime.now();
+        assertThat(ledgerCheckpointRepository
+                .findFirstByWalletUidAndCheckpointAtLessThanEqualOrderByCheckpointAtDesc(walletB, now)
+                .orElseThrow().getBalance()).isEqualByComparingTo(new BigDecimal("15.00"));
+        assertThat(balanceAt(walletB, now)).isEqualByComparingTo(new BigDecimal("15.00"));
+    }
+
+    private UUID transfer(UUID source, UUID target, BigDecimal amount) {
+        TransactionInitResponse init = transactionService.initTransfer(
+                TransactionInitRequest.builder()
+                        .walletUid(source)
+                        .targetWalletUid(target)
+                        .amount(amount)
+                        .build());
+
+        return transactionService.confirmTransfer(
+                TransactionConfirmRequest.builder()
+                        .requestUid(init.getRequestUid())
+                        .walletUid(source)
+                        .amount(amount)
+                        .build()).getTransactionUid();
+    }
+
+    private BigDecimal balanceAt(UUID walletUid, LocalDateTime at) {
+        return ledgerService.getBalanceAt(walletUid, at);
+    }
+
+    /**
+     * Separates consecutive steps in time, entries and checkpoints compare on timestamps.
+     */
+    private LocalDateTime tick() throws InterruptedException {
+        Thread.sleep(5);
+        LocalDateTime now = LocalDateTime.now();
+        Thread.sleep(5);
+        return now;
+    }
+
+    private static BigDecimal sum(List<LedgerEntry> legs) {
+        return legs.stream().map(LedgerEntry::getAmount).reduce(BigDecimal.ZERO, BigDecimal::add);
+    }
+
+    private UUID createWallet(WalletType walletType, String name, BigDecimal balance) {
+        UUID walletUid = walletFixtures.createWallet(walletType, name, balance);
+
+        if (balance.signum() > 0) {
+            Wallet wallet = walletRepository.findById(walletUid).orElseThrow();
+            // Opening balance, as the V8 migration writes for existing wallets
+            LocalDateTime now = LocalDateTime.now();
+            ledgerEntryRepository.saveAll(List.of(
+                    LedgerEntry.builder().createdAt(now).account(LedgerAccount.WALLET)
+                            .walletUid(wallet.getUid()).userUid(wallet.getUserUid()).amount(balance).build(),
+                    LedgerEntry.builder().createdAt(now).account(LedgerAccount.OPENING)
+                            .userUid(wallet.getUserUid()).amount(balance.negate()).build()));
+        }
+        return walletUid;
+    }
+
+    private BigDecimal rowBalanceOf(UUID walletUid) {
+        return walletRepository.findById(walletUid).orElseThrow().getBalance();
+    }
+}
@@ -0,0 +1,67 @@
+package com.example.transaction.it;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Hibernate inspects every statement it prepares; a JDBC batch is prepared once. Only the
+ * thread that called {@link #start()} is recorded, so schedulers and listeners running in
+ * the same context do not show up in the counts.
+ * <p>
+ * Registered with
+ * {@code spring.jpa.properties.hibernate.session_factory.statement_inspector=com.example.transaction.it.StatementRecorder}.
+ */
+public class StatementRecorder implements StatementInspector {
+
+    private static final List<String> STATEMENTS = new CopyOnWriteArrayList<>();
+    private static volatile Thread recorded;
+
+    @Override
+    public String inspect(String sql) {
+        if (Thread.currentThread() == recorded) {
+            STATEMENTS.add(sql);
+        }
+        return sql;
+    }
+
+    /**
+     * Forget what was recorded so far and record the calling thread from now on.
+     */
+    static void start() {
+        STATEMENTS.clear();
+        recorded = Thread.currentThread();
+    }
+
+    static int count() {
+        return STATEMENTS.size();
+    }
+
+    /**
+     * Statements as "verb table".
+     */
+    static List<String> roundTrips() {
+        return STATEMENTS.stream()
+                .map(sql -> sql.toLowerCase(Locale.ROOT).replaceAll("\\s+", " ").trim())
+                .map(StatementRecorder::verbAndTable)
+                .toList();
+    }
+
+    private static String verbAndTable(String sql) {
+        String[] words = sql.split(" ");
+        String verb = words[0];
+        String keyword = switch (verb) {
+            case "select", "delete" -> "from";
+            case "insert" -> "into";
+            default -> verb;
+        };
+        for (int i = 0; i < words.length - 1; i++) {
+            if (words[i].equals(keyword)) {
+                return verb + " " + words[i + 1];
+            }
+        }
+        return sql;
+    }
+}
@@ -0,0 +1,173 @@
+package com.example.transaction.it;
+
+import com.example.transaction.dto.CreateWalletRequest;
+import com.example.transaction.entity.Transaction;
+import com.example.transaction.entity.Wallet;
+import com.example.transaction.entity.WalletType;
+import com.example.transaction.entity.enums.PaymentType;
+import com.example.transaction.entity.enums.TransactionStatus;
+import com.example.transaction.exception.ExportLimitExceededException;
+import com.example.transaction.repository.TransactionRepository;
+import com.example.transaction.repository.WalletRepository;
+import com.example.transaction.repository.WalletTypeRepository;
+import com.example.transaction.service.TransactionExportService;
+import com.example.transaction.service.TransactionExportService.Format;
+import com.example.transaction.service.WalletService;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Streaming statement export: both formats, filters, more rows than one fetch (the
+ * persistence context is cleared between fetches) and the concurrency limits.
+ */
+@SpringBootTest(properties = {
+        "app.transaction.export-max-concurrent-per-user=2",
+        "app.transaction.export-max-concurrent=3"
+})
+@ActiveProfiles("test")
+class TransactionExportIntegrationTest {
+
+    private static final int ROWS = TransactionRepository.EXPORT_FETCH_SIZE + 20;
+
+    @Autowired
+    private TransactionExportService exportService;
+
+    @Autowired
+    private WalletService walletService;
+
+    @Autowired
+    private WalletRepository walletRepository;
+
+    @Autowired
+    private WalletTypeRepository walletTypeRepository;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private UUID userUid;
+    private Wallet wallet;
+    private Wallet otherWallet;
+
+    @BeforeEach
+    void setUp() {
+        userUid = UUID.randomUUID();
+        wallet = createWallet("Main");
+        otherWallet = createWallet("Savings");
+
+        List<Transaction> transactions = new ArrayList<>();
+        for (int i = 0; i < ROWS; i++) {
+            transactions.add(transaction(wallet, new BigDecimal(i + 1)));
+        }
+        transactions.add(transaction(otherWallet, new BigDecimal("5.00")));
+        transactionRepository.saveAll(transactions);
+    }
+
+    @Test
+    @DisplayName("NDJSON — one status object per line, newest first, across several fetches")
+    void shouldExportNdjson() throws Exception {
+        List<String> lines = export(null, Format.NDJSON);
+
+        assertThat(lines).hasSize(ROWS + 1);
+        OffsetDateTime previous = null;
+        for (String line : lines) {
+            JsonNode row = objectMapper.readTree(line);
+            assertThat(row.get("userUid").asText()).isEqualTo(userUid.toString());
+            assertThat(row.get("currencyCode").asText()).isEqualTo("EUR");
+            OffsetDateTime createdAt = OffsetDateTime.parse(row.get("createdAt").asText());
+            if (previous != null) {
+                assertThat(createdAt).isBeforeOrEqualTo(previous);
+            }
+            previous = createdAt;
+        }
+    }
+
+    @Test
+    @DisplayName("CSV — header and one line per transaction of the requested wallet")
+    void shouldExportCsvForOneWallet() {
+        List<String> lines = export(otherWallet.getUid(), Format.CSV);
+
+        assertThat(lines).hasSize(2);
+        assertThat(lines.get(0)).startsWith("uid,created_at,type,status,amount");
+        String[] fields = lines.get(1).split(",", -1);
+        assertThat(fields).hasSize(10);
+        assertThat(fields[2]).isEqualTo("DEPOSIT");
+        assertThat(fields[3]).isEqualTo("COMPLETED");
+        assertThat(new BigDecimal(fields[4])).isEqualByComparingTo("5.00");
+        assertThat(fields[6]).isEqualTo("EUR");
+        assertThat(fields[7]).isEqualTo(otherWallet.getUid().toString());
+        assertThat(fields[8]).isEmpty();
+    }
+
+    @Test
+    @DisplayName("limits — per user first, then the global cap; released slots are reusable")
+    void shouldLimitConcurrentExports() {
+        UUID otherUser = UUID.randomUUID();
+
+        exportService.acquire(userUid);
+        exportService.acquire(userUid);
+        assertThatThrownBy(() -> exportService.acquire(userUid))
+                .isInstanceOf(ExportLimitExceededException.class);
+
+        exportService.acquire(otherUser);
+        assertThatThrownBy(() -> exportService.acquire(UUID.randomUUID()))
+                .isInstanceOf(ExportLimitExceededException.class);
+
+        exportService.release(userUid);
+        exportService.acquire(otherUser);
+
+        exportService.release(userUid);
+        exportService.release(otherUser);
+        exportService.release(otherUser);
+    }
+
+    private List<String> export(UUID walletUid, Format format) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        exportService.export(userUid, walletUid, null, null, format, out);
+        return out.toString(StandardCharsets.UTF_8).lines().toList();
+    }
+
+    private Wallet createWallet(String name) {
+        WalletType walletType = new WalletType();
+        walletType.setName(name + " " + UUID.randomUUID().toString().substring(0, 8));
+        walletType.setCurrencyCode("EUR");
+        walletType.setStatus("ACTIVE");
+        walletTypeRepository.save(walletType);
+
+        UUID walletUid = walletService.createWallet(CreateWalletRequest.builder()
+                .userUid(userUid)
+                .walletTypeUid(walletType.getUid())
+                .name(name)
+                .build()).getUid();
+        return walletRepository.findById(walletUid).orElseThrow();
+    }
+
+    private Transaction transaction(Wallet target, BigDecimal amount) {
+        return Transaction.builder()
+                .userUid(userUid)
+                .wallet(target)
+                .amount(amount)
+                .type(PaymentType.DEPOSIT)
+                .status(TransactionStatus.COMPLETED)
+                .build();
+    }
+}
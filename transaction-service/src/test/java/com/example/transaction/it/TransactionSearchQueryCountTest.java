@@ -0,0 +1,138 @@
+package com.example.transaction.it;
+
+import com.example.transaction.dto.TransactionCursorPageResponse;
+import com.example.transaction.dto.TransactionPageResponse;
+import com.example.transaction.entity.Transaction;
+import com.example.transaction.entity.Wallet;
+import com.example.transaction.entity.WalletType;
+import com.example.transaction.entity.enums.PaymentType;
+import com.example.transaction.repository.TransactionRepository;
+import com.example.transaction.repository.WalletRepository;
+import com.example.transaction.repository.WalletTypeRepository;
+import com.example.transaction.service.TransactionService;
+import com.example.transaction.service.WalletTypeCache;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Statement count of the search endpoints must not grow with the number of rows
+ * (or distinct wallets / wallet types) on the page; currency codes come from
+ * {@link WalletTypeCache}, so wallet_types is never queried per row.
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@ActiveProfiles("test")
+class TransactionSearchQueryCountTest {
+
+    private static final int WALLETS = 10;
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private WalletRepository walletRepository;
+
+    @Autowired
+    private WalletTypeRepository walletTypeRepository;
+
+    @Autowired
+    private WalletTypeCache walletTypeCache;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    @DisplayName("offset search — one select plus one count for any page size")
+    void offsetSearchShouldUseConstantStatements() {
+        UUID smallUser = createHistory(2);
+        UUID largeUser = createHistory(20);
+
+        // Both pages are full, so Spring Data issues the count query in each case
+        long small = statementsFor(() -> transactionService.searchTransactions(
+                smallUser, null, null, null, null, null, 0, 1));
+        long large = statementsFor(() -> {
+            TransactionPageResponse page = transactionService.searchTransactions(
+                    largeUser, null, null, null, null, null, 0, 10);
+            assertThat(page.getContent()).allSatisfy(t -> assertThat(t.getCurrencyCode()).startsWith("C"));
+            return page;
+        });
+
+        assertThat(small).isEqualTo(2);
+        assertThat(large).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("cursor search — a single select for any page size")
+    void cursorSearchShouldUseSingleStatement() {
+        UUID largeUser = createHistory(20);
+
+        long statements = statementsFor(() -> {
+            TransactionCursorPageResponse page = transactionService.searchTransactionsByCursor(
+                    largeUser, null, null, null, null, null, null, 20, false);
+            assertThat(page.getContent()).hasSize(20);
+            assertThat(page.getContent()).allSatisfy(t -> assertThat(t.getCurrencyCode()).startsWith("C"));
+            return page;
+        });
+
+        assertThat(statements).isEqualTo(1);
+    }
+
+    private long statementsFor(Supplier<?> search) {
+        statistics.clear();
+        search.get();
+        return statistics.getPrepareStatementCount();
+    }
+
+    /**
+     * One transaction per wallet, each wallet with its own wallet type, so a lazy
+     * mapping would need two extra selects per row.
+     */
+    private UUID createHistory(int transactions) {
+        UUID userUid = UUID.randomUUID();
+        for (int i = 0; i < transactions; i++) {
+            WalletType walletType = new WalletType();
+            walletType.setName("Type " + UUID.randomUUID().toString().substring(0, 8));
+            walletType.setCurrencyCode("C" + (i % WALLETS));
+            walletType.setStatus("ACTIVE");
+            walletTypeRepository.save(walletType);
+
+            Wallet wallet = walletRepository.save(Wallet.builder()
+                    .name("Wallet " + i)
+                    .walletType(walletType)
+                    .userUid(userUid)
+                    .build());
+
+            transactionRepository.save(Transaction.builder()
+                    .userUid(userUid)
+                    .wallet(wallet)
+                    .amount(new BigDecimal("10.00"))
+                    .type(PaymentType.DEPOSIT)
+                    .build());
+        }
+        // New types would otherwise be picked up by a one-off read-through reload
+        walletTypeCache.refresh();
+        return userUid;
+    }
+}
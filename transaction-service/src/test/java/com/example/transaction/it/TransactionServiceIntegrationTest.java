@@ -3,11 +3,14 @@ package com.example.transaction.it;
 import com.example.transaction.dto.CreateWalletRequest;
 import com.example.transaction.dto.TransactionConfirmRequest;
 import com.example.transaction.dto.TransactionConfirmResponse;
+import com.example.transaction.dto.TransactionCursorPageResponse;
 import com.example.transaction.dto.TransactionInitRequest;
 import com.example.transaction.dto.TransactionInitResponse;
 import com.example.transaction.dto.TransactionStatusResponse;
 import com.example.transaction.dto.WalletResponse;
+import com.example.transaction.entity.Transaction;
 import com.example.transaction.entity.WalletType;
+import com.example.transaction.entity.enums.PaymentType;
 import com.example.transaction.exception.InsufficientBalanceException;
 import com.example.transaction.exception.InvalidTransactionException;
 import com.example.transaction.kafka.TransactionEventProducer;
@@ -16,6 +19,7 @@ import com.example.transaction.repository.WalletRepository;
 import com.example.transaction.repository.WalletTypeRepository;
 import com.example.transaction.service.TransactionService;
 import com.example.transaction.service.WalletService;
+import jakarta.persistence.EntityManager;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
@@ -27,6 +31,11 @@ import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
 import java.util.UUID;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -52,6 +61,9 @@ class TransactionServiceIntegrationTest {
     @Autowired
     private TransactionRepository transactionRepository;
 
+    @Autowired
+    private EntityManager entityManager;
+
     @MockitoBean
     private TransactionEventProducer eventProducer; // Mock Kafka producer
 
@@ -199,4 +211,120 @@ class TransactionServiceIntegrationTest {
             assertThat(statusResponse.getCurrencyCode()).isEqualTo("USD");
         }
     }
-}
\ No newline at end of file
+
+    @Nested
+    @DisplayName("Cursor Search Tests")
+    class CursorSearchTests {
+
+        @Test
+        @DisplayName("should walk the whole history without gaps or duplicates")
+        void shouldWalkAllPages() {
+            Set<UUID> expected = createTransactions(25);
+            // Ten rows share one timestamp so the uid tie-breaker is exercised
+            entityManager.createQuery("UPDATE Transaction t SET t.createdAt = :createdAt " +
+                            "WHERE t.uid IN :uids")
+                    .setParameter("createdAt", LocalDateTime.now().minusDays(1))
+                    .setParameter("uids", new ArrayList<>(expected).subList(0, 10))
+                    .executeUpdate();
+            entityManager.clear();
+
+            List<UUID> seen = new ArrayList<>();
+            List<LocalDateTime> createdAt = new ArrayList<>();
+            String cursor = null;
+            int pages = 0;
+            do {
+                TransactionCursorPageResponse page = transactionService.searchTransactionsByCursor(
+                        userUid, null, null, null, null, null, cursor, 7, false);
+                page.getContent().forEach(t -> {
+                    seen.add(t.getUid());
+                    createdAt.add(t.getCreatedAt().toLocalDateTime());
+                });
+                assertThat(page.getTotalElements()).isNull();
+                cursor = page.getNextCursor();
+                assertThat(page.getHasNext()).isEqualTo(cursor != null);
+                pages++;
+            } while (cursor != null);
+
+            assertThat(pages).isEqualTo(4);
+            assertThat(seen).hasSize(25);
+            assertThat(new HashSet<>(seen)).isEqualTo(expected);
+            assertThat(createdAt).isSortedAccordingTo((a, b) -> b.compareTo(a));
+        }
+
+        @Test
+        @DisplayName("should count only when asked")
+        void shouldCountWhenAsked() {
+            createTransactions(3);
+
+            TransactionCursorPageResponse page = transactionService.searchTransactionsByCursor(
+                    userUid, null, null, null, null, null, null, 2, true);
+
+            assertThat(page.getContent()).hasSize(2);
+            assertThat(page.getTotalElements()).isEqualTo(3L);
+            assertThat(page.getContent().get(0).getCurrencyCode()).isEqualTo("USD");
+        }
+
+        @Test
+        @DisplayName("should reject a malformed cursor")
+        void shouldRejectMalformedCursor() {
+            assertThatThrownBy(() -> transactionService.searchTransactionsByCursor(
+                    userUid, null, null, null, null, null, "not-a-cursor", 20, false))
+                    .isInstanceOf(InvalidTransactionException.class)
+                    .hasMessageContaining("Invalid cursor");
+        }
+
+        @Test
+        @DisplayName("admin search should page through all users' transactions")
+        void adminSearchShouldCoverAllUsers() {
+            UUID otherUser = UUID.randomUUID();
+            WalletResponse otherWallet = walletService.createWallet(CreateWalletRequest.builder()
+                    .userUid(otherUser)
+                    .walletTypeUid(usdWalletType.getUid())
+                    .name("Other USD")
+                    .build());
+            Set<UUID> expected = new HashSet<>(createTransactions(6));
+            expected.addAll(createTransactions(otherUser, otherWallet.getUid(), 5));
+
+            // Move the rows into a window no other test writes to
+            LocalDateTime base = LocalDateTime.of(2001, 1, 1, 0, 0);
+            List<UUID> ordered = new ArrayList<>(expected);
+            for (int i = 0; i < ordered.size(); i++) {
+                entityManager.createQuery("UPDATE Transaction t SET t.createdAt = :createdAt WHERE t.uid = :uid")
+                        .setParameter("createdAt", base.plusMinutes(i / 2))
+                        .setParameter("uid", ordered.get(i))
+                        .executeUpdate();
+            }
+            entityManager.clear();
+
+            List<UUID> seen = new ArrayList<>();
+            String cursor = null;
+            do {
+                TransactionCursorPageResponse page = transactionService.searchAllTransactionsByCursor(
+                        null, null, null, base, base.plusDays(1), cursor, 4);
+                page.getContent().forEach(t -> seen.add(t.getUid()));
+                cursor = page.getNextCursor();
+            } while (cursor != null);
+
+            assertThat(seen).hasSize(11);
+            assertThat(new HashSet<>(seen)).isEqualTo(expected);
+        }
+
+        private Set<UUID> createTransactions(int count) {
+            return createTransactions(userUid, wallet.getUid(), count);
+        }
+
+        private Set<UUID> createTransactions(UUID owner, UUID walletUid, int count) {
+            Set<UUID> uids = new HashSet<>();
+            for (int i = 0; i < count; i++) {
+                Transaction transaction = Transaction.builder()
+                        .userUid(owner)
+                        .wallet(walletRepository.getReferenceById(walletUid))
+                        .amount(new BigDecimal("10.00"))
+                        .type(PaymentType.DEPOSIT)
+                        .build();
+                uids.add(transactionRepository.save(transaction).getUid());
+            }
+            return uids;
+        }
+    }
+}
@@ -0,0 +1,174 @@
+package com.example.transaction.it;
+
+import com.example.transaction.dto.CreateWalletRequest;
+import com.example.transaction.dto.TransactionConfirmRequest;
+import com.example.transaction.dto.TransactionInitRequest;
+import com.example.transaction.dto.TransactionInitResponse;
+import com.example.transaction.dto.WalletResponse;
+import com.example.transaction.entity.Wallet;
+import com.example.transaction.entity.WalletType;
+import com.example.transaction.kafka.TransactionEventProducer;
+import com.example.transaction.repository.WalletRepository;
+import com.example.transaction.repository.WalletTypeRepository;
+import com.example.transaction.service.TransactionService;
+import com.example.transaction.service.WalletService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Stress test for opposite-direction transfers between the same pair of wallets.
+ * Any lock-order inversion would surface here as a deadlock / lock timeout.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class TransferConcurrencyIntegrationTest {
+
+    private static final int THREADS = 8;
+    private static final int TRANSFERS_PER_DIRECTION = 40;
+    private static final BigDecimal INITIAL_BALANCE = new BigDecimal("1000.00");
+    private static final BigDecimal AMOUNT = new BigDecimal("1.00");
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private WalletService walletService;
+
+    @Autowired
+    private WalletRepository walletRepository;
+
+    @Autowired
+    private WalletTypeRepository walletTypeRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @MockitoBean
+    private TransactionEventProducer eventProducer;
+
+    private UUID walletA;
+    private UUID walletB;
+
+    @BeforeEach
+    void setUp() {
+        WalletType walletType = new WalletType();
+        walletType.setName("USD Wallet");
+        walletType.setCurrencyCode("USD");
+        walletType.setStatus("ACTIVE");
+        walletTypeRepository.save(walletType);
+
+        walletA = createFundedWallet(walletType, "Wallet A");
+        walletB = createFundedWallet(walletType, "Wallet B");
+    }
+
+    @Test
+    @DisplayName("getWalletsForUpdate — opposite lock orders must not deadlock")
+    void shouldLockWalletsWithoutDeadlock() throws Exception {
+        List<Callable<Void>> tasks = new ArrayList<>();
+        for (int i = 0; i < TRANSFERS_PER_DIRECTION * 2; i++) {
+            List<UUID> order = i % 2 == 0 ? List.of(walletA, walletB) : List.of(walletB, walletA);
+            tasks.add(() -> {
+                transactionTemplate.executeWithoutResult(status ->
+                        assertThat(walletService.getWalletsForUpdate(order)).hasSize(2));
+                return null;
+            });
+        }
+
+        runConcurrently(tasks);
+    }
+
+    @Test
+    @DisplayName("confirmTransfer — opposite-direction transfers all complete and preserve funds")
+    void shouldCompleteOppositeTransfersWithoutDeadlock() throws Exception {
+        List<Callable<Void>> tasks = new ArrayList<>();
+        for (int i = 0; i < TRANSFERS_PER_DIRECTION * 2; i++) {
+            UUID source = i % 2 == 0 ? walletA : walletB;
+            UUID target = i % 2 == 0 ? walletB : walletA;
+            tasks.add(() -> {
+                transfer(source, target);
+                return null;
+            });
+        }
+
+        runConcurrently(tasks);
+
+        BigDecimal fee = AMOUNT.multiply(new BigDecimal("0.005"));
+        BigDecimal expected = INITIAL_BALANCE.subtract(fee.multiply(BigDecimal.valueOf(TRANSFERS_PER_DIRECTION)));
+
+        assertThat(balanceOf(walletA)).isEqualByComparingTo(expected);
+        assertThat(balanceOf(walletB)).isEqualByComparingTo(expected);
+    }
+
+    private void transfer(UUID source, UUID target) {
+        TransactionInitResponse init = transactionService.initTransfer(
+                TransactionInitRequest.builder()
+                        .walletUid(source)
+                        .targetWalletUid(target)
+                        .amount(AMOUNT)
+                        .build());
+
+        transactionService.confirmTransfer(
+                TransactionConfirmRequest.builder()
+                        .requestUid(init.getRequestUid())
+                        .walletUid(source)
+                        .amount(AMOUNT)
+                        .build());
+    }
+
+    private void runConcurrently(List<Callable<Void>> tasks) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<Void>> futures = new ArrayList<>();
+            for (Callable<Void> task : tasks) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    return task.call();
+                }));
+            }
+            start.countDown();
+            for (Future<Void> future : futures) {
+                future.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private UUID createFundedWallet(WalletType walletType, String name) {
+        WalletResponse response = walletService.createWallet(
+                CreateWalletRequest.builder()
+                        .userUid(UUID.randomUUID())
+                        .walletTypeUid(walletType.getUid())
+                        .name(name)
+                        .build());
+
+        Wallet wallet = walletRepository.findById(response.getUid()).orElseThrow();
+        wallet.credit(INITIAL_BALANCE);
+        walletRepository.save(wallet);
+        return wallet.getUid();
+    }
+
+    private BigDecimal balanceOf(UUID walletUid) {
+        return walletRepository.findById(walletUid).orElseThrow().getBalance();
+    }
+}
@@ -0,0 +1,229 @@
+package com.example.transaction.it;
+
+import com.example.transaction.dto.CreateWalletRequest;
+import com.example.transaction.dto.TransactionConfirmRequest;
+import com.example.transaction.dto.TransactionInitRequest;
+import com.example.transaction.dto.TransactionInitResponse;
+import com.example.transaction.dto.WalletDailyStatsItem;
+import com.example.transaction.dto.WalletDailyStatsResponse;
+import com.example.transaction.entity.Transaction;
+import com.example.transaction.entity.Wallet;
+import com.example.transaction.entity.WalletDailyStat;
+import com.example.transaction.entity.WalletType;
+import com.example.transaction.entity.enums.PaymentType;
+import com.example.transaction.exception.InvalidTransactionException;
+import com.example.transaction.kafka.TransactionEventConsumer;
+import com.example.transaction.kafka.event.DepositCompletedEvent;
+import com.example.transaction.repository.TransactionRepository;
+import com.example.transaction.repository.WalletDailyStatRepository;
+import com.example.transaction.repository.WalletRepository;
+import com.example.transaction.repository.WalletTypeRepository;
+import com.example.transaction.service.TransactionService;
+import com.example.transaction.service.WalletDailyStatsService;
+import com.example.transaction.service.WalletService;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * wallet_daily_stats is incremented where transactions reach their final status: grouped
+ * deposit completion, manual complete / fail, and synchronous transfers.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class WalletDailyStatsIntegrationTest {
+
+    private static final LocalDate TODAY = LocalDate.now();
+
+    @Autowired
+    private WalletDailyStatsService statsService;
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private TransactionEventConsumer eventConsumer;
+
+    @Autowired
+    private WalletService walletService;
+
+    @Autowired
+    private WalletRepository walletRepository;
+
+    @Autowired
+    private WalletTypeRepository walletTypeRepository;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private WalletDailyStatRepository statRepository;
+
+    private UUID walletUid;
+
+    @BeforeEach
+    void setUp() {
+        walletUid = createWallet(UUID.randomUUID());
+    }
+
+    @Test
+    @DisplayName("grouped deposit completion — one row per wallet and day, redelivery not counted")
+    void shouldCountGroupedDeposits() {
+        List<DepositCompletedEvent> events = new ArrayList<>();
+        events.add(depositCompleted(pending(PaymentType.DEPOSIT, "10.00", "0.00")));
+        events.add(depositCompleted(pending(PaymentType.DEPOSIT, "15.50", "0.00")));
+
+        eventConsumer.handleDepositCompleted(records(events));
+        eventConsumer.handleDepositCompleted(records(events));
+
+        WalletDailyStatsResponse stats = statsService.getDailyStats(walletUid, TODAY, TODAY);
+        assertThat(stats.getDays()).hasSize(1);
+        assertItem(stats.getDays().get(0), WalletDailyStatsItem.TypeEnum.DEPOSIT,
+                WalletDailyStatsItem.StatusEnum.COMPLETED, 2, "25.50", "0");
+        assertThat(stats.getDays().get(0).getDate()).isEqualTo(TODAY);
+    }
+
+    @Test
+    @DisplayName("complete and fail — counted under the final status, fees summed")
+    void shouldCountCompletedAndFailed() {
+        transactionService.completeTransaction(pending(PaymentType.WITHDRAWAL, "100.00", "1.00"), "ext-1");
+        transactionService.completeTransaction(pending(PaymentType.WITHDRAWAL, "50.00", "0.50"), "ext-2");
+        transactionService.failTransaction(pending(PaymentType.WITHDRAWAL, "20.00", "0.20"), "declined");
+
+        WalletDailyStatsResponse stats = statsService.getDailyStats(walletUid, TODAY.minusDays(30), TODAY);
+
+        assertThat(stats.getTotals()).hasSize(2);
+        assertItem(stats.getTotals().get(0), WalletDailyStatsItem.TypeEnum.WITHDRAWAL,
+                WalletDailyStatsItem.StatusEnum.COMPLETED, 2, "150.00", "1.50");
+        assertItem(stats.getTotals().get(1), WalletDailyStatsItem.TypeEnum.WITHDRAWAL,
+                WalletDailyStatsItem.StatusEnum.FAILED, 1, "20.00", "0.20");
+        assertThat(stats.getTotals().get(0).getDate()).isNull();
+    }
+
+    @Test
+    @DisplayName("transfer — counted on the source wallet when confirmed")
+    void shouldCountTransferOnSourceWallet() {
+        Wallet source = walletRepository.findById(walletUid).orElseThrow();
+        source.credit(new BigDecimal("500.00"));
+        walletRepository.save(source);
+        UUID targetUid = createWallet(UUID.randomUUID());
+
+        TransactionInitResponse init = transactionService.initTransfer(TransactionInitRequest.builder()
+                .walletUid(walletUid)
+                .targetWalletUid(targetUid)
+                .amount(new BigDecimal("100.00"))
+                .build());
+        transactionService.confirmTransfer(TransactionConfirmRequest.builder()
+                .requestUid(init.getRequestUid())
+                .walletUid(walletUid)
+                .amount(init.getAmount())
+                .build());
+
+        assertItem(statsService.getDailyStats(walletUid, TODAY, TODAY).getDays().get(0),
+                WalletDailyStatsItem.TypeEnum.TRANSFER, WalletDailyStatsItem.StatusEnum.COMPLETED,
+                1, "100.00", init.getFee().toPlainString());
+        assertThat(statsService.getDailyStats(targetUid, TODAY, TODAY).getDays()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("hot wallet — counters spread over its balance slots, reads sum them")
+    void shouldSpreadCountersOverSlots() {
+        walletService.configureBalanceSlots(walletUid, 4);
+
+        for (int i = 0; i < 20; i++) {
+            transactionService.completeTransaction(pending(PaymentType.WITHDRAWAL, "10.00", "0.10"), "ext-" + i);
+        }
+
+        Set<Integer> slots = statRepository.findAll().stream()
+                .filter(stat -> stat.getWalletUid().equals(walletUid))
+                .map(WalletDailyStat::getSlot)
+                .collect(Collectors.toSet());
+        assertThat(slots).hasSizeGreaterThan(1).allMatch(slot -> slot >= 0 && slot < 4);
+
+        WalletDailyStatsResponse stats = statsService.getDailyStats(walletUid, TODAY, TODAY);
+        assertThat(stats.getDays()).hasSize(1);
+        assertItem(stats.getDays().get(0), WalletDailyStatsItem.TypeEnum.WITHDRAWAL,
+                WalletDailyStatsItem.StatusEnum.COMPLETED, 20, "200.00", "2.00");
+    }
+
+    @Test
+    @DisplayName("range — inverted or longer than a year is rejected")
+    void shouldRejectInvalidRange() {
+        assertThatThrownBy(() -> statsService.getDailyStats(walletUid, TODAY, TODAY.minusDays(1)))
+                .isInstanceOf(InvalidTransactionException.class);
+        assertThatThrownBy(() -> statsService.getDailyStats(walletUid, TODAY.minusDays(400), TODAY))
+                .isInstanceOf(InvalidTransactionException.class);
+    }
+
+    private static void assertItem(WalletDailyStatsItem item, WalletDailyStatsItem.TypeEnum type,
+                                   WalletDailyStatsItem.StatusEnum status, long count,
+                                   String amount, String fee) {
+        assertThat(item.getType()).isEqualTo(type);
+        assertThat(item.getStatus()).isEqualTo(status);
+        assertThat(item.getCount()).isEqualTo(count);
+        assertThat(item.getAmount()).isEqualByComparingTo(amount);
+        assertThat(item.getFee()).isEqualByComparingTo(fee);
+    }
+
+    private UUID createWallet(UUID userUid) {
+        WalletType walletType = new WalletType();
+        walletType.setName("Stats " + UUID.randomUUID().toString().substring(0, 8));
+        walletType.setCurrencyCode("USD");
+        walletType.setStatus("ACTIVE");
+        walletTypeRepository.save(walletType);
+
+        return walletService.createWallet(CreateWalletRequest.builder()
+                .userUid(userUid)
+                .walletTypeUid(walletType.getUid())
+                .name("Stats")
+                .build()).getUid();
+    }
+
+    private UUID pending(PaymentType type, String amount, String fee) {
+        Wallet wallet = walletRepository.findById(walletUid).orElseThrow();
+        return transactionRepository.save(Transaction.builder()
+                .userUid(wallet.getUserUid())
+                .wallet(wallet)
+                .amount(new BigDecimal(amount))
+                .fee(new BigDecimal(fee))
+                .type(type)
+                .build()).getUid();
+    }
+
+    private DepositCompletedEvent depositCompleted(UUID transactionUid) {
+        Transaction transaction = transactionRepository.findById(transactionUid).orElseThrow();
+        return DepositCompletedEvent.builder()
+                .eventId(UUID.randomUUID())
+                .timestamp(LocalDateTime.now())
+                .transactionUid(transactionUid)
+                .walletUid(walletUid)
+                .amount(transaction.getAmount())
+                .build();
+    }
+
+    private List<ConsumerRecord<String, DepositCompletedEvent>> records(List<DepositCompletedEvent> events) {
+        List<ConsumerRecord<String, DepositCompletedEvent>> records = new ArrayList<>();
+        for (int i = 0; i < events.size(); i++) {
+            DepositCompletedEvent event = events.get(i);
+            records.add(new ConsumerRecord<>("test-deposit-completed", 0, i,
+                    event.getTransactionUid().toString(), event));
+        }
+        return records;
+    }
+}
@@ -0,0 +1,63 @@
+package com.example.transaction.it;
+
+import com.example.transaction.dto.CreateWalletRequest;
+import com.example.transaction.entity.Wallet;
+import com.example.transaction.entity.WalletType;
+import com.example.transaction.repository.WalletRepository;
+import com.example.transaction.repository.WalletTypeRepository;
+import com.example.transaction.service.WalletService;
+import org.springframework.boot.test.context.TestComponent;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+/**
+ * Wallet types and funded wallets for integration tests; pull it in with
+ * {@code @Import(WalletFixtures.class)}.
+ */
+@TestComponent
+public class WalletFixtures {
+
+    private final WalletService walletService;
+    private final WalletRepository walletRepository;
+    private final WalletTypeRepository walletTypeRepository;
+
+    public WalletFixtures(WalletService walletService,
+                          WalletRepository walletRepository,
+                          WalletTypeRepository walletTypeRepository) {
+        this.walletService = walletService;
+        this.walletRepository = walletRepository;
+        this.walletTypeRepository = walletTypeRepository;
+    }
+
+    /**
+     * An active USD wallet type; the name gets a random suffix, since names are unique and
+     * the context (and its database) is shared between test classes.
+     */
+    public WalletType createWalletType(String name) {
+        WalletType walletType = new WalletType();
+        walletType.setName(name + " " + UUID.randomUUID().toString().substring(0, 8));
+        walletType.setCurrencyCode("USD");
+        walletType.setStatus("ACTIVE");
+        return walletTypeRepository.save(walletType);
+    }
+
+    /**
+     * A wallet of a new random user, credited with {@code balance} directly on the row.
+     */
+    public UUID createWallet(WalletType walletType, String name, BigDecimal balance) {
+        UUID walletUid = walletService.createWallet(
+                CreateWalletRequest.builder()
+                        .userUid(UUID.randomUUID())
+                        .walletTypeUid(walletType.getUid())
+                        .name(name)
+                        .build()).getUid();
+
+        if (balance.signum() > 0) {
+            Wallet wallet = walletRepository.findById(walletUid).orElseThrow();
+            wallet.credit(balance);
+            walletRepository.save(wallet);
+        }
+        return walletUid;
+    }
+}
@@ -0,0 +1,112 @@
+package com.example.transaction.kafka;
+
+import com.example.transaction.exception.OutboxBackpressureException;
+import com.example.transaction.repository.SchedulerLockRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("OutboxBackpressure Tests")
+class OutboxBackpressureTest {
+
+    @Mock
+    private SchedulerLockRepository schedulerLockRepository;
+
+    private SimpleMeterRegistry meterRegistry;
+    private OutboxBackpressure backpressure;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        backpressure = new OutboxBackpressure(schedulerLockRepository, meterRegistry);
+        ReflectionTestUtils.setField(backpressure, "maxPending", 100L);
+    }
+
+    @Test
+    @DisplayName("should let requests through below the limit and expose the backlog")
+    void shouldAllowBelowLimit() {
+        reported(99L);
+
+        backpressure.refresh();
+
+        assertThatCode(backpressure::check).doesNotThrowAnyException();
+        assertThat(meterRegistry.get("transaction_outbox_pending").gauge().value()).isEqualTo(99.0);
+    }
+
+    @Test
+    @DisplayName("should refuse requests at the limit")
+    void shouldRejectAtLimit() {
+        reported(100L);
+
+        backpressure.refresh();
+
+        assertThatThrownBy(backpressure::check).isInstanceOf(OutboxBackpressureException.class);
+        assertThat(meterRegistry.get("transaction_outbox_backpressure_rejections_total").counter().count())
+                .isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("should keep the last value when the reported backlog cannot be read")
+    void shouldKeepLastValueOnFailure() {
+        when(schedulerLockRepository.findReportedValue(TransactionOutboxRelay.RELAY_LOCK))
+                .thenReturn(Optional.of(150L))
+                .thenThrow(new QueryTimeoutException("timeout"));
+
+        backpressure.refresh();
+        backpressure.refresh();
+
+        assertThatThrownBy(backpressure::check).isInstanceOf(OutboxBackpressureException.class);
+    }
+
+    @Test
+    @DisplayName("should never refuse when the limit is disabled")
+    void shouldIgnoreDisabledLimit() {
+        ReflectionTestUtils.setField(backpressure, "maxPending", 0L);
+        reported(1_000_000L);
+
+        backpressure.refresh();
+
+        assertThatCode(backpressure::check).doesNotThrowAnyException();
+    }
+
+    @Test
+    @DisplayName("should let requests through before the relay has reported a backlog")
+    void shouldAllowBeforeFirstReport() {
+        when(schedulerLockRepository.findReportedValue(TransactionOutboxRelay.RELAY_LOCK)).thenReturn(Optional.empty());
+
+        backpressure.refresh();
+
+        assertThatCode(backpressure::check).doesNotThrowAnyException();
+    }
+
+    @Test
+    @DisplayName("should not read the backlog when the check is disabled")
+    void shouldNotReadWhenDisabled() {
+        ReflectionTestUtils.setField(backpressure, "backlogCheckEnabled", false);
+
+        backpressure.refresh();
+
+        verifyNoInteractions(schedulerLockRepository);
+        assertThatCode(backpressure::check).doesNotThrowAnyException();
+    }
+
+    private void reported(long pending) {
+        when(schedulerLockRepository.findReportedValue(TransactionOutboxRelay.RELAY_LOCK))
+                .thenReturn(Optional.of(pending));
+    }
+}
@@ -0,0 +1,297 @@
+package com.example.transaction.kafka;
+
+import com.example.transaction.entity.TransactionOutbox;
+import com.example.transaction.entity.enums.OutboxStatus;
+import com.example.transaction.repository.SchedulerLockRepository;
+import com.example.transaction.repository.TransactionOutboxRepository;
+import com.example.transaction.sharding.ShardBucketTable;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("TransactionOutboxRelay Tests")
+class TransactionOutboxRelayTest {
+
+    @Mock
+    private TransactionOutboxRepository outboxRepository;
+
+    @Mock
+    private SchedulerLockRepository schedulerLockRepository;
+
+    @Mock
+    private KafkaTemplate<String, byte[]> kafkaTemplate;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private SimpleMeterRegistry meterRegistry;
+    private TransactionOutboxRelay relay;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        relay = relay(1000);
+        lenient().when(schedulerLockRepository.tryLockJob(TransactionOutboxRelay.RELAY_LOCK)).thenReturn(true);
+    }
+
+    @Test
+    @DisplayName("should send the whole batch, flush once and mark it sent in one update")
+    void shouldRelayBatch() {
+        TransactionOutbox first = entry(1);
+        TransactionOutbox second = entry(2);
+        when(outboxRepository.lockPendingBatch(anyInt())).thenReturn(List.of(first, second));
+        when(kafkaTemplate.send(anyString(), anyString(), any(byte[].class)))
+                .thenReturn(CompletableFuture.completedFuture(mock(SendResult.class)));
+
+        int sent = relay.relayBatch();
+
+        assertThat(sent).isEqualTo(2);
+        verify(kafkaTemplate, times(2)).send(eq("deposit-requested"), anyString(), any(byte[].class));
+        verify(kafkaTemplate).flush();
+        verify(outboxRepository).markSent(eq(List.of(uid(1), uid(2))), eq(OutboxStatus.SENT), any());
+        assertThat(meterRegistry.get("transaction_outbox_sent_total").counter().count()).isEqualTo(2.0);
+    }
+
+    @Test
+    @DisplayName("should keep failed entries pending and record the attempt")
+    void shouldRecordFailure() {
+        TransactionOutbox ok = entry(1);
+        TransactionOutbox failing = entry(2);
+        when(outboxRepository.lockPendingBatch(anyInt())).thenReturn(List.of(ok, failing));
+        when(kafkaTemplate.send(anyString(), eq("key-1"), any(byte[].class)))
+                .thenReturn(CompletableFuture.completedFuture(mock(SendResult.class)));
+        when(kafkaTemplate.send(anyString(), eq("key-2"), any(byte[].class)))
+                .thenReturn(CompletableFuture.failedFuture(new IllegalStateException("broker down")));
+
+        int sent = relay.relayBatch();
+
+        assertThat(sent).isEqualTo(1);
+        verify(outboxRepository).markSent(eq(List.of(uid(1))), eq(OutboxStatus.SENT), any());
+        assertThat(failing.getStatus()).isEqualTo(OutboxStatus.PENDING);
+        assertThat(failing.getAttempts()).isEqualTo(1);
+        assertThat(failing.getLastError()).contains("broker down");
+        assertThat(meterRegistry.get("transaction_outbox_send_failures_total").counter().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("should not mark later rows of a key sent when its first send fails")
+    void shouldKeepKeyOrderAfterFailure() {
+        TransactionOutbox failing = entry(1);
+        TransactionOutbox sameKey = entry(2);
+        sameKey.setMessageKey("key-1");
+        TransactionOutbox otherKey = entry(3);
+        when(outboxRepository.lockPendingBatch(anyInt())).thenReturn(List.of(failing, sameKey, otherKey));
+        when(kafkaTemplate.send(anyString(), anyString(), any(byte[].class)))
+                .thenReturn(CompletableFuture.failedFuture(new IllegalStateException("leader not available")))
+                .thenReturn(CompletableFuture.completedFuture(mock(SendResult.class)));
+
+        int sent = relay.relayBatch();
+
+        assertThat(sent).isEqualTo(1);
+        verify(outboxRepository).markSent(eq(List.of(uid(3))), eq(OutboxStatus.SENT), any());
+        assertThat(failing.getAttempts()).isEqualTo(1);
+        assertThat(sameKey.getStatus()).isEqualTo(OutboxStatus.PENDING);
+        assertThat(sameKey.getAttempts()).isZero();
+        assertThat(meterRegistry.get("transaction_outbox_send_failures_total").counter().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("should hold an acknowledged row behind a failed row of the same key")
+    void shouldHoldAcknowledgedRowBehindFailure() {
+        TransactionOutbox failing = entry(1);
+        TransactionOutbox sameKey = entry(2);
+        sameKey.setMessageKey("key-1");
+        CompletableFuture<SendResult<String, byte[]>> firstAck = new CompletableFuture<>();
+        when(outboxRepository.lockPendingBatch(anyInt())).thenReturn(List.of(failing, sameKey));
+        when(kafkaTemplate.send(anyString(), anyString(), any(byte[].class)))
+                .thenReturn(firstAck)
+                .thenReturn(CompletableFuture.completedFuture(mock(SendResult.class)));
+        // The first record fails only after both were handed to the producer
+        doAnswer(invocation -> firstAck.completeExceptionally(new IllegalStateException("record too large")))
+                .when(kafkaTemplate).flush();
+
+        int sent = relay.relayBatch();
+
+        assertThat(sent).isZero();
+        verify(kafkaTemplate, times(2)).send(anyString(), eq("key-1"), any(byte[].class));
+        verify(outboxRepository, never()).markSent(any(), any(), any());
+        assertThat(failing.getAttempts()).isEqualTo(1);
+        assertThat(sameKey.getStatus()).isEqualTo(OutboxStatus.PENDING);
+        assertThat(sameKey.getAttempts()).isZero();
+    }
+
+    @Test
+    @DisplayName("should stop sending when the in-flight window stays full and leave the rest pending")
+    void shouldRespectInFlightWindow() {
+        meterRegistry = new SimpleMeterRegistry();
+        relay = relay(1);
+        ReflectionTestUtils.setField(relay, "sendTimeoutMs", 50L);
+        TransactionOutbox first = entry(1);
+        TransactionOutbox second = entry(2);
+        when(outboxRepository.lockPendingBatch(anyInt())).thenReturn(List.of(first, second));
+        // Never acknowledged: the single slot is not released
+        when(kafkaTemplate.send(anyString(), anyString(), any(byte[].class))).thenReturn(new CompletableFuture<>());
+
+        int sent = relay.relayBatch();
+
+        assertThat(sent).isZero();
+        verify(kafkaTemplate, times(1)).send(anyString(), eq("key-1"), any(byte[].class));
+        assertThat(first.getAttempts()).isEqualTo(1);
+        assertThat(second.getAttempts()).isZero();
+        assertThat(meterRegistry.get("transaction_outbox_in_flight").gauge().value()).isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("should record publish latency of acknowledged records")
+    void shouldRecordPublishLatency() {
+        when(outboxRepository.lockPendingBatch(anyInt())).thenReturn(List.of(entry(1)));
+        when(kafkaTemplate.send(anyString(), anyString(), any(byte[].class)))
+                .thenReturn(CompletableFuture.completedFuture(mock(SendResult.class)));
+
+        relay.relayBatch();
+
+        assertThat(meterRegistry.get("transaction_outbox_publish_latency_seconds").timer().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("transaction_outbox_in_flight").gauge().value()).isZero();
+    }
+
+    @Test
+    @DisplayName("should send binary payloads as stored and JSON payloads as UTF-8")
+    void shouldSendPayloadBytes() {
+        TransactionOutbox json = entry(1);
+        TransactionOutbox binary = entry(2);
+        binary.setPayload(null);
+        binary.setPayloadBinary(new byte[]{(byte) 0xC1, 1, 1});
+        when(outboxRepository.lockPendingBatch(anyInt())).thenReturn(List.of(json, binary));
+        when(kafkaTemplate.send(anyString(), anyString(), any(byte[].class)))
+                .thenReturn(CompletableFuture.completedFuture(mock(SendResult.class)));
+
+        relay.relayBatch();
+
+        verify(kafkaTemplate).send("deposit-requested", "key-1", "{\"id\":1}".getBytes(StandardCharsets.UTF_8));
+        verify(kafkaTemplate).send("deposit-requested", "key-2", new byte[]{(byte) 0xC1, 1, 1});
+    }
+
+    @Test
+    @DisplayName("should do nothing when the outbox is empty")
+    void shouldSkipEmptyOutbox() {
+        when(outboxRepository.lockPendingBatch(anyInt())).thenReturn(List.of());
+
+        relay.relay();
+
+        verifyNoInteractions(kafkaTemplate);
+        verify(outboxRepository, never()).markSent(any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("should skip the round while another node holds the relay lock")
+    void shouldSkipRoundWithoutLock() {
+        when(schedulerLockRepository.tryLockJob(TransactionOutboxRelay.RELAY_LOCK)).thenReturn(false);
+
+        relay.relay();
+
+        verify(outboxRepository, never()).lockPendingBatch(anyInt());
+        verifyNoInteractions(kafkaTemplate);
+    }
+
+    @Test
+    @DisplayName("should report the backlog of every data source on the relay lock row")
+    void shouldReportBacklogOfAllDataSources() {
+        relay = new TransactionOutboxRelay(outboxRepository, schedulerLockRepository, new ShardBucketTable(1024, 2, "ds_"),
+                kafkaTemplate, new TransactionTemplate(transactionManager), meterRegistry, 1000);
+        when(outboxRepository.lockPendingBatch(anyInt())).thenReturn(List.of());
+        when(outboxRepository.countByStatus(OutboxStatus.PENDING)).thenReturn(30L, 12L);
+
+        relay.relay();
+
+        verify(schedulerLockRepository).report(eq(TransactionOutboxRelay.RELAY_LOCK), eq(42L), any());
+    }
+
+    @Test
+    @DisplayName("should count the backlog at most once per check interval")
+    void shouldCountBacklogOncePerInterval() {
+        ReflectionTestUtils.setField(relay, "backlogCheckIntervalMs", 60_000L);
+        when(outboxRepository.lockPendingBatch(anyInt())).thenReturn(List.of());
+
+        relay.relay();
+        relay.relay();
+
+        verify(outboxRepository, times(1)).countByStatus(OutboxStatus.PENDING);
+        verify(schedulerLockRepository, times(1)).report(eq(TransactionOutboxRelay.RELAY_LOCK), anyLong(), any());
+    }
+
+    @Test
+    @DisplayName("should keep the last reported backlog when a data source cannot be counted")
+    void shouldNotReportPartialBacklog() {
+        when(outboxRepository.lockPendingBatch(anyInt())).thenReturn(List.of());
+        when(outboxRepository.countByStatus(OutboxStatus.PENDING)).thenThrow(new QueryTimeoutException("timeout"));
+
+        relay.relay();
+
+        verify(schedulerLockRepository, never()).report(any(), anyLong(), any());
+    }
+
+    @Test
+    @DisplayName("should not count the backlog while another node holds the relay lock")
+    void shouldNotCountBacklogWithoutLock() {
+        when(schedulerLockRepository.tryLockJob(TransactionOutboxRelay.RELAY_LOCK)).thenReturn(false);
+
+        relay.relay();
+
+        verify(outboxRepository, never()).countByStatus(any());
+    }
+
+    @Test
+    @DisplayName("should park an entry as FAILED after max attempts")
+    void shouldParkAfterMaxAttempts() {
+        TransactionOutbox entry = entry(1);
+
+        entry.recordFailure("first", 2);
+        assertThat(entry.getStatus()).isEqualTo(OutboxStatus.PENDING);
+
+        entry.recordFailure("second", 2);
+        assertThat(entry.getStatus()).isEqualTo(OutboxStatus.FAILED);
+    }
+
+    private TransactionOutboxRelay relay(int maxInFlight) {
+        return new TransactionOutboxRelay(outboxRepository, schedulerLockRepository, new ShardBucketTable(0, 0, null),
+                kafkaTemplate, new TransactionTemplate(transactionManager), meterRegistry, maxInFlight);
+    }
+
+    private TransactionOutbox entry(long id) {
+        return TransactionOutbox.builder()
+                .id(uid(id))
+                .userUid(UUID.randomUUID())
+                .topic("deposit-requested")
+                .messageKey("key-" + id)
+                .eventType("DepositRequestedEvent")
+                .payload("{\"id\":" + id + "}")
+                .build();
+    }
+
+    private static UUID uid(long id) {
+        return new UUID(0, id);
+    }
+}
@@ -0,0 +1,98 @@
+package com.example.transaction.kafka;
+
+import com.example.transaction.service.WalletCache;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("WalletCacheInvalidationBroadcaster Tests")
+class WalletCacheInvalidationBroadcasterTest {
+
+    @Mock
+    private KafkaTemplate<String, String> kafkaTemplate;
+
+    @Mock
+    private WalletCache walletCache;
+
+    private SimpleMeterRegistry meterRegistry;
+    private WalletCacheInvalidationBroadcaster broadcaster;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        broadcaster = new WalletCacheInvalidationBroadcaster(kafkaTemplate, walletCache, meterRegistry, 1);
+        ReflectionTestUtils.setField(broadcaster, "topic", "wallet-cache-invalidation");
+    }
+
+    @AfterEach
+    void tearDown() {
+        broadcaster.shutdown();
+    }
+
+    @Test
+    @DisplayName("should round-trip messages with unknown uids")
+    void shouldEncodeAndDecode() {
+        UUID walletUid = UUID.randomUUID();
+
+        WalletCacheInvalidationBroadcaster.Invalidation decoded = WalletCacheInvalidationBroadcaster.decode(
+                WalletCacheInvalidationBroadcaster.encode("node", walletUid, null, 42L));
+
+        assertThat(decoded).isEqualTo(new WalletCacheInvalidationBroadcaster.Invalidation("node", walletUid, null, 42L));
+        assertThat(WalletCacheInvalidationBroadcaster.decode("garbage")).isNull();
+    }
+
+    @Test
+    @DisplayName("should evict on messages from other nodes and skip its own")
+    void shouldApplyRemoteInvalidations() {
+        UUID walletUid = UUID.randomUUID();
+        UUID userUid = UUID.randomUUID();
+
+        broadcaster.onInvalidation(WalletCacheInvalidationBroadcaster.encode(
+                WalletCacheInvalidationBroadcaster.NODE_ID, walletUid, userUid, System.currentTimeMillis()));
+        broadcaster.onInvalidation(WalletCacheInvalidationBroadcaster.encode(
+                "other-node", walletUid, userUid, System.currentTimeMillis()));
+
+        verify(walletCache, times(1)).evictRemote(walletUid, userUid);
+    }
+
+    @Test
+    @DisplayName("should publish on its own thread and drop evictions when the queue is full")
+    void shouldPublishOffTheCallerThread() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch publishing = new CountDownLatch(1);
+        when(kafkaTemplate.send(anyString(), anyString(), anyString())).thenAnswer(invocation -> {
+            publishing.countDown();
+            release.await();
+            return CompletableFuture.completedFuture(null);
+        });
+
+        // First is picked up by the publisher thread and stalls, second waits in the queue
+        broadcaster.broadcast(UUID.randomUUID(), null);
+        assertThat(publishing.await(5, TimeUnit.SECONDS)).isTrue();
+        broadcaster.broadcast(UUID.randomUUID(), null);
+        broadcaster.broadcast(UUID.randomUUID(), null);
+
+        assertThat(meterRegistry.get("wallet_cache_broadcasts_dropped_total").counter().count()).isEqualTo(1.0);
+        assertThat(meterRegistry.get("wallet_cache_broadcast_queue_size").gauge().value()).isEqualTo(1.0);
+
+        release.countDown();
+        verify(kafkaTemplate, timeout(1000).times(2)).send(anyString(), anyString(), anyString());
+    }
+}
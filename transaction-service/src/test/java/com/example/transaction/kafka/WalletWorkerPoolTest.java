@@ -0,0 +1,104 @@
+package com.example.transaction.kafka;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("WalletWorkerPool Tests")
+class WalletWorkerPoolTest {
+
+    private final WalletWorkerPool pool = new WalletWorkerPool(4);
+
+    private record Item(int seq, UUID walletUid) {
+    }
+
+    @AfterEach
+    void tearDown() {
+        pool.shutdown();
+    }
+
+    private static List<Item> interleaved(int wallets, int perWallet) {
+        List<UUID> uids = IntStream.range(0, wallets).mapToObj(i -> UUID.randomUUID()).toList();
+        List<Item> items = new ArrayList<>();
+        for (int i = 0; i < wallets * perWallet; i++) {
+            items.add(new Item(i, uids.get(i % wallets)));
+        }
+        return items;
+    }
+
+    @Test
+    @DisplayName("should keep poll order within each wallet")
+    void shouldKeepOrderPerWallet() {
+        List<Item> items = interleaved(10, 20);
+        Map<UUID, List<Integer>> seen = new ConcurrentHashMap<>();
+
+        WalletWorkerPool.Failure failure = pool.forEachInOrder(items, Item::walletUid,
+                item -> seen.computeIfAbsent(item.walletUid(), uid -> Collections.synchronizedList(new ArrayList<>()))
+                        .add(item.seq()));
+
+        assertThat(failure).isNull();
+        assertThat(seen).hasSize(10);
+        seen.values().forEach(seqs -> assertThat(seqs).hasSize(20).isSorted());
+    }
+
+    @Test
+    @DisplayName("should hand each lane its records as one list in poll order")
+    void shouldGroupRecordsByLane() {
+        List<Item> items = interleaved(10, 5);
+        List<Integer> seen = Collections.synchronizedList(new ArrayList<>());
+
+        pool.forEachLane(items, Item::walletUid, lane -> {
+            assertThat(lane).extracting(Item::seq).isSorted();
+            lane.forEach(item -> seen.add(item.seq()));
+        });
+
+        assertThat(seen).containsExactlyInAnyOrderElementsOf(items.stream().map(Item::seq).toList());
+    }
+
+    @Test
+    @DisplayName("should report the lowest failing index after applying every record before it")
+    void shouldReportEarliestFailure() {
+        List<Item> items = interleaved(8, 10);
+        List<Integer> applied = Collections.synchronizedList(new ArrayList<>());
+
+        WalletWorkerPool.Failure failure = pool.forEachInOrder(items, Item::walletUid, item -> {
+            if (item.seq() == 13 || item.seq() == 42) {
+                throw new IllegalStateException("boom " + item.seq());
+            }
+            applied.add(item.seq());
+        });
+
+        assertThat(failure).isNotNull();
+        assertThat(failure.index()).isEqualTo(13);
+        assertThat(failure.cause()).hasMessage("boom 13");
+        assertThat(applied).containsAll(IntStream.range(0, 13).boxed().toList());
+    }
+
+    @Test
+    @DisplayName("should rethrow a lane failure only after all lanes finished")
+    void shouldRethrowLaneFailure() {
+        List<Item> items = interleaved(8, 3);
+        List<Integer> applied = Collections.synchronizedList(new ArrayList<>());
+        UUID failing = items.get(0).walletUid();
+
+        assertThatThrownBy(() -> pool.forEachLane(items, Item::walletUid, lane -> {
+            if (lane.stream().anyMatch(item -> item.walletUid().equals(failing))) {
+                throw new IllegalStateException("lane failed");
+            }
+            lane.forEach(item -> applied.add(item.seq()));
+        })).isInstanceOf(IllegalStateException.class).hasMessage("lane failed");
+
+        assertThat(applied).allSatisfy(seq -> assertThat(items.get(seq).walletUid()).isNotEqualTo(failing));
+    }
+}
@@ -0,0 +1,132 @@
+package com.example.transaction.kafka.codec;
+
+import com.example.transaction.kafka.event.BaseEvent;
+import com.example.transaction.kafka.event.DepositCompletedEvent;
+import com.example.transaction.kafka.event.DepositRequestedEvent;
+import com.example.transaction.kafka.event.WithdrawalCompletedEvent;
+import com.example.transaction.kafka.event.WithdrawalFailedEvent;
+import com.example.transaction.kafka.event.WithdrawalRequestedEvent;
+import org.apache.kafka.common.errors.SerializationException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.support.JacksonUtils;
+import org.springframework.kafka.support.serializer.JsonDeserializer;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("BinaryEventCodec Tests")
+class BinaryEventCodecTest {
+
+    private static final LocalDateTime TIMESTAMP = LocalDateTime.of(2026, 10, 17, 14, 3, 59, 123_456_000);
+
+    @Test
+    @DisplayName("should round-trip every event type")
+    void shouldRoundTripAllEvents() {
+        List<BaseEvent> events = List.of(
+                DepositRequestedEvent.builder().eventId(UUID.randomUUID()).timestamp(TIMESTAMP)
+                        .transactionUid(UUID.randomUUID()).userUid(UUID.randomUUID()).walletUid(UUID.randomUUID())
+                        .amount(new BigDecimal("100.0000")).fee(BigDecimal.ZERO).currencyCode("USD")
+                        .paymentMethodId(42L).build(),
+                WithdrawalRequestedEvent.builder().eventId(UUID.randomUUID()).timestamp(TIMESTAMP)
+                        .transactionUid(UUID.randomUUID()).userUid(UUID.randomUUID()).walletUid(UUID.randomUUID())
+                        .amount(new BigDecimal("250.50")).fee(new BigDecimal("2.5050"))
+                        .totalAmount(new BigDecimal("253.0050")).currencyCode("EUR").paymentMethodId(-7L).build(),
+                DepositCompletedEvent.builder().eventId(UUID.randomUUID()).timestamp(TIMESTAMP)
+                        .transactionUid(UUID.randomUUID()).walletUid(UUID.randomUUID())
+                        .amount(new BigDecimal("0.0001")).externalReferenceId("ext-1").build(),
+                WithdrawalCompletedEvent.builder().eventId(UUID.randomUUID()).timestamp(TIMESTAMP)
+                        .transactionUid(UUID.randomUUID()).walletUid(UUID.randomUUID())
+                        .amount(new BigDecimal("-12.3400")).externalReferenceId("внешний-2").build(),
+                WithdrawalFailedEvent.builder().eventId(UUID.randomUUID()).timestamp(TIMESTAMP)
+                        .transactionUid(UUID.randomUUID()).walletUid(UUID.randomUUID())
+                        .refundAmount(new BigDecimal("10.00")).reason("Card declined").errorCode("E42").build());
+
+        for (BaseEvent event : events) {
+            byte[] encoded = BinaryEventCodec.encode(event);
+
+            assertThat(BinaryEventCodec.isBinary(encoded)).isTrue();
+            assertThat(BinaryEventCodec.decode(encoded)).isEqualTo(event);
+        }
+    }
+
+    @Test
+    @DisplayName("should keep null fields null and amounts beyond a long exact")
+    void shouldHandleNullsAndWideAmounts() {
+        WithdrawalFailedEvent event = WithdrawalFailedEvent.builder()
+                .eventId(UUID.randomUUID())
+                .refundAmount(new BigDecimal("123456789012345678901234567890.1234"))
+                .build();
+
+        BaseEvent decoded = BinaryEventCodec.decode(BinaryEventCodec.encode(event));
+
+        assertThat(decoded).isEqualTo(event);
+        assertThat(decoded.getTimestamp()).isNull();
+        assertThat(((WithdrawalFailedEvent) decoded).getReason()).isNull();
+    }
+
+    @Test
+    @DisplayName("should take less than half the bytes of the JSON payload")
+    void shouldBeSmallerThanJson() throws Exception {
+        // The payloads of EventCodecBenchmark
+        List<BaseEvent> events = List.of(
+                DepositRequestedEvent.builder().eventId(UUID.randomUUID()).timestamp(TIMESTAMP)
+                        .transactionUid(UUID.randomUUID()).userUid(UUID.randomUUID()).walletUid(UUID.randomUUID())
+                        .amount(new BigDecimal("1250.0000")).fee(new BigDecimal("12.5000"))
+                        .currencyCode("USD").paymentMethodId(17L).build(),
+                WithdrawalFailedEvent.builder().eventId(UUID.randomUUID()).timestamp(TIMESTAMP)
+                        .transactionUid(UUID.randomUUID()).userUid(UUID.randomUUID()).walletUid(UUID.randomUUID())
+                        .refundAmount(new BigDecimal("1262.5000")).reason("Insufficient funds at provider")
+                        .errorCode("PROVIDER_DECLINED").build());
+
+        for (BaseEvent event : events) {
+            byte[] json = JacksonUtils.enhancedObjectMapper().writeValueAsBytes(event);
+            byte[] binary = BinaryEventCodec.encode(event);
+
+            assertThat(binary.length * 2).as(event.getClass().getSimpleName()).isLessThan(json.length);
+        }
+    }
+
+    @Test
+    @DisplayName("should reject unknown versions and truncated payloads")
+    void shouldRejectMalformedPayloads() {
+        byte[] encoded = BinaryEventCodec.encode(DepositCompletedEvent.builder()
+                .eventId(UUID.randomUUID()).amount(BigDecimal.ONE).build());
+
+        byte[] newer = encoded.clone();
+        newer[1] = (byte) (BinaryEventCodec.VERSION + 1);
+        assertThatThrownBy(() -> BinaryEventCodec.decode(newer))
+                .isInstanceOf(SerializationException.class)
+                .hasMessageContaining("version");
+
+        assertThatThrownBy(() -> BinaryEventCodec.decode(Arrays.copyOf(encoded, encoded.length - 3)))
+                .isInstanceOf(SerializationException.class);
+    }
+
+    @Test
+    @DisplayName("deserializer should read both binary and JSON records of a binary topic")
+    void deserializerShouldReadBothFormats() {
+        JsonDeserializer<DepositCompletedEvent> json = new JsonDeserializer<>(DepositCompletedEvent.class);
+        json.addTrustedPackages("com.example.transaction.kafka.event");
+        EventDeserializer<DepositCompletedEvent> deserializer =
+                new EventDeserializer<>(DepositCompletedEvent.class, json);
+        DepositCompletedEvent event = DepositCompletedEvent.builder().eventId(UUID.randomUUID())
+                .walletUid(UUID.randomUUID()).amount(new BigDecimal("5.0000")).build();
+        String jsonPayload = "{\"eventId\":\"" + event.getEventId() + "\",\"walletUid\":\"" + event.getWalletUid()
+                + "\",\"amount\":5.0000}";
+
+        assertThat(deserializer.deserialize("deposit-completed", BinaryEventCodec.encode(event))).isEqualTo(event);
+        assertThat(deserializer.deserialize("deposit-completed", jsonPayload.getBytes(StandardCharsets.UTF_8)))
+                .isEqualTo(event);
+        assertThatThrownBy(() -> deserializer.deserialize("deposit-completed",
+                BinaryEventCodec.encode(WithdrawalFailedEvent.builder().eventId(UUID.randomUUID()).build())))
+                .isInstanceOf(SerializationException.class);
+    }
+}
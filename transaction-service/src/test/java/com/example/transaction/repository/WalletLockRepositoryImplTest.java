@@ -0,0 +1,95 @@
+package com.example.transaction.repository;
+
+import com.example.transaction.entity.Wallet;
+import com.example.transaction.entity.enums.ShardBucketState;
+import com.example.transaction.sharding.ShardBucketMove;
+import com.example.transaction.sharding.ShardBucketTable;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.TypedQuery;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("WalletLockRepositoryImpl Tests")
+class WalletLockRepositoryImplTest {
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock
+    private TypedQuery<Wallet> query;
+
+    private ShardBucketTable table;
+    private WalletLockRepositoryImpl repository;
+
+    @BeforeEach
+    void setUp() {
+        table = new ShardBucketTable(1024, 2, "ds_");
+        repository = new WalletLockRepositoryImpl(entityManager, table);
+        when(entityManager.createQuery(anyString(), eq(Wallet.class))).thenReturn(query);
+        when(query.setParameter(anyString(), any())).thenReturn(query);
+        when(query.setLockMode(LockModeType.PESSIMISTIC_WRITE)).thenReturn(query);
+    }
+
+    @Test
+    @DisplayName("should lock once when no bucket is moving")
+    void shouldLockOnceOutsideOfMove() {
+        when(query.getResultList()).thenReturn(List.of());
+
+        assertThat(repository.findByIdForUpdate(UUID.randomUUID())).isEmpty();
+
+        verify(query, times(1)).getResultList();
+    }
+
+    @Test
+    @DisplayName("should lock a wallet again when it was moved under the first lock")
+    void shouldRetryMissingWalletDuringMove() {
+        startMove();
+        Wallet moved = wallet(UUID.randomUUID());
+        when(query.getResultList()).thenReturn(List.of(), List.of(moved));
+
+        assertThat(repository.findByIdForUpdate(moved.getUid())).contains(moved);
+    }
+
+    @Test
+    @DisplayName("should lock only the missing wallets again and keep uid order")
+    void shouldRetryOnlyMissingWallets() {
+        startMove();
+        Wallet first = wallet(new UUID(0, 1));
+        Wallet second = wallet(new UUID(0, 2));
+        when(query.getResultList()).thenReturn(List.of(second), List.of(first));
+
+        List<Wallet> locked = repository.findAllByIdForUpdate(List.of(first.getUid(), second.getUid()));
+
+        assertThat(locked).containsExactly(first, second);
+        verify(query).setParameter("uids", Set.of(first.getUid()));
+    }
+
+    private void startMove() {
+        table.replace(Map.of(5, new ShardBucketMove(5, "ds_1", "ds_0", ShardBucketState.MOVING)));
+    }
+
+    private static Wallet wallet(UUID uid) {
+        Wallet wallet = new Wallet();
+        wallet.setUid(uid);
+        return wallet;
+    }
+}
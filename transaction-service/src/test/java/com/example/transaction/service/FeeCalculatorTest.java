@@ -1,6 +1,7 @@
 package com.example.transaction.service;
 
 import com.example.transaction.config.AppProperties;
+import com.example.transaction.entity.Money;
 import com.example.transaction.entity.enums.PaymentType;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -13,7 +14,9 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import java.math.BigDecimal;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
 class FeeCalculatorTest {
@@ -21,6 +24,9 @@ class FeeCalculatorTest {
     @Mock
     private AppProperties appProperties;
 
+    @Mock
+    private FeeRuleEngine feeRuleEngine;
+
     @InjectMocks
     private FeeCalculator feeCalculator;
 
@@ -99,4 +105,35 @@ class FeeCalculatorTest {
         BigDecimal fee = feeCalculator.calculateFee(amount, PaymentType.WITHDRAWAL);
         assertThat(fee).isEqualByComparingTo(new BigDecimal("0.0001"));
     }
+
+    @Test
+    @DisplayName("should use the matching fee rule tier instead of the flat percent")
+    void shouldUseFeeRuleTier() {
+        BigDecimal amount = new BigDecimal("2000.00");
+        when(feeRuleEngine.find(PaymentType.WITHDRAWAL, "USD", 7L, Money.of(amount))).thenReturn(FeeSchedule.Tier.of(
+                new BigDecimal("0.002"), new BigDecimal("0.50"), BigDecimal.ZERO, null));
+
+        assertThat(feeCalculator.calculateFee(amount, PaymentType.WITHDRAWAL, "USD", 7L))
+                .isEqualTo(new BigDecimal("4.5000"));
+    }
+
+    @Test
+    @DisplayName("should fall back to the flat percent when no fee rule matches")
+    void shouldFallBackToFlatPercent() {
+        when(feeRuleEngine.find(any(), any(), any(), any())).thenReturn(null);
+
+        assertThat(feeCalculator.calculateFee(new BigDecimal("100.00"), PaymentType.WITHDRAWAL, "EUR", 3L))
+                .isEqualByComparingTo(new BigDecimal("1.0000"));
+    }
+
+    @Test
+    @DisplayName("should round the fee half up to 4 decimals on the Money path")
+    void shouldRoundMoneyFeeHalfUp() {
+        assertThat(feeCalculator.calculateFee(Money.of("0.0049"), PaymentType.WITHDRAWAL, null, null))
+                .isEqualTo(Money.ZERO);
+        assertThat(feeCalculator.calculateFee(Money.of("0.0050"), PaymentType.WITHDRAWAL, null, null))
+                .isEqualTo(Money.of("0.0001"));
+        assertThat(feeCalculator.calculateFee(Money.of("0.0150"), PaymentType.TRANSFER, null, null))
+                .isEqualTo(Money.of("0.0001"));
+    }
 }
@@ -0,0 +1,97 @@
+package com.example.transaction.service;
+
+import com.example.transaction.entity.Money;
+import com.example.transaction.entity.enums.PaymentType;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("FeeSchedule Tests")
+class FeeScheduleTest {
+
+    private static FeeSchedule.Rule rule(PaymentType type, String currency, Long method, String minAmount,
+                                         String percent) {
+        return new FeeSchedule.Rule(type, currency, method, Money.of(minAmount),
+                FeeSchedule.Tier.of(new BigDecimal(percent), BigDecimal.ZERO, BigDecimal.ZERO, null));
+    }
+
+    private static BigDecimal percentOf(FeeSchedule.Tier tier) {
+        return tier != null ? tier.feePercent().toBigDecimal() : null;
+    }
+
+    @Test
+    @DisplayName("should pick the tier whose range contains the amount")
+    void shouldPickTierByAmount() {
+        FeeSchedule schedule = FeeSchedule.compile(List.of(
+                rule(PaymentType.WITHDRAWAL, "USD", null, "1000", "0.005"),
+                rule(PaymentType.WITHDRAWAL, "USD", null, "0", "0.01"),
+                rule(PaymentType.WITHDRAWAL, "USD", null, "10000", "0.002")));
+
+        assertThat(percentOf(schedule.find(PaymentType.WITHDRAWAL, "USD", null, Money.of("0.01"))))
+                .isEqualTo("0.01");
+        assertThat(percentOf(schedule.find(PaymentType.WITHDRAWAL, "USD", null, Money.of("999.9999"))))
+                .isEqualTo("0.01");
+        assertThat(percentOf(schedule.find(PaymentType.WITHDRAWAL, "USD", null, Money.of("1000.00"))))
+                .isEqualTo("0.005");
+        assertThat(percentOf(schedule.find(PaymentType.WITHDRAWAL, "USD", null, Money.of("50000"))))
+                .isEqualTo("0.002");
+        assertThat(schedule.find(PaymentType.DEPOSIT, "USD", null, Money.of("10"))).isNull();
+    }
+
+    @Test
+    @DisplayName("should prefer currency, then method, then wildcard rules")
+    void shouldPreferMostSpecificRule() {
+        FeeSchedule schedule = FeeSchedule.compile(List.of(
+                rule(PaymentType.TRANSFER, null, null, "0", "0.004"),
+                rule(PaymentType.TRANSFER, null, 7L, "0", "0.003"),
+                rule(PaymentType.TRANSFER, "EUR", null, "0", "0.002"),
+                rule(PaymentType.TRANSFER, "EUR", 7L, "0", "0.001")));
+
+        Money amount = Money.of("100");
+        assertThat(percentOf(schedule.find(PaymentType.TRANSFER, "EUR", 7L, amount))).isEqualTo("0.001");
+        assertThat(percentOf(schedule.find(PaymentType.TRANSFER, "EUR", 8L, amount))).isEqualTo("0.002");
+        assertThat(percentOf(schedule.find(PaymentType.TRANSFER, "USD", 7L, amount))).isEqualTo("0.003");
+        assertThat(percentOf(schedule.find(PaymentType.TRANSFER, "USD", null, amount))).isEqualTo("0.004");
+    }
+
+    @Test
+    @DisplayName("should fall through to a wider rule below the first tier of a specific one")
+    void shouldFallThroughBelowFirstTier() {
+        FeeSchedule schedule = FeeSchedule.compile(List.of(
+                rule(PaymentType.DEPOSIT, null, null, "0", "0"),
+                rule(PaymentType.DEPOSIT, "RUB", null, "100000", "0.001")));
+
+        assertThat(percentOf(schedule.find(PaymentType.DEPOSIT, "RUB", null, Money.of("500"))))
+                .isEqualTo("0");
+        assertThat(percentOf(schedule.find(PaymentType.DEPOSIT, "RUB", null, Money.of("100000"))))
+                .isEqualTo("0.001");
+    }
+
+    @Test
+    @DisplayName("tier fee should add the fixed part and clamp to min/max")
+    void tierShouldClampFee() {
+        FeeSchedule.Tier tier = FeeSchedule.Tier.of(new BigDecimal("0.01"), new BigDecimal("0.30"),
+                new BigDecimal("1.00"), new BigDecimal("25.00"));
+
+        assertThat(tier.feeFor(Money.of("10.00"))).isEqualTo(Money.of("1.00"));
+        assertThat(tier.feeFor(Money.of("500.00"))).isEqualTo(Money.of("5.30"));
+        assertThat(tier.feeFor(Money.of("100000.00"))).isEqualTo(Money.of("25.00"));
+    }
+
+    @Test
+    @DisplayName("should reject two tiers with the same lower bound")
+    void shouldRejectDuplicateTiers() {
+        List<FeeSchedule.Rule> rules = List.of(
+                rule(PaymentType.WITHDRAWAL, "USD", 1L, "100", "0.01"),
+                rule(PaymentType.WITHDRAWAL, "USD", 1L, "100.0000", "0.02"));
+
+        assertThatThrownBy(() -> FeeSchedule.compile(rules))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("WITHDRAWAL/USD/1");
+    }
+}
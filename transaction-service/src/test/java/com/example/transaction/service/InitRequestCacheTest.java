@@ -1,8 +1,12 @@
 package com.example.transaction.service;
 
 import com.example.transaction.config.AppProperties;
+import com.example.transaction.entity.Money;
 import com.example.transaction.entity.enums.PaymentType;
+import com.example.transaction.exception.InitRequestCapacityExceededException;
 import com.example.transaction.exception.InvalidTransactionException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
@@ -11,8 +15,9 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
-import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.Optional;
 import java.util.UUID;
@@ -36,6 +41,7 @@ class InitRequestCacheTest {
     @BeforeEach
     void setUp() {
         lenient().when(appProperties.getInitRequestTtlMinutes()).thenReturn(15);
+        lenient().when(appProperties.getInitRequestMaxSize()).thenReturn(100);
 
         requestUid = UUID.randomUUID();
         testRequest = InitRequest.builder()
@@ -43,9 +49,9 @@ class InitRequestCacheTest {
                 .userUid(UUID.randomUUID())
                 .walletUid(UUID.randomUUID())
                 .type(PaymentType.DEPOSIT)
-                .amount(new BigDecimal("100.00"))
-                .fee(BigDecimal.ZERO)
-                .totalAmount(new BigDecimal("100.00"))
+                .amount(Money.of("100.00"))
+                .fee(Money.ZERO)
+                .totalAmount(Money.of("100.00"))
                 .createdAt(LocalDateTime.now())
                 .expiresAt(LocalDateTime.now().plusMinutes(15))
                 .build();
@@ -62,7 +68,7 @@ class InitRequestCacheTest {
             Optional<InitRequest> result = cache.get(requestUid);
             assertThat(result).isPresent();
             assertThat(result.get().getRequestUid()).isEqualTo(requestUid);
-            assertThat(result.get().getAmount()).isEqualByComparingTo(new BigDecimal("100.00"));
+            assertThat(result.get().getAmount()).isEqualTo(Money.of("100.00"));
         }
 
         @Test
@@ -80,9 +86,9 @@ class InitRequestCacheTest {
                     .userUid(UUID.randomUUID())
                     .walletUid(UUID.randomUUID())
                     .type(PaymentType.DEPOSIT)
-                    .amount(new BigDecimal("100.00"))
-                    .fee(BigDecimal.ZERO)
-                    .totalAmount(new BigDecimal("100.00"))
+                    .amount(Money.of("100.00"))
+                    .fee(Money.ZERO)
+                    .totalAmount(Money.of("100.00"))
                     .createdAt(LocalDateTime.now().minusMinutes(20))
                     .expiresAt(LocalDateTime.now().minusMinutes(5))
                     .build();
@@ -122,9 +128,9 @@ class InitRequestCacheTest {
                     .userUid(UUID.randomUUID())
                     .walletUid(UUID.randomUUID())
                     .type(PaymentType.DEPOSIT)
-                    .amount(new BigDecimal("100.00"))
-                    .fee(BigDecimal.ZERO)
-                    .totalAmount(new BigDecimal("100.00"))
+                    .amount(Money.of("100.00"))
+                    .fee(Money.ZERO)
+                    .totalAmount(Money.of("100.00"))
                     .createdAt(LocalDateTime.now().minusMinutes(20))
                     .expiresAt(LocalDateTime.now().minusMinutes(5))
                     .build();
@@ -135,6 +141,78 @@ class InitRequestCacheTest {
         }
     }
 
+    @Nested
+    @DisplayName("getAndRemove() inside a transaction")
+    class TransactionalClaim {
+
+        @BeforeEach
+        void beginTransaction() {
+            TransactionSynchronizationManager.initSynchronization();
+        }
+
+        @AfterEach
+        void endTransaction() {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        @Test
+        @DisplayName("should hide the request at once and restore it on rollback")
+        void shouldRestoreOnRollback() {
+            cache.put(testRequest);
+
+            cache.getAndRemove(requestUid);
+            assertThat(cache.exists(requestUid)).isFalse();
+            assertThat(cache.size()).isZero();
+
+            complete(TransactionSynchronization.STATUS_ROLLED_BACK);
+
+            assertThat(cache.exists(requestUid)).isTrue();
+            assertThat(cache.size()).isEqualTo(1);
+            assertThat(cache.getAndRemove(requestUid).getRequestUid()).isEqualTo(requestUid);
+        }
+
+        @Test
+        @DisplayName("should keep the request removed on commit")
+        void shouldStayRemovedOnCommit() {
+            cache.put(testRequest);
+
+            cache.getAndRemove(requestUid);
+            complete(TransactionSynchronization.STATUS_COMMITTED);
+
+            assertThat(cache.exists(requestUid)).isFalse();
+            assertThat(cache.size()).isZero();
+        }
+
+        @Test
+        @DisplayName("should not restore a request whose UID was stored again meanwhile")
+        void shouldNotOverwriteNewerRequest() {
+            cache.put(testRequest);
+            cache.getAndRemove(requestUid);
+            InitRequest newer = InitRequest.builder()
+                    .requestUid(requestUid)
+                    .userUid(UUID.randomUUID())
+                    .walletUid(UUID.randomUUID())
+                    .type(PaymentType.DEPOSIT)
+                    .amount(Money.of("5.00"))
+                    .fee(Money.ZERO)
+                    .totalAmount(Money.of("5.00"))
+                    .createdAt(LocalDateTime.now())
+                    .expiresAt(LocalDateTime.now().plusMinutes(15))
+                    .build();
+            cache.put(newer);
+
+            complete(TransactionSynchronization.STATUS_ROLLED_BACK);
+
+            assertThat(cache.get(requestUid)).contains(newer);
+            assertThat(cache.size()).isEqualTo(1);
+        }
+
+        private void complete(int status) {
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(synchronization -> synchronization.afterCompletion(status));
+        }
+    }
+
     @Nested
     @DisplayName("exists()")
     class Exists {
@@ -183,9 +261,9 @@ class InitRequestCacheTest {
                     .userUid(UUID.randomUUID())
                     .walletUid(UUID.randomUUID())
                     .type(PaymentType.WITHDRAWAL)
-                    .amount(new BigDecimal("50.00"))
-                    .fee(new BigDecimal("0.50"))
-                    .totalAmount(new BigDecimal("50.50"))
+                    .amount(Money.of("50.00"))
+                    .fee(Money.of("0.50"))
+                    .totalAmount(Money.of("50.50"))
                     .createdAt(LocalDateTime.now())
                     .expiresAt(LocalDateTime.now().plusMinutes(15))
                     .build());
@@ -221,9 +299,9 @@ class InitRequestCacheTest {
                     .userUid(UUID.randomUUID())
                     .walletUid(UUID.randomUUID())
                     .type(PaymentType.DEPOSIT)
-                    .amount(new BigDecimal("50.00"))
-                    .fee(BigDecimal.ZERO)
-                    .totalAmount(new BigDecimal("50.00"))
+                    .amount(Money.of("50.00"))
+                    .fee(Money.ZERO)
+                    .totalAmount(Money.of("50.00"))
                     .createdAt(LocalDateTime.now().minusMinutes(20))
                     .expiresAt(LocalDateTime.now().minusMinutes(5))
                     .build();
@@ -234,4 +312,86 @@ class InitRequestCacheTest {
             assertThat(cache.exists(requestUid)).isTrue();
         }
     }
+
+    @Nested
+    @DisplayName("capacity")
+    class Capacity {
+
+        @Test
+        @DisplayName("should reject new requests when full")
+        void shouldRejectWhenFull() {
+            lenient().when(appProperties.getInitRequestMaxSize()).thenReturn(1);
+            cache.put(testRequest);
+
+            assertThatThrownBy(() -> cache.put(newRequest(LocalDateTime.now().plusMinutes(15))))
+                    .isInstanceOf(InitRequestCapacityExceededException.class)
+                    .hasMessageContaining("capacity 1");
+            assertThat(cache.size()).isEqualTo(1);
+        }
+
+        @Test
+        @DisplayName("should make room by purging expired requests before rejecting")
+        void shouldPurgeExpiredBeforeRejecting() {
+            lenient().when(appProperties.getInitRequestMaxSize()).thenReturn(1);
+            cache.put(newRequest(LocalDateTime.now().minusMinutes(5)));
+
+            cache.put(testRequest);
+
+            assertThat(cache.size()).isEqualTo(1);
+            assertThat(cache.exists(requestUid)).isTrue();
+        }
+
+        @Test
+        @DisplayName("should free the slot when a request is confirmed")
+        void shouldFreeSlotOnGetAndRemove() {
+            lenient().when(appProperties.getInitRequestMaxSize()).thenReturn(1);
+            cache.put(testRequest);
+            cache.getAndRemove(requestUid);
+
+            cache.put(newRequest(LocalDateTime.now().plusMinutes(15)));
+
+            assertThat(cache.size()).isEqualTo(1);
+        }
+    }
+
+    @Nested
+    @DisplayName("metrics")
+    class Metrics {
+
+        @Test
+        @DisplayName("should expose size, expirations, evictions and rejections")
+        void shouldExposeMetrics() {
+            SimpleMeterRegistry registry = new SimpleMeterRegistry();
+            cache.bindTo(registry);
+
+            cache.put(testRequest);
+            cache.put(newRequest(LocalDateTime.now().minusMinutes(5)));
+            InitRequest toEvict = newRequest(LocalDateTime.now().plusMinutes(15));
+            cache.put(toEvict);
+            cache.remove(toEvict.getRequestUid());
+            cache.cleanupExpired();
+
+            assertThat(registry.get("init_request_cache_size").gauge().value()).isEqualTo(1.0);
+            assertThat(registry.get("init_request_cache_expirations_total").functionCounter().count())
+                    .isEqualTo(1.0);
+            assertThat(registry.get("init_request_cache_evictions_total").functionCounter().count())
+                    .isEqualTo(1.0);
+            assertThat(registry.get("init_request_cache_rejections_total").functionCounter().count())
+                    .isZero();
+        }
+    }
+
+    private InitRequest newRequest(LocalDateTime expiresAt) {
+        return InitRequest.builder()
+                .requestUid(UUID.randomUUID())
+                .userUid(UUID.randomUUID())
+                .walletUid(UUID.randomUUID())
+                .type(PaymentType.DEPOSIT)
+                .amount(Money.of("10.00"))
+                .fee(Money.ZERO)
+                .totalAmount(Money.of("10.00"))
+                .createdAt(LocalDateTime.now())
+                .expiresAt(expiresAt)
+                .build();
+    }
 }
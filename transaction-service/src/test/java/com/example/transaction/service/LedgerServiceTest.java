@@ -0,0 +1,151 @@
+package com.example.transaction.service;
+
+import com.example.transaction.config.AppProperties;
+import com.example.transaction.entity.LedgerCheckpoint;
+import com.example.transaction.entity.LedgerEntry;
+import com.example.transaction.entity.SchedulerLock;
+import com.example.transaction.repository.LedgerCheckpointRepository;
+import com.example.transaction.repository.LedgerEntryRepository;
+import com.example.transaction.repository.SchedulerLockRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Answers;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("LedgerService Tests")
+class LedgerServiceTest {
+
+    @Mock
+    private LedgerEntryRepository entryRepository;
+
+    @Mock
+    private LedgerCheckpointRepository checkpointRepository;
+
+    @Mock(answer = Answers.CALLS_REAL_METHODS)
+    private SchedulerLockRepository schedulerLockRepository;
+
+    private LedgerService ledgerService;
+
+    @BeforeEach
+    void setUp() {
+        ledgerService = new LedgerService(entryRepository, checkpointRepository,
+                schedulerLockRepository, new AppProperties(), new SimpleMeterRegistry());
+    }
+
+    @Test
+    @DisplayName("should write transfer legs that sum to zero, skipping a zero fee")
+    @SuppressWarnings("unchecked")
+    void shouldPostBalancedLegs() {
+        ledgerService.recordTransfer(UUID.randomUUID(), UUID.randomUUID(), UUID.randomUUID(),
+                UUID.randomUUID(), UUID.randomUUID(), new BigDecimal("10.00"), BigDecimal.ZERO);
+
+        ArgumentCaptor<List<LedgerEntry>> legs = ArgumentCaptor.forClass(List.class);
+        verify(entryRepository).saveAll(legs.capture());
+        assertThat(legs.getValue()).hasSize(2);
+        assertThat(legs.getValue().stream().map(LedgerEntry::getAmount).reduce(BigDecimal.ZERO, BigDecimal::add))
+                .isEqualByComparingTo(BigDecimal.ZERO);
+    }
+
+    @Test
+    @DisplayName("should add the tail after the nearest checkpoint")
+    void shouldAnswerFromCheckpointAndTail() {
+        UUID walletUid = UUID.randomUUID();
+        LocalDateTime checkpointAt = LocalDateTime.now().minusHours(1);
+        LocalDateTime at = LocalDateTime.now();
+        when(checkpointRepository.findFirstByWalletUidAndCheckpointAtLessThanEqualOrderByCheckpointAtDesc(walletUid, at))
+                .thenReturn(Optional.of(checkpoint(walletUid, checkpointAt, "70.00")));
+        when(entryRepository.sumForWalletAfterCheckpoint(walletUid, checkpointAt, at)).thenReturn(new BigDecimal("5.00"));
+
+        assertThat(ledgerService.getBalanceAt(walletUid, at)).isEqualByComparingTo("75.00");
+        verify(entryRepository, never()).sumForWalletUpTo(any(), any());
+    }
+
+    @Test
+    @DisplayName("should roll the previous checkpoint forward by each wallet's newly stamped movement")
+    @SuppressWarnings("unchecked")
+    void shouldWriteCheckpoints() {
+        UUID moved = UUID.randomUUID();
+        UUID fresh = UUID.randomUUID();
+        LocalDateTime last = LocalDateTime.now().minusHours(1);
+        when(schedulerLockRepository.tryLock(LedgerService.CHECKPOINT_LOCK))
+                .thenReturn(Optional.of(new SchedulerLock(LedgerService.CHECKPOINT_LOCK)));
+        when(checkpointRepository.findLastCheckpointAt()).thenReturn(Optional.of(last));
+        when(entryRepository.sumByWalletStampedAt(any()))
+                .thenReturn(List.of(movement(moved, "-20.00"), movement(fresh, "15.00")));
+        when(checkpointRepository.findLatestAtOrBefore(anyCollection(), eq(last)))
+                .thenReturn(List.of(checkpoint(moved, last, "100.00")));
+
+        assertThat(ledgerService.writeCheckpoints()).isEqualTo(2);
+
+        ArgumentCaptor<LocalDateTime> stampedAt = ArgumentCaptor.forClass(LocalDateTime.class);
+        verify(entryRepository).stampForCheckpoint(stampedAt.capture());
+        verify(entryRepository).sumByWalletStampedAt(stampedAt.getValue());
+        ArgumentCaptor<List<LedgerCheckpoint>> written = ArgumentCaptor.forClass(List.class);
+        verify(checkpointRepository).saveAll(written.capture());
+        assertThat(written.getValue()).allMatch(c -> c.getCheckpointAt().equals(stampedAt.getValue()));
+        assertThat(written.getValue())
+                .extracting(LedgerCheckpoint::getWalletUid, c -> c.getBalance().setScale(2))
+                .containsExactlyInAnyOrder(
+                        tuple(moved, new BigDecimal("80.00")),
+                        tuple(fresh, new BigDecimal("15.00")));
+    }
+
+    @Test
+    @DisplayName("should skip the run while another node holds the checkpoint lock")
+    void shouldSkipCheckpointsWhenLocked() {
+        when(schedulerLockRepository.tryLock(LedgerService.CHECKPOINT_LOCK)).thenReturn(Optional.empty());
+        when(schedulerLockRepository.existsById(LedgerService.CHECKPOINT_LOCK)).thenReturn(true);
+
+        assertThat(ledgerService.writeCheckpoints()).isZero();
+
+        verifyNoInteractions(entryRepository, checkpointRepository);
+        verify(schedulerLockRepository, never()).saveAndFlush(any());
+    }
+
+    private static LedgerCheckpoint checkpoint(UUID walletUid, LocalDateTime at, String balance) {
+        return LedgerCheckpoint.builder()
+                .walletUid(walletUid)
+                .userUid(UUID.randomUUID())
+                .checkpointAt(at)
+                .balance(new BigDecimal(balance))
+                .build();
+    }
+
+    private static LedgerEntryRepository.WalletMovement movement(UUID walletUid, String amount) {
+        return new LedgerEntryRepository.WalletMovement() {
+            @Override
+            public UUID getWalletUid() {
+                return walletUid;
+            }
+
+            @Override
+            public UUID getUserUid() {
+                return UUID.randomUUID();
+            }
+
+            @Override
+            public BigDecimal getAmount() {
+                return new BigDecimal(amount);
+            }
+        };
+    }
+}
@@ -0,0 +1,118 @@
+package com.example.transaction.service;
+
+import com.example.transaction.config.AppProperties;
+import com.example.transaction.kafka.event.DepositCompletedEvent;
+import com.example.transaction.repository.ProcessedEventRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("ProcessedEventLedger Tests")
+class ProcessedEventLedgerTest {
+
+    @Mock
+    private ProcessedEventRepository processedEventRepository;
+
+    private SimpleMeterRegistry meterRegistry;
+    private ProcessedEventLedger ledger;
+
+    @BeforeEach
+    void setUp() {
+        AppProperties appProperties = new AppProperties();
+        appProperties.setProcessedEventCacheSize(2);
+        meterRegistry = new SimpleMeterRegistry();
+        ledger = new ProcessedEventLedger(processedEventRepository, appProperties, meterRegistry);
+        TransactionSynchronizationManager.initSynchronization();
+    }
+
+    @AfterEach
+    void tearDown() {
+        TransactionSynchronizationManager.clearSynchronization();
+    }
+
+    @Test
+    @DisplayName("should claim only events missing from processed_events")
+    void shouldClaimNewEventsOnly() {
+        DepositCompletedEvent known = event();
+        DepositCompletedEvent fresh = event();
+        when(processedEventRepository.findExistingIds(any())).thenReturn(Set.of(known.getEventId()));
+
+        Set<UUID> claimed = ledger.claimAll(List.of(known, fresh, fresh), DepositCompletedEvent::getUserUid);
+
+        assertThat(claimed).containsExactly(fresh.getEventId());
+        verify(processedEventRepository).saveAll(argThat(claims -> claims.spliterator().getExactSizeIfKnown() == 1));
+        assertThat(duplicates("db")).isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("should answer from memory only after the claiming transaction commits")
+    void shouldCacheAfterCommit() {
+        DepositCompletedEvent event = event();
+        when(processedEventRepository.findExistingIds(any())).thenReturn(Set.of());
+
+        assertThat(ledger.claim(event, event.getUserUid())).isTrue();
+        assertThat(ledger.isRecentlyProcessed(event.getEventId())).isFalse();
+
+        commit();
+
+        assertThat(ledger.isRecentlyProcessed(event.getEventId())).isTrue();
+        assertThat(duplicates("cache")).isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("should evict the least recently used ids beyond capacity")
+    void shouldEvictBeyondCapacity() {
+        when(processedEventRepository.findExistingIds(any())).thenReturn(Set.of());
+        DepositCompletedEvent first = event();
+
+        ledger.claimAll(List.of(first, event(), event()), DepositCompletedEvent::getUserUid);
+        commit();
+
+        assertThat(ledger.cachedCount()).isEqualTo(2);
+        assertThat(ledger.isRecentlyProcessed(first.getEventId())).isFalse();
+    }
+
+    @Test
+    @DisplayName("should pass through events without an eventId")
+    void shouldIgnoreEventsWithoutId() {
+        DepositCompletedEvent event = event();
+        event.setEventId(null);
+
+        assertThat(ledger.claim(event, event.getUserUid())).isTrue();
+        assertThat(ledger.isRecentlyProcessed(null)).isFalse();
+        verify(processedEventRepository, never()).saveAll(anyList());
+    }
+
+    private void commit() {
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+    }
+
+    private double duplicates(String source) {
+        return meterRegistry.get("processed_event_duplicates_total").tag("source", source).counter().count();
+    }
+
+    private DepositCompletedEvent event() {
+        return DepositCompletedEvent.builder()
+                .eventId(UUID.randomUUID())
+                .transactionUid(UUID.randomUUID())
+                .userUid(UUID.randomUUID())
+                .build();
+    }
+}
@@ -0,0 +1,173 @@
+package com.example.transaction.service;
+
+import com.example.transaction.config.AppProperties;
+import com.example.transaction.entity.SchedulerLock;
+import com.example.transaction.repository.SchedulerLockRepository;
+import com.example.transaction.sharding.ShardBucketTable;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.shardingsphere.infra.hint.HintManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Answers;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.BadSqlGrammarException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("TransactionPartitionManager Tests")
+class TransactionPartitionManagerTest {
+
+    private static final YearMonth NOW = YearMonth.of(2026, 10);
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock(answer = Answers.CALLS_REAL_METHODS)
+    private SchedulerLockRepository schedulerLockRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private AppProperties appProperties;
+    private SimpleMeterRegistry meterRegistry;
+    private TransactionPartitionManager manager;
+
+    @BeforeEach
+    void setUp() {
+        appProperties = new AppProperties();
+        appProperties.setPartitionMonthsAhead(2);
+        meterRegistry = new SimpleMeterRegistry();
+        manager = manager(new ShardBucketTable(0, 0, null));
+        lenient().when(schedulerLockRepository.tryLock(TransactionPartitionManager.MAINTENANCE_LOCK))
+                .thenReturn(Optional.of(new SchedulerLock(TransactionPartitionManager.MAINTENANCE_LOCK)));
+    }
+
+    @Test
+    @DisplayName("should create the missing months up to months-ahead")
+    void shouldCreateMissingMonths() {
+        attached("transactions_p2026_09", "transactions_p2026_10");
+
+        manager.maintain(NOW);
+
+        assertThat(executed()).containsExactly(
+                "CREATE TABLE IF NOT EXISTS transactions_p2026_11 PARTITION OF transactions " +
+                        "FOR VALUES FROM ('2026-11-01') TO ('2026-12-01')",
+                "CREATE TABLE IF NOT EXISTS transactions_p2026_12 PARTITION OF transactions " +
+                        "FOR VALUES FROM ('2026-12-01') TO ('2027-01-01')");
+        assertThat(meterRegistry.get("transaction_partitions_created_total").counter().count()).isEqualTo(2.0);
+    }
+
+    @Test
+    @DisplayName("should keep all partitions when retention is disabled")
+    void shouldNotDetachWithoutRetention() {
+        attached("transactions_p2020_01", "transactions_p2026_10", "transactions_p2026_11", "transactions_p2026_12");
+
+        manager.maintain(NOW);
+
+        verify(jdbcTemplate, never()).execute(anyString());
+    }
+
+    @Test
+    @DisplayName("should detach months older than the retention and keep them for archival")
+    void shouldDetachExpiredMonths() {
+        appProperties.setPartitionRetentionMonths(3);
+        attached("transactions_p2026_07", "transactions_p2026_08", "transactions_p2026_09",
+                "transactions_p2026_10", "transactions_p2026_11", "transactions_p2026_12");
+
+        manager.maintain(NOW);
+
+        // August to October stay attached
+        assertThat(executed()).containsExactly("ALTER TABLE transactions DETACH PARTITION transactions_p2026_07");
+        verify(jdbcTemplate).update(startsWith("DELETE FROM transaction_uids"),
+                eq(LocalDate.of(2026, 7, 1).atStartOfDay()), eq(LocalDate.of(2026, 8, 1).atStartOfDay()));
+        assertThat(meterRegistry.get("transaction_partitions_detached_total").counter().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("should drop detached partitions when configured")
+    void shouldDropDetachedWhenConfigured() {
+        appProperties.setPartitionRetentionMonths(1);
+        appProperties.setPartitionDropDetached(true);
+        attached("transactions_p2026_09", "transactions_p2026_10", "transactions_p2026_11", "transactions_p2026_12");
+
+        manager.maintain(NOW);
+
+        assertThat(executed()).containsExactly(
+                "ALTER TABLE transactions DETACH PARTITION transactions_p2026_09",
+                "DROP TABLE transactions_p2026_09");
+    }
+
+    @Test
+    @DisplayName("should go on with the next month when one partition cannot be created")
+    void shouldContinueAfterCreateFailure() {
+        attached("transactions_p2026_10");
+        doThrow(new BadSqlGrammarException("create", "CREATE", new SQLException("default partition overlaps")))
+                .when(jdbcTemplate).execute(startsWith("CREATE TABLE IF NOT EXISTS transactions_p2026_11"));
+
+        manager.maintain(NOW);
+
+        verify(jdbcTemplate).execute(startsWith("CREATE TABLE IF NOT EXISTS transactions_p2026_12"));
+        assertThat(meterRegistry.get("transaction_partitions_created_total").counter().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("should skip the round while another node holds the lock")
+    void shouldSkipWhenLockedElsewhere() {
+        when(schedulerLockRepository.tryLock(TransactionPartitionManager.MAINTENANCE_LOCK)).thenReturn(Optional.empty());
+        when(schedulerLockRepository.existsById(TransactionPartitionManager.MAINTENANCE_LOCK)).thenReturn(true);
+
+        manager.maintain(NOW);
+
+        verifyNoInteractions(jdbcTemplate);
+    }
+
+    @Test
+    @DisplayName("should maintain every data source, pinned to it, under sharding")
+    void shouldMaintainEachDataSource() {
+        manager = manager(new ShardBucketTable(1024, 2, "ds_"));
+        List<String> queriedOn = new ArrayList<>();
+        when(jdbcTemplate.queryForList(anyString(), eq(String.class))).thenAnswer(invocation -> {
+            queriedOn.add(HintManager.getDataSourceName().orElse("routed"));
+            return List.of("transactions_p2026_10", "transactions_p2026_11", "transactions_p2026_12");
+        });
+
+        manager.maintain(NOW);
+
+        assertThat(queriedOn).containsExactly("ds_0", "ds_1");
+        assertThat(HintManager.isInstantiated()).isFalse();
+    }
+
+    private TransactionPartitionManager manager(ShardBucketTable shardBucketTable) {
+        return new TransactionPartitionManager(jdbcTemplate, schedulerLockRepository, shardBucketTable,
+                new TransactionTemplate(transactionManager), appProperties, meterRegistry);
+    }
+
+    private void attached(String... partitions) {
+        when(jdbcTemplate.queryForList(anyString(), eq(String.class))).thenReturn(List.of(partitions));
+    }
+
+    private List<String> executed() {
+        ArgumentCaptor<String> sql = ArgumentCaptor.forClass(String.class);
+        verify(jdbcTemplate, atLeast(0)).execute(sql.capture());
+        return sql.getAllValues();
+    }
+}
@@ -0,0 +1,142 @@
+package com.example.transaction.service;
+
+import com.example.transaction.config.AppProperties;
+import com.example.transaction.dto.WalletResponse;
+import com.example.transaction.kafka.WalletCacheInvalidationBroadcaster;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("WalletCache Tests")
+class WalletCacheTest {
+
+    @Mock
+    private ObjectProvider<WalletCacheInvalidationBroadcaster> broadcasterProvider;
+
+    @Mock
+    private WalletCacheInvalidationBroadcaster broadcaster;
+
+    private SimpleMeterRegistry meterRegistry;
+    private WalletCache walletCache;
+    private UUID userUid;
+    private UUID walletUid;
+
+    @BeforeEach
+    void setUp() {
+        AppProperties appProperties = new AppProperties();
+        appProperties.setWalletCacheTtlMs(60_000);
+        meterRegistry = new SimpleMeterRegistry();
+        walletCache = new WalletCache(appProperties, meterRegistry, broadcasterProvider);
+        lenient().doAnswer(invocation -> {
+            invocation.<Consumer<WalletCacheInvalidationBroadcaster>>getArgument(0).accept(broadcaster);
+            return null;
+        }).when(broadcasterProvider).ifAvailable(any());
+
+        userUid = UUID.randomUUID();
+        walletUid = UUID.randomUUID();
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    @DisplayName("should serve repeated reads from memory")
+    void shouldCacheWallet() {
+        AtomicInteger loads = new AtomicInteger();
+
+        walletCache.getWallet(walletUid, () -> load(loads, "10.00"));
+        WalletResponse second = walletCache.getWallet(walletUid, () -> load(loads, "20.00"));
+
+        assertThat(loads).hasValue(1);
+        assertThat(second.getBalance()).isEqualByComparingTo("10.00");
+        assertThat(requests("wallet", "hit")).isEqualTo(1.0);
+        assertThat(requests("wallet", "miss")).isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("should evict the wallet and its owner's list only after commit, and broadcast")
+    void shouldEvictAfterCommit() {
+        AtomicInteger loads = new AtomicInteger();
+        walletCache.getWallet(walletUid, () -> load(loads, "10.00"));
+        walletCache.getWalletsByUser(userUid, () -> List.of(load(loads, "10.00")));
+        TransactionSynchronizationManager.initSynchronization();
+
+        walletCache.evictAfterCommit(walletUid);
+        walletCache.getWallet(walletUid, () -> load(loads, "20.00"));
+        assertThat(loads).hasValue(2);
+
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+
+        assertThat(walletCache.getWallet(walletUid, () -> load(loads, "20.00")).getBalance())
+                .isEqualByComparingTo("20.00");
+        walletCache.getWalletsByUser(userUid, () -> List.of(load(loads, "20.00")));
+        assertThat(loads).hasValue(4);
+        verify(broadcaster).broadcast(walletUid, userUid);
+    }
+
+    @Test
+    @DisplayName("should not cache a load that raced with an eviction")
+    void shouldNotCacheRacingLoad() {
+        AtomicInteger loads = new AtomicInteger();
+
+        walletCache.getWallet(walletUid, () -> {
+            walletCache.evictRemote(walletUid, null);
+            return load(loads, "10.00");
+        });
+        walletCache.getWallet(walletUid, () -> load(loads, "20.00"));
+
+        assertThat(loads).hasValue(2);
+        verifyNoInteractions(broadcaster);
+    }
+
+    @Test
+    @DisplayName("should treat entries older than the TTL as misses")
+    void shouldExpireEntries() {
+        AppProperties appProperties = new AppProperties();
+        appProperties.setWalletCacheTtlMs(0);
+        WalletCache expiring = new WalletCache(appProperties, meterRegistry, broadcasterProvider);
+        AtomicInteger loads = new AtomicInteger();
+
+        expiring.getWallet(walletUid, () -> load(loads, "10.00"));
+        expiring.getWallet(walletUid, () -> load(loads, "10.00"));
+
+        assertThat(loads).hasValue(2);
+    }
+
+    private WalletResponse load(AtomicInteger loads, String balance) {
+        loads.incrementAndGet();
+        return WalletResponse.builder()
+                .uid(walletUid)
+                .userUid(userUid)
+                .balance(new BigDecimal(balance))
+                .build();
+    }
+
+    private double requests(String cache, String result) {
+        return meterRegistry.get("wallet_cache_requests_total")
+                .tag("cache", cache).tag("result", result).counter().count();
+    }
+}
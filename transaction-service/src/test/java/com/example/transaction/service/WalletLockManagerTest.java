@@ -0,0 +1,154 @@
+package com.example.transaction.service;
+
+import com.example.transaction.config.AppProperties;
+import com.example.transaction.exception.WalletLockTimeoutException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class WalletLockManagerTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private WalletLockManager lockManager;
+
+    @BeforeEach
+    void setUp() {
+        AppProperties appProperties = new AppProperties();
+        appProperties.setWalletLockStripes(64);
+        appProperties.setWalletLockTimeoutMs(200);
+        meterRegistry = new SimpleMeterRegistry();
+        lockManager = new WalletLockManager(appProperties, meterRegistry);
+    }
+
+    @Nested
+    @DisplayName("executeWithLock()")
+    class ExecuteWithLock {
+
+        @Test
+        @DisplayName("should round stripe count up to a power of two")
+        void shouldRoundStripeCount() {
+            AppProperties appProperties = new AppProperties();
+            appProperties.setWalletLockStripes(100);
+            WalletLockManager manager = new WalletLockManager(appProperties, new SimpleMeterRegistry());
+            assertThat(manager.stripeCount()).isEqualTo(128);
+        }
+
+        @Test
+        @DisplayName("should serialize access to the same wallet")
+        void shouldSerializeSameWallet() throws Exception {
+            UUID walletUid = UUID.randomUUID();
+            AtomicInteger inside = new AtomicInteger();
+            AtomicInteger maxInside = new AtomicInteger();
+            ExecutorService executor = Executors.newFixedThreadPool(8);
+
+            try {
+                List<Future<?>> futures = new ArrayList<>();
+                for (int i = 0; i < 50; i++) {
+                    futures.add(executor.submit(() -> lockManager.runWithLock(walletUid, () -> {
+                        maxInside.accumulateAndGet(inside.incrementAndGet(), Math::max);
+                        inside.decrementAndGet();
+                    })));
+                }
+                for (Future<?> future : futures) {
+                    future.get(5, TimeUnit.SECONDS);
+                }
+            } finally {
+                executor.shutdownNow();
+            }
+
+            assertThat(maxInside.get()).isEqualTo(1);
+            assertThat(meterRegistry.get("wallet_lock_wait_seconds").timer().count()).isEqualTo(50);
+        }
+
+        @Test
+        @DisplayName("should throw and count timeout when stripe is held too long")
+        void shouldTimeoutWhenStripeHeld() throws Exception {
+            UUID walletUid = UUID.randomUUID();
+            CountDownLatch locked = new CountDownLatch(1);
+            CountDownLatch release = new CountDownLatch(1);
+
+            Thread holder = new Thread(() -> lockManager.runWithLock(walletUid, () -> {
+                locked.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }));
+            holder.start();
+            locked.await();
+
+            try {
+                assertThatThrownBy(() -> lockManager.executeWithLock(walletUid, () -> "never"))
+                        .isInstanceOf(WalletLockTimeoutException.class)
+                        .hasMessageContaining(walletUid.toString());
+                assertThat(meterRegistry.get("wallet_lock_timeout_total").counter().count()).isEqualTo(1.0);
+            } finally {
+                release.countDown();
+                holder.join();
+            }
+        }
+    }
+
+    @Nested
+    @DisplayName("executeWithLocks()")
+    class ExecuteWithLocks {
+
+        @Test
+        @DisplayName("should not deadlock when pairs are locked in opposite order")
+        void shouldNotDeadlockOnOppositeOrder() throws Exception {
+            UUID first = UUID.randomUUID();
+            UUID second = UUID.randomUUID();
+            AtomicInteger completed = new AtomicInteger();
+            ExecutorService executor = Executors.newFixedThreadPool(8);
+
+            try {
+                List<Future<?>> futures = new ArrayList<>();
+                for (int i = 0; i < 200; i++) {
+                    List<UUID> order = i % 2 == 0 ? List.of(first, second) : List.of(second, first);
+                    futures.add(executor.submit(() ->
+                            lockManager.executeWithLocks(order, completed::incrementAndGet)));
+                }
+                for (Future<?> future : futures) {
+                    future.get(5, TimeUnit.SECONDS);
+                }
+            } finally {
+                executor.shutdownNow();
+            }
+
+            assertThat(completed.get()).isEqualTo(200);
+        }
+
+        @Test
+        @DisplayName("should release all stripes after the action fails")
+        void shouldReleaseStripesOnFailure() throws Exception {
+            UUID first = UUID.randomUUID();
+            UUID second = UUID.randomUUID();
+
+            assertThatThrownBy(() -> lockManager.executeWithLocks(List.of(first, second), () -> {
+                throw new IllegalStateException("boom");
+            })).isInstanceOf(IllegalStateException.class);
+
+            String result = CompletableFuture
+                    .supplyAsync(() -> lockManager.executeWithLocks(List.of(second, first), () -> "ok"))
+                    .get(5, TimeUnit.SECONDS);
+            assertThat(result).isEqualTo("ok");
+        }
+    }
+}
@@ -2,6 +2,7 @@ package com.example.transaction.service;
 
 import com.example.transaction.dto.CreateWalletRequest;
 import com.example.transaction.dto.WalletResponse;
+import com.example.transaction.entity.Money;
 import com.example.transaction.entity.Wallet;
 import com.example.transaction.entity.WalletType;
 import com.example.transaction.entity.enums.WalletStatus;
@@ -9,8 +10,12 @@ import com.example.transaction.exception.DuplicateWalletException;
 import com.example.transaction.exception.WalletNotFoundException;
 import com.example.transaction.exception.WalletTypeNotFoundException;
 import com.example.transaction.mapper.WalletMapper;
+import com.example.transaction.repository.WalletBalanceSlotRepository;
 import com.example.transaction.repository.WalletRepository;
 import com.example.transaction.repository.WalletTypeRepository;
+import com.example.transaction.sharding.ShardBucketTable;
+import com.example.transaction.sharding.ShardDualReader;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
@@ -26,18 +31,23 @@ import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
 @DisplayName("WalletService Tests")
 class WalletServiceTest {
 
+    private static final ShardBucketTable NOT_SHARDED = new ShardBucketTable(0, 0, null);
+
     @Mock
     private WalletRepository walletRepository;
 
@@ -47,6 +57,17 @@ class WalletServiceTest {
     @Spy
     private WalletMapper walletMapper = new WalletMapper();
 
+    @Spy
+    private ShardDualReader shardDualReader = new ShardDualReader(NOT_SHARDED, new SimpleMeterRegistry());
+
+    @Spy
+    private WalletBalanceService walletBalanceService = new WalletBalanceService(
+            mock(WalletRepository.class), mock(WalletBalanceSlotRepository.class),
+            mock(WalletCache.class), NOT_SHARDED, new SimpleMeterRegistry());
+
+    @Mock
+    private WalletCache walletCache;
+
     @InjectMocks
     private WalletService walletService;
 
@@ -74,7 +95,7 @@ class WalletServiceTest {
                 .walletType(walletType)
                 .userUid(userUid)
                 .status(WalletStatus.ACTIVE)
-                .balance(BigDecimal.valueOf(100.00))
+                .balance(Money.of(BigDecimal.valueOf(100.00)))
                 .build();
         wallet.setUid(walletUid);
         wallet.setCreatedAt(LocalDateTime.now());
@@ -117,7 +138,7 @@ class WalletServiceTest {
             assertThat(savedWallet.getName()).isEqualTo("My USD Wallet");
             assertThat(savedWallet.getUserUid()).isEqualTo(userUid);
             assertThat(savedWallet.getStatus()).isEqualTo(WalletStatus.ACTIVE);
-            assertThat(savedWallet.getBalance()).isEqualTo(BigDecimal.ZERO);
+            assertThat(savedWallet.getBalance()).isEqualByComparingTo(BigDecimal.ZERO);
         }
 
         @Test
@@ -180,7 +201,7 @@ class WalletServiceTest {
             assertThat(response).isNotNull();
             assertThat(response.getUid()).isEqualTo(walletUid);
             assertThat(response.getUserUid()).isEqualTo(userUid);
-            assertThat(response.getBalance()).isEqualTo(BigDecimal.valueOf(100.00));
+            assertThat(response.getBalance()).isEqualByComparingTo(BigDecimal.valueOf(100.00));
         }
 
         @Test
@@ -209,7 +230,7 @@ class WalletServiceTest {
                     .walletType(walletType)
                     .userUid(userUid)
                     .status(WalletStatus.ACTIVE)
-                    .balance(BigDecimal.valueOf(200.00))
+                    .balance(Money.of(BigDecimal.valueOf(200.00)))
                     .build();
             wallet2.setUid(UUID.randomUUID());
             wallet2.setCreatedAt(LocalDateTime.now());
@@ -269,4 +290,46 @@ class WalletServiceTest {
                     .isInstanceOf(WalletNotFoundException.class);
         }
     }
-}
\ No newline at end of file
+
+    @Nested
+    @DisplayName("getWalletsForUpdate")
+    class GetWalletsForUpdateTests {
+
+        @Test
+        @DisplayName("should lock all wallets in a single query")
+        void shouldLockAllWalletsInSingleQuery() {
+            // Given
+            Wallet target = Wallet.builder()
+                    .name("Target Wallet")
+                    .walletType(walletType)
+                    .userUid(UUID.randomUUID())
+                    .status(WalletStatus.ACTIVE)
+                    .balance(Money.ZERO)
+                    .build();
+            target.setUid(UUID.randomUUID());
+
+            when(walletRepository.findAllByIdForUpdate(anyCollection())).thenReturn(List.of(wallet, target));
+
+            // When
+            Map<UUID, Wallet> result = walletService.getWalletsForUpdate(List.of(target.getUid(), walletUid));
+
+            // Then
+            assertThat(result).containsOnlyKeys(walletUid, target.getUid());
+            verify(walletRepository).findAllByIdForUpdate(Set.of(walletUid, target.getUid()));
+            verify(walletRepository, never()).findByIdForUpdate(any());
+        }
+
+        @Test
+        @DisplayName("should throw WalletNotFoundException when any wallet is missing")
+        void shouldThrowWhenAnyWalletMissing() {
+            // Given
+            UUID missingUid = UUID.randomUUID();
+            when(walletRepository.findAllByIdForUpdate(anyCollection())).thenReturn(List.of(wallet));
+
+            // When & Then
+            assertThatThrownBy(() -> walletService.getWalletsForUpdate(List.of(walletUid, missingUid)))
+                    .isInstanceOf(WalletNotFoundException.class)
+                    .hasMessageContaining(missingUid.toString());
+        }
+    }
+}
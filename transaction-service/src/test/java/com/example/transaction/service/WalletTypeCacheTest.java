@@ -0,0 +1,93 @@
+package com.example.transaction.service;
+
+import com.example.transaction.entity.Wallet;
+import com.example.transaction.entity.WalletType;
+import com.example.transaction.exception.WalletTypeNotFoundException;
+import com.example.transaction.repository.WalletTypeRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("WalletTypeCache Tests")
+class WalletTypeCacheTest {
+
+    @Mock
+    private WalletTypeRepository walletTypeRepository;
+
+    @InjectMocks
+    private WalletTypeCache walletTypeCache;
+
+    private WalletType usd;
+
+    @BeforeEach
+    void setUp() {
+        usd = walletType("USD");
+    }
+
+    @Test
+    @DisplayName("should load on first miss and answer later lookups from memory")
+    void shouldReadThrough() {
+        when(walletTypeRepository.findAll()).thenReturn(List.of(usd));
+
+        assertThat(walletTypeCache.get(usd.getUid()).currencyCode()).isEqualTo("USD");
+        assertThat(walletTypeCache.get(usd.getUid()).currencyCode()).isEqualTo("USD");
+
+        verify(walletTypeRepository, times(1)).findAll();
+    }
+
+    @Test
+    @DisplayName("should pick up a type created after the last refresh")
+    void shouldReloadOnMiss() {
+        WalletType eur = walletType("EUR");
+        when(walletTypeRepository.findAll()).thenReturn(List.of(usd), List.of(usd, eur));
+        walletTypeCache.refresh();
+
+        assertThat(walletTypeCache.get(eur.getUid()).currencyCode()).isEqualTo("EUR");
+    }
+
+    @Test
+    @DisplayName("should throw for an unknown wallet type")
+    void shouldThrowWhenUnknown() {
+        when(walletTypeRepository.findAll()).thenReturn(List.of(usd));
+        UUID unknown = UUID.randomUUID();
+
+        assertThatThrownBy(() -> walletTypeCache.get(unknown))
+                .isInstanceOf(WalletTypeNotFoundException.class)
+                .hasMessageContaining(unknown.toString());
+    }
+
+    @Test
+    @DisplayName("should replace the snapshot on refresh")
+    void shouldReplaceSnapshotOnRefresh() {
+        WalletType renamed = walletType("EUR");
+        renamed.setUid(usd.getUid());
+        when(walletTypeRepository.findAll()).thenReturn(List.of(usd), List.of(renamed));
+
+        walletTypeCache.refresh();
+        walletTypeCache.refresh();
+
+        Wallet wallet = Wallet.builder().walletType(usd).build();
+        assertThat(walletTypeCache.currencyCodeOf(wallet)).isEqualTo("EUR");
+    }
+
+    private WalletType walletType(String currencyCode) {
+        WalletType walletType = WalletType.builder()
+                .name(currencyCode + " Wallet")
+                .currencyCode(currencyCode)
+                .build();
+        walletType.setUid(UUID.randomUUID());
+        return walletType;
+    }
+}
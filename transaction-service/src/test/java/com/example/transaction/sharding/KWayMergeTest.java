@@ -0,0 +1,31 @@
+package com.example.transaction.sharding;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Comparator;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("KWayMerge Tests")
+class KWayMergeTest {
+
+    @Test
+    @DisplayName("should interleave sorted inputs and stop at the limit")
+    void shouldMergeUpToLimit() {
+        List<Integer> merged = KWayMerge.merge(
+                List.of(List.of(9, 6, 3), List.of(8, 5, 2), List.of(7, 4, 1)),
+                Comparator.reverseOrder(), 5);
+
+        assertThat(merged).containsExactly(9, 8, 7, 6, 5);
+    }
+
+    @Test
+    @DisplayName("should handle empty and uneven inputs")
+    void shouldHandleEmptyInputs() {
+        assertThat(KWayMerge.merge(List.of(List.of(), List.of(1, 2, 3), List.of(2)),
+                Comparator.<Integer>naturalOrder(), 10)).containsExactly(1, 2, 2, 3);
+        assertThat(KWayMerge.merge(List.<List<Integer>>of(), Comparator.<Integer>naturalOrder(), 10)).isEmpty();
+    }
+}
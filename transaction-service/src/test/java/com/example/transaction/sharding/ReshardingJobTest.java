@@ -0,0 +1,110 @@
+package com.example.transaction.sharding;
+
+import com.example.transaction.entity.enums.ShardBucketState;
+import com.example.transaction.repository.ShardBucketRepository;
+import com.example.transaction.service.WalletLockManager;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("ReshardingJob Tests")
+class ReshardingJobTest {
+
+    private static final int BUCKET_COUNT = 1024;
+
+    @Mock
+    private ShardBucketRepository shardBucketRepository;
+
+    @Mock
+    private ShardBucketRegistry shardBucketRegistry;
+
+    @Mock
+    private WalletLockManager walletLockManager;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    private ReshardingJob job;
+
+    @BeforeEach
+    void setUp() {
+        job = spy(new ReshardingJob(shardBucketRepository, shardBucketRegistry, new ShardBucketTable(BUCKET_COUNT, 2, "ds_"),
+                walletLockManager, jdbcTemplate, new TransactionTemplate(), new SimpleMeterRegistry(), 0, 2));
+    }
+
+    @Test
+    @DisplayName("should page through the wallets of the source and move only users of moving buckets")
+    void shouldPageThroughWallets() {
+        ShardBucketMove moving = move(0);
+        ShardBucketMove done = move(10);
+        UUID first = userInBucket(0);
+        UUID other = userInBucket(2);
+        UUID last = userInBucket(0);
+        List<Object> cursors = new ArrayList<>();
+        when(jdbcTemplate.queryForList(anyString(), eq(UUID.class), any(), any())).thenAnswer(invocation -> {
+            cursors.add(invocation.getArgument(2));
+            return cursors.size() == 1 ? List.of(first, other) : List.of(last);
+        });
+        doNothing().when(job).moveUser(any(), any());
+
+        job.moveBuckets("ds_0", List.of(moving, done));
+
+        assertThat(cursors).containsExactly(new UUID(0, 0), other);
+        verify(job).moveUser(moving, first);
+        verify(job).moveUser(moving, last);
+        verify(job, never()).moveUser(any(), eq(other));
+        verify(shardBucketRegistry).completeMove(10);
+        verify(shardBucketRegistry, never()).completeMove(0);
+    }
+
+    @Test
+    @DisplayName("should skip the rest of a bucket after a failed user and not complete it")
+    void shouldSkipFailedBucket() {
+        ShardBucketMove moving = move(0);
+        UUID first = userInBucket(0);
+        UUID second = userInBucket(0);
+        when(jdbcTemplate.queryForList(anyString(), eq(UUID.class), any(), any()))
+                .thenReturn(List.of(first, second), List.of());
+        doThrow(new IllegalStateException("target down")).when(job).moveUser(moving, first);
+
+        job.moveBuckets("ds_0", List.of(moving));
+
+        verify(job, never()).moveUser(moving, second);
+        verify(shardBucketRegistry, never()).completeMove(0);
+    }
+
+    private static ShardBucketMove move(int bucket) {
+        return new ShardBucketMove(bucket, "ds_0", "ds_2", ShardBucketState.MOVING);
+    }
+
+    private static UUID userInBucket(int bucket) {
+        while (true) {
+            UUID userUid = UUID.randomUUID();
+            if (UserBucketRouting.bucketOf(userUid, BUCKET_COUNT) == bucket) {
+                return userUid;
+            }
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package com.example.transaction.sharding;
+
+import com.example.transaction.entity.ShardBucket;
+import com.example.transaction.entity.enums.ShardBucketState;
+import com.example.transaction.exception.ShardBucketMoveException;
+import com.example.transaction.repository.ShardBucketRepository;
+import org.apache.shardingsphere.infra.hint.HintManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.BadSqlGrammarException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("ShardBucketRegistry Tests")
+class ShardBucketRegistryTest {
+
+    @Mock
+    private ShardBucketRepository shardBucketRepository;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    private ShardBucketRegistry registry;
+
+    @BeforeEach
+    void setUp() {
+        registry = new ShardBucketRegistry(shardBucketRepository, new ShardBucketTable(1024, 2, "ds_"), jdbcTemplate);
+    }
+
+    @Test
+    @DisplayName("should start a move from the default data source after probing the target")
+    void shouldStartMove() {
+        List<String> probed = new ArrayList<>();
+        when(shardBucketRepository.findById(7)).thenReturn(Optional.empty());
+        when(jdbcTemplate.queryForObject(anyString(), eq(Long.class))).thenAnswer(invocation -> {
+            probed.add(HintManager.getDataSourceName().orElse("routed"));
+            return 0L;
+        });
+        when(shardBucketRepository.saveAndFlush(any())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        ShardBucket move = registry.startMove(7, "ds_2");
+
+        assertThat(move.getSourceDataSource()).isEqualTo("ds_1");
+        assertThat(move.getTargetDataSource()).isEqualTo("ds_2");
+        assertThat(move.getState()).isEqualTo(ShardBucketState.MOVING);
+        assertThat(probed).containsExactly("ds_2");
+        assertThat(HintManager.isInstantiated()).isFalse();
+    }
+
+    @Test
+    @DisplayName("should reject buckets out of range and moves onto the current data source")
+    void shouldRejectInvalidMoves() {
+        assertThatThrownBy(() -> registry.startMove(-1, "ds_1")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> registry.startMove(1024, "ds_1")).isInstanceOf(IllegalArgumentException.class);
+
+        when(shardBucketRepository.findById(6)).thenReturn(Optional.empty());
+        assertThatThrownBy(() -> registry.startMove(6, "ds_0"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("already lives on ds_0");
+        verify(shardBucketRepository, never()).saveAndFlush(any());
+    }
+
+    @Test
+    @DisplayName("should move a bucket to a data source configured before its source")
+    void shouldMoveToEarlierDataSource() {
+        when(shardBucketRepository.findById(6)).thenReturn(Optional.of(ShardBucket.builder()
+                .bucket(6)
+                .sourceDataSource("ds_0")
+                .targetDataSource("ds_3")
+                .state(ShardBucketState.MOVED)
+                .build()));
+        when(jdbcTemplate.queryForObject(anyString(), eq(Long.class))).thenReturn(0L);
+        when(shardBucketRepository.saveAndFlush(any())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        ShardBucket move = registry.startMove(6, "ds_2");
+
+        assertThat(move.getSourceDataSource()).isEqualTo("ds_3");
+        assertThat(move.getTargetDataSource()).isEqualTo("ds_2");
+    }
+
+    @Test
+    @DisplayName("should reject a target ShardingSphere does not know")
+    void shouldRejectUnknownDataSource() {
+        when(shardBucketRepository.findById(7)).thenReturn(Optional.empty());
+        when(jdbcTemplate.queryForObject(anyString(), eq(Long.class)))
+                .thenThrow(new BadSqlGrammarException("probe", "SELECT", new SQLException("unknown ds_9")));
+
+        assertThatThrownBy(() -> registry.startMove(7, "ds_9"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("ds_9");
+        verify(shardBucketRepository, never()).saveAndFlush(any());
+    }
+
+    @Test
+    @DisplayName("should refuse a bucket that is still moving")
+    void shouldRejectBucketStillMoving() {
+        when(shardBucketRepository.findById(7)).thenReturn(Optional.of(ShardBucket.builder()
+                .bucket(7)
+                .sourceDataSource("ds_1")
+                .targetDataSource("ds_2")
+                .state(ShardBucketState.MOVING)
+                .build()));
+
+        assertThatThrownBy(() -> registry.startMove(7, "ds_3"))
+                .isInstanceOf(ShardBucketMoveException.class)
+                .hasMessageContaining("ds_2");
+    }
+}
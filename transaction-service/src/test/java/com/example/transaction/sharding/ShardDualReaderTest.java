@@ -0,0 +1,105 @@
+package com.example.transaction.sharding;
+
+import com.example.transaction.entity.enums.ShardBucketState;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.shardingsphere.infra.hint.HintManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("ShardDualReader Tests")
+class ShardDualReaderTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private ShardBucketTable table;
+    private ShardDualReader dualReader;
+    private UUID userUid;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        table = new ShardBucketTable(1024, 2, "ds_");
+        dualReader = new ShardDualReader(table, meterRegistry);
+        userUid = UUID.randomUUID();
+    }
+
+    @Test
+    @DisplayName("should read once when the user's bucket is not moving")
+    void shouldReadOnceOutsideOfMove() {
+        List<String> calls = new ArrayList<>();
+
+        List<Row> rows = dualReader.readAll(userUid, recording(calls, List.of(new Row(UUID.randomUUID(), "a"))), Row::uid);
+
+        assertThat(rows).hasSize(1);
+        assertThat(calls).containsExactly("routed");
+        assertThat(dualReads()).isZero();
+    }
+
+    @Test
+    @DisplayName("should merge target and source rows by uid, the target copy winning")
+    void shouldMergeBothSidesDuringMove() {
+        startMove("ds_0", "ds_1");
+        UUID copied = UUID.randomUUID();
+        UUID notCopied = UUID.randomUUID();
+
+        List<Row> rows = dualReader.readAll(userUid, () -> HintManager.getDataSourceName().isPresent()
+                        ? List.of(new Row(copied, "source"), new Row(notCopied, "source"))
+                        : List.of(new Row(copied, "target")),
+                Row::uid);
+
+        assertThat(rows).containsExactly(new Row(copied, "target"), new Row(notCopied, "source"));
+        assertThat(dualReads()).isEqualTo(1.0);
+        assertThat(HintManager.isInstantiated()).isFalse();
+    }
+
+    @Test
+    @DisplayName("should keep the first rows of a merged sorted page")
+    void shouldMergeSortedPages() {
+        startMove("ds_0", "ds_1");
+
+        List<Row> rows = dualReader.readSorted(userUid, () -> HintManager.getDataSourceName().isPresent()
+                        ? List.of(new Row(UUID.randomUUID(), "b"), new Row(UUID.randomUUID(), "d"))
+                        : List.of(new Row(UUID.randomUUID(), "a"), new Row(UUID.randomUUID(), "c")),
+                Row::uid, Comparator.comparing(Row::value), 3);
+
+        assertThat(rows).extracting(Row::value).containsExactly("a", "b", "c");
+    }
+
+    @Test
+    @DisplayName("should check the source only when the target has no match")
+    void shouldFallBackForExists() {
+        startMove("ds_0", "ds_1");
+
+        assertThat(dualReader.exists(userUid, () -> HintManager.getDataSourceName().isPresent())).isTrue();
+        assertThat(dualReader.exists(userUid, () -> true)).isTrue();
+        assertThat(dualReads()).isEqualTo(1.0);
+    }
+
+    private void startMove(String source, String target) {
+        int bucket = UserBucketRouting.bucketOf(userUid, table.bucketCount());
+        table.replace(Map.of(bucket, new ShardBucketMove(bucket, source, target, ShardBucketState.MOVING)));
+    }
+
+    private Supplier<List<Row>> recording(List<String> calls, List<Row> rows) {
+        return () -> {
+            calls.add(HintManager.getDataSourceName().orElse("routed"));
+            return rows;
+        };
+    }
+
+    private double dualReads() {
+        return meterRegistry.get("shard_dual_reads_total").counter().count();
+    }
+
+    private record Row(UUID uid, String value) {
+    }
+}
@@ -0,0 +1,85 @@
+package com.example.transaction.sharding;
+
+import com.example.transaction.exception.ShardSearchException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.shardingsphere.infra.hint.HintManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("ShardScatterGather Tests")
+class ShardScatterGatherTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private ShardScatterGather scatterGather;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @AfterEach
+    void tearDown() {
+        scatterGather.shutdown();
+    }
+
+    @Test
+    @DisplayName("should run the query once on the caller's thread when not sharded")
+    void shouldRunDirectlyWithoutShards() {
+        scatterGather = scatterGather(new ShardBucketTable(0, 0, null));
+        Thread caller = Thread.currentThread();
+
+        List<Integer> rows = scatterGather.searchAll(() -> {
+            assertThat(Thread.currentThread()).isSameAs(caller);
+            return List.of(1, 2);
+        }, Comparator.naturalOrder(), 10);
+
+        assertThat(rows).containsExactly(1, 2);
+    }
+
+    @Test
+    @DisplayName("should query each shard pinned to it and merge the pages")
+    void shouldMergeShardPages() {
+        scatterGather = scatterGather(new ShardBucketTable(1024, 2, "ds_"));
+        Map<String, List<Integer>> pages = Map.of("ds_0", List.of(9, 5, 1), "ds_1", List.of(8, 7, 2));
+
+        List<Integer> rows = scatterGather.searchAll(
+                () -> pages.get(HintManager.getDataSourceName().orElseThrow()),
+                Comparator.reverseOrder(), 4);
+
+        assertThat(rows).containsExactly(9, 8, 7, 5);
+        assertThat(meterRegistry.get("shard_search_seconds").tag("shard", "ds_0").timer().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("shard_search_seconds").tag("shard", "ds_1").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("should fail the search when a shard does not answer in time")
+    void shouldTimeOutSlowShard() {
+        scatterGather = scatterGather(new ShardBucketTable(1024, 2, "ds_"));
+
+        assertThatThrownBy(() -> scatterGather.searchAll(() -> {
+            if (HintManager.getDataSourceName().orElseThrow().equals("ds_1")) {
+                try {
+                    Thread.sleep(5_000);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            return List.of(1);
+        }, Comparator.<Integer>naturalOrder(), 10))
+                .isInstanceOf(ShardSearchException.class)
+                .hasMessageContaining("ds_1");
+    }
+
+    private ShardScatterGather scatterGather(ShardBucketTable table) {
+        return new ShardScatterGather(table, meterRegistry, 4, 500);
+    }
+}
@@ -0,0 +1,122 @@
+package com.example.transaction.sharding;
+
+import com.example.transaction.entity.enums.ShardBucketState;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.shardingsphere.infra.hint.HintManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("ShardWriteRouter Tests")
+class ShardWriteRouterTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    private SimpleMeterRegistry meterRegistry;
+    private ShardBucketTable table;
+    private UserBucketShardingAlgorithm algorithm;
+    private ShardWriteRouter router;
+    private UUID userUid;
+    private UUID walletUid;
+
+    @BeforeEach
+    void setUp() {
+        algorithm = new UserBucketShardingAlgorithm();
+        algorithm.init(new Properties());
+        table = new ShardBucketTable(1024, 2, "ds_");
+        algorithm.bind(table);
+        meterRegistry = new SimpleMeterRegistry();
+        router = new ShardWriteRouter(table, jdbcTemplate, meterRegistry);
+        userUid = UUID.randomUUID();
+        walletUid = UUID.randomUUID();
+        TransactionSynchronizationManager.initSynchronization();
+    }
+
+    @AfterEach
+    void tearDown() {
+        TransactionSynchronizationManager.getSynchronizations().forEach(sync -> sync.afterCompletion(
+                TransactionSynchronization.STATUS_ROLLED_BACK));
+        TransactionSynchronizationManager.clearSynchronization();
+    }
+
+    @Test
+    @DisplayName("should not query anything when the user's bucket is not moving")
+    void shouldSkipOutsideOfMove() {
+        router.followWallet(userUid, walletUid);
+
+        verifyNoInteractions(jdbcTemplate);
+        assertThat(TransactionSynchronizationManager.getSynchronizations()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("should keep the user's writes on the source until the transaction completes")
+    void shouldPinToSourceWhileWalletIsThere() {
+        startMove("ds_0", "ds_1");
+        List<String> queriedOn = new ArrayList<>();
+        when(jdbcTemplate.queryForObject(anyString(), eq(Long.class), eq(walletUid))).thenAnswer(invocation -> {
+            queriedOn.add(HintManager.getDataSourceName().orElse("routed"));
+            return 1L;
+        });
+
+        router.followWallet(userUid, walletUid);
+        router.followWallet(userUid, walletUid);
+
+        assertThat(queriedOn).containsExactly("ds_0", "ds_0");
+        assertThat(HintManager.isInstantiated()).isFalse();
+        assertThat(algorithm.dataSourceOf(userUid)).isEqualTo("ds_0");
+        assertThat(sourceWrites()).isEqualTo(1.0);
+
+        complete();
+
+        assertThat(algorithm.dataSourceOf(userUid)).isEqualTo("ds_1");
+    }
+
+    @Test
+    @DisplayName("should route to the target once the wallet has been moved")
+    void shouldRouteToTargetAfterWalletMoved() {
+        startMove("ds_0", "ds_1");
+        when(jdbcTemplate.queryForObject(anyString(), eq(Long.class), eq(walletUid))).thenReturn(0L);
+
+        router.followWallet(userUid, walletUid);
+
+        assertThat(algorithm.dataSourceOf(userUid)).isEqualTo("ds_1");
+        assertThat(TransactionSynchronizationManager.getSynchronizations()).isEmpty();
+        assertThat(sourceWrites()).isZero();
+    }
+
+    private void startMove(String source, String target) {
+        int bucket = UserBucketRouting.bucketOf(userUid, table.bucketCount());
+        table.replace(Map.of(bucket, new ShardBucketMove(bucket, source, target, ShardBucketState.MOVING)));
+    }
+
+    private void complete() {
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        TransactionSynchronizationManager.initSynchronization();
+        synchronizations.forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+    }
+
+    private double sourceWrites() {
+        return meterRegistry.get("shard_source_writes_total").counter().count();
+    }
+}
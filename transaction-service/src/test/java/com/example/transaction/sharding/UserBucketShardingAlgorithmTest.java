@@ -0,0 +1,156 @@
+package com.example.transaction.sharding;
+
+import com.example.transaction.entity.enums.ShardBucketState;
+import org.apache.shardingsphere.sharding.api.sharding.standard.PreciseShardingValue;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("UserBucketShardingAlgorithm Tests")
+class UserBucketShardingAlgorithmTest {
+
+    private static final List<String> TWO_SHARDS = List.of("ds_0", "ds_1");
+
+    private final Map<Integer, ShardBucketMove> movedBuckets = new HashMap<>();
+
+    private ShardBucketTable table;
+    private UserBucketShardingAlgorithm algorithm;
+
+    @BeforeEach
+    void setUp() {
+        algorithm = algorithm(1024, 2);
+        table = new ShardBucketTable(1024, 2, "ds_");
+        algorithm.bind(table);
+    }
+
+    @Test
+    @DisplayName("should keep buckets non-negative for hashes at Integer/Long MIN_VALUE")
+    void shouldNeverProduceNegativeBucket() {
+        UUID minHash = new UUID(0x8000_0000L, 0L);
+        assertThat(minHash.hashCode()).isEqualTo(Integer.MIN_VALUE);
+        assertThat(Math.abs(minHash.hashCode())).isNegative();
+
+        assertThat(UserBucketRouting.bucketOf(minHash, 1024)).isBetween(0, 1023);
+        assertThat(UserBucketRouting.bucketOf(new UUID(Long.MIN_VALUE, 0L), 1024)).isBetween(0, 1023);
+        assertThat(route(minHash)).isIn(TWO_SHARDS);
+    }
+
+    @Test
+    @DisplayName("should route the same user identically for UUID and String values")
+    void shouldRouteStringAndUuidAlike() {
+        UUID userUid = UUID.randomUUID();
+
+        assertThat(algorithm.doSharding(TWO_SHARDS, value(userUid.toString()))).isEqualTo(route(userUid));
+    }
+
+    @Test
+    @DisplayName("should keep every user where the old INLINE rule placed them")
+    void shouldMatchLegacyInlinePlacement() {
+        UUID minHash = new UUID(0x8000_0000L, 0L);
+        for (UUID userUid : Stream.concat(Stream.of(minHash), randomUsers(10_000).stream()).toList()) {
+            assertThat(route(userUid)).isEqualTo("ds_" + Math.abs(userUid.hashCode()) % 2);
+        }
+    }
+
+    @Test
+    @DisplayName("should spread users evenly across data sources")
+    void shouldSpreadUsersEvenly() {
+        int[] perShard = new int[2];
+        for (int i = 0; i < 20_000; i++) {
+            perShard[route(UUID.randomUUID()).equals("ds_0") ? 0 : 1]++;
+        }
+
+        assertThat(perShard[0]).isBetween(9_000, 11_000);
+        assertThat(perShard[1]).isBetween(9_000, 11_000);
+    }
+
+    @Test
+    @DisplayName("should remap only the users of moved buckets when a data source is added")
+    void shouldRemapOnlyMovedBuckets() {
+        // Grow 2 -> 3: move every third bucket to ds_2, as an operator would
+        for (int bucket = 0; bucket < 1024; bucket += 3) {
+            movedBuckets.put(bucket, new ShardBucketMove(bucket,
+                    table.defaultDataSourceOf(bucket), "ds_2", ShardBucketState.MOVED));
+        }
+        List<UUID> users = randomUsers(10_000);
+        Map<UUID, String> before = routes(users, List.of());
+        Map<UUID, String> after = routes(users, List.of("ds_2"));
+
+        long remapped = users.stream().filter(u -> !before.get(u).equals(after.get(u))).count();
+        long expected = users.stream()
+                .filter(u -> UserBucketRouting.bucketOf(u, 1024) % 3 == 0)
+                .count();
+        assertThat(remapped).isEqualTo(expected);
+        assertThat(remapped).isLessThan(users.size() / 2);
+    }
+
+    @Test
+    @DisplayName("should route a moving bucket to its target")
+    void shouldRouteMovingBucketToTarget() {
+        UUID userUid = UUID.randomUUID();
+        int bucket = UserBucketRouting.bucketOf(userUid, 1024);
+        String source = route(userUid);
+        String target = source.equals("ds_0") ? "ds_1" : "ds_0";
+
+        table.replace(Map.of(bucket, new ShardBucketMove(bucket, source, target, ShardBucketState.MOVING)));
+
+        assertThat(route(userUid)).isEqualTo(target);
+        assertThat(table.movingBucketOf(userUid)).isPresent();
+    }
+
+    @Test
+    @DisplayName("should reject invalid props and unknown targets")
+    void shouldRejectInvalidConfiguration() {
+        assertThatThrownBy(() -> algorithm(2, 4)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> algorithm(1024, 3)).isInstanceOf(IllegalArgumentException.class);
+        UserBucketShardingAlgorithm fourShards = algorithm(1024, 4);
+        UUID userOnThirdShard = Stream.generate(UUID::randomUUID)
+                .filter(u -> fourShards.dataSourceOf(u).equals("ds_2"))
+                .findFirst()
+                .orElseThrow();
+
+        assertThatThrownBy(() -> fourShards.doSharding(TWO_SHARDS, value(userOnThirdShard)))
+                .isInstanceOf(IllegalStateException.class);
+    }
+
+    private Map<UUID, String> routes(List<UUID> users, List<String> extraShards) {
+        table.replace(extraShards.isEmpty() ? Map.of() : movedBuckets);
+        List<String> shards = new ArrayList<>(TWO_SHARDS);
+        shards.addAll(extraShards);
+        Map<UUID, String> routes = new HashMap<>();
+        users.forEach(u -> routes.put(u, algorithm.doSharding(shards, value(u))));
+        return routes;
+    }
+
+    private String route(UUID userUid) {
+        return algorithm.doSharding(TWO_SHARDS, value(userUid));
+    }
+
+    private static List<UUID> randomUsers(int count) {
+        return Stream.generate(UUID::randomUUID).limit(count).toList();
+    }
+
+    private static PreciseShardingValue<Comparable<?>> value(Comparable<?> userUid) {
+        return new PreciseShardingValue<>("wallets", "user_uid", null, userUid);
+    }
+
+    private static UserBucketShardingAlgorithm algorithm(int bucketCount, int dataSourceCount) {
+        Properties props = new Properties();
+        props.setProperty("bucket-count", String.valueOf(bucketCount));
+        props.setProperty("data-source-count", String.valueOf(dataSourceCount));
+        UserBucketShardingAlgorithm algorithm = new UserBucketShardingAlgorithm();
+        algorithm.init(props);
+        return algorithm;
+    }
+}
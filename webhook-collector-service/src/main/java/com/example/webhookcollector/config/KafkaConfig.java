@@ -1,10 +1,24 @@
 package com.example.webhookcollector.config;
 
+import com.example.webhookcollector.kafka.codec.EventFormat;
+import com.example.webhookcollector.kafka.codec.PaymentStatusUpdatedEventCodec;
 import org.apache.kafka.clients.admin.NewTopic;
+import org.apache.kafka.common.serialization.Serializer;
+import org.apache.kafka.common.serialization.StringSerializer;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.kafka.KafkaProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.kafka.config.TopicBuilder;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.core.ProducerFactory;
+import org.springframework.kafka.support.serializer.DelegatingByTopicSerializer;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.regex.Pattern;
 
 @Configuration
 public class KafkaConfig {
@@ -12,6 +26,9 @@ public class KafkaConfig {
     @Value("${kafka.topics.payment-status-updated}")
     private String paymentStatusUpdatedTopic;
 
+    @Value("${kafka.topics.payment-status-updated-format:json}")
+    private EventFormat paymentStatusUpdatedFormat;
+
     @Value("${kafka.topics.partitions:3}")
     private int partitions;
 
@@ -25,4 +42,25 @@ public class KafkaConfig {
                 .replicas(replicas)
                 .build();
     }
-}
\ No newline at end of file
+
+    /**
+     * Values are JSON unless the topic is switched to the binary codec; Kafka serializers
+     * are picked by topic, so further topics only need another entry.
+     */
+    @Bean
+    public ProducerFactory<String, Object> producerFactory(KafkaProperties kafkaProperties) {
+        Map<Pattern, Serializer<?>> byTopic = new LinkedHashMap<>();
+        if (paymentStatusUpdatedFormat == EventFormat.BINARY) {
+            byTopic.put(Pattern.compile(Pattern.quote(paymentStatusUpdatedTopic)), new PaymentStatusUpdatedEventCodec());
+        }
+        Serializer<Object> json = new JsonSerializer<>().noTypeInfo();
+
+        return new DefaultKafkaProducerFactory<>(kafkaProperties.buildProducerProperties(null),
+                new StringSerializer(), new DelegatingByTopicSerializer(byTopic, json));
+    }
+
+    @Bean
+    public KafkaTemplate<String, Object> kafkaTemplate(ProducerFactory<String, Object> producerFactory) {
+        return new KafkaTemplate<>(producerFactory);
+    }
+}
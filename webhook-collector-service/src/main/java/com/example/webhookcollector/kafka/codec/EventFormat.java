@@ -0,0 +1,11 @@
+package com.example.webhookcollector.kafka.codec;
+
+/**
+ * Wire format of a Kafka topic's values.
+ */
+public enum EventFormat {
+    /** Jackson JSON, as written by Spring Kafka's {@code JsonSerializer} */
+    JSON,
+    /** {@link PaymentStatusUpdatedEventCodec} */
+    BINARY
+}
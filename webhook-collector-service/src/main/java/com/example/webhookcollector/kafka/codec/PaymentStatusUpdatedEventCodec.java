@@ -0,0 +1,175 @@
+package com.example.webhookcollector.kafka.codec;
+
+import com.example.webhookcollector.kafka.event.PaymentStatusUpdatedEvent;
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.serialization.Serializer;
+
+import java.nio.charset.StandardCharsets;
+import java.time.DateTimeException;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.UUID;
+
+/**
+ * Compact binary encoding of {@link PaymentStatusUpdatedEvent}, same framing as the
+ * transaction-service event codec:
+ * <pre>
+ * byte    magic 0xC1 (never valid UTF-8, so it cannot start a JSON payload)
+ * byte    schema version
+ * byte    event type
+ * varint  presence bits, bit i set = field i is not null
+ * fields  eventId, timestamp, providerTransactionUid, type, provider, status; absent ones skipped
+ * </pre>
+ * UUIDs take 16 bytes, the timestamp is UTC epoch seconds plus nanos (zigzag/plain varints),
+ * strings are length-prefixed UTF-8. New fields are only appended; any other change bumps
+ * {@link #VERSION}.
+ */
+public final class PaymentStatusUpdatedEventCodec implements Serializer<PaymentStatusUpdatedEvent> {
+
+    public static final byte MAGIC = (byte) 0xC1;
+    public static final byte VERSION = 1;
+
+    private static final byte PAYMENT_STATUS_UPDATED = 1;
+
+    @Override
+    public byte[] serialize(String topic, PaymentStatusUpdatedEvent event) {
+        return event != null ? encode(event) : null;
+    }
+
+    public static byte[] encode(PaymentStatusUpdatedEvent event) {
+        byte[][] strings = {utf8(event.getType()), utf8(event.getProvider()), utf8(event.getStatus())};
+        long presence = bit(0, event.getEventId()) | bit(1, event.getTimestamp())
+                | bit(2, event.getProviderTransactionUid());
+        int size = 3 + 10 + 16 + 20 + 16;
+        for (int i = 0; i < strings.length; i++) {
+            if (strings[i] != null) {
+                presence |= 1L << (3 + i);
+                size += 5 + strings[i].length;
+            }
+        }
+
+        byte[] buf = new byte[size];
+        int pos = 0;
+        buf[pos++] = MAGIC;
+        buf[pos++] = VERSION;
+        buf[pos++] = PAYMENT_STATUS_UPDATED;
+        pos = writeVarlong(buf, pos, presence);
+        pos = writeUuid(buf, pos, event.getEventId());
+        if (event.getTimestamp() != null) {
+            long seconds = event.getTimestamp().toEpochSecond(ZoneOffset.UTC);
+            pos = writeVarlong(buf, pos, (seconds << 1) ^ (seconds >> 63));
+            pos = writeVarlong(buf, pos, event.getTimestamp().getNano());
+        }
+        pos = writeUuid(buf, pos, event.getProviderTransactionUid());
+        for (byte[] string : strings) {
+            if (string != null) {
+                pos = writeVarlong(buf, pos, string.length);
+                System.arraycopy(string, 0, buf, pos, string.length);
+                pos += string.length;
+            }
+        }
+        return Arrays.copyOf(buf, pos);
+    }
+
+    public static PaymentStatusUpdatedEvent decode(byte[] data) {
+        try {
+            if (data[0] != MAGIC) {
+                throw new SerializationException("Not a binary event");
+            }
+            if (data[1] != VERSION) {
+                throw new SerializationException("Unsupported binary event version " + data[1]);
+            }
+            if (data[2] != PAYMENT_STATUS_UPDATED) {
+                throw new SerializationException("Unknown binary event type " + data[2]);
+            }
+            int[] pos = {3};
+            long presence = readVarlong(data, pos);
+
+            PaymentStatusUpdatedEvent event = new PaymentStatusUpdatedEvent();
+            if ((presence & 1) != 0) {
+                event.setEventId(readUuid(data, pos));
+            }
+            if ((presence & 2) != 0) {
+                long zigzag = readVarlong(data, pos);
+                event.setTimestamp(LocalDateTime.ofEpochSecond(
+                        (zigzag >>> 1) ^ -(zigzag & 1), (int) readVarlong(data, pos), ZoneOffset.UTC));
+            }
+            if ((presence & 4) != 0) {
+                event.setProviderTransactionUid(readUuid(data, pos));
+            }
+            event.setType((presence & 8) != 0 ? readString(data, pos) : null);
+            event.setProvider((presence & 16) != 0 ? readString(data, pos) : null);
+            event.setStatus((presence & 32) != 0 ? readString(data, pos) : null);
+            return event;
+        } catch (ArrayIndexOutOfBoundsException | DateTimeException e) {
+            throw new SerializationException("Malformed binary event", e);
+        }
+    }
+
+    private static long bit(int field, Object value) {
+        return value != null ? 1L << field : 0;
+    }
+
+    private static byte[] utf8(String value) {
+        return value != null ? value.getBytes(StandardCharsets.UTF_8) : null;
+    }
+
+    private static int writeUuid(byte[] buf, int pos, UUID value) {
+        if (value == null) {
+            return pos;
+        }
+        pos = writeLong(buf, pos, value.getMostSignificantBits());
+        return writeLong(buf, pos, value.getLeastSignificantBits());
+    }
+
+    private static int writeLong(byte[] buf, int pos, long value) {
+        for (int shift = 56; shift >= 0; shift -= 8) {
+            buf[pos++] = (byte) (value >>> shift);
+        }
+        return pos;
+    }
+
+    private static int writeVarlong(byte[] buf, int pos, long value) {
+        while ((value & ~0x7FL) != 0) {
+            buf[pos++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        buf[pos++] = (byte) value;
+        return pos;
+    }
+
+    private static UUID readUuid(byte[] data, int[] pos) {
+        return new UUID(readLong(data, pos), readLong(data, pos));
+    }
+
+    private static long readLong(byte[] data, int[] pos) {
+        long value = 0;
+        for (int i = 0; i < 8; i++) {
+            value = (value << 8) | (data[pos[0]++] & 0xFF);
+        }
+        return value;
+    }
+
+    private static long readVarlong(byte[] data, int[] pos) {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            byte b = data[pos[0]++];
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new SerializationException("Malformed varint");
+    }
+
+    private static String readString(byte[] data, int[] pos) {
+        int length = (int) readVarlong(data, pos);
+        if (length < 0 || length > data.length - pos[0]) {
+            throw new SerializationException("Invalid string length " + length);
+        }
+        String value = new String(data, pos[0], length, StandardCharsets.UTF_8);
+        pos[0] += length;
+        return value;
+    }
+}
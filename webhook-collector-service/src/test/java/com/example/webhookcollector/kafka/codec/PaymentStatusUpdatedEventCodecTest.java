@@ -0,0 +1,83 @@
+package com.example.webhookcollector.kafka.codec;
+
+import com.example.webhookcollector.kafka.event.PaymentStatusUpdatedEvent;
+import org.apache.kafka.common.errors.SerializationException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PaymentStatusUpdatedEventCodecTest {
+
+    private final PaymentStatusUpdatedEventCodec codec = new PaymentStatusUpdatedEventCodec();
+
+    @Test
+    @DisplayName("encode/decode — все поля восстанавливаются без потерь")
+    void roundTrip_allFields() {
+        PaymentStatusUpdatedEvent event = PaymentStatusUpdatedEvent.builder()
+                .eventId(UUID.randomUUID())
+                .timestamp(LocalDateTime.of(2026, 10, 17, 14, 3, 59, 123_456_789))
+                .providerTransactionUid(UUID.randomUUID())
+                .type("PAYMENT_STATUS_UPDATED")
+                .provider("fake-provider")
+                .status("SUCCESS")
+                .build();
+
+        byte[] encoded = codec.serialize("payment.status.updated", event);
+
+        assertThat(encoded[0]).isEqualTo(PaymentStatusUpdatedEventCodec.MAGIC);
+        assertThat(PaymentStatusUpdatedEventCodec.decode(encoded)).isEqualTo(event);
+    }
+
+    @Test
+    @DisplayName("encode/decode — null-поля остаются null")
+    void roundTrip_nullFields() {
+        PaymentStatusUpdatedEvent event = PaymentStatusUpdatedEvent.builder()
+                .eventId(UUID.randomUUID())
+                .status("FAILED")
+                .build();
+
+        assertThat(PaymentStatusUpdatedEventCodec.decode(PaymentStatusUpdatedEventCodec.encode(event)))
+                .isEqualTo(event);
+    }
+
+    @Test
+    @DisplayName("binary — меньше половины размера JSON")
+    void binary_isSmallerThanJson() {
+        PaymentStatusUpdatedEvent event = PaymentStatusUpdatedEvent.builder()
+                .eventId(UUID.randomUUID())
+                .timestamp(LocalDateTime.now())
+                .providerTransactionUid(UUID.randomUUID())
+                .type("PAYMENT_STATUS_UPDATED")
+                .provider("fake-provider")
+                .status("SUCCESS")
+                .build();
+
+        try (JsonSerializer<PaymentStatusUpdatedEvent> json = new JsonSerializer<PaymentStatusUpdatedEvent>().noTypeInfo()) {
+            assertThat(codec.serialize("payment.status.updated", event).length * 2)
+                    .isLessThan(json.serialize("payment.status.updated", event).length);
+        }
+    }
+
+    @Test
+    @DisplayName("decode — неизвестная версия или обрезанные данные → SerializationException")
+    void decode_malformed_throws() {
+        byte[] encoded = PaymentStatusUpdatedEventCodec.encode(PaymentStatusUpdatedEvent.builder()
+                .eventId(UUID.randomUUID())
+                .status("SUCCESS")
+                .build());
+
+        byte[] newer = encoded.clone();
+        newer[1] = (byte) (PaymentStatusUpdatedEventCodec.VERSION + 1);
+        assertThatThrownBy(() -> PaymentStatusUpdatedEventCodec.decode(newer))
+                .isInstanceOf(SerializationException.class);
+        assertThatThrownBy(() -> PaymentStatusUpdatedEventCodec.decode(Arrays.copyOf(encoded, encoded.length - 2)))
+                .isInstanceOf(SerializationException.class);
+    }
+}